@@ -0,0 +1,69 @@
+/*
+ * Copyright 2000-2020 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.benchmark;
+
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import com.vaadin.flow.server.VaadinContext;
+
+/**
+ * In-memory {@link VaadinContext} used by {@link BenchmarkVaadinService}.
+ *
+ * @author Vaadin Ltd
+ * @since 6.0
+ */
+public class BenchmarkVaadinContext implements VaadinContext {
+
+    private final Map<String, Object> attributes = new ConcurrentHashMap<>();
+
+    @Override
+    public <T> T getAttribute(Class<T> type, Supplier<T> defaultValueSupplier) {
+        Object result = attributes.get(type.getName());
+        if (result == null && defaultValueSupplier != null) {
+            result = attributes.computeIfAbsent(type.getName(),
+                    key -> defaultValueSupplier.get());
+        }
+        return type.cast(result);
+    }
+
+    @Override
+    public <T> void setAttribute(Class<T> clazz, T value) {
+        if (value == null) {
+            removeAttribute(clazz);
+        } else {
+            attributes.put(clazz.getName(), value);
+        }
+    }
+
+    @Override
+    public void removeAttribute(Class<?> clazz) {
+        attributes.remove(clazz.getName());
+    }
+
+    @Override
+    public Enumeration<String> getContextParameterNames() {
+        return Collections.emptyEnumeration();
+    }
+
+    @Override
+    public String getContextParameter(String name) {
+        return null;
+    }
+}
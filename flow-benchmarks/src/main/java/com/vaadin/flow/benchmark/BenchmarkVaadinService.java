@@ -0,0 +1,173 @@
+/*
+ * Copyright 2000-2020 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.benchmark;
+
+import java.io.InputStream;
+import java.net.URL;
+import java.util.Collections;
+import java.util.Properties;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import com.vaadin.flow.function.DeploymentConfiguration;
+import com.vaadin.flow.server.Constants;
+import com.vaadin.flow.server.DefaultDeploymentConfiguration;
+import com.vaadin.flow.server.DependencyFilter;
+import com.vaadin.flow.server.PwaRegistry;
+import com.vaadin.flow.server.RouteRegistry;
+import com.vaadin.flow.server.VaadinContext;
+import com.vaadin.flow.server.VaadinRequest;
+import com.vaadin.flow.server.VaadinService;
+import com.vaadin.flow.server.VaadinSession;
+import com.vaadin.flow.server.startup.ApplicationRouteRegistry;
+
+/**
+ * A minimal, servlet-less {@link VaadinService} for running the server side
+ * pipeline in benchmarks.
+ * <p>
+ * The service is never initialized, so it has no request handlers, no
+ * instantiator and no dependency filters. Only the parts used while processing
+ * a UIDL round-trip for an already existing UI are functional.
+ *
+ * @author Vaadin Ltd
+ * @since 6.0
+ */
+public class BenchmarkVaadinService extends VaadinService {
+
+    /**
+     * A session that uses its own lock instead of one stored in a wrapped
+     * HTTP session.
+     */
+    public static class BenchmarkVaadinSession extends VaadinSession {
+
+        private final ReentrantLock lock = new ReentrantLock();
+
+        /**
+         * Creates a new session for the given service.
+         *
+         * @param service
+         *            the service the session belongs to
+         */
+        public BenchmarkVaadinSession(VaadinService service) {
+            super(service);
+        }
+
+        @Override
+        public Lock getLockInstance() {
+            return lock;
+        }
+    }
+
+    /**
+     * Creates a new service running in production mode.
+     */
+    public BenchmarkVaadinService() {
+        this(createConfiguration(new Properties()));
+    }
+
+    /**
+     * Creates a new service using the given configuration.
+     *
+     * @param configuration
+     *            the deployment configuration to use
+     */
+    public BenchmarkVaadinService(DeploymentConfiguration configuration) {
+        super(configuration);
+    }
+
+    /**
+     * Creates a deployment configuration running in production mode with the
+     * given additional init parameters.
+     *
+     * @param initParameters
+     *            additional init parameters, not <code>null</code>
+     * @return a deployment configuration
+     */
+    public static DeploymentConfiguration createConfiguration(
+            Properties initParameters) {
+        Properties properties = new Properties();
+        properties.setProperty(Constants.SERVLET_PARAMETER_PRODUCTION_MODE,
+                Boolean.TRUE.toString());
+        properties.putAll(initParameters);
+        return new DefaultDeploymentConfiguration(BenchmarkVaadinService.class,
+                properties);
+    }
+
+    @Override
+    public Iterable<DependencyFilter> getDependencyFilters() {
+        return Collections.emptyList();
+    }
+
+    @Override
+    protected RouteRegistry getRouteRegistry() {
+        return ApplicationRouteRegistry.getInstance(getContext());
+    }
+
+    @Override
+    protected PwaRegistry getPwaRegistry() {
+        return null;
+    }
+
+    @Override
+    public String getContextRootRelativePath(VaadinRequest request) {
+        return "/";
+    }
+
+    @Override
+    public String getMimeType(String resourceName) {
+        return null;
+    }
+
+    @Override
+    protected boolean requestCanCreateSession(VaadinRequest request) {
+        return true;
+    }
+
+    @Override
+    public String getServiceName() {
+        return "benchmark";
+    }
+
+    @Override
+    public String getMainDivId(VaadinSession session, VaadinRequest request) {
+        return "benchmark";
+    }
+
+    @Override
+    public URL getStaticResource(String url) {
+        return null;
+    }
+
+    @Override
+    public URL getResource(String url) {
+        return null;
+    }
+
+    @Override
+    public InputStream getResourceAsStream(String url) {
+        return null;
+    }
+
+    @Override
+    public String resolveResource(String url) {
+        return url;
+    }
+
+    @Override
+    protected VaadinContext constructVaadinContext() {
+        return new BenchmarkVaadinContext();
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright 2000-2020 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.vaadin.flow.component.ClickEvent;
+import com.vaadin.flow.component.ClickNotifier;
+import com.vaadin.flow.component.Component;
+import com.vaadin.flow.component.ComponentEvent;
+import com.vaadin.flow.component.ComponentEventBusUtil;
+import com.vaadin.flow.component.KeyDownEvent;
+import com.vaadin.flow.component.KeyNotifier;
+import com.vaadin.flow.component.Tag;
+import com.vaadin.flow.dom.DomEvent;
+import com.vaadin.flow.internal.nodefeature.ElementListenerMap;
+
+import elemental.json.Json;
+import elemental.json.JsonObject;
+
+/**
+ * Benchmarks for firing DOM events which are mapped to {@link ClickEvent} and
+ * {@link KeyDownEvent} listeners, i.e. creating the component events from the
+ * DOM event data. Each invocation fires one million events, run with
+ * <code>-prof gc</code> to see the allocations per event.
+ *
+ * @author Vaadin Ltd
+ * @since 6.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DomEventBenchmark {
+
+    private static final int EVENT_COUNT = 1_000_000;
+
+    /**
+     * Component with click and key down listeners.
+     */
+    @Tag("div")
+    public static class Target extends Component
+            implements ClickNotifier<Target>, KeyNotifier {
+
+        private long eventCount;
+    }
+
+    /**
+     * Benchmark state with the component and the DOM events to fire.
+     */
+    @State(Scope.Thread)
+    public static class EventState {
+
+        private Target target;
+        private ElementListenerMap listenerMap;
+        private DomEvent clickEvent;
+        private DomEvent keyDownEvent;
+
+        /**
+         * Creates the component, its listeners and the DOM events with values
+         * for all event data expressions of the component events.
+         */
+        @Setup(Level.Trial)
+        public void setup() {
+            target = new Target();
+            target.addClickListener(event -> target.eventCount++);
+            target.addKeyDownListener(event -> target.eventCount++);
+
+            listenerMap = target.getElement().getNode()
+                    .getFeature(ElementListenerMap.class);
+            clickEvent = new DomEvent(target.getElement(), "click",
+                    createEventData(ClickEvent.class));
+            keyDownEvent = new DomEvent(target.getElement(), "keydown",
+                    createEventData(KeyDownEvent.class));
+        }
+
+        @SuppressWarnings("unchecked")
+        private static JsonObject createEventData(Class<?> eventType) {
+            JsonObject eventData = Json.createObject();
+            ComponentEventBusUtil
+                    .getEventDataExpressions(
+                            (Class<? extends ComponentEvent<?>>) eventType)
+                    .forEach((expression, type) -> {
+                        if (type == String.class) {
+                            eventData.put(expression, "a");
+                        } else if (type == boolean.class
+                                || type == Boolean.class) {
+                            eventData.put(expression, false);
+                        } else {
+                            eventData.put(expression, 1);
+                        }
+                    });
+            return eventData;
+        }
+    }
+
+    /**
+     * Fires one million click events.
+     *
+     * @param state
+     *            the benchmark state
+     * @return the number of events handled so far
+     */
+    @Benchmark
+    @OperationsPerInvocation(EVENT_COUNT)
+    public long clickEvents(EventState state) {
+        for (int i = 0; i < EVENT_COUNT; i++) {
+            state.listenerMap.fireEvent(state.clickEvent);
+        }
+        return state.target.eventCount;
+    }
+
+    /**
+     * Fires one million key down events.
+     *
+     * @param state
+     *            the benchmark state
+     * @return the number of events handled so far
+     */
+    @Benchmark
+    @OperationsPerInvocation(EVENT_COUNT)
+    public long keyDownEvents(EventState state) {
+        for (int i = 0; i < EVENT_COUNT; i++) {
+            state.listenerMap.fireEvent(state.keyDownEvent);
+        }
+        return state.target.eventCount;
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * Copyright 2000-2020 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.vaadin.flow.data.provider.IndexedListDataProvider;
+import com.vaadin.flow.data.provider.ListDataProvider;
+import com.vaadin.flow.data.provider.Query;
+import com.vaadin.flow.function.SerializableComparator;
+import com.vaadin.flow.function.SerializablePredicate;
+
+/**
+ * Benchmarks for scrolling through a sorted and filtered in-memory data set
+ * with {@link ListDataProvider} compared with {@link IndexedListDataProvider}.
+ * Each operation fetches one page and the size, like a grid does when it is
+ * scrolled.
+ *
+ * @author Vaadin Ltd
+ * @since 6.0
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ListDataProviderBenchmark {
+
+    private static final int PAGE_SIZE = 50;
+
+    /**
+     * Benchmark state with data providers for a data set of a parameterized
+     * size.
+     */
+    @State(Scope.Thread)
+    public static class DataState {
+
+        /**
+         * The number of items in the data set.
+         */
+        @Param({ "10000", "200000" })
+        public int itemCount;
+
+        private ListDataProvider<Row> listDataProvider;
+        private IndexedListDataProvider<Row> indexedDataProvider;
+
+        private final SerializablePredicate<Row> filter = row -> row.group != 0;
+        private final SerializableComparator<Row> sorting = (row1,
+                row2) -> row1.name.compareTo(row2.name);
+
+        private int offset;
+
+        /**
+         * Creates the data set and the data providers.
+         */
+        @Setup(Level.Trial)
+        public void setup() {
+            Random random = new Random(42);
+            List<Row> rows = new ArrayList<>(itemCount);
+            for (int i = 0; i < itemCount; i++) {
+                rows.add(new Row("name" + random.nextInt(itemCount),
+                        random.nextInt(10)));
+            }
+            listDataProvider = new ListDataProvider<>(rows);
+            indexedDataProvider = new IndexedListDataProvider<>(rows);
+        }
+
+        private Query<Row, SerializablePredicate<Row>> nextPage() {
+            offset = (offset + PAGE_SIZE) % (itemCount / 2);
+            return new Query<>(offset, PAGE_SIZE, null, sorting, filter);
+        }
+    }
+
+    /**
+     * A row of the data set.
+     */
+    public static class Row {
+        private final String name;
+        private final int group;
+
+        private Row(String name, int group) {
+            this.name = name;
+            this.group = group;
+        }
+    }
+
+    /**
+     * Fetches the next page and the size from a {@link ListDataProvider}.
+     *
+     * @param state
+     *            the benchmark state
+     * @return the fetched page
+     */
+    @Benchmark
+    public List<Row> listDataProvider(DataState state) {
+        return scroll(state.listDataProvider, state);
+    }
+
+    /**
+     * Fetches the next page and the size from an
+     * {@link IndexedListDataProvider}.
+     *
+     * @param state
+     *            the benchmark state
+     * @return the fetched page
+     */
+    @Benchmark
+    public List<Row> indexedListDataProvider(DataState state) {
+        return scroll(state.indexedDataProvider, state);
+    }
+
+    private static List<Row> scroll(ListDataProvider<Row> dataProvider,
+            DataState state) {
+        Query<Row, SerializablePredicate<Row>> query = state.nextPage();
+        List<Row> page = dataProvider.fetch(query).collect(Collectors.toList());
+        if (dataProvider.size(new Query<>(state.filter)) < page.size()) {
+            throw new IllegalStateException("Unexpected size");
+        }
+        return page;
+    }
+}
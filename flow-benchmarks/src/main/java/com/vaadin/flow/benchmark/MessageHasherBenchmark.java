@@ -0,0 +1,105 @@
+/*
+ * Copyright 2000-2020 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.vaadin.flow.server.communication.MessageHasher;
+
+/**
+ * Benchmarks for the {@link MessageHasher} implementations used for detecting
+ * resent client messages, which are run for every message received from the
+ * client.
+ *
+ * @author Vaadin Ltd
+ * @since 6.0
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MessageHasherBenchmark {
+
+    /**
+     * Benchmark state with a message of a parameterized length.
+     */
+    @State(Scope.Thread)
+    public static class MessageState {
+
+        /**
+         * The length of the message in characters.
+         */
+        @Param({ "100", "10000", "100000" })
+        public int messageLength;
+
+        private String message;
+
+        /**
+         * Creates a message resembling a client message with value change
+         * invocations.
+         */
+        @Setup(Level.Trial)
+        public void setup() {
+            StringBuilder builder = new StringBuilder(
+                    "{\"csrfToken\":\"3f1c2a\",\"syncId\":1,\"clientId\":1,\"rpc\":[");
+            for (int i = 0; builder.length() < messageLength - 2; i++) {
+                builder.append("{\"type\":\"mSync\",\"node\":").append(i)
+                        .append(",\"feature\":1,\"property\":\"value\",\"value\":\"")
+                        .append(i).append("\"},");
+            }
+            builder.setLength(messageLength - 2);
+            message = builder.append("]}").toString();
+        }
+    }
+
+    /**
+     * Hashes the message with {@link MessageHasher#fast()}.
+     *
+     * @param state
+     *            the benchmark state
+     * @return the hash
+     */
+    @Benchmark
+    public byte[] fast(MessageState state) {
+        return MessageHasher.fast().hash(state.message);
+    }
+
+    /**
+     * Hashes the message with {@link MessageHasher#sha256()}.
+     *
+     * @param state
+     *            the benchmark state
+     * @return the hash
+     */
+    @Benchmark
+    public byte[] sha256(MessageState state) {
+        return MessageHasher.sha256().hash(state.message);
+    }
+}
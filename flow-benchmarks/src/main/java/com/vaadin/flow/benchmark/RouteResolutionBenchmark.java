@@ -0,0 +1,167 @@
+/*
+ * Copyright 2000-2020 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.benchmark;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.vaadin.flow.component.Component;
+import com.vaadin.flow.router.internal.ConfigureRoutes;
+import com.vaadin.flow.router.internal.ConfiguredRoutes;
+import com.vaadin.flow.router.internal.NavigationRouteTarget;
+
+/**
+ * Benchmarks for resolving navigation targets from urls in a configuration
+ * with 10000 routes, with the cached resolution of an immutable
+ * {@link ConfiguredRoutes} compared with walking the route tree of a
+ * {@link ConfigureRoutes} for every url.
+ *
+ * @author Vaadin Ltd
+ * @since 6.0
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RouteResolutionBenchmark {
+
+    private static final int ROUTE_COUNT = 10000;
+
+    /**
+     * Navigation target used for all routes.
+     */
+    public static class Target extends Component {
+    }
+
+    /**
+     * Benchmark state with the route configurations and the urls to resolve.
+     */
+    @State(Scope.Benchmark)
+    public static class RoutesState {
+
+        /**
+         * The number of distinct urls that are resolved. With more urls than
+         * fit in the cache, most resolutions are cache misses.
+         */
+        @Param({ "100", "100000" })
+        public int urlCount;
+
+        private ConfigureRoutes mutableRoutes;
+        private ConfiguredRoutes immutableRoutes;
+        private String[] urls;
+
+        /**
+         * Registers static, parameterized and optional parameter routes and
+         * creates urls matching them.
+         */
+        @Setup(Level.Trial)
+        public void setup() {
+            mutableRoutes = new ConfigureRoutes();
+            for (int i = 0; i < ROUTE_COUNT; i++) {
+                switch (i % 3) {
+                case 0:
+                    mutableRoutes.setRoute("section" + i + "/overview",
+                            Target.class);
+                    break;
+                case 1:
+                    mutableRoutes.setRoute(
+                            "section" + i + "/item/:id([0-9]+)/details",
+                            Target.class);
+                    break;
+                default:
+                    mutableRoutes.setRoute(
+                            "section" + i + "/:category/:page?([0-9]+)",
+                            Target.class);
+                }
+            }
+            immutableRoutes = new ConfiguredRoutes(mutableRoutes);
+
+            Random random = new Random(42);
+            urls = new String[urlCount];
+            for (int i = 0; i < urlCount; i++) {
+                int route = random.nextInt(ROUTE_COUNT);
+                switch (route % 3) {
+                case 0:
+                    urls[i] = "section" + route + "/overview";
+                    break;
+                case 1:
+                    urls[i] = "section" + route + "/item/" + i + "/details";
+                    break;
+                default:
+                    urls[i] = "section" + route + "/books/" + i;
+                }
+            }
+        }
+    }
+
+    /**
+     * Per thread position in the urls.
+     */
+    @State(Scope.Thread)
+    public static class UrlIndex {
+        private int index;
+
+        private String next(RoutesState state) {
+            index = (index + 1) % state.urls.length;
+            return state.urls[index];
+        }
+    }
+
+    /**
+     * Resolves the next url by walking the route tree.
+     *
+     * @param state
+     *            the benchmark state
+     * @param urlIndex
+     *            the position in the urls
+     * @return the resolved target
+     */
+    @Benchmark
+    public NavigationRouteTarget uncached(RoutesState state,
+            UrlIndex urlIndex) {
+        return state.mutableRoutes
+                .getNavigationRouteTarget(urlIndex.next(state));
+    }
+
+    /**
+     * Resolves the next url using the cache of an immutable configuration.
+     *
+     * @param state
+     *            the benchmark state
+     * @param urlIndex
+     *            the position in the urls
+     * @return the resolved target
+     */
+    @Benchmark
+    public NavigationRouteTarget cached(RoutesState state, UrlIndex urlIndex) {
+        return state.immutableRoutes
+                .getNavigationRouteTarget(urlIndex.next(state));
+    }
+}
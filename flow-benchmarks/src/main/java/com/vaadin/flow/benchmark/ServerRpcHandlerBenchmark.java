@@ -0,0 +1,151 @@
+/*
+ * Copyright 2000-2020 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.benchmark;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.concurrent.TimeUnit;
+
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.server.VaadinRequest;
+import com.vaadin.flow.server.communication.ServerRpcHandler;
+import com.vaadin.flow.server.communication.ServerRpcHandler.InvalidUIDLSecurityKeyException;
+import com.vaadin.flow.shared.ApplicationConstants;
+import com.vaadin.flow.shared.JsonConstants;
+
+/**
+ * Benchmarks for {@link ServerRpcHandler#handleRpc(UI, java.io.Reader,
+ * VaadinRequest)} processing messages with DOM events for items of a
+ * {@link SyntheticUI}.
+ *
+ * @author Vaadin Ltd
+ * @since 6.0
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ServerRpcHandlerBenchmark {
+
+    /**
+     * Benchmark state with a UI and the invocations of a client message.
+     */
+    @State(Scope.Thread)
+    public static class RpcState {
+
+        /**
+         * The approximate number of state nodes in the UI.
+         */
+        @Param({ "1000", "100000" })
+        public int nodeCount;
+
+        /**
+         * The number of DOM event invocations in each message.
+         */
+        @Param({ "1", "10", "100" })
+        public int invocationCount;
+
+        private SyntheticUI ui;
+        private VaadinRequest request;
+        private ServerRpcHandler rpcHandler;
+        private String invocations;
+
+        /**
+         * Creates the UI and the invocations JSON.
+         */
+        @Setup(Level.Trial)
+        public void setup() {
+            ui = new SyntheticUI(nodeCount);
+            rpcHandler = new ServerRpcHandler();
+
+            request = Mockito.mock(VaadinRequest.class);
+            Mockito.when(request.getService()).thenReturn(ui.getService());
+
+            StringBuilder builder = new StringBuilder("[");
+            int step = Math.max(1, ui.getItemCount() / invocationCount);
+            for (int i = 0; i < invocationCount; i++) {
+                if (i > 0) {
+                    builder.append(',');
+                }
+                int nodeId = ui.getItem((i * step) % ui.getItemCount())
+                        .getNode().getId();
+                builder.append("{\"").append(JsonConstants.RPC_TYPE)
+                        .append("\":\"").append(JsonConstants.RPC_TYPE_EVENT)
+                        .append("\",\"").append(JsonConstants.RPC_NODE)
+                        .append("\":").append(nodeId).append(",\"")
+                        .append(JsonConstants.RPC_EVENT_TYPE).append("\":\"")
+                        .append(SyntheticUI.ITEM_EVENT).append("\"}");
+            }
+            invocations = builder.append(']').toString();
+        }
+
+        /**
+         * Releases the session lock held for the UI.
+         */
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            ui.close();
+        }
+
+        private String createMessage() {
+            UI uI = ui.getUI();
+            int clientId = uI.getInternals().getLastProcessedClientToServerId()
+                    + 1;
+            return "{\"" + ApplicationConstants.CSRF_TOKEN + "\":\""
+                    + uI.getCsrfToken() + "\",\""
+                    + ApplicationConstants.SERVER_SYNC_ID + "\":"
+                    + uI.getInternals().getServerSyncId() + ",\""
+                    + ApplicationConstants.CLIENT_TO_SERVER_ID + "\":"
+                    + clientId + ",\"" + ApplicationConstants.RPC_INVOCATIONS
+                    + "\":" + invocations + "}";
+        }
+    }
+
+    /**
+     * Handles a client message with the parameterized number of DOM events.
+     *
+     * @param state
+     *            the benchmark state
+     * @return the number of events handled so far
+     * @throws IOException
+     *             if reading the message fails
+     * @throws InvalidUIDLSecurityKeyException
+     *             if the CSRF token of the message is invalid
+     */
+    @Benchmark
+    public int handleEvents(RpcState state)
+            throws IOException, InvalidUIDLSecurityKeyException {
+        state.rpcHandler.handleRpc(state.ui.getUI(),
+                new StringReader(state.createMessage()), state.request);
+        return state.ui.getEventCount();
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright 2000-2020 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.vaadin.flow.dom.Element;
+import com.vaadin.flow.internal.StateNode;
+
+/**
+ * Benchmarks for
+ * {@link StateNode#collectChanges(java.util.function.Consumer)} of a single
+ * element node.
+ *
+ * @author Vaadin Ltd
+ * @since 6.0
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StateNodeBenchmark {
+
+    /**
+     * Benchmark state with one element having a parameterized number of
+     * properties.
+     */
+    @State(Scope.Thread)
+    public static class NodeState {
+
+        /**
+         * The number of properties changed before collecting the changes.
+         */
+        @Param({ "1", "10", "100" })
+        public int changedProperties;
+
+        private SyntheticUI ui;
+        private Element element;
+        private String[] propertyNames;
+        private int counter;
+
+        /**
+         * Creates the UI and the element.
+         */
+        @Setup(Level.Trial)
+        public void setup() {
+            ui = new SyntheticUI(2);
+            element = ui.getItem(0);
+            propertyNames = new String[changedProperties];
+            for (int i = 0; i < propertyNames.length; i++) {
+                propertyNames[i] = "property" + i;
+            }
+        }
+
+        /**
+         * Releases the session lock held for the UI.
+         */
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            ui.close();
+        }
+
+        private StateNode updateProperties() {
+            counter++;
+            for (String name : propertyNames) {
+                element.setProperty(name, counter);
+            }
+            return element.getNode();
+        }
+    }
+
+    /**
+     * Changes properties of an attached element and collects the resulting
+     * changes.
+     *
+     * @param state
+     *            the benchmark state
+     * @param blackhole
+     *            the blackhole consuming the changes
+     */
+    @Benchmark
+    public void collectPropertyChanges(NodeState state, Blackhole blackhole) {
+        state.updateProperties().collectChanges(blackhole::consume);
+    }
+}
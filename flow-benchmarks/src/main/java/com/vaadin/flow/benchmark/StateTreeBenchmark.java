@@ -0,0 +1,94 @@
+/*
+ * Copyright 2000-2020 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.vaadin.flow.dom.Element;
+import com.vaadin.flow.internal.StateTree;
+
+/**
+ * Benchmarks for {@link StateTree#collectChanges(java.util.function.Consumer)}.
+ *
+ * @author Vaadin Ltd
+ * @since 6.0
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StateTreeBenchmark {
+
+    /**
+     * Collects the changes produced by updating a small number of items, which
+     * is the typical cost of a round-trip.
+     *
+     * @param state
+     *            the benchmark state
+     * @param blackhole
+     *            the blackhole consuming the changes
+     */
+    @Benchmark
+    public void collectIncrementalChanges(SyntheticUIState state,
+            Blackhole blackhole) {
+        state.ui.updateItems(state.changedItems);
+        state.ui.getStateTree().collectChanges(blackhole::consume);
+    }
+
+    /**
+     * Detaches and re-attaches one container with its items, which unregisters
+     * and registers the nodes of the subtree, and collects the changes.
+     *
+     * @param state
+     *            the benchmark state
+     * @param blackhole
+     *            the blackhole consuming the changes
+     */
+    @Benchmark
+    public void reattachContainer(SyntheticUIState state,
+            Blackhole blackhole) {
+        Element root = state.ui.getUI().getElement();
+        Element container = root.getChild(0);
+        container.removeFromParent();
+        root.appendChild(container);
+        state.ui.getStateTree().collectChanges(blackhole::consume);
+    }
+
+    /**
+     * Collects the changes for the full tree, which is the cost of the initial
+     * response or a resynchronization.
+     *
+     * @param state
+     *            the benchmark state
+     * @param blackhole
+     *            the blackhole consuming the changes
+     */
+    @Benchmark
+    public void collectAllChanges(SyntheticUIState.Resync state,
+            Blackhole blackhole) {
+        state.ui.getStateTree().collectChanges(blackhole::consume);
+    }
+}
@@ -0,0 +1,210 @@
+/*
+ * Copyright 2000-2020 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.benchmark;
+
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.dom.Element;
+import com.vaadin.flow.internal.CurrentInstance;
+import com.vaadin.flow.internal.StateTree;
+import com.vaadin.flow.server.VaadinService;
+import com.vaadin.flow.server.VaadinSession;
+import com.vaadin.flow.server.communication.UidlWriter;
+
+/**
+ * A UI with a synthetic element tree of a given size, attached to a locked
+ * session of a {@link BenchmarkVaadinService}.
+ * <p>
+ * The tree consists of container elements each holding
+ * {@value #ITEMS_PER_CONTAINER} items. Every item is a {@code <span>} element
+ * with an attribute, a property, a DOM event listener and a text node child,
+ * i.e. two state nodes per item.
+ * <p>
+ * The session is locked by the thread creating the instance and stays locked
+ * until {@link #close()} is called, so an instance must only be used from a
+ * single thread.
+ *
+ * @author Vaadin Ltd
+ * @since 6.0
+ */
+public class SyntheticUI {
+
+    /**
+     * The number of items in each container element.
+     */
+    public static final int ITEMS_PER_CONTAINER = 50;
+
+    /**
+     * The DOM event listened to on each item.
+     */
+    public static final String ITEM_EVENT = "click";
+
+    private final VaadinService service;
+    private final VaadinSession session;
+    private final UI ui;
+    private final Element[] items;
+
+    private int updateCounter;
+    private int eventCounter;
+
+    /**
+     * Creates a new UI with approximately the given number of state nodes and
+     * sends the initial changes to a dummy client.
+     *
+     * @param nodeCount
+     *            the approximate number of state nodes in the UI
+     */
+    public SyntheticUI(int nodeCount) {
+        this(new BenchmarkVaadinService(), nodeCount);
+    }
+
+    /**
+     * Creates a new UI for the given service with approximately the given
+     * number of state nodes and sends the initial changes to a dummy client.
+     *
+     * @param service
+     *            the service to create the session for
+     * @param nodeCount
+     *            the approximate number of state nodes in the UI
+     */
+    public SyntheticUI(VaadinService service, int nodeCount) {
+        this.service = service;
+        session = new BenchmarkVaadinService.BenchmarkVaadinSession(service);
+        session.lock();
+        VaadinService.setCurrent(service);
+        VaadinSession.setCurrent(session);
+
+        ui = new UI();
+        ui.getInternals().setSession(session);
+        UI.setCurrent(ui);
+
+        items = new Element[Math.max(1, nodeCount / 2)];
+        Element container = null;
+        for (int i = 0; i < items.length; i++) {
+            if (i % ITEMS_PER_CONTAINER == 0) {
+                container = new Element("div");
+                container.setAttribute("class", "container");
+                ui.getElement().appendChild(container);
+            }
+            Element item = new Element("span");
+            item.setAttribute("class", "item");
+            item.setProperty("value", i);
+            item.addEventListener(ITEM_EVENT, event -> eventCounter++);
+            item.appendChild(Element.createText("Item " + i));
+            container.appendChild(item);
+            items[i] = item;
+        }
+
+        // Flush the initial changes so that benchmarks start from a clean tree
+        new UidlWriter().createUidl(ui, false);
+    }
+
+    /**
+     * Gets the UI.
+     *
+     * @return the UI
+     */
+    public UI getUI() {
+        return ui;
+    }
+
+    /**
+     * Gets the session of the UI. The session is locked by the thread that
+     * created this instance.
+     *
+     * @return the session
+     */
+    public VaadinSession getSession() {
+        return session;
+    }
+
+    /**
+     * Gets the service of the session.
+     *
+     * @return the service
+     */
+    public VaadinService getService() {
+        return service;
+    }
+
+    /**
+     * Gets the state tree of the UI.
+     *
+     * @return the state tree
+     */
+    public StateTree getStateTree() {
+        return ui.getInternals().getStateTree();
+    }
+
+    /**
+     * Gets the number of items in the tree.
+     *
+     * @return the number of items
+     */
+    public int getItemCount() {
+        return items.length;
+    }
+
+    /**
+     * Gets the item with the given index.
+     *
+     * @param index
+     *            the item index
+     * @return the item element
+     */
+    public Element getItem(int index) {
+        return items[index];
+    }
+
+    /**
+     * Gets the number of DOM events received by the items so far.
+     *
+     * @return the number of received events
+     */
+    public int getEventCount() {
+        return eventCounter;
+    }
+
+    /**
+     * Changes the value property of the given number of items, spread evenly
+     * over the tree.
+     *
+     * @param count
+     *            the number of items to change
+     */
+    public void updateItems(int count) {
+        int step = Math.max(1, items.length / count);
+        updateCounter++;
+        for (int i = 0, index = 0; i < count; i++, index += step) {
+            items[index % items.length].setProperty("value", updateCounter);
+        }
+    }
+
+    /**
+     * Marks all nodes as changed so that the next response contains the full
+     * state of the tree, as if the client had asked for a resynchronization.
+     */
+    public void prepareForResync() {
+        getStateTree().prepareForResync();
+    }
+
+    /**
+     * Unlocks the session and clears the current instances.
+     */
+    public void close() {
+        session.unlock();
+        CurrentInstance.clearAll();
+    }
+}
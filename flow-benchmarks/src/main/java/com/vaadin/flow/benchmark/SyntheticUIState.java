@@ -0,0 +1,86 @@
+/*
+ * Copyright 2000-2020 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.benchmark;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Benchmark state holding a {@link SyntheticUI} with a parameterized number of
+ * state nodes.
+ * <p>
+ * The state is thread scoped since the session of the UI stays locked by the
+ * thread running the benchmark.
+ *
+ * @author Vaadin Ltd
+ * @since 6.0
+ */
+@State(Scope.Thread)
+public class SyntheticUIState {
+
+    /**
+     * The approximate number of state nodes in the UI.
+     */
+    @Param({ "1000", "10000", "100000" })
+    public int nodeCount;
+
+    /**
+     * The number of items changed before each incremental round-trip.
+     */
+    @Param({ "100" })
+    public int changedItems;
+
+    /**
+     * The UI to run the benchmark against.
+     */
+    public SyntheticUI ui;
+
+    /**
+     * Creates the UI.
+     */
+    @Setup(Level.Trial)
+    public void setupUI() {
+        ui = new SyntheticUI(nodeCount);
+    }
+
+    /**
+     * Releases the session lock held for the UI.
+     */
+    @TearDown(Level.Trial)
+    public void tearDownUI() {
+        ui.close();
+    }
+
+    /**
+     * Benchmark state which marks the whole tree for resynchronization before
+     * each invocation, so that each invocation produces the full state of the
+     * UI just like the initial response does.
+     */
+    public static class Resync extends SyntheticUIState {
+
+        /**
+         * Marks all nodes of the UI as changed.
+         */
+        @Setup(Level.Invocation)
+        public void prepareForResync() {
+            ui.prepareForResync();
+        }
+    }
+}
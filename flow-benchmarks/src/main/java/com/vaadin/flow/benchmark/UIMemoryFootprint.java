@@ -0,0 +1,157 @@
+/*
+ * Copyright 2000-2020 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntFunction;
+
+import com.vaadin.flow.component.ClickNotifier;
+import com.vaadin.flow.component.Component;
+import com.vaadin.flow.component.HasComponents;
+import com.vaadin.flow.component.HasStyle;
+import com.vaadin.flow.component.HasText;
+import com.vaadin.flow.component.Tag;
+import com.vaadin.flow.server.communication.UidlWriter;
+
+/**
+ * Measures the heap retained by UIs of different sizes after the initial
+ * response has been written.
+ * <p>
+ * Two kinds of trees are measured: the element tree of a {@link SyntheticUI}
+ * and an equivalent tree built of components with a text, a class name and a
+ * click listener each, which is the typical content of a view.
+ * <p>
+ * This is not a JMH benchmark since JMH measures allocation rates rather than
+ * retained memory. Run with a fixed heap size for stable results, e.g.
+ * <code>java -Xmx2g -cp benchmarks.jar
+ * com.vaadin.flow.benchmark.UIMemoryFootprint</code>. The node counts to
+ * measure can be given as arguments.
+ *
+ * @author Vaadin Ltd
+ * @since 6.0
+ */
+public class UIMemoryFootprint {
+
+    private static final int INSTANCES = 5;
+
+    @Tag("div")
+    private static class Container extends Component
+            implements HasComponents {
+    }
+
+    @Tag("span")
+    private static class Item extends Component
+            implements HasText, HasStyle, ClickNotifier<Item> {
+    }
+
+    private UIMemoryFootprint() {
+        // Only static methods
+    }
+
+    /**
+     * Prints the retained heap per UI and per state node for each node count.
+     *
+     * @param args
+     *            the node counts to measure, defaults to 1000, 10000 and
+     *            100000
+     */
+    public static void main(String[] args) {
+        String[] nodeCounts = args.length > 0 ? args
+                : new String[] { "1000", "10000", "100000" };
+
+        // Warm up class loading and static caches
+        measure(1000, SyntheticUI::new);
+        measure(1000, UIMemoryFootprint::createComponentUI);
+
+        System.out.printf("%-10s %10s %16s %16s%n", "tree", "nodeCount",
+                "bytes per UI", "bytes per node");
+        for (String nodeCount : nodeCounts) {
+            int count = Integer.parseInt(nodeCount);
+            print("elements", count, measure(count, SyntheticUI::new));
+            print("components", count,
+                    measure(count, UIMemoryFootprint::createComponentUI));
+        }
+    }
+
+    private static void print(String tree, int nodeCount, long bytes) {
+        System.out.printf("%-10s %10d %16d %16d%n", tree, nodeCount, bytes,
+                bytes / nodeCount);
+    }
+
+    /**
+     * Creates a UI with a tree of components with approximately the given
+     * number of state nodes, i.e. two state nodes per item like in
+     * {@link SyntheticUI}.
+     */
+    private static SyntheticUI createComponentUI(int nodeCount) {
+        SyntheticUI ui = new SyntheticUI(0);
+        // Remove the single item created by the synthetic UI
+        ui.getUI().getElement().removeAllChildren();
+
+        Container container = null;
+        for (int i = 0; i < nodeCount / 2; i++) {
+            if (i % SyntheticUI.ITEMS_PER_CONTAINER == 0) {
+                container = new Container();
+                container.getElement().setAttribute("class", "container");
+                ui.getUI().add(container);
+            }
+            Item item = new Item();
+            item.addClassName("item");
+            item.setText("Item " + i);
+            item.addClickListener(event -> {
+            });
+            container.add(item);
+        }
+        new UidlWriter().createUidl(ui.getUI(), false);
+        return ui;
+    }
+
+    private static long measure(int nodeCount,
+            IntFunction<SyntheticUI> factory) {
+        long before = usedHeap();
+        List<SyntheticUI> uis = new ArrayList<>();
+        for (int i = 0; i < INSTANCES; i++) {
+            SyntheticUI ui = factory.apply(nodeCount);
+            // Each UI locks its own session for the current thread
+            ui.close();
+            uis.add(ui);
+        }
+        long after = usedHeap();
+        if (uis.size() != INSTANCES) {
+            throw new IllegalStateException();
+        }
+        return (after - before) / INSTANCES;
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        long used = Long.MAX_VALUE;
+        // System.gc() is only a hint, so use the lowest of a few attempts
+        for (int i = 0; i < 5; i++) {
+            System.gc();
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            used = Math.min(used,
+                    runtime.totalMemory() - runtime.freeMemory());
+        }
+        return used;
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright 2000-2020 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.benchmark;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.vaadin.flow.server.communication.UidlWriter;
+
+/**
+ * Benchmarks for {@link UidlWriter#createUidl(com.vaadin.flow.component.UI,
+ * boolean)} including the serialization of the resulting JSON to a string,
+ * i.e. the complete work done for writing a UIDL response, compared with
+ * writing the same response with
+ * {@link UidlWriter#writeUidl(com.vaadin.flow.component.UI, boolean, boolean, java.io.Writer)}.
+ *
+ * @author Vaadin Ltd
+ * @since 6.0
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UidlWriterBenchmark {
+
+    /**
+     * Writes the response for a round-trip updating a small number of items.
+     *
+     * @param state
+     *            the benchmark state
+     * @return the written response
+     */
+    @Benchmark
+    public String writeIncrementalResponse(SyntheticUIState state) {
+        state.ui.updateItems(state.changedItems);
+        return new UidlWriter().createUidl(state.ui.getUI(), false).toJson();
+    }
+
+    /**
+     * Writes the response containing the full state of the UI.
+     *
+     * @param state
+     *            the benchmark state
+     * @return the written response
+     */
+    @Benchmark
+    public String writeFullResponse(SyntheticUIState.Resync state) {
+        return new UidlWriter().createUidl(state.ui.getUI(), false).toJson();
+    }
+
+    /**
+     * Streams the response for a round-trip updating a small number of items.
+     *
+     * @param state
+     *            the benchmark state
+     * @return the written response
+     * @throws IOException
+     *             never thrown by the string writer
+     */
+    @Benchmark
+    public String streamIncrementalResponse(SyntheticUIState state)
+            throws IOException {
+        state.ui.updateItems(state.changedItems);
+        StringWriter writer = new StringWriter();
+        new UidlWriter().writeUidl(state.ui.getUI(), false, false, writer);
+        return writer.toString();
+    }
+
+    /**
+     * Streams the response containing the full state of the UI.
+     *
+     * @param state
+     *            the benchmark state
+     * @return the written response
+     * @throws IOException
+     *             never thrown by the string writer
+     */
+    @Benchmark
+    public String streamFullResponse(SyntheticUIState.Resync state)
+            throws IOException {
+        StringWriter writer = new StringWriter();
+        new UidlWriter().writeUidl(state.ui.getUI(), false, false, writer);
+        return writer.toString();
+    }
+}
@@ -34,6 +34,8 @@ public class ApplicationConfiguration {
     private ErrorMessage sessionExpiredError;
     private int heartbeatInterval;
     private int maxMessageSuspendTimeout;
+    private int rpcBatchWindow;
+    private boolean binaryProtocol;
 
     private boolean productionMode;
     private boolean requestTiming;
@@ -211,6 +213,51 @@ public class ApplicationConfiguration {
         this.maxMessageSuspendTimeout = maxMessageSuspendTimeout;
     }
 
+    /**
+     * Gets the time to wait before sending queued server invocations, so that
+     * invocations made during the window are sent in the same request.
+     *
+     * @return the batch window in milliseconds, or 0 to send the invocations
+     *         as soon as the current event has been handled
+     */
+    public int getRpcBatchWindow() {
+        return rpcBatchWindow;
+    }
+
+    /**
+     * Sets the time to wait before sending queued server invocations.
+     *
+     * @param rpcBatchWindow
+     *            the batch window in milliseconds, or 0 to send the
+     *            invocations as soon as the current event has been handled
+     */
+    public void setRpcBatchWindow(int rpcBatchWindow) {
+        this.rpcBatchWindow = rpcBatchWindow;
+    }
+
+    /**
+     * Checks whether server requests sent with XHR use the compact binary
+     * encoding instead of JSON text.
+     *
+     * @return <code>true</code> to use the binary encoding,
+     *         <code>false</code> to use JSON
+     */
+    public boolean isBinaryProtocol() {
+        return binaryProtocol;
+    }
+
+    /**
+     * Sets whether server requests sent with XHR use the compact binary
+     * encoding instead of JSON text.
+     *
+     * @param binaryProtocol
+     *            <code>true</code> to use the binary encoding,
+     *            <code>false</code> to use JSON
+     */
+    public void setBinaryProtocol(boolean binaryProtocol) {
+        this.binaryProtocol = binaryProtocol;
+    }
+
     /**
      * Gets the message used when a session expiration error occurs.
      *
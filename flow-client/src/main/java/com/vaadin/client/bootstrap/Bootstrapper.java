@@ -153,6 +153,14 @@ public class Bootstrapper implements EntryPoint {
         conf.setMaxMessageSuspendTimeout(
                 jsoConfiguration.getConfigInteger("maxMessageSuspendTimeout"));
 
+        Integer rpcBatchWindow = jsoConfiguration
+                .getConfigInteger("rpcBatchWindow");
+        if (rpcBatchWindow != null) {
+            conf.setRpcBatchWindow(rpcBatchWindow.intValue());
+        }
+        conf.setBinaryProtocol(
+                jsoConfiguration.getConfigBoolean("binaryProtocol"));
+
         conf.setServletVersion(jsoConfiguration.getVaadinVersion());
         conf.setAtmosphereVersion(jsoConfiguration.getAtmosphereVersion());
         conf.setAtmosphereJSVersion(jsoConfiguration.getAtmosphereJSVersion());
@@ -0,0 +1,273 @@
+/*
+ * Copyright 2000-2020 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.client.communication;
+
+import com.google.gwt.core.client.JavaScriptException;
+import com.google.gwt.core.client.JavaScriptObject;
+import com.vaadin.client.Console;
+import com.vaadin.client.Profiler;
+import com.vaadin.client.ValueMap;
+
+import elemental.json.JsonValue;
+
+/**
+ * Client side implementation of the compact binary JSON encoding used as an
+ * alternative to JSON text for messages between the client and the server.
+ * <p>
+ * The encoding must be kept in sync with the server side
+ * <code>com.vaadin.flow.internal.BinaryJson</code>.
+ *
+ * @author Vaadin Ltd
+ * @since 6.0
+ */
+public final class BinaryJson {
+
+    private BinaryJson() {
+        // Static utility methods only
+    }
+
+    /**
+     * Checks whether the browser supports the APIs needed for the binary
+     * encoding.
+     *
+     * @return <code>true</code> if the binary encoding can be used,
+     *         <code>false</code> otherwise
+     */
+    public static native boolean isSupported()
+    /*-{
+        return typeof $wnd.TextEncoder === 'function'
+            && typeof $wnd.TextDecoder === 'function'
+            && typeof $wnd.DataView === 'function'
+            && typeof $wnd.Map === 'function';
+    }-*/;
+
+    /**
+     * Encodes the given JSON value.
+     *
+     * @param value
+     *            the value to encode
+     * @return a <code>Uint8Array</code> with the encoded message
+     */
+    public static native JavaScriptObject encode(JsonValue value)
+    /*-{
+        var bytes = new $wnd.Uint8Array(256);
+        var length = 0;
+        var strings = new $wnd.Map();
+        var encoder = new $wnd.TextEncoder();
+
+        var ensureCapacity = function(extra) {
+            if (length + extra > bytes.length) {
+                var grown = new $wnd.Uint8Array(Math.max(bytes.length * 2,
+                        length + extra));
+                grown.set(bytes);
+                bytes = grown;
+            }
+        };
+        var writeByte = function(b) {
+            ensureCapacity(1);
+            bytes[length++] = b;
+        };
+        var writeVarint = function(n) {
+            ensureCapacity(10);
+            while (n >= 128) {
+                bytes[length++] = (n % 128) | 128;
+                n = Math.floor(n / 128);
+            }
+            bytes[length++] = n;
+        };
+        var writeString = function(s) {
+            var index = strings.get(s);
+            if (index !== undefined) {
+                writeByte(6);
+                writeVarint(index);
+                return;
+            }
+            strings.set(s, strings.size);
+            var encoded = encoder.encode(s);
+            writeByte(5);
+            writeVarint(encoded.length);
+            ensureCapacity(encoded.length);
+            bytes.set(encoded, length);
+            length += encoded.length;
+        };
+        var writeValue = function(v) {
+            if (v === null || v === undefined) {
+                writeByte(0);
+            } else if (v === false) {
+                writeByte(1);
+            } else if (v === true) {
+                writeByte(2);
+            } else if (typeof v === 'number') {
+                if (Math.floor(v) === v && Math.abs(v) < 4503599627370496
+                        && (v !== 0 || 1 / v > 0)) {
+                    writeByte(3);
+                    writeVarint(v >= 0 ? v * 2 : -v * 2 - 1);
+                } else {
+                    writeByte(4);
+                    ensureCapacity(8);
+                    new $wnd.DataView(bytes.buffer).setFloat64(length, v, true);
+                    length += 8;
+                }
+            } else if (typeof v === 'string') {
+                writeString(v);
+            } else if (Array.isArray(v)) {
+                writeByte(7);
+                writeVarint(v.length);
+                for (var i = 0; i < v.length; i++) {
+                    writeValue(v[i]);
+                }
+            } else {
+                var keys = Object.keys(v);
+                writeByte(8);
+                writeVarint(keys.length);
+                for (var j = 0; j < keys.length; j++) {
+                    writeString(keys[j]);
+                    writeValue(v[keys[j]]);
+                }
+            }
+        };
+
+        writeByte(1);
+        writeValue(value);
+        return bytes.subarray(0, length);
+    }-*/;
+
+    /**
+     * Decodes a message received from the server.
+     *
+     * @param buffer
+     *            the <code>ArrayBuffer</code> containing the message
+     * @return the decoded message, or <code>null</code> if the message could
+     *         not be decoded
+     */
+    public static ValueMap decode(JavaScriptObject buffer) {
+        if (buffer == null) {
+            return null;
+        }
+        final double start = Profiler.getRelativeTimeMillis();
+        try {
+            ValueMap json = doDecode(buffer);
+            Console.log("Binary message decoding took "
+                    + Profiler.getRelativeTimeString(start) + "ms");
+            return json;
+        } catch (JavaScriptException e) {
+            Console.error("Unable to decode binary message: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private static native ValueMap doDecode(JavaScriptObject buffer)
+    /*-{
+        var bytes = new $wnd.Uint8Array(buffer);
+        var view = new $wnd.DataView(buffer);
+        var position = 0;
+        var strings = [];
+        var decoder = new $wnd.TextDecoder();
+
+        var readByte = function() {
+            if (position >= bytes.length) {
+                throw new Error('Unexpected end of binary JSON');
+            }
+            return bytes[position++];
+        };
+        var readVarint = function() {
+            var result = 0;
+            var multiplier = 1;
+            var b;
+            do {
+                b = readByte();
+                result += (b & 127) * multiplier;
+                multiplier *= 128;
+            } while (b & 128);
+            return result;
+        };
+        var readString = function(tag) {
+            if (tag === 6) {
+                var index = readVarint();
+                if (index >= strings.length) {
+                    throw new Error('Unknown string reference ' + index);
+                }
+                return strings[index];
+            }
+            if (tag !== 5) {
+                throw new Error('Expected a string but got tag ' + tag);
+            }
+            var length = readVarint();
+            if (position + length > bytes.length) {
+                throw new Error('Unexpected end of binary JSON');
+            }
+            var s = decoder.decode(bytes.subarray(position, position + length));
+            position += length;
+            strings.push(s);
+            return s;
+        };
+        var readValue = function() {
+            var tag = readByte();
+            switch (tag) {
+            case 0:
+                return null;
+            case 1:
+                return false;
+            case 2:
+                return true;
+            case 3:
+                var zigzag = readVarint();
+                return zigzag % 2 === 0 ? zigzag / 2 : -(zigzag + 1) / 2;
+            case 4:
+                var d = view.getFloat64(position, true);
+                position += 8;
+                return d;
+            case 5:
+            case 6:
+                return readString(tag);
+            case 7:
+                var count = readVarint();
+                var array = [];
+                for (var i = 0; i < count; i++) {
+                    array.push(readValue());
+                }
+                return array;
+            case 8:
+                var size = readVarint();
+                var object = {};
+                for (var j = 0; j < size; j++) {
+                    var key = readString(readByte());
+                    var value = readValue();
+                    if (key === '__proto__') {
+                        Object.defineProperty(object, key, { value: value,
+                            enumerable: true, writable: true,
+                            configurable: true });
+                    } else {
+                        object[key] = value;
+                    }
+                }
+                return object;
+            default:
+                throw new Error('Unknown binary JSON tag ' + tag);
+            }
+        };
+
+        var version = readByte();
+        if (version !== 1) {
+            throw new Error('Unsupported binary JSON version ' + version);
+        }
+        var result = readValue();
+        if (position !== bytes.length) {
+            throw new Error('Unexpected data after the binary JSON value');
+        }
+        return result;
+    }-*/;
+}
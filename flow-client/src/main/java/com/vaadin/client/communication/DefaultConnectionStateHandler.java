@@ -28,6 +28,7 @@ import com.vaadin.client.UILifecycle;
 import com.vaadin.client.UILifecycle.UIState;
 import com.vaadin.client.WidgetUtil;
 import com.vaadin.client.communication.AtmospherePushConnection.AtmosphereResponse;
+import com.vaadin.client.gwt.elemental.js.util.Xhr;
 
 import elemental.json.JsonObject;
 
@@ -397,7 +398,8 @@ public class DefaultConnectionStateHandler implements ConnectionStateHandler {
         debug("xhrInvalidContent");
         endRequest();
 
-        String responseText = xhrConnectionError.getXhr().getResponseText();
+        String responseText = Xhr
+                .getResponseText(xhrConnectionError.getXhr());
         /*
          * A servlet filter or equivalent may have intercepted the request and
          * served non-UIDL content (for instance, a login page if the session
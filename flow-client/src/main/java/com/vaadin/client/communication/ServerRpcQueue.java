@@ -16,16 +16,28 @@
 package com.vaadin.client.communication;
 
 import com.google.gwt.core.client.Scheduler;
+import com.google.gwt.user.client.Timer;
 import com.vaadin.client.Console;
 import com.vaadin.client.Registry;
+import com.vaadin.flow.shared.JsonConstants;
 
 import elemental.json.Json;
 import elemental.json.JsonArray;
+import elemental.json.JsonObject;
+import elemental.json.JsonType;
 import elemental.json.JsonValue;
 
 /**
  * Manages the queue of server invocations (RPC) which are waiting to be sent to
  * the server.
+ * <p>
+ * Invocations which only carry the latest state are coalesced while they are
+ * waiting to be sent: a property sync replaces a pending sync of the same node
+ * property, and an intermediate event of a throttled listener replaces a
+ * pending intermediate event of the same type for the same node. An earlier
+ * invocation is only replaced if there are no other invocations than property
+ * syncs after it in the queue, so that the server sees the same state for all
+ * other invocations as it would without coalescing.
  *
  * @author Vaadin Ltd
  * @since 1.0
@@ -66,9 +78,73 @@ public class ServerRpcQueue {
                     "Trying to invoke method on not yet started or stopped application");
             return;
         }
+        removeCoalescedInvocation(invocation);
         pendingInvocations.set(pendingInvocations.length(), invocation);
     }
 
+    private void removeCoalescedInvocation(JsonValue invocation) {
+        String key = getCoalescingKey(invocation);
+        if (key == null) {
+            return;
+        }
+        for (int i = pendingInvocations.length() - 1; i >= 0; i--) {
+            JsonValue pending = pendingInvocations.get(i);
+            if (key.equals(getCoalescingKey(pending))) {
+                pendingInvocations.remove(i);
+                return;
+            }
+            if (!isMapSync(pending)) {
+                return;
+            }
+        }
+    }
+
+    private static boolean isMapSync(JsonValue invocation) {
+        return JsonConstants.RPC_TYPE_MAP_SYNC
+                .equals(getString(invocation, JsonConstants.RPC_TYPE));
+    }
+
+    /**
+     * Gets the key identifying invocations which can be coalesced with each
+     * other.
+     *
+     * @param invocation
+     *            the invocation to get the key for
+     * @return the coalescing key, or <code>null</code> if the invocation
+     *         cannot be coalesced
+     */
+    private static String getCoalescingKey(JsonValue invocation) {
+        String type = getString(invocation, JsonConstants.RPC_TYPE);
+        if (JsonConstants.RPC_TYPE_MAP_SYNC.equals(type)) {
+            JsonObject object = (JsonObject) invocation;
+            return type + ':' + (int) object.getNumber(JsonConstants.RPC_NODE)
+                    + ':' + (int) object.getNumber(JsonConstants.RPC_FEATURE)
+                    + ':' + object.getString(JsonConstants.RPC_PROPERTY);
+        }
+        if (JsonConstants.RPC_TYPE_EVENT.equals(type)) {
+            JsonObject object = (JsonObject) invocation;
+            JsonValue eventData = object.get(JsonConstants.RPC_EVENT_DATA);
+            if (JsonConstants.EVENT_PHASE_INTERMEDIATE.equals(
+                    getString(eventData, JsonConstants.EVENT_DATA_PHASE))) {
+                return type + ':'
+                        + (int) object.getNumber(JsonConstants.RPC_NODE) + ':'
+                        + object.getString(JsonConstants.RPC_EVENT_TYPE);
+            }
+        }
+        return null;
+    }
+
+    private static String getString(JsonValue value, String key) {
+        if (value == null || value.getType() != JsonType.OBJECT) {
+            return null;
+        }
+        JsonValue property = ((JsonObject) value).get(key);
+        if (property == null || property.getType() != JsonType.STRING) {
+            return null;
+        }
+        return property.asString();
+    }
+
     /**
      * Clears the queue.
      */
@@ -98,6 +174,12 @@ public class ServerRpcQueue {
 
     /**
      * Triggers a send of server RPC and legacy variable changes to the server.
+     * <p>
+     * If an RPC batch window is configured, the invocations are sent when the
+     * window has elapsed, so that invocations added during the window are sent
+     * in the same request.
+     *
+     * @see com.vaadin.client.ApplicationConfiguration#getRpcBatchWindow()
      */
     public void flush() {
         if (isFlushScheduled() || isEmpty()) {
@@ -106,9 +188,20 @@ public class ServerRpcQueue {
         flushPending = true;
 
         doFlushStrategy = this::doFlush;
-        // Deferred so we can be sure that all event handlers have been invoked
-        // before flushing the queue
-        Scheduler.get().scheduleDeferred(() -> doFlushStrategy.run());
+        int batchWindow = registry.getApplicationConfiguration()
+                .getRpcBatchWindow();
+        if (batchWindow > 0) {
+            new Timer() {
+                @Override
+                public void run() {
+                    doFlushStrategy.run();
+                }
+            }.schedule(batchWindow);
+        } else {
+            // Deferred so we can be sure that all event handlers have been
+            // invoked before flushing the queue
+            Scheduler.get().scheduleDeferred(() -> doFlushStrategy.run());
+        }
     }
 
     /**
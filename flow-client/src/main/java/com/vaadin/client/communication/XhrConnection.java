@@ -15,6 +15,7 @@
  */
 package com.vaadin.client.communication;
 
+import com.google.gwt.core.client.JavaScriptObject;
 import com.google.gwt.user.client.Timer;
 import com.google.gwt.xhr.client.XMLHttpRequest;
 import com.vaadin.client.BrowserInfo;
@@ -117,22 +118,34 @@ public class XhrConnection {
             Console.log("Server visit took "
                     + Profiler.getRelativeTimeString(requestStartTime) + "ms");
 
-            // for(;;);["+ realJson +"]"
-            String responseText = xhr.getResponseText();
-
-            ValueMap json = MessageHandler.parseWrappedJson(responseText);
+            ValueMap json;
+            if (isBinaryResponse(xhr)) {
+                json = BinaryJson.decode(Xhr.getResponse(xhr));
+            } else {
+                // for(;;);["+ realJson +"]"
+                String responseText = Xhr.getResponseText(xhr);
+                json = MessageHandler.parseWrappedJson(responseText);
+                if (json != null) {
+                    Console.log("Received xhr message: " + responseText);
+                }
+            }
             if (json == null) {
-                // Invalid string (not wrapped as expected or can't parse)
+                // Invalid content (not wrapped as expected or can't parse)
                 registry.getConnectionStateHandler().xhrInvalidContent(
                         new XhrConnectionError(xhr, payload, null));
                 return;
             }
 
             registry.getConnectionStateHandler().xhrOk();
-            Console.log("Received xhr message: " + responseText);
             registry.getMessageHandler().handleMessage(json);
         }
 
+        private boolean isBinaryResponse(XMLHttpRequest xhr) {
+            String contentType = xhr.getResponseHeader("Content-Type");
+            return contentType != null && contentType
+                    .startsWith(JsonConstants.BINARY_CONTENT_TYPE);
+        }
+
         /**
          * Sets the relative time (see {@link Profiler#getRelativeTimeMillis()})
          * when the request was sent.
@@ -157,11 +170,22 @@ public class XhrConnection {
         responseHandler.setPayload(payload);
         responseHandler.setRequestStartTime(Profiler.getRelativeTimeMillis());
 
-        String payloadJson = WidgetUtil.stringify(payload);
-        XMLHttpRequest xhr = Xhr.post(getUri(), payloadJson,
-                JsonConstants.JSON_CONTENT_TYPE, responseHandler);
-
-        Console.log("Sending xhr message to server: " + payloadJson);
+        XMLHttpRequest xhr;
+        if (isBinaryProtocol()) {
+            JavaScriptObject message = BinaryJson.encode(payload);
+            xhr = Xhr.postBinary(getUri(), message,
+                    JsonConstants.BINARY_CONTENT_TYPE, responseHandler);
+
+            // Log the object as is to avoid serializing it to JSON
+            Console.log("Sending binary xhr message to server:");
+            Console.log(payload);
+        } else {
+            String payloadJson = WidgetUtil.stringify(payload);
+            xhr = Xhr.post(getUri(), payloadJson,
+                    JsonConstants.JSON_CONTENT_TYPE, responseHandler);
+
+            Console.log("Sending xhr message to server: " + payloadJson);
+        }
 
         if (webkitMaybeIgnoringRequests && BrowserInfo.get().isWebkit()) {
             final int retryTimeout = 250;
@@ -178,6 +202,18 @@ public class XhrConnection {
         }
     }
 
+    /**
+     * Checks whether messages are sent using the compact binary encoding
+     * instead of JSON text.
+     *
+     * @return <code>true</code> to use the binary encoding, <code>false</code>
+     *         to use JSON
+     */
+    protected boolean isBinaryProtocol() {
+        return registry.getApplicationConfiguration().isBinaryProtocol()
+                && BinaryJson.isSupported();
+    }
+
     /**
      * Retrieves the URI to use when sending RPCs to the server
      *
@@ -16,6 +16,7 @@
 package com.vaadin.client.gwt.elemental.js.util;
 
 import com.google.gwt.core.client.JavaScriptException;
+import com.google.gwt.core.client.JavaScriptObject;
 import com.google.gwt.xhr.client.ReadyStateChangeHandler;
 import com.google.gwt.xhr.client.XMLHttpRequest;
 import com.vaadin.client.Console;
@@ -183,6 +184,81 @@ public class Xhr {
                 callback);
     }
 
+    /**
+     * Send a POST request with binary data to the <code>url</code> and
+     * dispatch updates to the <code>callback</code>. The response is received
+     * as an <code>ArrayBuffer</code>, see {@link #getResponse(XMLHttpRequest)}
+     * and {@link #getResponseText(XMLHttpRequest)}.
+     *
+     * @param url
+     *            the URL
+     * @param requestData
+     *            the typed array or <code>ArrayBuffer</code> to be passed to
+     *            XMLHttpRequest.send
+     * @param contentType
+     *            a value for the Content-Type HTTP header
+     * @param callback
+     *            the callback to notify
+     * @return a reference to the sent XmlHttpRequest
+     */
+    public static XMLHttpRequest postBinary(String url,
+            JavaScriptObject requestData, String contentType,
+            Callback callback) {
+        XMLHttpRequest xhr = create();
+        try {
+            xhr.setOnReadyStateChange(new Handler(callback));
+            xhr.open("POST", url);
+            xhr.setRequestHeader("Content-type", contentType);
+            xhr.setWithCredentials(true);
+            sendBinary(xhr, requestData);
+        } catch (JavaScriptException e) {
+            // Just fail.
+            Console.error(e);
+            callback.onFail(xhr, e);
+            xhr.clearOnReadyStateChange();
+        }
+        return xhr;
+    }
+
+    /**
+     * Gets the binary response of a request sent using
+     * {@link #postBinary(String, JavaScriptObject, String, Callback)}.
+     *
+     * @param xhr
+     *            the request object
+     * @return the <code>ArrayBuffer</code> with the response, or
+     *         <code>null</code> if not available
+     */
+    public static native JavaScriptObject getResponse(XMLHttpRequest xhr)
+    /*-{
+        return xhr.response || null;
+    }-*/;
+
+    /**
+     * Gets the response of a request as text, also for requests where the
+     * response has been received as binary data.
+     *
+     * @param xhr
+     *            the request object
+     * @return the response text, or <code>null</code> if not available
+     */
+    public static native String getResponseText(XMLHttpRequest xhr)
+    /*-{
+        if (xhr.responseType === 'arraybuffer') {
+            return xhr.response
+                ? new $wnd.TextDecoder().decode(new $wnd.Uint8Array(xhr.response))
+                : null;
+        }
+        return xhr.responseText;
+    }-*/;
+
+    private static native void sendBinary(XMLHttpRequest xhr,
+            JavaScriptObject requestData)
+    /*-{
+        xhr.responseType = 'arraybuffer';
+        xhr.send(requestData);
+    }-*/;
+
     private static XMLHttpRequest create() {
         return create(Browser.getWindow());
     }
@@ -0,0 +1,140 @@
+/*
+ * Copyright 2000-2020 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.client.communication;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import com.vaadin.client.Registry;
+import com.vaadin.client.UILifecycle;
+import com.vaadin.flow.shared.JsonConstants;
+
+import elemental.json.Json;
+import elemental.json.JsonObject;
+
+public class ServerRpcQueueTest {
+
+    private Registry registry = Mockito.mock(Registry.class);
+    private UILifecycle lifecycle = Mockito.mock(UILifecycle.class);
+
+    private ServerRpcQueue queue = new ServerRpcQueue(registry);
+
+    @Before
+    public void setUp() {
+        Mockito.when(registry.getUILifecycle()).thenReturn(lifecycle);
+        Mockito.when(lifecycle.isRunning()).thenReturn(true);
+    }
+
+    @Test
+    public void add_repeatedSync_onlyLatestValueQueued() {
+        queue.add(createSync(1, "value", "a"));
+        queue.add(createSync(2, "value", "b"));
+        queue.add(createSync(1, "checked", "c"));
+        queue.add(createSync(1, "value", "d"));
+
+        Assert.assertEquals(3, queue.size());
+        assertSync(0, 2, "value", "b");
+        assertSync(1, 1, "checked", "c");
+        assertSync(2, 1, "value", "d");
+    }
+
+    @Test
+    public void add_syncAfterEvent_notCoalesced() {
+        queue.add(createSync(1, "value", "a"));
+        queue.add(createEvent(1, "change", null));
+        queue.add(createSync(1, "value", "b"));
+
+        Assert.assertEquals(3, queue.size());
+        assertSync(0, 1, "value", "a");
+        assertSync(2, 1, "value", "b");
+    }
+
+    @Test
+    public void add_repeatedIntermediateEvent_onlyLatestEventQueued() {
+        queue.add(createEvent(1, "input",
+                JsonConstants.EVENT_PHASE_INTERMEDIATE));
+        queue.add(createSync(1, "value", "a"));
+        queue.add(createEvent(1, "input",
+                JsonConstants.EVENT_PHASE_INTERMEDIATE));
+
+        Assert.assertEquals(2, queue.size());
+        assertSync(0, 1, "value", "a");
+        Assert.assertEquals(JsonConstants.RPC_TYPE_EVENT,
+                queue.toJson().getObject(1).getString(JsonConstants.RPC_TYPE));
+    }
+
+    @Test
+    public void add_repeatedEventsWithoutIntermediatePhase_allQueued() {
+        queue.add(createEvent(1, "click", null));
+        queue.add(createEvent(1, "click", null));
+        queue.add(createEvent(1, "input", JsonConstants.EVENT_PHASE_TRAILING));
+        queue.add(createEvent(1, "input", JsonConstants.EVENT_PHASE_TRAILING));
+
+        Assert.assertEquals(4, queue.size());
+    }
+
+    @Test
+    public void add_intermediateEventsForDifferentNodes_allQueued() {
+        queue.add(createEvent(1, "input",
+                JsonConstants.EVENT_PHASE_INTERMEDIATE));
+        queue.add(createEvent(2, "input",
+                JsonConstants.EVENT_PHASE_INTERMEDIATE));
+        queue.add(createEvent(1, "input",
+                JsonConstants.EVENT_PHASE_INTERMEDIATE));
+
+        Assert.assertEquals(3, queue.size());
+    }
+
+    private void assertSync(int index, int node, String property,
+            String value) {
+        JsonObject invocation = queue.toJson().getObject(index);
+        Assert.assertEquals(JsonConstants.RPC_TYPE_MAP_SYNC,
+                invocation.getString(JsonConstants.RPC_TYPE));
+        Assert.assertEquals(node,
+                (int) invocation.getNumber(JsonConstants.RPC_NODE));
+        Assert.assertEquals(property,
+                invocation.getString(JsonConstants.RPC_PROPERTY));
+        Assert.assertEquals(value,
+                invocation.getString(JsonConstants.RPC_PROPERTY_VALUE));
+    }
+
+    private static JsonObject createSync(int node, String property,
+            String value) {
+        JsonObject message = Json.createObject();
+        message.put(JsonConstants.RPC_TYPE, JsonConstants.RPC_TYPE_MAP_SYNC);
+        message.put(JsonConstants.RPC_NODE, node);
+        message.put(JsonConstants.RPC_FEATURE, 1);
+        message.put(JsonConstants.RPC_PROPERTY, property);
+        message.put(JsonConstants.RPC_PROPERTY_VALUE, value);
+        return message;
+    }
+
+    private static JsonObject createEvent(int node, String type,
+            String phase) {
+        JsonObject message = Json.createObject();
+        message.put(JsonConstants.RPC_TYPE, JsonConstants.RPC_TYPE_EVENT);
+        message.put(JsonConstants.RPC_NODE, node);
+        message.put(JsonConstants.RPC_EVENT_TYPE, type);
+        if (phase != null) {
+            JsonObject eventData = Json.createObject();
+            eventData.put(JsonConstants.EVENT_DATA_PHASE, phase);
+            message.put(JsonConstants.RPC_EVENT_DATA, eventData);
+        }
+        return message;
+    }
+}
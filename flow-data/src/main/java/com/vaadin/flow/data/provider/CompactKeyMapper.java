@@ -0,0 +1,293 @@
+/*
+ * Copyright 2000-2020 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.data.provider;
+
+import java.io.Serializable;
+import java.lang.ref.Reference;
+import java.lang.ref.SoftReference;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Objects;
+
+import com.vaadin.flow.function.SerializableFunction;
+import com.vaadin.flow.function.ValueProvider;
+import com.vaadin.flow.internal.IntObjectMap;
+
+/**
+ * A {@link DataKeyMapper} that uses less memory per mapped object than
+ * {@link KeyMapper}.
+ * <p>
+ * Keys are sequential <code>int</code> values stored in a primitive map, and
+ * are only converted to strings when they are sent to the client. Each mapped
+ * object uses a single entry shared by the lookups by key and by identifier.
+ * <p>
+ * Optionally, the mapped objects can be referenced through soft or weak
+ * references, so that the garbage collector can reclaim objects that are not
+ * used elsewhere. A reclaimed object is loaded again by its identifier with the
+ * function given to {@link #setReferenceType(ReferenceType, SerializableFunction)}
+ * when it is needed.
+ *
+ * @param <V>
+ *            the type of mapped objects
+ *
+ * @author Vaadin Ltd
+ * @since 6.0
+ */
+public class CompactKeyMapper<V> implements DataKeyMapper<V> {
+
+    /**
+     * The type of reference used for the mapped objects.
+     */
+    public enum ReferenceType {
+        /**
+         * Objects are kept in memory as long as they are mapped.
+         */
+        STRONG,
+        /**
+         * Objects may be reclaimed when memory is running low.
+         */
+        SOFT,
+        /**
+         * Objects may be reclaimed as soon as they are not used elsewhere.
+         */
+        WEAK
+    }
+
+    private static final class Entry<V> implements Serializable {
+        private final int key;
+        private Object id;
+        private V item;
+        // Not serialized, the item is loaded again when needed
+        private transient Reference<V> reference;
+
+        private Entry(int key, Object id) {
+            this.key = key;
+            this.id = id;
+        }
+    }
+
+    private int lastKey = 0;
+
+    private final IntObjectMap<Entry<V>> keyEntryMap = new IntObjectMap<>();
+
+    private final HashMap<Object, Entry<V>> idEntryMap = new HashMap<>();
+
+    private ValueProvider<V, Object> identifierGetter;
+
+    private ReferenceType referenceType = ReferenceType.STRONG;
+
+    private SerializableFunction<Object, V> itemLoader;
+
+    /**
+     * Constructs a new mapper.
+     *
+     * @param identifierGetter
+     *            has to return a unique key for every bean, and the returned
+     *            key has to follow general {@code hashCode()} and
+     *            {@code equals()} contract, see {@link Object#hashCode()} for
+     *            details.
+     */
+    public CompactKeyMapper(ValueProvider<V, Object> identifierGetter) {
+        this.identifierGetter = identifierGetter;
+    }
+
+    /**
+     * Constructs a new mapper with trivial {@code identifierGetter}
+     */
+    public CompactKeyMapper() {
+        this(v -> v);
+    }
+
+    /**
+     * Sets the type of reference used for the mapped objects. When soft or
+     * weak references are used, objects reclaimed by the garbage collector are
+     * loaded again using the given function. Objects for which the function
+     * returns <code>null</code> are removed from the mapper.
+     *
+     * @param referenceType
+     *            the reference type, not <code>null</code>
+     * @param itemLoader
+     *            function for loading an object by its identifier, not
+     *            <code>null</code> unless the reference type is
+     *            {@link ReferenceType#STRONG}
+     */
+    public void setReferenceType(ReferenceType referenceType,
+            SerializableFunction<Object, V> itemLoader) {
+        Objects.requireNonNull(referenceType, "Reference type cannot be null");
+        if (referenceType != ReferenceType.STRONG) {
+            Objects.requireNonNull(itemLoader,
+                    "Item loader is required for " + referenceType
+                            + " references");
+        }
+        this.itemLoader = itemLoader;
+        if (this.referenceType != referenceType) {
+            this.referenceType = referenceType;
+            for (Entry<V> entry : new ArrayList<>(idEntryMap.values())) {
+                V item = getItem(entry);
+                if (item != null) {
+                    setItem(entry, item);
+                }
+            }
+        }
+    }
+
+    /**
+     * Gets the type of reference used for the mapped objects.
+     *
+     * @return the reference type, not <code>null</code>
+     */
+    public ReferenceType getReferenceType() {
+        return referenceType;
+    }
+
+    @Override
+    public String key(V o) {
+        if (o == null) {
+            return "null";
+        }
+
+        Object id = identifierGetter.apply(o);
+        Entry<V> entry = idEntryMap.get(id);
+        if (entry == null) {
+            entry = new Entry<>(++lastKey, id);
+            idEntryMap.put(id, entry);
+            keyEntryMap.put(entry.key, entry);
+            setItem(entry, o);
+        }
+        return Integer.toString(entry.key);
+    }
+
+    @Override
+    public boolean has(V o) {
+        return idEntryMap.containsKey(identifierGetter.apply(o));
+    }
+
+    @Override
+    public V get(String key) {
+        Entry<V> entry = getEntry(key);
+        return entry == null ? null : getItem(entry);
+    }
+
+    /**
+     * Checks if the given key is mapped to an object.
+     *
+     * @param key
+     *            the key to check
+     * @return <code>true</code> if the key is currently mapped,
+     *         <code>false</code> otherwise
+     */
+    public boolean containsKey(String key) {
+        return getEntry(key) != null;
+    }
+
+    @Override
+    public void remove(V removeobj) {
+        Entry<V> entry = idEntryMap.remove(identifierGetter.apply(removeobj));
+        if (entry != null) {
+            keyEntryMap.remove(entry.key);
+        }
+    }
+
+    @Override
+    public void removeAll() {
+        idEntryMap.clear();
+        keyEntryMap.clear();
+    }
+
+    @Override
+    public void refresh(V dataObject) {
+        Entry<V> entry = idEntryMap.get(identifierGetter.apply(dataObject));
+        if (entry != null) {
+            setItem(entry, dataObject);
+        }
+    }
+
+    @Override
+    public void setIdentifierGetter(ValueProvider<V, Object> identifierGetter) {
+        if (this.identifierGetter != identifierGetter) {
+            List<Entry<V>> entries = new ArrayList<>(idEntryMap.values());
+            idEntryMap.clear();
+            for (Entry<V> entry : entries) {
+                // Objects are loaded with the old identifier
+                V item = getItem(entry);
+                if (item == null) {
+                    keyEntryMap.remove(entry.key);
+                } else {
+                    entry.id = identifierGetter.apply(item);
+                    idEntryMap.put(entry.id, entry);
+                }
+            }
+            this.identifierGetter = identifierGetter;
+        }
+    }
+
+    /**
+     * Gets the number of mapped objects.
+     *
+     * @return the number of mapped objects
+     */
+    public int size() {
+        return keyEntryMap.size();
+    }
+
+    private Entry<V> getEntry(String key) {
+        // Only accept keys in the canonical form created by this mapper
+        if (key == null || key.isEmpty() || key.length() > 10
+                || key.charAt(0) < '1' || key.charAt(0) > '9') {
+            return null;
+        }
+        try {
+            return keyEntryMap.get(Integer.parseInt(key));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private V getItem(Entry<V> entry) {
+        if (entry.item != null) {
+            return entry.item;
+        }
+        V item = entry.reference == null ? null : entry.reference.get();
+        if (item == null && itemLoader != null) {
+            item = itemLoader.apply(entry.id);
+            if (item == null) {
+                idEntryMap.remove(entry.id);
+                keyEntryMap.remove(entry.key);
+            } else {
+                setItem(entry, item);
+            }
+        }
+        return item;
+    }
+
+    private void setItem(Entry<V> entry, V item) {
+        switch (referenceType) {
+        case SOFT:
+            entry.item = null;
+            entry.reference = new SoftReference<>(item);
+            break;
+        case WEAK:
+            entry.item = null;
+            entry.reference = new WeakReference<>(item);
+            break;
+        default:
+            entry.item = item;
+            entry.reference = null;
+        }
+    }
+}
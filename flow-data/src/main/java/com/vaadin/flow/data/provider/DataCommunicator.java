@@ -25,6 +25,10 @@ import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.BiFunction;
 import java.util.function.Consumer;
@@ -33,16 +37,20 @@ import java.util.stream.Stream;
 
 import com.vaadin.flow.component.Component;
 import com.vaadin.flow.component.ComponentUtil;
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.component.UIDetachedException;
 import com.vaadin.flow.data.provider.ArrayUpdater.Update;
 import com.vaadin.flow.data.provider.DataChangeEvent.DataRefreshEvent;
 import com.vaadin.flow.dom.Element;
 import com.vaadin.flow.function.SerializableComparator;
 import com.vaadin.flow.function.SerializableConsumer;
+import com.vaadin.flow.function.SerializableFunction;
 import com.vaadin.flow.function.SerializableSupplier;
 import com.vaadin.flow.internal.ExecutionContext;
 import com.vaadin.flow.internal.JsonUtils;
 import com.vaadin.flow.internal.Range;
 import com.vaadin.flow.internal.StateNode;
+import com.vaadin.flow.server.Command;
 import com.vaadin.flow.shared.Registration;
 import org.slf4j.LoggerFactory;
 
@@ -123,6 +131,16 @@ public class DataCommunicator<T> implements Serializable {
 
     private boolean fetchEnabled;
 
+    private transient Executor fetchExecutor;
+    private transient PendingFetch<T> pendingFetch;
+    private PrefetchedData<T> prefetchedData;
+    // Incremented whenever previously fetched data becomes invalid
+    private int dataVersion;
+
+    private DataPageCache<T> pageCache;
+    // Difference between the starts of the two latest requested ranges
+    private int scrollDelta;
+
     /**
      * In-memory data provider with no items.
      * <p>
@@ -227,6 +245,90 @@ public class DataCommunicator<T> implements Serializable {
         }
     }
 
+    /**
+     * Items and item count fetched in the background for a requested range.
+     */
+    private static class PrefetchedData<T> implements Serializable {
+        private final int dataVersion;
+        private final Range range;
+        private final Integer size;
+        private final List<T> items;
+        private final boolean failed;
+
+        private PrefetchedData(int dataVersion, Range range, Integer size,
+                List<T> items, boolean failed) {
+            this.dataVersion = dataVersion;
+            this.range = range;
+            this.size = size;
+            this.items = items;
+            this.failed = failed;
+        }
+
+        private boolean matches(int dataVersion, Range range) {
+            return this.dataVersion == dataVersion && this.range.equals(range);
+        }
+
+        /**
+         * Gets the prefetched items in the given range, or {@code null} if
+         * the range was not fully fetched.
+         */
+        private Stream<T> getItems(int offset, int limit) {
+            if (failed || offset < range.getStart()) {
+                return null;
+            }
+            int end = range.getStart() + items.size();
+            // Fewer items than requested means that the end was reached
+            boolean complete = items.size() < range.length();
+            if (offset + limit > end && !complete) {
+                return null;
+            }
+            int from = Math.min(offset, end) - range.getStart();
+            int to = Math.min(offset + limit, end) - range.getStart();
+            return items.subList(from, to).stream();
+        }
+    }
+
+    /**
+     * A background fetch that has not yet been applied.
+     */
+    private static class PendingFetch<T> implements Serializable {
+        private final int dataVersion;
+        private final Range range;
+        private final transient FutureTask<PrefetchedData<T>> task;
+
+        private PendingFetch(int dataVersion, Range range,
+                FutureTask<PrefetchedData<T>> task) {
+            this.dataVersion = dataVersion;
+            this.range = range;
+            this.task = task;
+        }
+    }
+
+    /**
+     * The inputs of data provider queries, copied while the session is locked
+     * so that a background fetch does not read fields that may be changed
+     * concurrently.
+     */
+    private static class QueryInputs<T> {
+        private final Object filter;
+        private final List<QuerySortOrder> backEndSorting;
+        private final SerializableComparator<T> inMemorySorting;
+        private final DataProvider<T, ?> dataProvider;
+        private final CallbackDataProvider.CountCallback<T, ?> countCallback;
+        private final int pageSize;
+        private final boolean pagingEnabled;
+
+        private QueryInputs(DataCommunicator<T> communicator) {
+            filter = communicator.getFilter();
+            backEndSorting = new ArrayList<>(communicator.backEndSorting);
+            inMemorySorting = communicator.inMemorySorting;
+            dataProvider = communicator.getDataProvider();
+            countCallback = communicator.countCallback;
+            pageSize = communicator.pageSize;
+            pagingEnabled = communicator.pagingEnabled;
+        }
+    }
+
     private static class SizeVerifier<T> implements Consumer<T>, Serializable {
 
         private int size;
@@ -315,6 +417,7 @@ public class DataCommunicator<T> implements Serializable {
      *            the end of the requested range
      */
     public void setRequestedRange(int start, int length) {
+        scrollDelta = start - requestedRange.getStart();
         requestedRange = Range.withLength(start, length);
 
         requestFlush();
@@ -326,6 +429,10 @@ public class DataCommunicator<T> implements Serializable {
      * It effectively resends all available data.
      */
     public void reset() {
+        dataVersion++;
+        if (pageCache != null) {
+            pageCache.clear();
+        }
         skipCountIncreaseUntilReset = false;
         sizeReset = true;
         resendEntireRange = true;
@@ -344,6 +451,9 @@ public class DataCommunicator<T> implements Serializable {
         Objects.requireNonNull(data,
                 "DataCommunicator can not refresh null object");
         getKeyMapper().refresh(data);
+        if (pageCache != null) {
+            pageCache.refresh(data, getDataProvider()::getId);
+        }
         dataGenerator.refreshData(data);
         updatedData.add(data);
         requestFlushUpdatedData();
@@ -761,6 +871,49 @@ public class DataCommunicator<T> implements Serializable {
         this.keyMapper = keyMapper;
     }
 
+    /**
+     * Makes this data communicator use a {@link CompactKeyMapper}, which uses
+     * less memory per item than the default {@link KeyMapper}. This must be
+     * done before any data has been sent to the client, e.g. when the
+     * component is created.
+     * <p>
+     * With {@link CompactKeyMapper.ReferenceType#SOFT} or
+     * {@link CompactKeyMapper.ReferenceType#WEAK} references, the items sent
+     * to the client may be reclaimed by the garbage collector, and are loaded
+     * again by their identifier with the given loader when they are needed,
+     * e.g. when the user selects an item. The loader typically looks the item
+     * up in the backend. Memory is only saved if the data provider identifies
+     * items by something else than the items themselves, see
+     * {@link DataProvider#getId(Object)}, and nothing else keeps the items in
+     * memory, which is not the case for a {@link ListDataProvider}.
+     *
+     * @param referenceType
+     *            the type of reference used for the items, not
+     *            <code>null</code>
+     * @param itemLoader
+     *            function for loading an item by its identifier, not
+     *            <code>null</code> unless the reference type is
+     *            {@link CompactKeyMapper.ReferenceType#STRONG}
+     * @return the key mapper used by this data communicator from now on
+     * @throws IllegalStateException
+     *             if data has already been sent to the client
+     */
+    public CompactKeyMapper<T> useCompactKeyMapper(
+            CompactKeyMapper.ReferenceType referenceType,
+            SerializableFunction<Object, T> itemLoader) {
+        if (!activeKeyOrder.isEmpty() || !passivatedByUpdate.isEmpty()) {
+            // Keys of the new mapper could collide with keys on the client
+            throw new IllegalStateException(
+                    "The key mapper cannot be changed after data has been sent to the client");
+        }
+        CompactKeyMapper<T> compactKeyMapper = new CompactKeyMapper<>(
+                dataProvider::getId);
+        compactKeyMapper.setReferenceType(referenceType, itemLoader);
+        getKeyMapper().removeAll();
+        setKeyMapper(compactKeyMapper);
+        return compactKeyMapper;
+    }
+
     /**
      * Sets the {@link Comparator} to use with in-memory sorting.
      *
@@ -861,6 +1014,92 @@ public class DataCommunicator<T> implements Serializable {
         this.fetchEnabled = fetchEnabled;
     }
 
+    /**
+     * Sets an executor for querying the data provider in the background
+     * instead of while holding the session lock. By default, the data provider
+     * is queried synchronously when the response to the client is written,
+     * which blocks all other requests of the same session while a slow query
+     * is running.
+     * <p>
+     * With an executor, the item count and the items for the requested range
+     * are fetched by a task run by the executor, and the results are pushed to
+     * the client through {@link UI#access(Command)} when the task has
+     * completed. A fetch that has not yet completed is cancelled when the
+     * client requests another range or the data is reset, e.g. when the user
+     * keeps scrolling.
+     * <p>
+     * The executor is only used while push is enabled for the UI. Without
+     * push, the results of a background fetch could not be sent until the
+     * client happens to make another request, so the data provider is then
+     * queried synchronously as if no executor was set.
+     * <p>
+     * The data provider and the count callback must support being called from
+     * the executor thread while the session is not locked. They are queried
+     * with the filter, sorting and page size that were in use when the fetch
+     * was started, without calling {@link #fetchFromProvider(int, int)} or
+     * {@link #getDataProviderSize()}. Data that the client already has is not
+     * fetched again.
+     * <p>
+     * The executor is not serialized with the data communicator, so it needs
+     * to be set again after deserialization.
+     *
+     * @param fetchExecutor
+     *            the executor to run data provider queries with, or
+     *            {@code null} to query the data provider synchronously
+     */
+    public void setFetchExecutor(Executor fetchExecutor) {
+        this.fetchExecutor = fetchExecutor;
+        if (fetchExecutor == null) {
+            cancelPendingFetch();
+        }
+    }
+
+    /**
+     * Gets the executor for querying the data provider in the background.
+     *
+     * @return the executor, or {@code null} if the data provider is queried
+     *         synchronously
+     * @see #setFetchExecutor(Executor)
+     */
+    public Executor getFetchExecutor() {
+        return fetchExecutor;
+    }
+
+    /**
+     * Sets the maximum number of items to keep in a cache of fetched items, so
+     * that scrolling back to items that were recently shown does not query the
+     * data provider again. When the cache is enabled, the items beyond the
+     * requested range are fetched in advance in the direction the user is
+     * scrolling, up to {@value #DEFAULT_PAGE_INCREASE_COUNT} pages depending on
+     * how far the requested range moved since the previous request.
+     * <p>
+     * The cache is cleared when the data is reset, e.g. when the filter or
+     * sorting changes or the data provider is refreshed. By default, there is
+     * no cache.
+     *
+     * @param maxItems
+     *            the maximum number of cached items, or 0 to disable the cache
+     * @see #getPageCache()
+     */
+    public void setPageCacheSize(int maxItems) {
+        if (maxItems < 0) {
+            throw new IllegalArgumentException(
+                    "Page cache size cannot be negative, got " + maxItems);
+        }
+        pageCache = maxItems == 0 ? null : new DataPageCache<>(maxItems);
+    }
+
+    /**
+     * Gets the cache of fetched items, e.g. for reading its hit and miss
+     * counts.
+     *
+     * @return the cache, or {@code null} if the cache is disabled
+     * @see #setPageCacheSize(int)
+     */
+    public DataPageCache<T> getPageCache() {
+        return pageCache;
+    }
+
     /**
      * Getter method for determining the item count of the data.
      * <p>
@@ -872,13 +1111,17 @@ public class DataCommunicator<T> implements Serializable {
      *
      * @return the size of data provider with current filter
      */
-    @SuppressWarnings({ "unchecked", "rawtypes" })
     public int getDataProviderSize() {
         assert definedSize : "This method should never be called when using undefined size";
-        if (countCallback != null) {
-            return countCallback.count(new Query(getFilter()));
+        return getDataProviderSize(new QueryInputs<>(this));
+    }
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private int getDataProviderSize(QueryInputs<T> inputs) {
+        if (inputs.countCallback != null) {
+            return inputs.countCallback.count(new Query(inputs.filter));
         } else {
-            return getDataProvider().size(new Query(getFilter()));
+            return inputs.dataProvider.size(new Query(inputs.filter));
         }
     }
 
@@ -920,11 +1163,17 @@ public class DataCommunicator<T> implements Serializable {
      * @return the list of items in given range
      *
      */
-    @SuppressWarnings({ "rawtypes", "unchecked" })
     protected Stream<T> fetchFromProvider(int offset, int limit) {
+        return fetchFromProvider(new QueryInputs<>(this), offset, limit);
+    }
+
+    @SuppressWarnings({ "rawtypes", "unchecked" })
+    private Stream<T> fetchFromProvider(QueryInputs<T> inputs, int offset,
+            int limit) {
         Stream<T> stream;
+        int pageSize = inputs.pageSize;
 
-        if (pagingEnabled) {
+        if (inputs.pagingEnabled) {
             /*
              * Items limit value may not be necessarily multiply of page size,
              * and thus the pages count is rounded to closest smallest integer
@@ -952,25 +1201,25 @@ public class DataCommunicator<T> implements Serializable {
                 int page = 0;
                 do {
                     final int newOffset = offset + page * pageSize;
-                    doFetchFromDataProvider(newOffset, pageSize)
+                    doFetchFromDataProvider(inputs, newOffset, pageSize)
                             .forEach(addItemAndCheckConsumer);
                     page++;
                 } while (page < pages && fetchedPerPage.getAndSet(0) == pageSize);
 
                 stream = streamBuilder.build();
             } else {
-                stream = doFetchFromDataProvider(offset, pageSize);
+                stream = doFetchFromDataProvider(inputs, offset, pageSize);
             }
             limit = pages * pageSize;
         } else {
-            stream = doFetchFromDataProvider(offset, limit);
+            stream = doFetchFromDataProvider(inputs, offset, limit);
         }
 
         if (stream.isParallel()) {
             LoggerFactory.getLogger(DataCommunicator.class)
                     .debug("Data provider {} has returned "
                             + "parallel stream on 'fetch' call",
-                            getDataProvider().getClass());
+                            inputs.dataProvider.getClass());
             stream = stream.collect(Collectors.toList()).stream();
             assert !stream.isParallel();
         }
@@ -980,10 +1229,11 @@ public class DataCommunicator<T> implements Serializable {
     }
 
     @SuppressWarnings({ "rawtypes", "unchecked" })
-    private Stream<T> doFetchFromDataProvider(int offset, int limitedTo) {
-        QueryTrace query = new QueryTrace(offset, limitedTo, backEndSorting,
-                inMemorySorting, getFilter());
-        Stream<T> stream = getDataProvider().fetch(query);
+    private Stream<T> doFetchFromDataProvider(QueryInputs<T> inputs,
+            int offset, int limitedTo) {
+        QueryTrace query = new QueryTrace(offset, limitedTo,
+                inputs.backEndSorting, inputs.inMemorySorting, inputs.filter);
+        Stream<T> stream = inputs.dataProvider.fetch(query);
         verifyQueryContract(query);
         return stream;
     }
@@ -1030,6 +1280,7 @@ public class DataCommunicator<T> implements Serializable {
     }
 
     private void handleDetach() {
+        cancelPendingFetch();
         dataGenerator.destroyAllData();
         if (dataProviderUpdateRegistration != null) {
             dataProviderUpdateRegistration.remove();
@@ -1048,7 +1299,11 @@ public class DataCommunicator<T> implements Serializable {
                     reset();
                     arrayUpdater.initialize();
                 }
-                flush();
+                if (isFetchNeededBeforeFlush(context.getUI())) {
+                    startFetch(context.getUI());
+                } else {
+                    flush();
+                }
                 flushRequest = null;
             };
             stateNode.runWhenAttached(ui -> ui.getInternals().getStateTree()
@@ -1067,7 +1322,183 @@ public class DataCommunicator<T> implements Serializable {
         }
     }
 
+    private boolean isFetchNeededBeforeFlush(UI ui) {
+        if (fetchExecutor == null || (prefetchedData != null
+                && prefetchedData.matches(dataVersion, requestedRange))) {
+            return false;
+        }
+        if (!ui.getPushConfiguration().getPushMode().isEnabled()) {
+            // The result could only be sent with the next client request
+            return false;
+        }
+        if (isSizeNeeded() || resendEntireRange) {
+            return true;
+        }
+        Range needed = definedSize
+                ? requestedRange.restrictTo(Range.withLength(0, assumedSize))
+                : requestedRange;
+        return !needed.isEmpty() && !needed.isSubsetOf(
+                Range.withLength(activeStart, activeKeyOrder.size()));
+    }
+
+    private boolean isSizeNeeded() {
+        return definedSize && (resendEntireRange || sizeReset);
+    }
+
+    private void startFetch(UI ui) {
+        int version = dataVersion;
+        Range range = requestedRange;
+        if (pendingFetch != null) {
+            if (pendingFetch.dataVersion == version
+                    && pendingFetch.range.equals(range)) {
+                // The same data is already being fetched
+                return;
+            }
+            // Superseded by the new range or reset
+            cancelPendingFetch();
+        }
+
+        boolean sizeNeeded = isSizeNeeded();
+        int delta = scrollDelta;
+        DataPageCache<T> cache = pageCache;
+        QueryInputs<T> inputs = new QueryInputs<>(this);
+        FutureTask<PrefetchedData<T>> task = new FutureTask<>(
+                () -> fetchInBackground(version, range, sizeNeeded, delta,
+                        cache, inputs));
+        PendingFetch<T> fetch = new PendingFetch<>(version, range, task);
+        pendingFetch = fetch;
+        try {
+            fetchExecutor.execute(() -> {
+                task.run();
+                if (!task.isCancelled()) {
+                    try {
+                        ui.access(() -> applyFetch(fetch));
+                    } catch (UIDetachedException e) {
+                        // Nobody is interested in the result anymore
+                    }
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            LoggerFactory.getLogger(DataCommunicator.class).debug(
+                    "Fetch executor rejected the task, fetching synchronously",
+                    e);
+            pendingFetch = null;
+            flush();
+        }
+    }
+
+    private PrefetchedData<T> fetchInBackground(int version, Range range,
+            boolean sizeNeeded, int delta, DataPageCache<T> cache,
+            QueryInputs<T> inputs) {
+        Integer size = sizeNeeded ? getDataProviderSize(inputs) : null;
+        List<T> items = range.isEmpty() ? Collections.emptyList()
+                : fetchFromCacheOrProvider(range.getStart(), range.length(),
+                        delta, cache, inputs.pageSize,
+                        (offset, limit) -> fetchFromProvider(inputs, offset,
+                                limit))
+                        .collect(Collectors.toList());
+        return new PrefetchedData<>(version, range, size, items, false);
+    }
+
+    private void applyFetch(PendingFetch<T> fetch) {
+        if (pendingFetch != fetch) {
+            // Superseded while waiting for the lock
+            return;
+        }
+        pendingFetch = null;
+        try {
+            prefetchedData = fetch.task.get();
+        } catch (ExecutionException | InterruptedException e) {
+            LoggerFactory.getLogger(DataCommunicator.class).debug(
+                    "Background fetch failed, fetching synchronously", e);
+            // Run the queries again while flushing to report the error
+            prefetchedData = new PrefetchedData<>(fetch.dataVersion,
+                    fetch.range, null, null, true);
+        }
+        requestFlush(true);
+    }
+
+    private void cancelPendingFetch() {
+        if (pendingFetch != null) {
+            pendingFetch.task.cancel(true);
+            pendingFetch = null;
+        }
+    }
+
+    private int getSizeForFlush() {
+        if (prefetchedData != null && prefetchedData.size != null
+                && prefetchedData.matches(dataVersion, requestedRange)) {
+            return prefetchedData.size;
+        }
+        return getDataProviderSize();
+    }
+
+    private Stream<T> fetchForFlush(int offset, int limit) {
+        if (prefetchedData != null
+                && prefetchedData.matches(dataVersion, requestedRange)) {
+            Stream<T> items = prefetchedData.getItems(offset, limit);
+            if (items != null) {
+                return items;
+            }
+        }
+        return fetchFromCacheOrProvider(offset, limit, scrollDelta, pageCache,
+                pageSize, this::fetchFromProvider);
+    }
+
+    private Stream<T> fetchFromCacheOrProvider(int offset, int limit,
+            int delta, DataPageCache<T> cache, int pageSize,
+            BiFunction<Integer, Integer, Stream<T>> fetch) {
+        if (cache == null) {
+            return fetch.apply(offset, limit);
+        }
+        List<T> cached = cache.get(offset, limit);
+        if (cached != null) {
+            return cached.stream();
+        }
+
+        int generation = cache.getGeneration();
+        Range fetchRange = withReadAhead(offset, limit, delta,
+                cache.getMaxItems(), pageSize);
+        List<T> fetched = fetch
+                .apply(fetchRange.getStart(), fetchRange.length())
+                .collect(Collectors.toList());
+        cache.put(generation, fetchRange.getStart(), fetched,
+                fetched.size() < fetchRange.length());
+
+        int from = Math.min(offset - fetchRange.getStart(), fetched.size());
+        int to = Math.min(from + limit, fetched.size());
+        return fetched.subList(from, to).stream();
+    }
+
+    /**
+     * Extends the range to fetch in the scrolling direction by the distance
+     * scrolled since the previous request, limited so that the fetched items
+     * fit in the cache.
+     */
+    private static Range withReadAhead(int offset, int limit, int delta,
+            int maxItems, int pageSize) {
+        int readAhead = Math.min(Math.abs(delta),
+                DEFAULT_PAGE_INCREASE_COUNT * pageSize);
+        readAhead = Math.max(0, Math.min(readAhead, maxItems - limit));
+        if (delta > 0) {
+            return Range.withLength(offset, limit + readAhead);
+        } else if (delta < 0) {
+            return Range.between(Math.max(0, offset - readAhead),
+                    offset + limit);
+        }
+        return Range.withLength(offset, limit);
+    }
+
     private void flush() {
+        try {
+            doFlush();
+        } finally {
+            // Prefetched data is only valid for one flush
+            prefetchedData = null;
+        }
+    }
+
+    private void doFlush() {
         Set<String> oldActive = new HashSet<>(activeKeyOrder);
 
         Range effectiveRequested;
@@ -1077,8 +1508,8 @@ public class DataCommunicator<T> implements Serializable {
         // Phase 1: Find all items that the client should have
 
         // With defined size the backend is only queried when necessary
-        if (definedSize && (resendEntireRange || sizeReset)) {
-            assumedSize = getDataProviderSize();
+        if (isSizeNeeded()) {
+            assumedSize = getSizeForFlush();
         } else if (!definedSize
                 && (!skipCountIncreaseUntilReset || sizeReset)) {
             // with undefined size, size estimate is checked when scrolling down
@@ -1096,7 +1527,7 @@ public class DataCommunicator<T> implements Serializable {
         // In case received less items than what was expected, adjust size
         if (activation.isSizeRecheckNeeded()) {
             if (definedSize) {
-                assumedSize = getDataProviderSize();
+                assumedSize = getSizeForFlush();
             } else {
                 // the end has been reached
                 assumedSize = requestedRange.getStart()
@@ -1321,7 +1752,7 @@ public class DataCommunicator<T> implements Serializable {
 
         // XXX Explicitly refresh anything that is updated
         List<String> activeKeys = new ArrayList<>(range.length());
-        fetchFromProvider(range.getStart(), range.length()).forEach(bean -> {
+        fetchForFlush(range.getStart(), range.length()).forEach(bean -> {
             boolean mapperHasKey = keyMapper.has(bean);
             String key = keyMapper.key(bean);
             if (mapperHasKey) {
@@ -0,0 +1,211 @@
+/*
+ * Copyright 2000-2020 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.data.provider;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Cache of items fetched from a data provider by a {@link DataCommunicator},
+ * keyed by the index of the item with the current filter and sorting. The
+ * least recently used items are evicted when the maximum number of items is
+ * reached.
+ * <p>
+ * The cache is cleared whenever the data communicator is reset, e.g. when the
+ * filter or sorting changes or {@link DataProvider#refreshAll()} is called.
+ * Items refreshed with {@link DataProvider#refreshItem(Object)} are replaced
+ * with the new instance.
+ * <p>
+ * The hit and miss counts can be used for choosing a suitable size.
+ *
+ * @param <T>
+ *            the item type
+ * @author Vaadin Ltd
+ * @since 6.0
+ * @see DataCommunicator#setPageCacheSize(int)
+ */
+public class DataPageCache<T> implements Serializable {
+
+    private final int maxItems;
+    private final LinkedHashMap<Integer, T> items;
+    // Number of items in the data set, if the end has been fetched
+    private int knownSize = -1;
+    // Incremented when the cache is cleared
+    private int generation;
+    private long hits;
+    private long misses;
+
+    /**
+     * Creates a new cache.
+     *
+     * @param maxItems
+     *            the maximum number of cached items, greater than zero
+     */
+    DataPageCache(int maxItems) {
+        if (maxItems < 1) {
+            throw new IllegalArgumentException(
+                    "Maximum number of items must be positive, got "
+                            + maxItems);
+        }
+        this.maxItems = maxItems;
+        items = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    /**
+     * Gets the cached items in the given range. The returned list is shorter
+     * than the range if the end of the data is within the range.
+     *
+     * @param offset
+     *            the index of the first item
+     * @param limit
+     *            the number of items
+     * @return the items, or {@code null} if some item in the range is not
+     *         cached
+     */
+    synchronized List<T> get(int offset, int limit) {
+        int end = offset + limit;
+        if (knownSize >= 0) {
+            end = Math.min(end, knownSize);
+        }
+        List<T> result = new ArrayList<>(Math.max(0, end - offset));
+        for (int index = offset; index < end; index++) {
+            T item = items.get(index);
+            if (item == null) {
+                misses++;
+                return null;
+            }
+            result.add(item);
+        }
+        hits++;
+        return result;
+    }
+
+    /**
+     * Gets the number of times the cache has been cleared. Items fetched
+     * before the cache was cleared are not added to the cache.
+     *
+     * @return the generation of the cached data
+     */
+    synchronized int getGeneration() {
+        return generation;
+    }
+
+    /**
+     * Adds fetched items to the cache unless the cache has been cleared after
+     * the fetch was started.
+     *
+     * @param generation
+     *            the generation of the cache when the fetch was started
+     * @param offset
+     *            the index of the first item
+     * @param fetched
+     *            the fetched items
+     * @param endReached
+     *            {@code true} if the data provider returned fewer items than
+     *            requested, i.e. there are no items after the fetched items
+     */
+    synchronized void put(int generation, int offset, List<T> fetched,
+            boolean endReached) {
+        if (generation != this.generation) {
+            return;
+        }
+        for (int i = 0; i < fetched.size(); i++) {
+            items.put(offset + i, fetched.get(i));
+        }
+        if (endReached) {
+            knownSize = offset + fetched.size();
+        }
+        Iterator<Integer> iterator = items.keySet().iterator();
+        while (items.size() > maxItems && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+
+    /**
+     * Replaces the cached instances of the given item.
+     *
+     * @param item
+     *            the refreshed item
+     * @param identifierGetter
+     *            function for getting the identifier of an item
+     */
+    synchronized void refresh(T item, Function<T, Object> identifierGetter) {
+        Object id = identifierGetter.apply(item);
+        for (Map.Entry<Integer, T> entry : items.entrySet()) {
+            if (Objects.equals(id, identifierGetter.apply(entry.getValue()))) {
+                entry.setValue(item);
+            }
+        }
+    }
+
+    /**
+     * Removes all items from the cache. The hit and miss counts are not reset.
+     */
+    synchronized void clear() {
+        items.clear();
+        knownSize = -1;
+        generation++;
+    }
+
+    /**
+     * Gets the maximum number of cached items.
+     *
+     * @return the maximum number of items
+     */
+    public int getMaxItems() {
+        return maxItems;
+    }
+
+    /**
+     * Gets the number of currently cached items.
+     *
+     * @return the number of items
+     */
+    public synchronized int size() {
+        return items.size();
+    }
+
+    /**
+     * Gets the number of fetches that were served from the cache.
+     *
+     * @return the number of cache hits
+     */
+    public synchronized long getHitCount() {
+        return hits;
+    }
+
+    /**
+     * Gets the number of fetches that required querying the data provider.
+     *
+     * @return the number of cache misses
+     */
+    public synchronized long getMissCount() {
+        return misses;
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "[size=" + size() + ", hits="
+                + getHitCount() + ", misses=" + getMissCount() + "]";
+    }
+}
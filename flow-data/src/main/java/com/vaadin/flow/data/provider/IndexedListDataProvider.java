@@ -0,0 +1,363 @@
+/*
+ * Copyright 2000-2020 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.data.provider;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+import com.vaadin.flow.function.SerializableBiFunction;
+import com.vaadin.flow.function.SerializableComparator;
+import com.vaadin.flow.function.SerializableFunction;
+import com.vaadin.flow.function.SerializablePredicate;
+
+/**
+ * A {@link ListDataProvider} that keeps the filtered and sorted views of the
+ * backing collection in memory, so that fetching a page and querying the size
+ * does not have to filter and sort the whole collection again.
+ * <p>
+ * A view is created for each combination of query filter and in-memory sorting
+ * that is used, and the least recently used views are discarded when more than
+ * {@link #getMaxViewCount()} views would be kept. Fetching a page from a view
+ * takes time proportional to the page size and the size of a view is available
+ * in constant time.
+ * <p>
+ * The views are discarded on {@link #refreshAll()} and
+ * {@link #refreshItem(Object)}, which also happens when the filter or sort
+ * order of this data provider is changed. Changes to the backing collection
+ * are only visible after {@link #refreshAll()} has been called, which is
+ * needed anyway for notifying components using the data provider.
+ * <p>
+ * Views are identified by the filter and comparator instances of the query.
+ * A {@link DataCommunicator} uses the same instances for consecutive queries
+ * as long as its filter and sorting are not changed. The data providers
+ * created by {@link #withConvertedFilter(SerializableFunction)},
+ * {@link #withConfigurableFilter(SerializableBiFunction)} and the
+ * {@code filteringBy} methods convert equal filter values to the same
+ * predicate instance, so that their views are reused as well. Other callers
+ * should use the same instances for consecutive queries, since a new instance
+ * always creates a new view.
+ *
+ * @param <T>
+ *            data type
+ * @author Vaadin Ltd
+ * @since 6.0
+ */
+public class IndexedListDataProvider<T> extends ListDataProvider<T> {
+
+    private static final int DEFAULT_MAX_VIEW_COUNT = 8;
+
+    private static final class ViewKey implements Serializable {
+        private final Object filter;
+        private final Object sorting;
+
+        private ViewKey(Object filter, Object sorting) {
+            this.filter = filter;
+            this.sorting = sorting;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof ViewKey)) {
+                return false;
+            }
+            ViewKey other = (ViewKey) obj;
+            return Objects.equals(filter, other.filter)
+                    && Objects.equals(sorting, other.sorting);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(filter, sorting);
+        }
+    }
+
+    /**
+     * Converts filter values to predicates so that equal filter values get the
+     * same predicate instance and thus the same view, even though the
+     * converter creates a new predicate for each call.
+     */
+    private final class PredicateCache<K> implements Serializable {
+        private final LinkedHashMap<K, SerializablePredicate<T>> predicates = new LinkedHashMap<>(
+                16, 0.75f, true);
+
+        private synchronized SerializablePredicate<T> get(K filterValue,
+                SerializableFunction<K, SerializablePredicate<T>> converter) {
+            SerializablePredicate<T> predicate = predicates.get(filterValue);
+            if (predicate == null) {
+                predicate = converter.apply(filterValue);
+                predicates.put(filterValue, predicate);
+                // A predicate is useless without its view
+                Iterator<K> iterator = predicates.keySet().iterator();
+                while (predicates.size() > maxViewCount
+                        && iterator.hasNext()) {
+                    iterator.next();
+                    iterator.remove();
+                }
+            }
+            return predicate;
+        }
+    }
+
+    private int maxViewCount = DEFAULT_MAX_VIEW_COUNT;
+
+    private int parallelSortThreshold = Integer.MAX_VALUE;
+
+    // Rebuilt on demand after deserialization
+    private transient LinkedHashMap<ViewKey, Object[]> views;
+
+    // Incremented when the views are discarded
+    private transient int viewGeneration;
+
+    /**
+     * Constructs a new indexed data provider.
+     * <p>
+     * No protective copy is made of the list, and changes in the provided
+     * backing Collection will be visible via this data provider after
+     * {@link #refreshAll()} has been called. The caller should copy the list if
+     * necessary.
+     *
+     * @param items
+     *            the initial data, not null
+     */
+    public IndexedListDataProvider(Collection<T> items) {
+        super(items);
+    }
+
+    @Override
+    public Stream<T> fetch(Query<T, SerializablePredicate<T>> query) {
+        Object[] view = getView(query.getFilter().orElse(null),
+                query.getInMemorySorting());
+        int from = Math.min(query.getOffset(), view.length);
+        int to = (int) Math.min((long) from + query.getLimit(), view.length);
+        @SuppressWarnings("unchecked")
+        Stream<T> page = (Stream<T>) Arrays.stream(view, from, to);
+        return page;
+    }
+
+    @Override
+    public int size(Query<T, SerializablePredicate<T>> query) {
+        return getView(query.getFilter().orElse(null), null).length;
+    }
+
+    @Override
+    public void refreshAll() {
+        clearViews();
+        super.refreshAll();
+    }
+
+    @Override
+    public void refreshItem(T item) {
+        // The item may now be filtered or sorted differently
+        clearViews();
+        super.refreshItem(item);
+    }
+
+    @Override
+    public void refreshItem(T item, boolean refreshChildren) {
+        clearViews();
+        super.refreshItem(item, refreshChildren);
+    }
+
+    @Override
+    public <C> DataProvider<T, C> withConvertedFilter(
+            SerializableFunction<C, SerializablePredicate<T>> filterConverter) {
+        Objects.requireNonNull(filterConverter,
+                "Filter converter can't be null");
+        PredicateCache<C> cache = new PredicateCache<>();
+        return super.withConvertedFilter(
+                filterValue -> cache.get(filterValue, filterConverter));
+    }
+
+    @Override
+    public <Q, C> ConfigurableFilterDataProvider<T, Q, C> withConfigurableFilter(
+            SerializableBiFunction<Q, C, SerializablePredicate<T>> filterCombiner) {
+        PredicateCache<List<Object>> cache = new PredicateCache<>();
+        return super.withConfigurableFilter(
+                (queryFilter, configuredFilter) -> cache.get(
+                        Arrays.asList(queryFilter, configuredFilter),
+                        filters -> filterCombiner.apply(queryFilter,
+                                configuredFilter)));
+    }
+
+    /**
+     * Sets the maximum number of filtered and sorted views to keep in memory.
+     * Each view uses memory proportional to the number of items that pass its
+     * filter. The default is {@value #DEFAULT_MAX_VIEW_COUNT}.
+     *
+     * @param maxViewCount
+     *            the maximum number of views, greater than zero
+     */
+    public void setMaxViewCount(int maxViewCount) {
+        if (maxViewCount < 1) {
+            throw new IllegalArgumentException(
+                    "Maximum view count must be positive, got "
+                            + maxViewCount);
+        }
+        this.maxViewCount = maxViewCount;
+        clearViews();
+    }
+
+    /**
+     * Gets the maximum number of filtered and sorted views to keep in memory.
+     *
+     * @return the maximum number of views
+     */
+    public int getMaxViewCount() {
+        return maxViewCount;
+    }
+
+    /**
+     * Sets the number of items from which views are sorted using multiple
+     * threads. The comparators used for sorting must then be thread safe.
+     * Parallel sorting is disabled by default.
+     *
+     * @param parallelSortThreshold
+     *            the minimum number of items to sort in parallel, or
+     *            {@link Integer#MAX_VALUE} to always sort in the calling thread
+     */
+    public void setParallelSortThreshold(int parallelSortThreshold) {
+        if (parallelSortThreshold < 0) {
+            throw new IllegalArgumentException(
+                    "Parallel sort threshold cannot be negative, got "
+                            + parallelSortThreshold);
+        }
+        this.parallelSortThreshold = parallelSortThreshold;
+    }
+
+    /**
+     * Gets the number of items from which views are sorted using multiple
+     * threads.
+     *
+     * @return the minimum number of items to sort in parallel
+     */
+    public int getParallelSortThreshold() {
+        return parallelSortThreshold;
+    }
+
+    /**
+     * Gets the number of filtered and sorted views currently kept in memory.
+     *
+     * @return the number of views
+     */
+    public synchronized int getViewCount() {
+        return views == null ? 0 : views.size();
+    }
+
+    private synchronized void clearViews() {
+        views = null;
+        viewGeneration++;
+    }
+
+    private Object[] getView(SerializablePredicate<T> queryFilter,
+            Comparator<T> querySorting) {
+        Comparator<T> comparator = getComparator(querySorting);
+        ViewKey key = new ViewKey(queryFilter, comparator == null ? null
+                : querySorting == null ? getSortComparator() : querySorting);
+        ViewKey filteredKey = new ViewKey(queryFilter, null);
+        Object[] filtered;
+        int generation;
+        synchronized (this) {
+            Object[] view = getCachedView(key);
+            if (view != null) {
+                return view;
+            }
+            filtered = getCachedView(filteredKey);
+            generation = viewGeneration;
+        }
+
+        // Filter and sort without the lock so that cached views can be
+        // fetched meanwhile
+        if (filtered == null) {
+            filtered = filter(queryFilter);
+            if (comparator != null) {
+                // Reuse for size queries and other sortings
+                filtered = putViewIfAbsent(filteredKey, filtered, generation);
+            }
+        }
+        if (comparator == null) {
+            return putViewIfAbsent(key, filtered, generation);
+        }
+        Object[] view = filtered.clone();
+        sort(view, comparator);
+        return putViewIfAbsent(key, view, generation);
+    }
+
+    private Object[] getCachedView(ViewKey key) {
+        assert Thread.holdsLock(this);
+        return views == null ? null : views.get(key);
+    }
+
+    private synchronized Object[] putViewIfAbsent(ViewKey key, Object[] view,
+            int generation) {
+        if (generation != viewGeneration) {
+            // Refreshed while the view was built, the view may be stale
+            return view;
+        }
+        if (views == null) {
+            views = new LinkedHashMap<>(16, 0.75f, true);
+        }
+        Object[] existing = views.putIfAbsent(key, view);
+        if (existing != null) {
+            // Built concurrently by another thread
+            return existing;
+        }
+        Iterator<ViewKey> iterator = views.keySet().iterator();
+        while (views.size() > maxViewCount && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+        return view;
+    }
+
+    private Object[] filter(SerializablePredicate<T> queryFilter) {
+        Stream<T> stream = getItems().stream();
+        // Apply our own filters first so that query filters never see the items
+        // that would already have been filtered out
+        if (getFilter() != null) {
+            stream = stream.filter(getFilter());
+        }
+        if (queryFilter != null) {
+            stream = stream.filter(queryFilter);
+        }
+        return stream.toArray();
+    }
+
+    @SuppressWarnings("unchecked")
+    private void sort(Object[] view, Comparator<T> comparator) {
+        Comparator<Object> objectComparator = (Comparator<Object>) comparator;
+        if (view.length >= parallelSortThreshold) {
+            Arrays.parallelSort(view, objectComparator);
+        } else {
+            Arrays.sort(view, objectComparator);
+        }
+    }
+
+    private Comparator<T> getComparator(Comparator<T> querySorting) {
+        SerializableComparator<T> sortOrder = getSortComparator();
+        if (querySorting == null) {
+            return sortOrder;
+        }
+        return sortOrder == null ? querySorting
+                : querySorting.thenComparing(sortOrder);
+    }
+}
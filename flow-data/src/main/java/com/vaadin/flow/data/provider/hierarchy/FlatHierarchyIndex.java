@@ -0,0 +1,219 @@
+/*
+ * Copyright 2000-2020 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.data.provider.hierarchy;
+
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Index of the positions of the visible items in a flattened hierarchy.
+ * <p>
+ * Each expanded node keeps the sizes of the visible subtrees of its children
+ * in a Fenwick tree, so that the flat index of an item and the changes caused
+ * by expanding or collapsing a node are computed in logarithmic time per level
+ * of the hierarchy, instead of flattening the whole hierarchy.
+ * <p>
+ * Nodes are identified by the ids of the items given by the data provider.
+ * This class is framework internal implementation details.
+ *
+ * @author Vaadin Ltd
+ * @since 6.0
+ */
+final class FlatHierarchyIndex implements Serializable {
+
+    /**
+     * A node in the index.
+     */
+    static final class Node implements Serializable {
+        private final Object id;
+        private final int depth;
+        private Node parent;
+        private int position;
+        private Node[] children;
+        // Fenwick tree of the subtree sizes of the children
+        private int[] childSizes;
+        private int descendantCount;
+
+        private Node(Object id, int depth) {
+            this.id = id;
+            this.depth = depth;
+        }
+
+        /**
+         * Gets the depth of the node, starting from zero for root items.
+         *
+         * @return the depth
+         */
+        int getDepth() {
+            return depth;
+        }
+
+        /**
+         * Gets the number of visible items below this node.
+         *
+         * @return the number of visible descendants
+         */
+        int getDescendantCount() {
+            return descendantCount;
+        }
+
+        private int getSubtreeSize() {
+            return descendantCount + 1;
+        }
+
+        private int sizeOfChildrenBefore(int childPosition) {
+            int sum = 0;
+            for (int i = childPosition; i > 0; i -= i & -i) {
+                sum += childSizes[i];
+            }
+            return sum;
+        }
+
+        private void addToChildSize(int childPosition, int delta) {
+            for (int i = childPosition + 1; i < childSizes.length; i += i
+                    & -i) {
+                childSizes[i] += delta;
+            }
+        }
+    }
+
+    private final Node root = new Node(null, -1);
+    private final Map<Object, Node> nodes = new HashMap<>();
+
+    /**
+     * Gets the node representing the parent of the root items.
+     *
+     * @return the root node
+     */
+    Node getRoot() {
+        return root;
+    }
+
+    /**
+     * Gets the node for the item with the given id.
+     *
+     * @param id
+     *            the item id
+     * @return the node, or {@code null} if the item is not visible
+     */
+    Node getNode(Object id) {
+        return nodes.get(id);
+    }
+
+    /**
+     * Creates a node without children. The node is not visible until it is
+     * given as a child to {@link #setChildren(Node, List)}.
+     *
+     * @param id
+     *            the item id
+     * @param depth
+     *            the depth of the item
+     * @return the new node
+     */
+    Node createNode(Object id, int depth) {
+        Node node = new Node(id, depth);
+        nodes.put(id, node);
+        return node;
+    }
+
+    /**
+     * Sets the children of a collapsed node, updating the sizes of its
+     * ancestors.
+     *
+     * @param node
+     *            the node to expand
+     * @param children
+     *            the children with their subtrees
+     */
+    void setChildren(Node node, List<Node> children) {
+        if (children.isEmpty()) {
+            return;
+        }
+        node.children = children.toArray(new Node[children.size()]);
+        node.childSizes = new int[children.size() + 1];
+        int total = 0;
+        for (int i = 0; i < node.children.length; i++) {
+            Node child = node.children[i];
+            child.parent = node;
+            child.position = i;
+            total += child.getSubtreeSize();
+            // Linear time construction of the Fenwick tree
+            int index = i + 1;
+            node.childSizes[index] += child.getSubtreeSize();
+            int next = index + (index & -index);
+            if (next < node.childSizes.length) {
+                node.childSizes[next] += node.childSizes[index];
+            }
+        }
+        addToDescendantCount(node, total);
+    }
+
+    /**
+     * Removes the children of a node and their subtrees, updating the sizes of
+     * its ancestors.
+     *
+     * @param node
+     *            the node to collapse
+     */
+    void removeChildren(Node node) {
+        if (node.children == null) {
+            return;
+        }
+        for (Node child : node.children) {
+            removeSubtree(child);
+        }
+        int removed = node.descendantCount;
+        node.children = null;
+        node.childSizes = null;
+        addToDescendantCount(node, -removed);
+    }
+
+    /**
+     * Gets the position of the node in the flattened hierarchy.
+     *
+     * @param node
+     *            the node
+     * @return the index of the node
+     */
+    int getIndex(Node node) {
+        int index = -1;
+        while (node.parent != null) {
+            index += node.parent.sizeOfChildrenBefore(node.position) + 1;
+            node = node.parent;
+        }
+        return node == root ? index : -1;
+    }
+
+    private void removeSubtree(Node node) {
+        nodes.remove(node.id);
+        if (node.children != null) {
+            for (Node child : node.children) {
+                removeSubtree(child);
+            }
+        }
+    }
+
+    private static void addToDescendantCount(Node node, int delta) {
+        node.descendantCount += delta;
+        while (node.parent != null) {
+            node.parent.addToChildSize(node.position, delta);
+            node = node.parent;
+            node.descendantCount += delta;
+        }
+    }
+}
@@ -22,8 +22,10 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.Executor;
 import java.util.stream.Stream;
 
+import com.vaadin.flow.data.provider.CompactKeyMapper;
 import com.vaadin.flow.data.provider.CompositeDataGenerator;
 import com.vaadin.flow.data.provider.DataChangeEvent;
 import com.vaadin.flow.data.provider.DataCommunicator;
@@ -34,6 +36,7 @@ import com.vaadin.flow.data.provider.QuerySortOrder;
 import com.vaadin.flow.data.provider.hierarchy.HierarchicalArrayUpdater.HierarchicalUpdate;
 import com.vaadin.flow.function.SerializableComparator;
 import com.vaadin.flow.function.SerializableConsumer;
+import com.vaadin.flow.function.SerializableFunction;
 import com.vaadin.flow.function.SerializableSupplier;
 import com.vaadin.flow.function.ValueProvider;
 import com.vaadin.flow.internal.ExecutionContext;
@@ -155,6 +158,7 @@ public class HierarchicalDataCommunicator<T> extends DataCommunicator<T> {
         }
 
         if (getHierarchyMapper() != null) {
+            getHierarchyMapper().invalidateFlatIndex();
             HierarchicalUpdate update = arrayUpdater
                     .startUpdate(getHierarchyMapper().getRootSize());
             update.enqueue("$connector.ensureHierarchy");
@@ -180,6 +184,7 @@ public class HierarchicalDataCommunicator<T> extends DataCommunicator<T> {
     @Override
     protected void handleDataRefreshEvent(DataChangeEvent.DataRefreshEvent<T> event) {
         if (event.isRefreshChildren()) {
+            mapper.invalidateFlatIndex();
             T item = event.getItem();
             if (isExpanded(item)) {
                 String parentKey = uniqueKeyProviderSupplier.get().apply(item);
@@ -204,6 +209,55 @@ public class HierarchicalDataCommunicator<T> extends DataCommunicator<T> {
         return mapper.fetchRootItems(Range.withLength(offset, limit));
     }
 
+    /**
+     * Fetching in the background is not supported for hierarchical data, since
+     * the hierarchy mapper keeps track of the expanded items and may only be
+     * used while holding the session lock.
+     *
+     * @throws UnsupportedOperationException
+     *             if the executor is not {@code null}
+     */
+    @Override
+    public void setFetchExecutor(Executor fetchExecutor) {
+        if (fetchExecutor != null) {
+            throw new UnsupportedOperationException(
+                    "Fetching hierarchical data in the background is not supported");
+        }
+        super.setFetchExecutor(null);
+    }
+
+    /**
+     * A compact key mapper is not supported for hierarchical data, since the
+     * hierarchy mapper relies on the key mapper created by this data
+     * communicator.
+     *
+     * @throws UnsupportedOperationException
+     *             always
+     */
+    @Override
+    public CompactKeyMapper<T> useCompactKeyMapper(
+            CompactKeyMapper.ReferenceType referenceType,
+            SerializableFunction<Object, T> itemLoader) {
+        throw new UnsupportedOperationException(
+                "A compact key mapper is not supported for hierarchical data");
+    }
+
+    /**
+     * Caching fetched items is not supported for hierarchical data, since the
+     * indexes of the items change when items are expanded or collapsed.
+     *
+     * @throws UnsupportedOperationException
+     *             if the size is not 0
+     */
+    @Override
+    public void setPageCacheSize(int maxItems) {
+        if (maxItems != 0) {
+            throw new UnsupportedOperationException(
+                    "Caching hierarchical data is not supported");
+        }
+        super.setPageCacheSize(0);
+    }
+
     public void setParentRequestedRange(int start, int length, T parentItem) {
         String parentKey = uniqueKeyProviderSupplier.get().apply(parentItem);
 
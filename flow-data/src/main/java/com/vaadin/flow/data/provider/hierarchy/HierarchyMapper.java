@@ -16,15 +16,14 @@
 package com.vaadin.flow.data.provider.hierarchy;
 
 import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
@@ -55,8 +54,8 @@ import com.vaadin.flow.internal.Range;
 public class HierarchyMapper<T, F> implements Serializable {
 
     // childMap is only used for finding parents of items and clean up on
-    // removing children of expanded nodes.
-    private Map<T, Set<T>> childMap = new HashMap<>();
+    // removing children of expanded nodes. Keyed by the id of the parent.
+    private Map<Object, Set<T>> childMap = new HashMap<>();
     private Map<Object, T> parentIdMap = new HashMap<>();
 
     private final HierarchicalDataProvider<T, F> provider;
@@ -66,6 +65,9 @@ public class HierarchyMapper<T, F> implements Serializable {
 
     private Map<Object, T> expandedItems = new HashMap<>();
 
+    // Positions of the visible items, built on demand
+    private transient FlatHierarchyIndex flatIndex;
+
     /**
      * Constructs a new HierarchyMapper.
      *
@@ -82,7 +84,7 @@ public class HierarchyMapper<T, F> implements Serializable {
      * @return the amount of available data
      */
     public int getTreeSize() {
-        return (int) getHierarchy(null).count();
+        return getFlatIndex().getRoot().getDescendantCount();
     }
 
     /**
@@ -104,8 +106,7 @@ public class HierarchyMapper<T, F> implements Serializable {
      *
      */
     public Integer getParentIndex(T item) {
-        List<T> flatHierarchy = getHierarchy(null).collect(Collectors.toList());
-        return flatHierarchy.indexOf(getParentOfItem(item));
+        return getFlatIndexOf(getParentOfItem(item));
     }
 
     /**
@@ -117,8 +118,7 @@ public class HierarchyMapper<T, F> implements Serializable {
      *
      */
     public Integer getIndex(T item) {
-        List<T> flatHierarchy = getHierarchy(null).collect(Collectors.toList());
-        return flatHierarchy.indexOf(item);
+        return getFlatIndexOf(item);
     }
 
     /**
@@ -159,8 +159,7 @@ public class HierarchyMapper<T, F> implements Serializable {
      */
     public Range expand(T item, Integer position) {
         if (doExpand(item) && position != null) {
-            return Range.withLength(position + 1,
-                    (int) getHierarchy(item, false).count());
+            return Range.withLength(position + 1, countDescendants(item));
         }
 
         return Range.withLength(0, 0);
@@ -178,8 +177,14 @@ public class HierarchyMapper<T, F> implements Serializable {
     private boolean doExpand(T item) {
         boolean expanded = false;
         if (!isExpanded(item) && hasChildren(item)) {
-            expandedItems.put(getDataProvider().getId(item), item);
+            Object id = getDataProvider().getId(item);
+            expandedItems.put(id, item);
             expanded = true;
+            if (flatIndex != null && flatIndex.getNode(id) != null) {
+                FlatHierarchyIndex.Node node = flatIndex.getNode(id);
+                flatIndex.setChildren(node, loadChildNodes(flatIndex, item,
+                        node.getDepth()));
+            }
         }
         return expanded;
     }
@@ -197,7 +202,7 @@ public class HierarchyMapper<T, F> implements Serializable {
             return false;
         }
         if (isExpanded(item)) {
-            expandedItems.remove(getDataProvider().getId(item));
+            doCollapse(getDataProvider().getId(item));
             return true;
         }
         return false;
@@ -218,13 +223,35 @@ public class HierarchyMapper<T, F> implements Serializable {
         if (isExpanded(item)) {
             if (position != null) {
                 removedRows = Range.withLength(position + 1,
-                        (int) getHierarchy(item, false).count());
+                        countDescendants(item));
             }
-            expandedItems.remove(getDataProvider().getId(item));
+            doCollapse(getDataProvider().getId(item));
         }
         return removedRows;
     }
 
+    private void doCollapse(Object id) {
+        expandedItems.remove(id);
+        if (flatIndex != null && flatIndex.getNode(id) != null) {
+            flatIndex.removeChildren(flatIndex.getNode(id));
+        }
+    }
+
+    /**
+     * Counts the visible items below the given expanded item. Uses the flat
+     * index if it is available, otherwise only the subtree is traversed.
+     */
+    private int countDescendants(T item) {
+        if (flatIndex != null) {
+            FlatHierarchyIndex.Node node = flatIndex
+                    .getNode(getDataProvider().getId(item));
+            if (node != null) {
+                return node.getDescendantCount();
+            }
+        }
+        return (int) getHierarchy(item, false).count();
+    }
+
 
     /**
      * Gets the current in-memory sorting.
@@ -244,6 +271,7 @@ public class HierarchyMapper<T, F> implements Serializable {
      */
     public void setInMemorySorting(Comparator<T> inMemorySorting) {
         this.inMemorySorting = inMemorySorting;
+        invalidateFlatIndex();
     }
 
     /**
@@ -264,6 +292,7 @@ public class HierarchyMapper<T, F> implements Serializable {
      */
     public void setBackEndSorting(List<QuerySortOrder> backEndSorting) {
         this.backEndSorting = backEndSorting;
+        invalidateFlatIndex();
     }
 
     /**
@@ -284,6 +313,7 @@ public class HierarchyMapper<T, F> implements Serializable {
      */
     public void setFilter(Object filter) {
         this.filter = (F) filter;
+        invalidateFlatIndex();
     }
 
     /**
@@ -400,6 +430,13 @@ public class HierarchyMapper<T, F> implements Serializable {
      * @return depth of item in the tree or -1 if item is null
      */
     public int getDepth(T item) {
+        if (item != null && flatIndex != null) {
+            FlatHierarchyIndex.Node node = flatIndex
+                    .getNode(getDataProvider().getId(item));
+            if (node != null) {
+                return node.getDepth();
+            }
+        }
         int depth = -1;
         while (item != null) {
             item = getParentOfItem(item);
@@ -431,23 +468,17 @@ public class HierarchyMapper<T, F> implements Serializable {
      *            the item id
      */
     protected void removeChildren(Object id) {
-        // Clean up removed nodes from child map
-        Iterator<Entry<T, Set<T>>> iterator = childMap.entrySet().iterator();
-        Set<T> invalidatedChildren = new HashSet<>();
-        while (iterator.hasNext()) {
-            Entry<T, Set<T>> entry = iterator.next();
-            T key = entry.getKey();
-            if (key != null && getDataProvider().getId(key).equals(id)) {
-                invalidatedChildren.addAll(entry.getValue());
-                iterator.remove();
-            }
+        // Clean up removed nodes from child map. Children of the root are
+        // never removed.
+        Set<T> invalidatedChildren = id == null ? null : childMap.remove(id);
+        doCollapse(id);
+        if (invalidatedChildren != null) {
+            invalidatedChildren.stream().map(getDataProvider()::getId)
+                    .forEach(x -> {
+                        removeChildren(x);
+                        parentIdMap.remove(x);
+                    });
         }
-        expandedItems.remove(id);
-        invalidatedChildren.stream().map(getDataProvider()::getId)
-                .forEach(x -> {
-                    removeChildren(x);
-                    parentIdMap.remove(x);
-                });
     }
 
     /**
@@ -463,12 +494,67 @@ public class HierarchyMapper<T, F> implements Serializable {
             return Optional.empty();
         }
 
-        final List<Object> collect = getHierarchy(null).map(provider::getId)
-                .collect(Collectors.toList());
-        int index = collect.indexOf(getDataProvider().getId(target));
+        int index = getFlatIndexOf(target);
         return Optional.ofNullable(index < 0 ? null : index);
     }
 
+    /**
+     * Discards the index of the positions of the visible items. The index is
+     * rebuilt from the data provider when it is needed the next time. Should
+     * be called when the hierarchy in the data provider changes.
+     */
+    public void invalidateFlatIndex() {
+        flatIndex = null;
+    }
+
+    private int getFlatIndexOf(T item) {
+        if (item == null) {
+            return -1;
+        }
+        FlatHierarchyIndex index = getFlatIndex();
+        FlatHierarchyIndex.Node node = index
+                .getNode(getDataProvider().getId(item));
+        return node == null ? -1 : index.getIndex(node);
+    }
+
+    private FlatHierarchyIndex getFlatIndex() {
+        if (flatIndex == null) {
+            FlatHierarchyIndex index = new FlatHierarchyIndex();
+            index.setChildren(index.getRoot(), loadChildNodes(index, null, -1));
+            flatIndex = index;
+        }
+        return flatIndex;
+    }
+
+    /**
+     * Fetches the children of the given item and the visible subtrees of the
+     * children, in the same way as when flattening the hierarchy.
+     */
+    private List<FlatHierarchyIndex.Node> loadChildNodes(
+            FlatHierarchyIndex index, T parent, int parentDepth) {
+        if (!isExpanded(parent)) {
+            return Collections.emptyList();
+        }
+        List<T> childList = doFetchDirectChildren(parent)
+                .collect(Collectors.toList());
+        if (childList.isEmpty()) {
+            removeChildren(
+                    parent == null ? null : getDataProvider().getId(parent));
+            return Collections.emptyList();
+        }
+        registerChildren(parent, childList);
+        List<FlatHierarchyIndex.Node> nodes = new ArrayList<>(
+                childList.size());
+        for (T child : childList) {
+            FlatHierarchyIndex.Node node = index.createNode(
+                    getDataProvider().getId(child), parentDepth + 1);
+            index.setChildren(node,
+                    loadChildNodes(index, child, parentDepth + 1));
+            nodes.add(node);
+        }
+        return nodes;
+    }
+
     /**
      * Gets the full hierarchy tree starting from given node.
      *
@@ -589,7 +675,8 @@ public class HierarchyMapper<T, F> implements Serializable {
      *            list of parents children to be registered.
      */
     protected void registerChildren(T parent, List<T> childList) {
-        childMap.put(parent, new HashSet<>(childList));
+        childMap.put(parent == null ? null : getDataProvider().getId(parent),
+                new HashSet<>(childList));
         childList.forEach(
                 x -> parentIdMap.put(getDataProvider().getId(x), parent));
     }
@@ -620,6 +707,7 @@ public class HierarchyMapper<T, F> implements Serializable {
         childMap.clear();
         parentIdMap.clear();
         expandedItems.clear();
+        invalidateFlatIndex();
     }
 
     /**
@@ -0,0 +1,132 @@
+/*
+ * Copyright 2000-2020 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.data.provider;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.commons.lang3.SerializationUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.vaadin.flow.data.provider.CompactKeyMapper.ReferenceType;
+
+public class CompactKeyMapperTest {
+
+    private final CompactKeyMapper<StrBean> mapper = new CompactKeyMapper<>(
+            StrBean::getId);
+
+    private final Map<Object, StrBean> backend = new HashMap<>();
+
+    @Test
+    public void key_sameIdentifier_sameKey() {
+        StrBean bean = new StrBean("foo", 1, 0);
+
+        String key = mapper.key(bean);
+
+        Assert.assertEquals("1", key);
+        Assert.assertEquals(key, mapper.key(new StrBean("bar", 1, 0)));
+        Assert.assertNotEquals(key, mapper.key(new StrBean("foo", 2, 0)));
+        Assert.assertSame(bean, mapper.get(key));
+        Assert.assertEquals("null", mapper.key(null));
+    }
+
+    @Test
+    public void get_invalidKeys_returnNull() {
+        mapper.key(new StrBean("foo", 1, 0));
+
+        Assert.assertNull(mapper.get("01"));
+        Assert.assertNull(mapper.get("+1"));
+        Assert.assertNull(mapper.get("99999999999"));
+        Assert.assertNull(mapper.get("foo"));
+        Assert.assertNull(mapper.get(null));
+        Assert.assertTrue(mapper.containsKey("1"));
+    }
+
+    @Test
+    public void removedKeys_notReused() {
+        StrBean bean = new StrBean("foo", 1, 0);
+        String key = mapper.key(bean);
+
+        mapper.remove(bean);
+
+        Assert.assertFalse(mapper.has(bean));
+        Assert.assertNull(mapper.get(key));
+        Assert.assertEquals("2", mapper.key(bean));
+        mapper.removeAll();
+        Assert.assertEquals(0, mapper.size());
+    }
+
+    @Test
+    public void refresh_newInstanceReturned() {
+        String key = mapper.key(new StrBean("foo", 1, 0));
+        StrBean refreshed = new StrBean("bar", 1, 0);
+
+        mapper.refresh(refreshed);
+
+        Assert.assertSame(refreshed, mapper.get(key));
+    }
+
+    @Test
+    public void setIdentifierGetter_mappingsKept() {
+        StrBean bean = new StrBean("foo", 1, 0);
+        String key = mapper.key(bean);
+
+        mapper.setIdentifierGetter(StrBean::getValue);
+
+        Assert.assertTrue(mapper.has(new StrBean("foo", 2, 0)));
+        Assert.assertSame(bean, mapper.get(key));
+    }
+
+    @Test
+    public void weakReferences_reclaimedItemLoadedById() {
+        mapper.setReferenceType(ReferenceType.WEAK, backend::get);
+        backend.put(1, new StrBean("foo", 1, 0));
+        String key = mapper.key(new StrBean("foo", 1, 0));
+
+        // The mapped instance is only weakly reachable
+        Assert.assertEquals(backend.get(1), loadAfterCollection(key));
+        Assert.assertEquals(1, mapper.size());
+    }
+
+    @Test
+    public void weakReferences_itemNoLongerAvailable_mappingRemoved() {
+        mapper.setReferenceType(ReferenceType.WEAK, backend::get);
+        String key = mapper.key(new StrBean("foo", 1, 0));
+
+        Assert.assertNull(loadAfterCollection(key));
+        Assert.assertEquals(0, mapper.size());
+    }
+
+    @Test
+    public void serializeWithSoftReferences_itemsLoadedAgain() {
+        mapper.setReferenceType(ReferenceType.SOFT,
+                id -> new StrBean("loaded", (Integer) id, 0));
+        String key = mapper.key(new StrBean("foo", 1, 0));
+
+        CompactKeyMapper<StrBean> deserialized = SerializationUtils
+                .roundtrip(mapper);
+
+        Assert.assertEquals("loaded", deserialized.get(key).getValue());
+    }
+
+    private StrBean loadAfterCollection(String key) {
+        for (int i = 0; i < 10; i++) {
+            System.gc();
+        }
+        return mapper.get(key);
+    }
+}
@@ -18,7 +18,9 @@ package com.vaadin.flow.data.provider;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.Future;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
@@ -29,16 +31,20 @@ import java.util.stream.Stream;
 import com.vaadin.flow.component.Component;
 import com.vaadin.flow.component.ComponentEventListener;
 import com.vaadin.flow.component.ComponentUtil;
+import com.vaadin.flow.component.PushConfiguration;
 import com.vaadin.flow.component.Tag;
 import com.vaadin.flow.component.UI;
+import com.vaadin.flow.data.provider.CompactKeyMapper.ReferenceType;
 import com.vaadin.flow.dom.Element;
 import com.vaadin.flow.function.SerializableConsumer;
 import com.vaadin.flow.function.SerializablePredicate;
 import com.vaadin.flow.internal.Range;
 import com.vaadin.flow.internal.StateNode;
+import com.vaadin.flow.server.Command;
 import com.vaadin.flow.server.VaadinRequest;
 import com.vaadin.flow.server.VaadinService;
 import com.vaadin.flow.server.VaadinSession;
+import com.vaadin.flow.shared.communication.PushMode;
 import org.hamcrest.CoreMatchers;
 import org.junit.Assert;
 import org.junit.Before;
@@ -1466,6 +1472,281 @@ public class DataCommunicatorTest {
         return dataCommunicator.getPageSize() * 4;
     }
 
+    @Test
+    public void fetchExecutor_dataProviderQueriedInBackground() {
+        List<Runnable> tasks = new ArrayList<>();
+        useDirectAccessUI();
+        dataCommunicator.setFetchExecutor(tasks::add);
+        AtomicInteger fetchCount = new AtomicInteger();
+        dataCommunicator.setDataProvider(
+                createCountingDataProvider(fetchCount), null);
+
+        dataCommunicator.setRequestedRange(0, 50);
+        fakeClientCommunication();
+
+        Assert.assertNull("No data should be sent before the fetch is done",
+                lastSet);
+        Assert.assertEquals(0, fetchCount.get());
+        Assert.assertEquals(1, tasks.size());
+
+        tasks.get(0).run();
+        Assert.assertEquals(1, fetchCount.get());
+        fakeClientCommunication();
+
+        Assert.assertEquals(Range.withLength(0, 50), lastSet);
+        Assert.assertEquals("Flushing should use the prefetched data", 1,
+                fetchCount.get());
+        Assert.assertEquals(100, dataCommunicator.getItemCount());
+    }
+
+    @Test
+    public void fetchExecutor_requestedRangeChanged_previousFetchCancelled() {
+        List<Runnable> tasks = new ArrayList<>();
+        useDirectAccessUI();
+        dataCommunicator.setFetchExecutor(tasks::add);
+        AtomicInteger fetchCount = new AtomicInteger();
+        dataCommunicator.setDataProvider(
+                createCountingDataProvider(fetchCount), null);
+
+        dataCommunicator.setRequestedRange(0, 50);
+        fakeClientCommunication();
+        dataCommunicator.setRequestedRange(50, 50);
+        fakeClientCommunication();
+        Assert.assertEquals(2, tasks.size());
+
+        tasks.get(0).run();
+        Assert.assertEquals("Cancelled fetch should not query the backend", 0,
+                fetchCount.get());
+        fakeClientCommunication();
+        Assert.assertNull(lastSet);
+
+        tasks.get(1).run();
+        fakeClientCommunication();
+        Assert.assertEquals(Range.withLength(50, 50), lastSet);
+        Assert.assertEquals(1, fetchCount.get());
+    }
+
+    @Test
+    public void fetchExecutor_requestedRangeAlreadySent_noBackgroundFetch() {
+        List<Runnable> tasks = new ArrayList<>();
+        useDirectAccessUI();
+        dataCommunicator.setFetchExecutor(tasks::add);
+        dataCommunicator.setDataProvider(
+                createCountingDataProvider(new AtomicInteger()), null);
+        dataCommunicator.setRequestedRange(0, 50);
+        fakeClientCommunication();
+        tasks.remove(0).run();
+        fakeClientCommunication();
+
+        dataCommunicator.setRequestedRange(10, 20);
+        fakeClientCommunication();
+
+        Assert.assertTrue(tasks.isEmpty());
+    }
+
+    @Test
+    public void fetchExecutor_pushDisabled_dataProviderQueriedSynchronously() {
+        List<Runnable> tasks = new ArrayList<>();
+        useDirectAccessUI(PushMode.DISABLED);
+        dataCommunicator.setFetchExecutor(tasks::add);
+        AtomicInteger fetchCount = new AtomicInteger();
+        dataCommunicator.setDataProvider(
+                createCountingDataProvider(fetchCount), null);
+
+        dataCommunicator.setRequestedRange(0, 50);
+        fakeClientCommunication();
+
+        Assert.assertTrue("Nothing could send the result of a background "
+                + "fetch to the client", tasks.isEmpty());
+        Assert.assertEquals(Range.withLength(0, 50), lastSet);
+        Assert.assertEquals(100, dataCommunicator.getItemCount());
+    }
+
+    @Test
+    public void fetchExecutor_settingsChangedDuringFetch_startedFetchNotAffected() {
+        List<Runnable> tasks = new ArrayList<>();
+        useDirectAccessUI();
+        dataCommunicator.setFetchExecutor(tasks::add);
+        dataCommunicator.setPageSize(10);
+        List<Query<Item, Void>> queries = new ArrayList<>();
+        dataCommunicator.setDataProvider(DataProvider.fromCallbacks(query -> {
+            if (queries.isEmpty()) {
+                // Changed by the session owner while the fetch is running
+                dataCommunicator.setPageSize(20);
+                dataCommunicator.setBackEndSorting(Arrays.asList(
+                        new QuerySortOrder("id", SortDirection.DESCENDING)));
+            }
+            queries.add(query);
+            return IntStream.range(query.getOffset(),
+                    query.getOffset() + query.getLimit())
+                    .mapToObj(Item::new);
+        }, query -> 100), null);
+
+        dataCommunicator.setRequestedRange(0, 30);
+        fakeClientCommunication();
+        tasks.get(0).run();
+
+        Assert.assertEquals(3, queries.size());
+        for (Query<Item, Void> query : queries) {
+            Assert.assertEquals(10, query.getLimit());
+            Assert.assertTrue(query.getSortOrders().isEmpty());
+        }
+    }
+
+    @Test
+    public void useCompactKeyMapper_itemsMappedByCompactKeyMapper() {
+        CompactKeyMapper<Item> keyMapper = dataCommunicator
+                .useCompactKeyMapper(ReferenceType.STRONG, null);
+        dataCommunicator.setDataProvider(
+                createCountingDataProvider(new AtomicInteger()), null);
+
+        dataCommunicator.setRequestedRange(0, 50);
+        fakeClientCommunication();
+
+        Assert.assertSame(keyMapper, dataCommunicator.getKeyMapper());
+        Assert.assertEquals(50, keyMapper.size());
+        Assert.assertEquals(new Item(0), dataCommunicator.getItem(0));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void useCompactKeyMapper_dataAlreadySent_throws() {
+        dataCommunicator.setDataProvider(
+                createCountingDataProvider(new AtomicInteger()), null);
+        dataCommunicator.setRequestedRange(0, 50);
+        fakeClientCommunication();
+
+        dataCommunicator.useCompactKeyMapper(ReferenceType.STRONG, null);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void useCompactKeyMapper_weakReferencesWithoutLoader_throws() {
+        dataCommunicator.useCompactKeyMapper(ReferenceType.WEAK, null);
+    }
+
+    @Test
+    public void useCompactKeyMapper_weakReferences_reclaimedItemLoadedById() {
+        // No mocks, which would keep the items reachable
+        dataCommunicator = new DataCommunicator<>(
+                new CompositeDataGenerator<>(), arrayUpdater, data -> {
+                }, element.getNode());
+        dataCommunicator.useCompactKeyMapper(ReferenceType.WEAK,
+                id -> new Item((Integer) id, "loaded"));
+        dataCommunicator.setDataProvider(new CallbackDataProvider<Item, Void>(
+                query -> IntStream
+                        .range(query.getOffset(),
+                                query.getOffset() + query.getLimit())
+                        .mapToObj(Item::new),
+                query -> 100, item -> item.id), null);
+        dataCommunicator.setRequestedRange(0, 50);
+        fakeClientCommunication();
+
+        for (int i = 0; i < 10; i++) {
+            System.gc();
+        }
+
+        Item item = dataCommunicator.getItem(0);
+        Assert.assertEquals(new Item(0), item);
+        Assert.assertEquals("loaded", item.value);
+    }
+
+    @Test
+    public void pageCache_scrollBack_servedFromCache() {
+        AtomicInteger fetchCount = new AtomicInteger();
+        dataCommunicator.setPageCacheSize(500);
+        dataCommunicator.setDataProvider(
+                createCountingDataProvider(fetchCount), null);
+
+        dataCommunicator.setRequestedRange(0, 50);
+        fakeClientCommunication();
+        dataCommunicator.setRequestedRange(50, 50);
+        fakeClientCommunication();
+        int fetchesBeforeScrollingBack = fetchCount.get();
+
+        dataCommunicator.setRequestedRange(0, 50);
+        fakeClientCommunication();
+
+        Assert.assertEquals(Range.withLength(0, 50), lastSet);
+        Assert.assertEquals(fetchesBeforeScrollingBack, fetchCount.get());
+        DataPageCache<Item> cache = dataCommunicator.getPageCache();
+        Assert.assertEquals(1, cache.getHitCount());
+        Assert.assertEquals(2, cache.getMissCount());
+    }
+
+    @Test
+    public void pageCache_scrollingDown_nextItemsReadAhead() {
+        AtomicInteger fetchCount = new AtomicInteger();
+        dataCommunicator.setPageCacheSize(500);
+        dataCommunicator.setPageSize(10);
+        dataCommunicator.setDataProvider(
+                createCountingDataProvider(fetchCount), null);
+
+        dataCommunicator.setRequestedRange(0, 10);
+        fakeClientCommunication();
+        dataCommunicator.setRequestedRange(10, 10);
+        fakeClientCommunication();
+        Assert.assertEquals(30, dataCommunicator.getPageCache().size());
+        int fetches = fetchCount.get();
+
+        dataCommunicator.setRequestedRange(20, 10);
+        fakeClientCommunication();
+
+        Assert.assertEquals(Range.withLength(20, 10), lastSet);
+        Assert.assertEquals(fetches, fetchCount.get());
+    }
+
+    @Test
+    public void pageCache_refreshAll_cacheCleared() {
+        dataCommunicator.setPageCacheSize(500);
+        DataProvider<Item, Void> dataProvider = createCountingDataProvider(
+                new AtomicInteger());
+        dataCommunicator.setDataProvider(dataProvider, null);
+        dataCommunicator.setRequestedRange(0, 50);
+        fakeClientCommunication();
+        Assert.assertEquals(50, dataCommunicator.getPageCache().size());
+
+        dataProvider.refreshAll();
+
+        Assert.assertEquals(0, dataCommunicator.getPageCache().size());
+    }
+
+    private void useDirectAccessUI() {
+        useDirectAccessUI(PushMode.AUTOMATIC);
+    }
+
+    private void useDirectAccessUI(PushMode pushMode) {
+        PushConfiguration pushConfiguration = Mockito
+                .mock(PushConfiguration.class);
+        Mockito.when(pushConfiguration.getPushMode()).thenReturn(pushMode);
+        ui = new MockUI() {
+            @Override
+            public Future<Void> access(Command command) {
+                command.execute();
+                return null;
+            }
+
+            @Override
+            public PushConfiguration getPushConfiguration() {
+                return pushConfiguration;
+            }
+        };
+        element = new Element("div");
+        ui.getElement().appendChild(element);
+        dataCommunicator = new DataCommunicator<>(dataGenerator, arrayUpdater,
+                data -> {
+                }, element.getNode());
+    }
+
+    private DataProvider<Item, Void> createCountingDataProvider(
+            AtomicInteger fetchCount) {
+        return DataProvider.fromCallbacks(query -> {
+            fetchCount.incrementAndGet();
+            return IntStream
+                    .range(query.getOffset(),
+                            Math.min(100, query.getOffset() + query.getLimit()))
+                    .mapToObj(Item::new);
+        }, query -> 100);
+    }
+
     private void fakeClientCommunication() {
         ui.getInternals().getStateTree().runExecutionsBeforeClientResponse();
         ui.getInternals().getStateTree().collectChanges(ignore -> {
@@ -0,0 +1,70 @@
+/*
+ * Copyright 2000-2020 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.data.provider;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class DataPageCacheTest {
+
+    private final DataPageCache<String> cache = new DataPageCache<>(4);
+
+    @Test
+    public void maxItemsReached_leastRecentlyUsedEvicted() {
+        cache.put(0, 0, Arrays.asList("a", "b", "c"), false);
+        // Makes "b" and "c" more recently used than "a"
+        Assert.assertEquals(Arrays.asList("b", "c"), cache.get(1, 2));
+
+        cache.put(0, 3, Arrays.asList("d", "e"), false);
+
+        Assert.assertEquals(4, cache.size());
+        Assert.assertNull(cache.get(0, 1));
+        Assert.assertEquals(Arrays.asList("b", "c", "d", "e"),
+                cache.get(1, 4));
+        Assert.assertEquals(2, cache.getHitCount());
+        Assert.assertEquals(1, cache.getMissCount());
+    }
+
+    @Test
+    public void endReached_rangeBeyondEndServedFromCache() {
+        cache.put(0, 0, Arrays.asList("a", "b"), true);
+
+        Assert.assertEquals(Arrays.asList("a", "b"), cache.get(0, 10));
+        Assert.assertEquals(Collections.emptyList(), cache.get(5, 10));
+    }
+
+    @Test
+    public void clearedDuringFetch_fetchedItemsNotCached() {
+        int generation = cache.getGeneration();
+        cache.clear();
+
+        cache.put(generation, 0, Arrays.asList("a", "b"), false);
+
+        Assert.assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void refresh_itemWithSameIdReplaced() {
+        cache.put(0, 0, Arrays.asList("a1", "b1"), false);
+
+        cache.refresh("a2", item -> item.charAt(0));
+
+        Assert.assertEquals(Arrays.asList("a2", "b1"), cache.get(0, 2));
+    }
+}
@@ -0,0 +1,166 @@
+/*
+ * Copyright 2000-2020 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.data.provider;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.vaadin.flow.function.SerializableComparator;
+import com.vaadin.flow.function.SerializablePredicate;
+
+public class IndexedListDataProviderTest extends ListDataProviderTest {
+
+    @Override
+    protected ListDataProvider<StrBean> createDataProvider() {
+        return new IndexedListDataProvider<>(data);
+    }
+
+    @Test
+    public void fetchPages_filterAndSortAppliedOnce() {
+        AtomicInteger filterCalls = new AtomicInteger();
+        AtomicInteger compareCalls = new AtomicInteger();
+        SerializablePredicate<StrBean> filter = bean -> {
+            filterCalls.incrementAndGet();
+            return true;
+        };
+        SerializableComparator<StrBean> sorting = (bean1, bean2) -> {
+            compareCalls.incrementAndGet();
+            return Integer.compare(bean1.getId(), bean2.getId());
+        };
+
+        List<StrBean> firstPage = fetch(filter, sorting, 0, 10);
+        int comparisons = compareCalls.get();
+        List<StrBean> secondPage = fetch(filter, sorting, 10, 10);
+        int size = getDataProvider().size(new Query<>(filter));
+
+        Assert.assertEquals(data.size(), filterCalls.get());
+        Assert.assertEquals(comparisons, compareCalls.get());
+        Assert.assertEquals(data.size(), size);
+        Assert.assertEquals(0, firstPage.get(0).getId());
+        Assert.assertEquals(10, secondPage.get(0).getId());
+    }
+
+    @Test
+    public void refreshAll_collectionChangesVisible() {
+        SerializableComparator<StrBean> sorting = Comparator
+                .comparing(StrBean::getId)::compare;
+        fetch(null, sorting, 0, 10);
+
+        data.add(new StrBean("Foo", -1, 0));
+        Assert.assertEquals(0, fetch(null, sorting, 0, 1).get(0).getId());
+
+        getDataProvider().refreshAll();
+
+        Assert.assertEquals(-1, fetch(null, sorting, 0, 1).get(0).getId());
+        Assert.assertEquals(data.size(),
+                getDataProvider().size(new Query<>()));
+    }
+
+    @Test
+    public void maxViewCountExceeded_leastRecentlyUsedDiscarded() {
+        IndexedListDataProvider<StrBean> dataProvider = (IndexedListDataProvider<StrBean>) getDataProvider();
+        dataProvider.setMaxViewCount(2);
+
+        fetch(bean -> true, null, 0, 10);
+        fetch(bean -> false, null, 0, 10);
+        fetch(null, null, 0, 10);
+
+        Assert.assertEquals(2, dataProvider.getViewCount());
+    }
+
+    @Test
+    public void withConvertedFilter_sameFilterValue_viewReused() {
+        IndexedListDataProvider<StrBean> dataProvider = (IndexedListDataProvider<StrBean>) getDataProvider();
+        AtomicInteger filterCalls = new AtomicInteger();
+        DataProvider<StrBean, String> converted = dataProvider
+                .withConvertedFilter(value -> bean -> {
+                    filterCalls.incrementAndGet();
+                    return bean.getValue().equals(value);
+                });
+
+        int size = converted.size(new Query<>("Xyz"));
+        List<StrBean> items = converted
+                .fetch(new Query<>(0, 10, null, null, "Xyz"))
+                .collect(Collectors.toList());
+        converted.fetch(new Query<>(0, 10, null, null, "Xyz")).count();
+
+        Assert.assertEquals(data.size(), filterCalls.get());
+        Assert.assertEquals(1, dataProvider.getViewCount());
+        Assert.assertEquals(size, items.size());
+        Assert.assertTrue(size > 0);
+
+        converted.size(new Query<>("Foo"));
+        Assert.assertEquals(2, dataProvider.getViewCount());
+    }
+
+    @Test
+    public void parallelSort_sameOrderAsSequentialSort() {
+        IndexedListDataProvider<StrBean> dataProvider = (IndexedListDataProvider<StrBean>) getDataProvider();
+        dataProvider.setParallelSortThreshold(0);
+        SerializableComparator<StrBean> sorting = Comparator
+                .comparing(StrBean::getValue)::compare;
+
+        List<StrBean> sorted = fetch(null, sorting, 0, data.size());
+
+        Assert.assertEquals(data.stream().sorted(sorting)
+                .collect(Collectors.toList()), sorted);
+    }
+
+    @Test(timeout = 5000)
+    public void viewBuiltConcurrently_cachedViewNotBlocked() throws Exception {
+        IndexedListDataProvider<StrBean> dataProvider = (IndexedListDataProvider<StrBean>) getDataProvider();
+        SerializablePredicate<StrBean> cachedFilter = bean -> true;
+        dataProvider.size(new Query<>(cachedFilter));
+
+        CountDownLatch filtering = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        SerializablePredicate<StrBean> slowFilter = bean -> {
+            filtering.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return true;
+        };
+        CompletableFuture<Integer> slowSize = CompletableFuture
+                .supplyAsync(() -> dataProvider.size(new Query<>(slowFilter)));
+        filtering.await();
+
+        Assert.assertEquals(data.size(),
+                dataProvider.size(new Query<>(cachedFilter)));
+        dataProvider.refreshAll();
+        release.countDown();
+
+        Assert.assertEquals(data.size(), slowSize.get().intValue());
+        // Built from the items before the refresh, so not kept
+        Assert.assertEquals(0, dataProvider.getViewCount());
+    }
+
+    private List<StrBean> fetch(SerializablePredicate<StrBean> filter,
+            SerializableComparator<StrBean> sorting, int offset, int limit) {
+        return getDataProvider()
+                .fetch(new Query<>(offset, limit, null, sorting, filter))
+                .collect(Collectors.toList());
+    }
+}
@@ -293,6 +293,46 @@ public class HierarchyMapperWithDataTest {
         expandedItems.add(new TreeNode("third-1"));
     }
 
+    @Test
+    public void getIndexOf_expandAndCollapse_matchesFlattenedHierarchy() {
+        expand(roots.get(1));
+        expand(testData.get(1));
+        expand(roots.get(3));
+        expand(roots.get(0));
+        collapse(roots.get(3));
+        expand(testData.get(roots.get(1).getNumber() + 4));
+
+        List<Node> flattened = mapper
+                .fetchHierarchyItems(Range.between(0, mapper.getTreeSize()))
+                .collect(Collectors.toList());
+        assertEquals(flattened.size(), mapSize);
+        for (int i = 0; i < flattened.size(); i++) {
+            Node node = flattened.get(i);
+            assertEquals(Integer.valueOf(i), mapper.getIndex(node));
+            assertEquals(mapper.getParentIndex(node),
+                    Integer.valueOf(flattened.indexOf(node.getParent())));
+            assertEquals(node.getParent() == null ? 0 : 1 + mapper.getDepth(
+                    node.getParent()), mapper.getDepth(node));
+        }
+        // Children of a collapsed node are not visible
+        assertEquals(Integer.valueOf(-1),
+                mapper.getIndex(testData.get(roots.get(3).getNumber() + 1)));
+    }
+
+    @Test
+    public void invalidateFlatIndex_changedDataVisible() {
+        expand(roots.get(0));
+        Node added = new Node(testData.size(), roots.get(0));
+        data.addItem(roots.get(0), added);
+        assertEquals(ROOT_COUNT + PARENT_COUNT, mapper.getTreeSize());
+
+        mapper.invalidateFlatIndex();
+
+        assertEquals(ROOT_COUNT + PARENT_COUNT + 1, mapper.getTreeSize());
+        assertEquals(Integer.valueOf(PARENT_COUNT + 1),
+                mapper.getIndex(added));
+    }
+
     private void expand(Node node) {
         insertRows(mapper.expand(node, mapper.getIndexOf(node).orElse(null)));
     }
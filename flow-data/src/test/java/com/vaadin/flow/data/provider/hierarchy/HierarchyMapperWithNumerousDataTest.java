@@ -77,6 +77,19 @@ public class HierarchyMapperWithNumerousDataTest {
         checkMapSize();
     }
 
+    /**
+     * Test for non-logarithmic {@code getIndexOf} implementations, which would
+     * flatten the hierarchy for each of the 100000 lookups
+     */
+    @Test(timeout = 2000)
+    public void getIndexOfAllItems() {
+        expand(testData.get(0));
+        for (int i = 0; i < testData.size(); i++) {
+            assertEquals(Integer.valueOf(i),
+                    mapper.getIndexOf(testData.get(i)).orElse(null));
+        }
+    }
+
     private void expand(Node node) {
         insertRows(mapper.expand(node, mapper.getIndexOf(node).orElse(null)));
     }
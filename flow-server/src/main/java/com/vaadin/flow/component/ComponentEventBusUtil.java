@@ -15,16 +15,26 @@
  */
 package com.vaadin.flow.component;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Parameter;
 import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.function.Function;
 
 import com.vaadin.flow.dom.DomEvent;
+import com.vaadin.flow.internal.JsonCodec;
 import com.vaadin.flow.internal.ReflectTools;
 import com.vaadin.flow.internal.ReflectionCache;
 
+import elemental.json.Json;
+import elemental.json.JsonObject;
+import elemental.json.JsonType;
+import elemental.json.JsonValue;
+
 /**
  * Static helpers and caching functionality for {@link ComponentEventBus}.
  *
@@ -47,10 +57,13 @@ public class ComponentEventBusUtil {
     private static class EventTypeInfo {
         private final LinkedHashMap<String, Class<?>> dataExpressions;
         private final Constructor<? extends ComponentEvent<?>> eventConstructor;
+        private final DomEventFactory domEventFactory;
 
         public EventTypeInfo(Class<? extends ComponentEvent<?>> type) {
             eventConstructor = findEventConstructor(type);
             dataExpressions = findEventDataExpressions(eventConstructor);
+            domEventFactory = new DomEventFactory(eventConstructor,
+                    dataExpressions);
         }
     }
 
@@ -106,6 +119,143 @@ public class ComponentEventBusUtil {
         return eventDataExpressions;
     }
 
+    /**
+     * Creates component events from DOM events using the event data
+     * expressions, the decoders for the event data values and a method handle
+     * for the event constructor, all resolved once per event type.
+     */
+    private static class DomEventFactory {
+        private final Constructor<? extends ComponentEvent<?>> eventConstructor;
+        private final Class<?> sourceType;
+        private final String[] expressions;
+        private final Function<JsonValue, Object>[] decoders;
+
+        /*
+         * Takes the constructor arguments as an array, or null if the
+         * constructor can only be called through reflection.
+         */
+        private final MethodHandle constructorHandle;
+
+        @SuppressWarnings("unchecked")
+        private DomEventFactory(
+                Constructor<? extends ComponentEvent<?>> eventConstructor,
+                LinkedHashMap<String, Class<?>> dataExpressions) {
+            this.eventConstructor = eventConstructor;
+            sourceType = eventConstructor.getParameterTypes()[0];
+            expressions = dataExpressions.keySet().toArray(new String[0]);
+            decoders = dataExpressions.values().stream()
+                    .map(DomEventFactory::createDecoder)
+                    .toArray(Function[]::new);
+            constructorHandle = createConstructorHandle(eventConstructor);
+        }
+
+        private static MethodHandle createConstructorHandle(
+                Constructor<?> constructor) {
+            int parameterCount = constructor.getParameterCount();
+            try {
+                return MethodHandles.publicLookup()
+                        .unreflectConstructor(constructor)
+                        .asType(MethodType.genericMethodType(parameterCount))
+                        .asSpreader(Object[].class, parameterCount);
+            } catch (IllegalAccessException e) {
+                // Not accessible as a method handle, use reflection instead
+                return null;
+            }
+        }
+
+        /*
+         * Decodes values the same way as JsonCodec.decodeAs, with the type
+         * checks done up front.
+         */
+        private static Function<JsonValue, Object> createDecoder(
+                Class<?> type) {
+            Class<?> convertedType = ReflectTools.convertPrimitiveType(type);
+            Function<JsonValue, Object> decoder;
+            if (type == String.class) {
+                decoder = JsonValue::asString;
+            } else if (convertedType == Boolean.class) {
+                decoder = json -> Boolean.valueOf(json.asBoolean());
+            } else if (convertedType == Double.class) {
+                decoder = json -> Double.valueOf(json.asNumber());
+            } else if (convertedType == Integer.class) {
+                decoder = json -> Integer.valueOf((int) json.asNumber());
+            } else if (JsonValue.class.isAssignableFrom(type)) {
+                decoder = type::cast;
+            } else {
+                return json -> JsonCodec.decodeAs(json, type);
+            }
+            if (type.isPrimitive()) {
+                return decoder;
+            }
+            return json -> json.getType() == JsonType.NULL ? null
+                    : decoder.apply(json);
+        }
+
+        private ComponentEvent<?> create(Component source,
+                JsonObject eventData) {
+            Object[] params = new Object[expressions.length + 2];
+            params[0] = source;
+            params[1] = Boolean.TRUE; // From client
+            try {
+                for (int i = 0; i < expressions.length; i++) {
+                    JsonValue jsonValue = eventData.get(expressions[i]);
+                    if (jsonValue == null) {
+                        jsonValue = Json.createNull();
+                    }
+                    params[i + 2] = decoders[i].apply(jsonValue);
+                }
+                if (constructorHandle == null) {
+                    return eventConstructor.newInstance(params);
+                }
+                return (ComponentEvent<?>) constructorHandle
+                        .invokeExact(params);
+            } catch (Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new IllegalArgumentException(
+                        "Unable to create an event object of type "
+                                + eventConstructor.getDeclaringClass()
+                                        .getName(),
+                        e);
+            }
+        }
+    }
+
+    /**
+     * Creates a component event of the given type for a DOM event, using the
+     * constructor returned by {@link #getEventConstructor(Class)} with the
+     * event data values for the expressions returned by
+     * {@link #getEventDataExpressions(Class)}.
+     * <p>
+     * The constructor and the decoders for the event data values are cached
+     * per event type.
+     *
+     * @param <T>
+     *            the event type
+     * @param eventType
+     *            the event type
+     * @param domEvent
+     *            the DOM event to get the event data from
+     * @param source
+     *            the component which is the source of the event
+     * @return the created event
+     * @throws IllegalArgumentException
+     *             if the source type is not compatible with the event type,
+     *             or if the event could not be created
+     */
+    static <T extends ComponentEvent<?>> T createEventForDomEvent(
+            Class<T> eventType, DomEvent domEvent, Component source) {
+        DomEventFactory factory = cache.get(eventType).domEventFactory;
+        // Make sure that the source component type is ok
+        if (!factory.sourceType.isAssignableFrom(source.getClass())) {
+            throw new IllegalArgumentException(String.format(
+                    "The event type %s define the source type to be %s, which is not compatible with the used source of type %s",
+                    eventType.getName(), factory.sourceType.getName(),
+                    source.getClass().getName()));
+        }
+        return eventType.cast(factory.create(source, domEvent.getEventData()));
+    }
+
     /**
      * Gets the constructor to use for firing a component event, of the given
      * type, based on a DOM event.
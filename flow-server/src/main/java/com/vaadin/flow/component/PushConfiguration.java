@@ -167,6 +167,57 @@ public interface PushConfiguration extends Serializable {
      */
     void setPushConnectionFactory(PushConnectionFactory factory);
 
+    /**
+     * Sets the time window during which consecutive automatic pushes are
+     * merged into one message. When a push is requested, the changes are sent
+     * after the window has passed instead of right away, together with the
+     * changes of all pushes requested during the window. This reduces the
+     * number of messages for UIs updated frequently from background threads,
+     * at the cost of delaying each update by at most the window.
+     * <p>
+     * Pushes that are responses to client requests and explicit calls to
+     * {@link UI#push()} in {@link PushMode#MANUAL} mode are never delayed. The
+     * default value is 0, which disables coalescing.
+     *
+     * @param windowMillis
+     *            the coalescing window in milliseconds, or 0 to push every
+     *            change right away
+     * @see #setCoalescingMaxChanges(int)
+     */
+    void setCoalescingWindow(int windowMillis);
+
+    /**
+     * Gets the time window during which consecutive automatic pushes are
+     * merged into one message.
+     *
+     * @return the coalescing window in milliseconds, or 0 if coalescing is
+     *         disabled
+     * @see #setCoalescingWindow(int)
+     */
+    int getCoalescingWindow();
+
+    /**
+     * Sets the number of changed state nodes after which coalesced changes are
+     * pushed right away even if the coalescing window has not yet passed. This
+     * limits the size of a single message.
+     *
+     * @param maxChanges
+     *            the maximum number of changed nodes to wait with, or 0 for no
+     *            limit
+     * @see #setCoalescingWindow(int)
+     */
+    void setCoalescingMaxChanges(int maxChanges);
+
+    /**
+     * Gets the number of changed state nodes after which coalesced changes are
+     * pushed right away.
+     *
+     * @return the maximum number of changed nodes to wait with, or 0 if there
+     *         is no limit
+     * @see #setCoalescingMaxChanges(int)
+     */
+    int getCoalescingMaxChanges();
+
 }
 
 /**
@@ -178,6 +229,8 @@ public interface PushConfiguration extends Serializable {
 class PushConfigurationImpl implements PushConfiguration {
     private UI ui;
     private PushConnectionFactory pushConnectionFactory;
+    private int coalescingWindow;
+    private int coalescingMaxChanges;
 
     PushConfigurationImpl(UI ui) {
         this.ui = ui;
@@ -285,4 +338,32 @@ class PushConfigurationImpl implements PushConfiguration {
             pushConnectionFactory, "Push connection factory must not be null"
         );
     }
+
+    @Override
+    public void setCoalescingWindow(int windowMillis) {
+        if (windowMillis < 0) {
+            throw new IllegalArgumentException(
+                    "Coalescing window cannot be negative");
+        }
+        coalescingWindow = windowMillis;
+    }
+
+    @Override
+    public int getCoalescingWindow() {
+        return coalescingWindow;
+    }
+
+    @Override
+    public void setCoalescingMaxChanges(int maxChanges) {
+        if (maxChanges < 0) {
+            throw new IllegalArgumentException(
+                    "Maximum number of changes cannot be negative");
+        }
+        coalescingMaxChanges = maxChanges;
+    }
+
+    @Override
+    public int getCoalescingMaxChanges() {
+        return coalescingMaxChanges;
+    }
 }
@@ -156,6 +156,12 @@ public class UIInternals implements Serializable {
      */
     private long lastHeartbeatTimestamp = System.currentTimeMillis();
 
+    /**
+     * Timestamp of the last UIDL request received for the related UI, used for
+     * deciding whether the UI is idle.
+     */
+    private long lastUidlRequestTimestamp = System.currentTimeMillis();
+
     private List<PendingJavaScriptInvocation> pendingJsInvocations = new ArrayList<>();
 
     /**
@@ -344,6 +350,30 @@ public class UIInternals implements Serializable {
                 .forEach(listener -> listener.heartbeat(heartbeatEvent));
     }
 
+    /**
+     * Returns the time when the last UIDL request was received for the related
+     * UI, or the time when the UI was created if no UIDL request has been
+     * received yet. Heartbeat requests are not UIDL requests.
+     *
+     * @return the time the last UIDL request was received, in milliseconds
+     *         since the epoch
+     */
+    public long getLastUidlRequestTimestamp() {
+        return lastUidlRequestTimestamp;
+    }
+
+    /**
+     * Sets the last UIDL request timestamp for the related UI. Called by the
+     * framework whenever the application receives a UIDL request for the UI.
+     *
+     * @param lastUidlRequestTimestamp
+     *            the time the last UIDL request was received, in milliseconds
+     *            since the epoch
+     */
+    public void setLastUidlRequestTimestamp(long lastUidlRequestTimestamp) {
+        this.lastUidlRequestTimestamp = lastUidlRequestTimestamp;
+    }
+
     @SuppressWarnings("unchecked")
     private static Class<? extends NodeFeature>[] getRootNodeFeatures() {
         // Start with all element features
@@ -274,6 +274,175 @@ public interface DeploymentConfiguration
                 false);
     }
 
+    /**
+     * Checks whether UIDL responses should be streamed, i.e. written
+     * incrementally to the response while the changes are collected instead of
+     * being built as a complete JSON object in memory first.
+     * <p>
+     * With streaming enabled, an error that happens while writing the response
+     * can no longer be reported to the client as a critical notification since
+     * a part of the response may already have been sent.
+     *
+     * @return <code>true</code> to stream UIDL responses, <code>false</code> to
+     *         build them in memory
+     */
+    default boolean isStreamingUidl() {
+        return getBooleanProperty(
+                InitParameters.SERVLET_PARAMETER_STREAMING_UIDL, false);
+    }
+
+    /**
+     * Returns the number of seconds that must pass without a UIDL request
+     * being received for a UI before the UI is passivated, i.e. serialized
+     * into a compressed byte array stored in the session. A passivated UI is
+     * transparently activated again when the next request for it arrives.
+     * <p>
+     * Passivation is meant for reducing the memory used by UIs in browser tabs
+     * that are left open but not used. UIs with push enabled or with heartbeat
+     * listeners are never passivated, and neither are the UIs of a session
+     * with registered stream resources or request handlers. Since the activated UI is a copy of the
+     * original instance, passivation should only be enabled if the application
+     * doesn't keep references to UIs or their components outside the UI, e.g.
+     * in background threads or in application scoped listeners.
+     *
+     * @return the passivation timeout in seconds, or a negative number if UIs
+     *         are never passivated
+     */
+    default int getUiPassivationTimeout() {
+        return getApplicationOrSystemProperty(
+                InitParameters.SERVLET_PARAMETER_UI_PASSIVATION_TIMEOUT, -1,
+                Integer::parseInt);
+    }
+
+    /**
+     * Checks whether tasks enqueued using
+     * {@link com.vaadin.flow.server.VaadinSession#access(com.vaadin.flow.server.Command)}
+     * or {@link com.vaadin.flow.component.UI#access(com.vaadin.flow.server.Command)}
+     * from a thread that doesn't hold the session lock should be run by the
+     * access queue executor of the service.
+     * <p>
+     * By default the enqueuing thread runs the tasks and pushes the changes
+     * itself if the session is not locked. With the asynchronous mode, the
+     * enqueuing thread returns right away and tasks enqueued by several
+     * threads in the meantime are run in batches, so that the changes of a
+     * batch are pushed to the client in one round-trip.
+     *
+     * @return <code>true</code> to run access tasks asynchronously,
+     *         <code>false</code> to run them in the enqueuing thread
+     * @see com.vaadin.flow.server.VaadinService#createAccessQueueExecutor()
+     */
+    default boolean isAsyncAccessQueue() {
+        return getBooleanProperty(
+                InitParameters.SERVLET_PARAMETER_ASYNC_ACCESS_QUEUE, false);
+    }
+
+    /**
+     * Returns the maximum number of access tasks to run while holding the
+     * session lock once, if {@link #isAsyncAccessQueue()} is enabled. Any
+     * remaining tasks are run in a new batch after the lock has been released
+     * so that requests for the session are not blocked by a long queue. A
+     * value of zero or less means that the batch size is not limited.
+     *
+     * @return the maximum number of tasks per batch
+     */
+    default int getAccessQueueMaxBatchSize() {
+        return getApplicationOrSystemProperty(
+                InitParameters.SERVLET_PARAMETER_ACCESS_QUEUE_MAX_BATCH_SIZE,
+                100, Integer::parseInt);
+    }
+
+    /**
+     * Returns the maximum total size of the static resources that are cached
+     * in memory together with their compressed variants in production mode.
+     * The least recently used resources are evicted when the limit is reached.
+     * A value of zero or less disables the cache.
+     *
+     * @return the maximum size of the cache in bytes
+     */
+    default long getStaticResourceCacheSize() {
+        return getApplicationOrSystemProperty(
+                InitParameters.SERVLET_PARAMETER_STATIC_RESOURCE_CACHE_SIZE,
+                32L * 1024 * 1024, Long::parseLong);
+    }
+
+    /**
+     * Checks whether the parts of the bootstrap page that are the same for all
+     * initial requests are computed only once when running in production mode
+     * with the deprecated server-side bootstrap mode.
+     * <p>
+     * The webpack chunk names and the client engine file name are then read
+     * only once, and the bootstrap script is written directly to the response
+     * from precompiled segments. Bootstrap listeners see a marker instead of
+     * the contents of the bootstrap script.
+     *
+     * @return <code>true</code> to precompile the bootstrap page,
+     *         <code>false</code> to build it from scratch for every request
+     */
+    default boolean isPrecompiledBootstrap() {
+        return getBooleanProperty(
+                InitParameters.SERVLET_PARAMETER_PRECOMPILED_BOOTSTRAP, false);
+    }
+
+    /**
+     * Gets the size in bytes of the buffer used when streaming uploaded data
+     * to a {@link com.vaadin.flow.server.StreamReceiver}. The data is
+     * transferred in chunks of this size, and interruption of the upload is
+     * checked between the chunks.
+     *
+     * @return the upload buffer size in bytes
+     */
+    default int getUploadBufferSize() {
+        return getApplicationOrSystemProperty(
+                InitParameters.SERVLET_PARAMETER_UPLOAD_BUFFER_SIZE, 4 * 1024,
+                Integer::parseInt);
+    }
+
+    /**
+     * Checks whether upload progress events are delivered asynchronously
+     * using
+     * {@link com.vaadin.flow.component.UI#access(com.vaadin.flow.server.Command)}.
+     * The upload thread then never waits for the session lock while
+     * streaming, and progress events which have not been delivered yet are
+     * replaced by the most recent one.
+     *
+     * @return <code>true</code> to deliver progress events asynchronously,
+     *         <code>false</code> to lock the session from the upload thread
+     */
+    default boolean isAsyncUploadProgress() {
+        return getBooleanProperty(
+                InitParameters.SERVLET_PARAMETER_UPLOAD_ASYNC_PROGRESS, false);
+    }
+
+    /**
+     * Gets the time in milliseconds the client waits before sending queued
+     * server invocations. Invocations made during the window are sent in the
+     * same request, and repeated property changes and throttled events are
+     * collapsed to the latest value.
+     *
+     * @return the batch window in milliseconds, or 0 to send the invocations
+     *         as soon as the current browser event has been handled
+     */
+    default int getRpcBatchWindow() {
+        return getApplicationOrSystemProperty(
+                InitParameters.SERVLET_PARAMETER_RPC_BATCH_WINDOW, 0,
+                Integer::parseInt);
+    }
+
+    /**
+     * Checks whether the client is told to use the compact binary encoding
+     * instead of JSON text for server requests sent with XHR. The server
+     * responds to a binary request with a binary response, and to a JSON
+     * request with a JSON response, so JSON remains supported regardless of
+     * this setting.
+     *
+     * @return <code>true</code> to use the binary encoding,
+     *         <code>false</code> to use JSON
+     */
+    default boolean isBinaryProtocol() {
+        return getBooleanProperty(
+                InitParameters.SERVLET_PARAMETER_BINARY_PROTOCOL, false);
+    }
+
     default String getCompiledWebComponentsPath() {
         return getStringProperty(InitParameters.COMPILED_WEB_COMPONENTS_PATH,
                 "vaadin-web-components");
@@ -0,0 +1,344 @@
+/*
+ * Copyright 2000-2020 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.internal;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import elemental.json.Json;
+import elemental.json.JsonArray;
+import elemental.json.JsonException;
+import elemental.json.JsonObject;
+import elemental.json.JsonValue;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Compact binary encoding of JSON values, used as an alternative to JSON text
+ * for messages between the client and the server.
+ * <p>
+ * A message starts with a version byte followed by a single value. Each value
+ * starts with a tag byte. Integral numbers are written as zigzag encoded
+ * variable length integers, other numbers as little-endian IEEE 754 doubles.
+ * Strings, including object keys, are written as length-prefixed UTF-8 the
+ * first time they occur in a message and as a variable length index to the
+ * string table of the message after that, so repeated keys such as
+ * <code>node</code> and <code>feat</code> only take one or two bytes.
+ * <p>
+ * The client side counterpart is
+ * <code>com.vaadin.client.communication.BinaryJson</code>, and the two must
+ * be kept in sync.
+ * <p>
+ * For internal use only. May be renamed or removed in a future release.
+ *
+ * @author Vaadin Ltd
+ * @since 6.0
+ */
+public final class BinaryJson {
+
+    /**
+     * The version of the encoding, written as the first byte of a message.
+     */
+    public static final int VERSION = 1;
+
+    static final int NULL = 0;
+    static final int FALSE = 1;
+    static final int TRUE = 2;
+    static final int INTEGER = 3;
+    static final int DOUBLE = 4;
+    static final int STRING = 5;
+    static final int STRING_REF = 6;
+    static final int ARRAY = 7;
+    static final int OBJECT = 8;
+
+    /**
+     * Integral numbers with a larger magnitude are written as doubles, so that
+     * the zigzag encoded value can be decoded exactly in JavaScript.
+     */
+    private static final double MAX_INTEGER = 1L << 52;
+
+    /**
+     * The maximum nesting depth of arrays and objects accepted when decoding,
+     * so that a malicious message cannot exhaust the stack.
+     */
+    static final int MAX_DEPTH = 256;
+
+    private BinaryJson() {
+        // Static utility methods only
+    }
+
+    /**
+     * Encodes the given JSON value.
+     *
+     * @param value
+     *            the value to encode, <code>null</code> is encoded as a JSON
+     *            null
+     * @return the encoded message
+     */
+    public static byte[] encode(JsonValue value) {
+        Encoder encoder = new Encoder();
+        encoder.writeByte(VERSION);
+        encoder.writeValue(value);
+        return encoder.toByteArray();
+    }
+
+    /**
+     * Decodes a message created by {@link #encode(JsonValue)} or by the client
+     * side encoder.
+     *
+     * @param message
+     *            the message to decode, not <code>null</code>
+     * @return the decoded JSON value
+     * @throws JsonException
+     *             if the message is not a valid binary JSON message
+     */
+    public static JsonValue decode(byte[] message) {
+        Decoder decoder = new Decoder(message);
+        int version = decoder.readByte();
+        if (version != VERSION) {
+            throw new JsonException(
+                    "Unsupported binary JSON version " + version);
+        }
+        JsonValue value = decoder.readValue();
+        if (decoder.position != message.length) {
+            throw new JsonException("Unexpected data after the binary JSON "
+                    + "value at position " + decoder.position);
+        }
+        return value;
+    }
+
+    private static class Encoder {
+        private final Map<String, Integer> strings = new HashMap<>();
+        private byte[] buffer = new byte[256];
+        private int length;
+
+        private void writeValue(JsonValue value) {
+            if (value == null) {
+                writeByte(NULL);
+                return;
+            }
+            switch (value.getType()) {
+            case NULL:
+                writeByte(NULL);
+                break;
+            case BOOLEAN:
+                writeByte(value.asBoolean() ? TRUE : FALSE);
+                break;
+            case NUMBER:
+                writeNumber(value.asNumber());
+                break;
+            case STRING:
+                writeString(value.asString());
+                break;
+            case ARRAY:
+                JsonArray array = (JsonArray) value;
+                writeByte(ARRAY);
+                writeVarint(array.length());
+                for (int i = 0; i < array.length(); i++) {
+                    writeValue(array.get(i));
+                }
+                break;
+            case OBJECT:
+                JsonObject object = (JsonObject) value;
+                String[] keys = object.keys();
+                writeByte(OBJECT);
+                writeVarint(keys.length);
+                for (String key : keys) {
+                    writeString(key);
+                    writeValue(object.get(key));
+                }
+                break;
+            default:
+                throw new IllegalArgumentException(
+                        "Unsupported JSON type " + value.getType());
+            }
+        }
+
+        private void writeNumber(double number) {
+            if (number == Math.rint(number) && Math.abs(number) < MAX_INTEGER
+                    && (number != 0 || 1 / number > 0)) {
+                long integer = (long) number;
+                writeByte(INTEGER);
+                writeVarint((integer << 1) ^ (integer >> 63));
+            } else {
+                writeByte(DOUBLE);
+                long bits = Double.doubleToLongBits(number);
+                ensureCapacity(8);
+                for (int i = 0; i < 8; i++) {
+                    buffer[length++] = (byte) (bits >>> (i * 8));
+                }
+            }
+        }
+
+        private void writeString(String string) {
+            Integer index = strings.get(string);
+            if (index != null) {
+                writeByte(STRING_REF);
+                writeVarint(index.intValue());
+                return;
+            }
+            strings.put(string, Integer.valueOf(strings.size()));
+            byte[] bytes = string.getBytes(UTF_8);
+            writeByte(STRING);
+            writeVarint(bytes.length);
+            ensureCapacity(bytes.length);
+            System.arraycopy(bytes, 0, buffer, length, bytes.length);
+            length += bytes.length;
+        }
+
+        private void writeVarint(long value) {
+            ensureCapacity(10);
+            while ((value & ~0x7FL) != 0) {
+                buffer[length++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buffer[length++] = (byte) value;
+        }
+
+        private void writeByte(int value) {
+            ensureCapacity(1);
+            buffer[length++] = (byte) value;
+        }
+
+        private void ensureCapacity(int extra) {
+            if (length + extra > buffer.length) {
+                buffer = Arrays.copyOf(buffer,
+                        Math.max(buffer.length * 2, length + extra));
+            }
+        }
+
+        private byte[] toByteArray() {
+            return Arrays.copyOf(buffer, length);
+        }
+    }
+
+    private static class Decoder {
+        private final List<String> strings = new ArrayList<>();
+        private final byte[] data;
+        private int position;
+        private int depth;
+
+        private Decoder(byte[] data) {
+            this.data = data;
+        }
+
+        private JsonValue readValue() {
+            int tag = readByte();
+            switch (tag) {
+            case NULL:
+                return Json.createNull();
+            case FALSE:
+                return Json.create(false);
+            case TRUE:
+                return Json.create(true);
+            case INTEGER:
+                long zigzag = readVarint();
+                return Json.create((double) ((zigzag >>> 1) ^ -(zigzag & 1)));
+            case DOUBLE:
+                long bits = 0;
+                for (int i = 0; i < 8; i++) {
+                    bits |= (readByte() & 0xFFL) << (i * 8);
+                }
+                return Json.create(Double.longBitsToDouble(bits));
+            case STRING:
+            case STRING_REF:
+                return Json.create(readString(tag));
+            case ARRAY:
+                enterContainer();
+                int length = readLength();
+                JsonArray array = Json.createArray();
+                for (int i = 0; i < length; i++) {
+                    array.set(i, readValue());
+                }
+                depth--;
+                return array;
+            case OBJECT:
+                enterContainer();
+                int size = readLength();
+                JsonObject object = Json.createObject();
+                for (int i = 0; i < size; i++) {
+                    String key = readString(readByte());
+                    object.put(key, readValue());
+                }
+                depth--;
+                return object;
+            default:
+                throw new JsonException("Unknown binary JSON tag " + tag
+                        + " at position " + (position - 1));
+            }
+        }
+
+        private void enterContainer() {
+            if (++depth > MAX_DEPTH) {
+                throw new JsonException("Binary JSON nested deeper than "
+                        + MAX_DEPTH + " levels at position " + (position - 1));
+            }
+        }
+
+        private String readString(int tag) {
+            if (tag == STRING_REF) {
+                int index = readLength();
+                if (index >= strings.size()) {
+                    throw new JsonException(
+                            "Unknown string reference " + index);
+                }
+                return strings.get(index);
+            }
+            if (tag != STRING) {
+                throw new JsonException("Expected a string at position "
+                        + (position - 1) + " but got tag " + tag);
+            }
+            int length = readLength();
+            if (length > data.length - position) {
+                throw new JsonException("Unexpected end of binary JSON");
+            }
+            String string = new String(data, position, length, UTF_8);
+            position += length;
+            strings.add(string);
+            return string;
+        }
+
+        private int readLength() {
+            long value = readVarint();
+            if (value < 0 || value > Integer.MAX_VALUE) {
+                throw new JsonException("Invalid length " + value);
+            }
+            return (int) value;
+        }
+
+        private long readVarint() {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                int b = readByte();
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new JsonException("Invalid variable length integer");
+        }
+
+        private int readByte() {
+            if (position >= data.length) {
+                throw new JsonException("Unexpected end of binary JSON");
+            }
+            return data[position++] & 0xFF;
+        }
+    }
+}
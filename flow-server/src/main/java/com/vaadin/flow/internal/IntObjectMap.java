@@ -0,0 +1,273 @@
+/*
+ * Copyright 2000-2020 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.internal;
+
+import java.io.Serializable;
+
+/**
+ * A map from primitive <code>int</code> keys to non-null object values.
+ * <p>
+ * The map uses open addressing with linear probing, which means that the keys
+ * are neither boxed nor wrapped in entry objects. Compared to a
+ * {@link java.util.HashMap} with {@link Integer} keys this considerably reduces
+ * the memory used for each mapping as well as the garbage produced when adding
+ * and removing mappings.
+ * <p>
+ * For internal use only. May be renamed or removed in a future release.
+ *
+ * @param <V>
+ *            the value type
+ * @author Vaadin Ltd
+ * @since 6.0
+ */
+public class IntObjectMap<V> implements Serializable {
+
+    private static final int MIN_CAPACITY = 16;
+
+    // The key 0 marks an empty slot, so a mapping for it is kept separately
+    private int[] keys;
+    private Object[] values;
+    private Object zeroKeyValue;
+    private int size;
+
+    /**
+     * Creates a new empty map.
+     */
+    public IntObjectMap() {
+        allocate(MIN_CAPACITY);
+    }
+
+    /**
+     * Gets the value mapped to the given key.
+     *
+     * @param key
+     *            the key to look up
+     * @return the mapped value, or <code>null</code> if there is no mapping for
+     *         the key
+     */
+    @SuppressWarnings("unchecked")
+    public V get(int key) {
+        if (key == 0) {
+            return (V) zeroKeyValue;
+        }
+        int mask = keys.length - 1;
+        for (int slot = slot(key, mask);; slot = (slot + 1) & mask) {
+            int current = keys[slot];
+            if (current == key) {
+                return (V) values[slot];
+            } else if (current == 0) {
+                return null;
+            }
+        }
+    }
+
+    /**
+     * Checks whether there is a mapping for the given key.
+     *
+     * @param key
+     *            the key to check
+     * @return <code>true</code> if the key is mapped to a value,
+     *         <code>false</code> otherwise
+     */
+    public boolean containsKey(int key) {
+        return get(key) != null;
+    }
+
+    /**
+     * Maps the given key to the given value, replacing any previous mapping for
+     * the key.
+     *
+     * @param key
+     *            the key
+     * @param value
+     *            the value, not <code>null</code>
+     * @return the previously mapped value, or <code>null</code> if there was no
+     *         mapping for the key
+     */
+    @SuppressWarnings("unchecked")
+    public V put(int key, V value) {
+        assert value != null : "Null values are not supported";
+        if (key == 0) {
+            Object previous = zeroKeyValue;
+            zeroKeyValue = value;
+            if (previous == null) {
+                size++;
+            }
+            return (V) previous;
+        }
+        int mask = keys.length - 1;
+        int slot = slot(key, mask);
+        while (keys[slot] != 0) {
+            if (keys[slot] == key) {
+                Object previous = values[slot];
+                values[slot] = value;
+                return (V) previous;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        size++;
+        // Keep the load factor at most 0.5 for short probe sequences
+        if (size * 2 > keys.length) {
+            rehash(keys.length * 2);
+        }
+        return null;
+    }
+
+    /**
+     * Removes the mapping for the given key.
+     *
+     * @param key
+     *            the key to remove
+     * @return the previously mapped value, or <code>null</code> if there was no
+     *         mapping for the key
+     */
+    @SuppressWarnings("unchecked")
+    public V remove(int key) {
+        if (key == 0) {
+            Object previous = zeroKeyValue;
+            zeroKeyValue = null;
+            if (previous != null) {
+                size--;
+            }
+            return (V) previous;
+        }
+        int mask = keys.length - 1;
+        int slot = slot(key, mask);
+        while (keys[slot] != key) {
+            if (keys[slot] == 0) {
+                return null;
+            }
+            slot = (slot + 1) & mask;
+        }
+        Object previous = values[slot];
+        shiftBack(slot, mask);
+        size--;
+        // Release memory after a large number of removals
+        if (keys.length > MIN_CAPACITY && size * 8 < keys.length) {
+            rehash(keys.length / 2);
+        }
+        return (V) previous;
+    }
+
+    /**
+     * Gets the number of mappings in this map.
+     *
+     * @return the number of mappings
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Checks whether this map is empty.
+     *
+     * @return <code>true</code> if there are no mappings, <code>false</code>
+     *         otherwise
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Removes all mappings from this map.
+     */
+    public void clear() {
+        allocate(MIN_CAPACITY);
+        zeroKeyValue = null;
+        size = 0;
+    }
+
+    /**
+     * Removes the entry in the given slot and moves following entries of the
+     * same probe sequence back so that no lookup ends prematurely at the
+     * emptied slot.
+     */
+    private void shiftBack(int emptied, int mask) {
+        int slot = emptied;
+        while (true) {
+            slot = (slot + 1) & mask;
+            int key = keys[slot];
+            if (key == 0) {
+                break;
+            }
+            int home = slot(key, mask);
+            // Move the entry unless its home slot is cyclically in
+            // (emptied, slot]
+            boolean stays = emptied <= slot ? emptied < home && home <= slot
+                    : emptied < home || home <= slot;
+            if (!stays) {
+                keys[emptied] = key;
+                values[emptied] = values[slot];
+                emptied = slot;
+            }
+        }
+        keys[emptied] = 0;
+        values[emptied] = null;
+    }
+
+    private void rehash(int capacity) {
+        int[] oldKeys = keys;
+        Object[] oldValues = values;
+        allocate(capacity);
+        int mask = capacity - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            int key = oldKeys[i];
+            if (key != 0) {
+                int slot = slot(key, mask);
+                while (keys[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = key;
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        values = new Object[capacity];
+    }
+
+    private static int slot(int key, int mask) {
+        // Fibonacci hashing spreads sequential keys over the table
+        int hash = key * 0x9E3779B9;
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("{");
+        if (zeroKeyValue != null) {
+            builder.append("0=").append(zeroKeyValue);
+        }
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != 0) {
+                if (builder.length() > 1) {
+                    builder.append(", ");
+                }
+                builder.append(keys[i]).append('=').append(values[i]);
+            }
+        }
+        return builder.append('}').toString();
+    }
+
+    // Visible for testing
+    int capacity() {
+        return keys.length;
+    }
+}
@@ -23,12 +23,18 @@ import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
 import java.io.Closeable;
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.io.Serializable;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.net.URLConnection;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.StandardOpenOption;
 import java.util.List;
 import java.util.Stack;
 import java.util.UUID;
@@ -66,6 +72,15 @@ public class ResponseWriter implements Serializable {
      */
     private static final int MAX_OVERLAPPING_RANGE_COUNT = 2;
 
+    /*
+     * Request attributes of the Tomcat sendfile support. The end position is
+     * exclusive.
+     */
+    private static final String SENDFILE_SUPPORT_ATTRIBUTE = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME_ATTRIBUTE = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START_ATTRIBUTE = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END_ATTRIBUTE = "org.apache.tomcat.sendfile.end";
+
     private final int bufferSize;
     private final boolean brotliEnabled;
 
@@ -174,6 +189,202 @@ public class ResponseWriter implements Serializable {
         }
     }
 
+    /**
+     * Writes the contents and content type (if available) of the given cached
+     * resource to the response. The smallest variant that the browser accepts
+     * is written, together with its entity tag. If the
+     * <code>If-None-Match</code> header of the request matches the entity tag,
+     * only the {@link HttpServletResponse#SC_NOT_MODIFIED} status is written.
+     * <p>
+     * Range requests are not supported for cached resources.
+     *
+     * @param filenameWithPath
+     *            the name of the file being sent
+     * @param resource
+     *            the cached resource, not <code>null</code>
+     * @param request
+     *            the request object to read from
+     * @param response
+     *            the response object to write to
+     * @throws IOException
+     *             if writing the response failed
+     */
+    public void writeResponseContents(String filenameWithPath,
+            StaticResourceCache.CachedResource resource,
+            HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        byte[] data = resource.getData();
+        String encoding = null;
+        if (brotliEnabled && resource.getBrotliData() != null
+                && acceptsBrotliResource(request)) {
+            data = resource.getBrotliData();
+            encoding = "br";
+        } else if (resource.getGzipData() != null
+                && acceptsGzippedResource(request)) {
+            data = resource.getGzipData();
+            encoding = "gzip";
+        }
+        if (resource.getGzipData() != null
+                || (brotliEnabled && resource.getBrotliData() != null)) {
+            response.setHeader("Vary", "Accept-Encoding");
+        }
+
+        // Each encoding is a different representation with its own strong tag
+        String etag = resource.getETag();
+        if (encoding != null) {
+            etag = etag.substring(0, etag.length() - 1) + "-" + encoding
+                    + '"';
+        }
+        response.setHeader("ETag", etag);
+        if (StaticResourceCache.matches(request.getHeader("If-None-Match"),
+                etag)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        writeContentType(filenameWithPath, request, response);
+        if (encoding != null) {
+            response.setHeader("Content-Encoding", encoding);
+        }
+        setContentLength(response, data.length);
+        try {
+            response.getOutputStream().write(data);
+        } catch (IOException e) {
+            getLogger().debug("Error writing static file to user", e);
+        }
+    }
+
+    /**
+     * Writes the contents of the given file to the response. The entity tag
+     * and <code>Accept-Ranges</code> headers are written, the
+     * <code>If-None-Match</code> header is handled like for cached resources
+     * and <code>Range</code> requests are handled like for static files.
+     * <p>
+     * The file is transferred using {@link FileChannel#transferTo}. If the
+     * servlet container supports it, the file is not written by this method
+     * but handed over to the container with the Tomcat
+     * <code>sendfile</code> request attributes instead, so that it can be
+     * sent without copying the data through the JVM. The content type is not
+     * written.
+     *
+     * @param file
+     *            the file to write, not <code>null</code>
+     * @param etag
+     *            the quoted entity tag of the file contents, or
+     *            <code>null</code> to not support conditional requests
+     * @param request
+     *            the request object to read from
+     * @param response
+     *            the response object to write to
+     * @throws IOException
+     *             if reading the file or writing the response failed
+     */
+    public void writeFileContents(File file, String etag,
+            HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        if (!file.isFile()) {
+            response.setStatus(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        if (etag != null) {
+            response.setHeader("ETag", etag);
+            if (StaticResourceCache.matches(request.getHeader("If-None-Match"),
+                    etag)) {
+                response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+                return;
+            }
+        }
+        response.setHeader("Accept-Ranges", "bytes");
+
+        try (FileChannel channel = FileChannel.open(file.toPath(),
+                StandardOpenOption.READ)) {
+            long fileLength = channel.size();
+            String range = request.getHeader("Range");
+            if (range == null) {
+                setContentLength(response, fileLength);
+                writeFileRange(file, channel, 0, fileLength, request,
+                        response);
+                return;
+            }
+            List<Pair<Long, Long>> ranges = parseRanges(range, fileLength,
+                    response, file);
+            if (ranges == null) {
+                return;
+            }
+
+            response.setStatus(206);
+
+            if (ranges.size() == 1) {
+                long start = ranges.get(0).getFirst();
+                long end = Math.min(ranges.get(0).getSecond(),
+                        fileLength - 1);
+                setContentLength(response, end - start + 1);
+                response.setHeader("Content-Range",
+                        createContentRangeHeader(start, end, fileLength));
+                writeFileRange(file, channel, start, end - start + 1, request,
+                        response);
+            } else {
+                String partBoundary = UUID.randomUUID().toString();
+                String mimeType = response.getContentType();
+                response.setContentType(String.format(
+                        "multipart/byteranges; boundary=%s", partBoundary));
+                response.setHeader("Transfer-Encoding", "chunked");
+
+                ServletOutputStream outputStream = response.getOutputStream();
+                for (Pair<Long, Long> rangePair : ranges) {
+                    long start = rangePair.getFirst();
+                    long end = Math.min(rangePair.getSecond(), fileLength - 1);
+                    outputStream.write(String
+                            .format("\r\n--%s\r\n", partBoundary).getBytes());
+                    if (mimeType != null) {
+                        outputStream.write(
+                                String.format("Content-Type: %s\r\n", mimeType)
+                                        .getBytes());
+                    }
+                    outputStream.write(String
+                            .format("Content-Range: %s\r\n\r\n",
+                                    createContentRangeHeader(start, end,
+                                            fileLength))
+                            .getBytes());
+                    transferFile(channel, start, end - start + 1,
+                            outputStream);
+                }
+                outputStream.write(
+                        String.format("\r\n--%s", partBoundary).getBytes());
+            }
+        }
+    }
+
+    private void writeFileRange(File file, FileChannel channel, long start,
+            long count, HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+        if (Boolean.TRUE
+                .equals(request.getAttribute(SENDFILE_SUPPORT_ATTRIBUTE))) {
+            request.setAttribute(SENDFILE_FILENAME_ATTRIBUTE,
+                    file.getCanonicalPath());
+            request.setAttribute(SENDFILE_START_ATTRIBUTE, start);
+            request.setAttribute(SENDFILE_END_ATTRIBUTE, start + count);
+            return;
+        }
+        transferFile(channel, start, count, response.getOutputStream());
+    }
+
+    private void transferFile(FileChannel channel, long start, long count,
+            OutputStream outputStream) throws IOException {
+        WritableByteChannel target = Channels.newChannel(outputStream);
+        long position = start;
+        long end = start + count;
+        while (position < end) {
+            long transferred = channel.transferTo(position, end - position,
+                    target);
+            if (transferred <= 0) {
+                // The file has been truncated while writing
+                break;
+            }
+            position += transferred;
+        }
+    }
+
     private void closeStream(Closeable stream) {
         try {
             stream.close();
@@ -197,15 +408,58 @@ public class ResponseWriter implements Serializable {
 
         URLConnection connection = resourceURL.openConnection();
 
+        long resourceLength = connection.getContentLengthLong();
+        List<Pair<Long, Long>> ranges = parseRanges(range, resourceLength,
+                response, resourceURL);
+        if (ranges == null) {
+            return;
+        }
+
+        response.setStatus(206);
+
+        if (ranges.size() == 1) {
+            ServletOutputStream outputStream = response.getOutputStream();
+
+            // single range: calculate Content-Length
+            long start = ranges.get(0).getFirst();
+            long end = ranges.get(0).getSecond();
+            if (resourceLength >= 0) {
+                end = Math.min(end, resourceLength - 1);
+            }
+            setContentLength(response, end - start + 1);
+            response.setHeader("Content-Range",
+                    createContentRangeHeader(start, end, resourceLength));
+
+            final InputStream dataStream = connection.getInputStream();
+            try {
+                long skipped = dataStream.skip(start);
+                assert(skipped == start);
+                writeStream(outputStream, dataStream, end - start + 1);
+            } finally {
+                closeStream(dataStream);
+            }
+        } else {
+            writeMultipartRangeContents(ranges, connection, response,
+                    resourceURL);
+        }
+    }
+
+    /**
+     * Parses the byte ranges of a "Range" header. If the header is malformed
+     * or not satisfiable, the 416 status is written to the response and
+     * <code>null</code> is returned.
+     */
+    private List<Pair<Long, Long>> parseRanges(String range,
+            long resourceLength, HttpServletResponse response,
+            Object resource) {
         Matcher headerMatcher = RANGE_HEADER_PATTERN.matcher(range);
         if (!headerMatcher.matches()) {
             response.setContentLengthLong(0L);
             response.setStatus(416); // Range Not Satisfiable
-            return;
+            return null;
         }
         String byteRanges = headerMatcher.group(1);
 
-        long resourceLength = connection.getContentLengthLong();
         Matcher rangeMatcher = BYTE_RANGE_PATTERN.matcher(byteRanges);
 
         Stack<Pair<Long, Long>> ranges = new Stack<>();
@@ -216,7 +470,7 @@ public class ResponseWriter implements Serializable {
                 response.setContentLengthLong(0L);
                 response.setStatus(416); // Range Not Satisfiable
                 getLogger().info("received a malformed range: '{}'", rangeMatcher.group());
-                return;
+                return null;
             }
             long start = startGroup.isEmpty() ? 0L : Long.parseLong(startGroup);
             long end = endGroup.isEmpty() ? Long.MAX_VALUE
@@ -225,48 +479,21 @@ public class ResponseWriter implements Serializable {
                     || (resourceLength >= 0 && start >= resourceLength)) {
                 // illegal range -> 416
                 getLogger().info("received an illegal range '{}' for resource '{}'",
-                        rangeMatcher.group(), resourceURL);
+                        rangeMatcher.group(), resource);
                 response.setContentLengthLong(0L);
                 response.setStatus(416);
-                return;
+                return null;
             }
             ranges.push(new Pair<>(start, end));
 
             if (!verifyRangeLimits(ranges)) {
                 ranges.pop();
                 getLogger().info("serving only {} ranges for resource '{}' even though more were requested",
-                        ranges.size(), resourceURL);
+                        ranges.size(), resource);
                 break;
             }
         }
-
-        response.setStatus(206);
-
-        if (ranges.size() == 1) {
-            ServletOutputStream outputStream = response.getOutputStream();
-
-            // single range: calculate Content-Length
-            long start = ranges.get(0).getFirst();
-            long end = ranges.get(0).getSecond();
-            if (resourceLength >= 0) {
-                end = Math.min(end, resourceLength - 1);
-            }
-            setContentLength(response, end - start + 1);
-            response.setHeader("Content-Range",
-                    createContentRangeHeader(start, end, resourceLength));
-
-            final InputStream dataStream = connection.getInputStream();
-            try {
-                long skipped = dataStream.skip(start);
-                assert(skipped == start);
-                writeStream(outputStream, dataStream, end - start + 1);
-            } finally {
-                closeStream(dataStream);
-            }
-        } else {
-            writeMultipartRangeContents(ranges, connection, response,
-                    resourceURL);
-        }
+        return ranges;
     }
 
     /**
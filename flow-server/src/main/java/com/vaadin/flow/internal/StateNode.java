@@ -130,6 +130,31 @@ public class StateNode implements Serializable {
     private static class ReplacedViaPreserveOnRefresh implements Serializable {
     }
 
+    /**
+     * Per-node state that most nodes never use. It is kept in a separate
+     * object that is only created when needed to keep each node small.
+     */
+    private static class RarelyUsedState implements Serializable {
+        // Listener arrays are replaced instead of modified so that listeners
+        // can be run while the listeners are changed
+        private Command[] attachListeners = NO_COMMANDS;
+        private Command[] detachListeners = NO_COMMANDS;
+
+        private ArrayList<StateTree.BeforeClientResponseEntry> beforeClientResponseEntries;
+
+        // Change trackers for feature instances with a type that is not in
+        // the feature set of the node, e.g. subclasses used in tests
+        private Map<Class<? extends NodeFeature>, Serializable> otherChanges;
+
+        private boolean isEmpty() {
+            return attachListeners.length == 0 && detachListeners.length == 0
+                    && beforeClientResponseEntries == null
+                    && otherChanges == null;
+        }
+    }
+
+    private static final Command[] NO_COMMANDS = new Command[0];
+
     private static final ReplacedViaPreserveOnRefresh REPLACED_MARKER = new ReplacedViaPreserveOnRefresh();
 
     /**
@@ -144,11 +169,13 @@ public class StateNode implements Serializable {
      */
     private Serializable features;
 
-    private Map<Class<? extends NodeFeature>, Serializable> changes;
-
-    private List<Command> attachListeners;
+    /**
+     * Change trackers of the features of this node, indexed in the same way as
+     * the {@link #features} array. <code>null</code> if there are no changes.
+     */
+    private Serializable[] changes;
 
-    private List<Command> detachListeners;
+    private RarelyUsedState rarelyUsedState;
 
     private NodeOwner owner = NullOwner.get();
 
@@ -166,9 +193,12 @@ public class StateNode implements Serializable {
 
     private boolean isInitialChanges = true;
 
-    private ArrayList<StateTree.BeforeClientResponseEntry> beforeClientResponseEntries;
     private boolean enabled = true;
 
+    // Dirty node bookkeeping of the owning state tree, see StateTree
+    boolean isQueuedAsDirty;
+    boolean isCollectedAsDirty;
+
     /**
      * Creates a state node with the given feature types.
      *
@@ -389,6 +419,7 @@ public class StateNode implements Serializable {
      */
     private void reset() {
         owner = NullOwner.get();
+        isQueuedAsDirty = false;
         id = -1;
         wasAttached = false;
         hasBeenAttached = false;
@@ -634,16 +665,47 @@ public class StateNode implements Serializable {
             Stream<NodeFeature> features) {
         features.filter(this::hasChangeTracker).forEach(feature -> {
             feature.collectChanges(collector);
-            changes.remove(feature.getClass());
+            removeChangeTracker(feature);
         });
         isInitialChanges = false;
-        if (changes != null && changes.isEmpty()) {
+        if (changes != null && !containsChangeTracker(changes)) {
             changes = null;
         }
     }
 
+    private void removeChangeTracker(NodeFeature feature) {
+        Integer featureIndex = featureSet.mappings.get(feature.getClass());
+        if (featureIndex != null) {
+            if (changes != null) {
+                changes[featureIndex.intValue()] = null;
+            }
+        } else if (rarelyUsedState != null
+                && rarelyUsedState.otherChanges != null) {
+            rarelyUsedState.otherChanges.remove(feature.getClass());
+            if (rarelyUsedState.otherChanges.isEmpty()) {
+                rarelyUsedState.otherChanges = null;
+                releaseRarelyUsedStateIfEmpty();
+            }
+        }
+    }
+
+    private static boolean containsChangeTracker(Serializable[] changes) {
+        for (Serializable tracker : changes) {
+            if (tracker != null) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     private boolean hasChangeTracker(NodeFeature nodeFeature) {
-        return changes != null && changes.containsKey(nodeFeature.getClass());
+        Integer featureIndex = featureSet.mappings.get(nodeFeature.getClass());
+        if (featureIndex != null) {
+            return changes != null && changes[featureIndex.intValue()] != null;
+        }
+        return rarelyUsedState != null && rarelyUsedState.otherChanges != null
+                && rarelyUsedState.otherChanges
+                        .containsKey(nodeFeature.getClass());
     }
 
     /**
@@ -652,6 +714,10 @@ public class StateNode implements Serializable {
      */
     public void clearChanges() {
         changes = null;
+        if (rarelyUsedState != null) {
+            rarelyUsedState.otherChanges = null;
+            releaseRarelyUsedStateIfEmpty();
+        }
     }
 
     /**
@@ -724,6 +790,7 @@ public class StateNode implements Serializable {
             }
         }
         owner = tree;
+        isQueuedAsDirty = false;
     }
 
     private boolean handleOnAttach() {
@@ -768,10 +835,8 @@ public class StateNode implements Serializable {
     public Registration addAttachListener(Command attachListener) {
         assert attachListener != null;
 
-        if (attachListeners == null) {
-            attachListeners = new ArrayList<>(1);
-        }
-        attachListeners.add(attachListener);
+        RarelyUsedState state = getRarelyUsedState();
+        state.attachListeners = add(state.attachListeners, attachListener);
 
         return () -> removeAttachListener(attachListener);
     }
@@ -787,10 +852,8 @@ public class StateNode implements Serializable {
     public Registration addDetachListener(Command detachListener) {
         assert detachListener != null;
 
-        if (detachListeners == null) {
-            detachListeners = new ArrayList<>(1);
-        }
-        detachListeners.add(detachListener);
+        RarelyUsedState state = getRarelyUsedState();
+        state.detachListeners = add(state.detachListeners, detachListener);
 
         return () -> removeDetachListener(detachListener);
     }
@@ -798,38 +861,73 @@ public class StateNode implements Serializable {
     private void removeAttachListener(Command attachListener) {
         assert attachListener != null;
 
-        attachListeners.remove(attachListener);
-
-        if (attachListeners.isEmpty()) {
-            attachListeners = null;
+        if (rarelyUsedState != null) {
+            rarelyUsedState.attachListeners = remove(
+                    rarelyUsedState.attachListeners, attachListener);
+            releaseRarelyUsedStateIfEmpty();
         }
     }
 
     private void removeDetachListener(Command detachListener) {
         assert detachListener != null;
 
-        detachListeners.remove(detachListener);
+        if (rarelyUsedState != null) {
+            rarelyUsedState.detachListeners = remove(
+                    rarelyUsedState.detachListeners, detachListener);
+            releaseRarelyUsedStateIfEmpty();
+        }
+    }
+
+    private static Command[] add(Command[] commands, Command command) {
+        Command[] result = Arrays.copyOf(commands, commands.length + 1);
+        result[commands.length] = command;
+        return result;
+    }
+
+    private static Command[] remove(Command[] commands, Command command) {
+        for (int i = 0; i < commands.length; i++) {
+            if (commands[i].equals(command)) {
+                if (commands.length == 1) {
+                    return NO_COMMANDS;
+                }
+                Command[] result = new Command[commands.length - 1];
+                System.arraycopy(commands, 0, result, 0, i);
+                System.arraycopy(commands, i + 1, result, i,
+                        commands.length - i - 1);
+                return result;
+            }
+        }
+        return commands;
+    }
 
-        if (detachListeners.isEmpty()) {
-            detachListeners = null;
+    private RarelyUsedState getRarelyUsedState() {
+        if (rarelyUsedState == null) {
+            rarelyUsedState = new RarelyUsedState();
         }
+        return rarelyUsedState;
     }
 
-    private void fireAttachListeners(boolean initialAttach) {
-        if (attachListeners != null) {
-            List<Command> copy = new ArrayList<>(attachListeners);
+    private void releaseRarelyUsedStateIfEmpty() {
+        if (rarelyUsedState != null && rarelyUsedState.isEmpty()) {
+            rarelyUsedState = null;
+        }
+    }
 
-            copy.forEach(Command::execute);
+    private void fireAttachListeners(boolean initialAttach) {
+        if (rarelyUsedState != null) {
+            for (Command command : rarelyUsedState.attachListeners) {
+                command.execute();
+            }
         }
 
         forEachFeature(f -> f.onAttach(initialAttach));
     }
 
     private void fireDetachListeners() {
-        if (detachListeners != null) {
-            List<Command> copy = new ArrayList<>(detachListeners);
-
-            copy.forEach(Command::execute);
+        if (rarelyUsedState != null) {
+            for (Command command : rarelyUsedState.detachListeners) {
+                command.execute();
+            }
         }
 
         forEachFeature(NodeFeature::onDetach);
@@ -850,12 +948,26 @@ public class StateNode implements Serializable {
     @SuppressWarnings("unchecked")
     public <T extends Serializable> T getChangeTracker(NodeFeature feature,
             Supplier<T> factory) {
+        Integer featureIndex = featureSet.mappings.get(feature.getClass());
+        if (featureIndex == null) {
+            RarelyUsedState state = getRarelyUsedState();
+            if (state.otherChanges == null) {
+                state.otherChanges = new HashMap<>();
+            }
+            return (T) state.otherChanges.computeIfAbsent(feature.getClass(),
+                    k -> factory.get());
+        }
+
         if (changes == null) {
-            changes = new HashMap<>();
+            changes = new Serializable[featureSet.mappings.size()];
         }
 
-        return (T) changes.computeIfAbsent(feature.getClass(),
-                k -> factory.get());
+        Serializable tracker = changes[featureIndex.intValue()];
+        if (tracker == null) {
+            tracker = factory.get();
+            changes[featureIndex.intValue()] = tracker;
+        }
+        return (T) tracker;
     }
 
     /**
@@ -1003,7 +1115,8 @@ public class StateNode implements Serializable {
      *         <code>false</code>
      */
     public boolean hasBeforeClientResponseEntries() {
-        return beforeClientResponseEntries != null;
+        return rarelyUsedState != null
+                && rarelyUsedState.beforeClientResponseEntries != null;
     }
 
     /**
@@ -1017,9 +1130,13 @@ public class StateNode implements Serializable {
      *         entries
      */
     public List<StateTree.BeforeClientResponseEntry> dumpBeforeClientResponseEntries() {
-        ArrayList<BeforeClientResponseEntry> entries = beforeClientResponseEntries;
+        if (!hasBeforeClientResponseEntries()) {
+            return Collections.emptyList();
+        }
+        ArrayList<BeforeClientResponseEntry> entries = rarelyUsedState.beforeClientResponseEntries;
 
-        beforeClientResponseEntries = null;
+        rarelyUsedState.beforeClientResponseEntries = null;
+        releaseRarelyUsedStateIfEmpty();
 
         return !entries.isEmpty() ? entries : Collections.emptyList();
     }
@@ -1039,12 +1156,13 @@ public class StateNode implements Serializable {
             BeforeClientResponseEntry entry) {
         assert entry != null;
 
-        if (beforeClientResponseEntries == null) {
-            beforeClientResponseEntries = new ArrayList<>();
+        RarelyUsedState state = getRarelyUsedState();
+        if (state.beforeClientResponseEntries == null) {
+            state.beforeClientResponseEntries = new ArrayList<>();
         }
 
         // Effectively final local variable for the lambda
-        List<BeforeClientResponseEntry> localEntries = beforeClientResponseEntries;
+        List<BeforeClientResponseEntry> localEntries = state.beforeClientResponseEntries;
         localEntries.add(entry);
 
         return () -> localEntries.remove(entry);
@@ -17,13 +17,13 @@
 package com.vaadin.flow.internal;
 
 import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.Map;
 import java.util.Set;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
@@ -45,6 +45,8 @@ import com.vaadin.flow.shared.Registration;
  */
 public class StateTree implements NodeOwner {
 
+    private static final int INITIAL_DIRTY_CAPACITY = 16;
+
     private final class RootNode extends StateNode {
 
         private RootNode(Class<? extends NodeFeature>[] features) {
@@ -131,9 +133,15 @@ public class StateTree implements NodeOwner {
         void remove();
     }
 
-    private Set<StateNode> dirtyNodes = new LinkedHashSet<>();
+    /**
+     * Nodes marked as dirty in the order they were marked. A node is only
+     * added once, which is tracked by {@link StateNode#isQueuedAsDirty}.
+     */
+    private StateNode[] dirtyNodes = new StateNode[INITIAL_DIRTY_CAPACITY];
+
+    private int dirtyNodeCount;
 
-    private final Map<Integer, StateNode> idToNode = new HashMap<>();
+    private final IntObjectMap<StateNode> idToNode = new IntObjectMap<>();
 
     private int nextId = 1;
 
@@ -207,7 +215,7 @@ public class StateTree implements NodeOwner {
     public void unregister(StateNode node) {
         assert node.getOwner() == this;
 
-        Integer id = node.getId();
+        int id = node.getId();
 
         StateNode removedNode = idToNode.remove(id);
 
@@ -257,15 +265,28 @@ public class StateTree implements NodeOwner {
      *            a consumer accepting node changes
      */
     public void collectChanges(Consumer<NodeChange> collector) {
-        Set<StateNode> allDirtyNodes = new LinkedHashSet<>();
+        List<StateNode> allDirtyNodes = new ArrayList<>();
         boolean evaluateNewDirtyNodes = true;
 
         // The updateActiveState method can create new dirty nodes, so they need
         // to be collected as well
-        while (evaluateNewDirtyNodes) {
-            Set<StateNode> dirtyNodesSet = doCollectDirtyNodes(true);
-            dirtyNodesSet.forEach(StateNode::updateActiveState);
-            evaluateNewDirtyNodes = allDirtyNodes.addAll(dirtyNodesSet);
+        try {
+            while (evaluateNewDirtyNodes) {
+                StateNode[] dirtyNodesBatch = dumpDirtyNodes();
+                for (StateNode node : dirtyNodesBatch) {
+                    node.updateActiveState();
+                }
+                evaluateNewDirtyNodes = false;
+                for (StateNode node : dirtyNodesBatch) {
+                    if (!node.isCollectedAsDirty) {
+                        node.isCollectedAsDirty = true;
+                        allDirtyNodes.add(node);
+                        evaluateNewDirtyNodes = true;
+                    }
+                }
+            }
+        } finally {
+            allDirtyNodes.forEach(node -> node.isCollectedAsDirty = false);
         }
 
         // TODO fire preCollect events
@@ -278,7 +299,14 @@ public class StateTree implements NodeOwner {
         assert node.getOwner() == this;
         checkHasLock();
 
-        dirtyNodes.add(node);
+        if (node.isQueuedAsDirty) {
+            return;
+        }
+        node.isQueuedAsDirty = true;
+        if (dirtyNodeCount == dirtyNodes.length) {
+            dirtyNodes = Arrays.copyOf(dirtyNodes, dirtyNodeCount * 2);
+        }
+        dirtyNodes[dirtyNodeCount++] = node;
     }
 
     /**
@@ -297,7 +325,17 @@ public class StateTree implements NodeOwner {
      * @return true if there are dirty nodes, false otherwise
      */
     public boolean hasDirtyNodes() {
-        return !dirtyNodes.isEmpty();
+        return dirtyNodeCount != 0;
+    }
+
+    /**
+     * Gets the number of nodes that have been marked as dirty since the last
+     * time {@link #collectDirtyNodes()} was invoked.
+     *
+     * @return the number of dirty nodes
+     */
+    public int getDirtyNodeCount() {
+        return dirtyNodeCount;
     }
 
     /**
@@ -417,14 +455,39 @@ public class StateTree implements NodeOwner {
      * @return a set of dirty nodes, in the order they were marked dirty
      */
     private Set<StateNode> doCollectDirtyNodes(boolean reset) {
+        Set<StateNode> collectedNodes = new LinkedHashSet<>(
+                Arrays.asList(dirtyNodes).subList(0, dirtyNodeCount));
         if (reset) {
-            Set<StateNode> collectedNodes = dirtyNodes;
-            dirtyNodes = new LinkedHashSet<>();
+            dumpDirtyNodes();
             return collectedNodes;
         } else {
-            return Collections.unmodifiableSet(dirtyNodes);
+            return Collections.unmodifiableSet(collectedNodes);
         }
+    }
 
+    /**
+     * Removes all nodes from the dirty node queue.
+     *
+     * @return the removed nodes, in the order they were marked dirty
+     */
+    private StateNode[] dumpDirtyNodes() {
+        StateNode[] collectedNodes = Arrays.copyOf(dirtyNodes, dirtyNodeCount);
+        for (StateNode node : collectedNodes) {
+            // The node might have been moved to another tree while queued
+            if (node.getOwner() == this) {
+                node.isQueuedAsDirty = false;
+            }
+        }
+        if (dirtyNodes.length > INITIAL_DIRTY_CAPACITY
+                && dirtyNodeCount * 4 < dirtyNodes.length) {
+            // Release memory after an exceptionally large round-trip
+            dirtyNodes = new StateNode[Math.max(INITIAL_DIRTY_CAPACITY,
+                    dirtyNodeCount * 2)];
+        } else {
+            Arrays.fill(dirtyNodes, 0, dirtyNodeCount, null);
+        }
+        dirtyNodeCount = 0;
+        return collectedNodes;
     }
 
     /**
@@ -0,0 +1,294 @@
+/*
+ * Copyright 2000-2020 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.internal;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.Serializable;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * An in-memory cache of static resources with their compressed variants,
+ * bounded by the total size of the cached data. The least recently used
+ * resources are evicted when the size limit is reached.
+ * <p>
+ * The cache is meant for resources that do not change while the application
+ * is running, e.g. the frontend bundles in production mode. Cached resources
+ * are never revalidated.
+ * <p>
+ * For internal use only. May be renamed or removed in a future release.
+ *
+ * @author Vaadin Ltd
+ * @since 6.0
+ */
+public class StaticResourceCache implements Serializable {
+
+    /**
+     * The largest part of the size limit that a single resource may use.
+     */
+    private static final int MAX_ENTRY_SHARE = 4;
+
+    /**
+     * A cached static resource.
+     */
+    public static final class CachedResource implements Serializable {
+        private final byte[] data;
+        private final byte[] gzipData;
+        private final byte[] brotliData;
+        private final String etag;
+        private final long lastModified;
+
+        private CachedResource(byte[] data, byte[] gzipData,
+                byte[] brotliData, String etag, long lastModified) {
+            this.data = data;
+            this.gzipData = gzipData;
+            this.brotliData = brotliData;
+            this.etag = etag;
+            this.lastModified = lastModified;
+        }
+
+        /**
+         * Gets the uncompressed content of the resource.
+         *
+         * @return the content, not <code>null</code>
+         */
+        public byte[] getData() {
+            return data;
+        }
+
+        /**
+         * Gets the gzip compressed content of the resource.
+         *
+         * @return the compressed content, or <code>null</code> if compression
+         *         does not make the resource smaller
+         */
+        public byte[] getGzipData() {
+            return gzipData;
+        }
+
+        /**
+         * Gets the Brotli compressed content of the resource.
+         *
+         * @return the compressed content, or <code>null</code> if no
+         *         precompressed Brotli file was available
+         */
+        public byte[] getBrotliData() {
+            return brotliData;
+        }
+
+        /**
+         * Gets the strong entity tag of the uncompressed content. The entity
+         * tag of a compressed variant is this tag with the content encoding
+         * appended.
+         *
+         * @return the quoted entity tag, not <code>null</code>
+         */
+        public String getETag() {
+            return etag;
+        }
+
+        /**
+         * Gets the time the resource was last modified, without milliseconds.
+         *
+         * @return the modification time in milliseconds since the epoch, or -1
+         *         if the time is not known
+         */
+        public long getLastModified() {
+            return lastModified;
+        }
+
+        private long getSize() {
+            return data.length + (gzipData == null ? 0 : gzipData.length)
+                    + (brotliData == null ? 0 : brotliData.length);
+        }
+    }
+
+    private final long maxSize;
+    private final LinkedHashMap<String, CachedResource> resources = new LinkedHashMap<>(
+            16, 0.75f, true);
+    private long size;
+
+    /**
+     * Creates a new cache.
+     *
+     * @param maxSize
+     *            the maximum total size of the cached data in bytes
+     */
+    public StaticResourceCache(long maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Creates a cacheable resource. A gzip compressed variant is created from
+     * the content unless a precompressed one is given.
+     *
+     * @param data
+     *            the uncompressed content, not <code>null</code>
+     * @param gzipData
+     *            the precompressed gzip content, or <code>null</code> to
+     *            compress the content
+     * @param brotliData
+     *            the precompressed Brotli content, or <code>null</code> if not
+     *            available
+     * @param lastModified
+     *            the modification time in milliseconds since the epoch, or -1
+     *            if not known
+     * @return the resource to cache, not <code>null</code>
+     */
+    public static CachedResource createResource(byte[] data, byte[] gzipData,
+            byte[] brotliData, long lastModified) {
+        byte[] gzip = gzipData == null ? gzip(data) : gzipData;
+        if (gzip.length >= data.length) {
+            gzip = null;
+        }
+        if (brotliData != null && brotliData.length >= data.length) {
+            brotliData = null;
+        }
+        if (lastModified > 0) {
+            // The browser does not send milliseconds in If-Modified-Since
+            lastModified -= lastModified % 1000;
+        } else {
+            lastModified = -1;
+        }
+        return new CachedResource(data, gzip, brotliData, createETag(data),
+                lastModified);
+    }
+
+    /**
+     * Gets the maximum size of a single resource that is cached. Larger
+     * resources would evict too many others.
+     *
+     * @return the maximum size of a resource in bytes
+     */
+    public long getMaxResourceSize() {
+        return maxSize / MAX_ENTRY_SHARE;
+    }
+
+    /**
+     * Gets a cached resource and marks it as recently used.
+     *
+     * @param path
+     *            the path of the resource, not <code>null</code>
+     * @return the cached resource, or <code>null</code> if the resource is not
+     *         in the cache
+     */
+    public synchronized CachedResource get(String path) {
+        return resources.get(path);
+    }
+
+    /**
+     * Adds a resource to the cache, evicting the least recently used resources
+     * if the cache would become too large. Resources larger than
+     * {@link #getMaxResourceSize()} are not cached.
+     *
+     * @param path
+     *            the path of the resource, not <code>null</code>
+     * @param resource
+     *            the resource to cache, not <code>null</code>
+     */
+    public synchronized void put(String path, CachedResource resource) {
+        if (resource.getSize() > getMaxResourceSize()) {
+            return;
+        }
+        CachedResource old = resources.put(path, resource);
+        if (old != null) {
+            size -= old.getSize();
+        }
+        size += resource.getSize();
+
+        Iterator<Map.Entry<String, CachedResource>> iterator = resources
+                .entrySet().iterator();
+        while (size > maxSize && iterator.hasNext()) {
+            CachedResource eldest = iterator.next().getValue();
+            iterator.remove();
+            size -= eldest.getSize();
+        }
+    }
+
+    /**
+     * Gets the total size of the cached data.
+     *
+     * @return the size in bytes
+     */
+    public synchronized long getSize() {
+        return size;
+    }
+
+    /**
+     * Gets the number of cached resources.
+     *
+     * @return the number of resources
+     */
+    public synchronized int getResourceCount() {
+        return resources.size();
+    }
+
+    /**
+     * Checks whether the given <code>If-None-Match</code> header value matches
+     * the given entity tag, using the weak comparison required for the header.
+     *
+     * @param ifNoneMatch
+     *            the header value, or <code>null</code> if the header was not
+     *            sent
+     * @param etag
+     *            the quoted entity tag of the resource, not <code>null</code>
+     * @return <code>true</code> if the client has the resource
+     */
+    public static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        String opaqueTag = stripWeakPrefix(etag);
+        return Arrays.stream(ifNoneMatch.split(",")).map(String::trim)
+                .anyMatch(tag -> "*".equals(tag)
+                        || opaqueTag.equals(stripWeakPrefix(tag)));
+    }
+
+    private static String stripWeakPrefix(String etag) {
+        return etag.startsWith("W/") ? etag.substring(2) : etag;
+    }
+
+    private static String createETag(byte[] data) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(data);
+            return '"' + Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString(Arrays.copyOf(digest, 16)) + '"';
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(
+                    "SHA-256 is required to be supported by all JVMs", e);
+        }
+    }
+
+    private static byte[] gzip(byte[] data) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(
+                data.length / 2);
+        try (GZIPOutputStream out = new GZIPOutputStream(bytes)) {
+            out.write(data);
+        } catch (IOException e) {
+            // Cannot happen with a byte array output stream
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+}
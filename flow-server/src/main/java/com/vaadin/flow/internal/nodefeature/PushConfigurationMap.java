@@ -164,4 +164,28 @@ public class PushConfigurationMap extends NodeMap implements PushConfiguration {
     public void setPushConnectionFactory(PushConnectionFactory factory) {
         throw new UnsupportedOperationException("Setting push connection factory is not supported");
     }
+
+    @Override
+    public void setCoalescingWindow(int windowMillis) {
+        throw new UnsupportedOperationException(
+                "Setting coalescing window is not supported");
+    }
+
+    @Override
+    public int getCoalescingWindow() {
+        throw new UnsupportedOperationException(
+                "Getting coalescing window is not supported");
+    }
+
+    @Override
+    public void setCoalescingMaxChanges(int maxChanges) {
+        throw new UnsupportedOperationException(
+                "Setting coalescing max changes is not supported");
+    }
+
+    @Override
+    public int getCoalescingMaxChanges() {
+        throw new UnsupportedOperationException(
+                "Getting coalescing max changes is not supported");
+    }
 }
@@ -23,6 +23,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -44,6 +45,11 @@ import com.vaadin.flow.router.RouterLayout;
  */
 public class ConfiguredRoutes implements Serializable {
 
+    /**
+     * Maximum number of resolved navigation targets kept in the cache.
+     */
+    static final int NAVIGATION_TARGET_CACHE_SIZE = 1000;
+
     // Stores targets accessed by urls with parameters.
     private final RouteModel routeModel;
 
@@ -54,6 +60,11 @@ public class ConfiguredRoutes implements Serializable {
 
     private final Map<Class<? extends Exception>, Class<? extends Component>> exceptionTargetMap;
 
+    // Only immutable copies cache the resolved targets. Not serialized since
+    // the cache is rebuilt quickly.
+    private final boolean cacheNavigationTargets;
+    private transient volatile Map<String, NavigationRouteTarget> navigationTargetCache;
+
     /**
      * Create an immutable RouteConfiguration.
      */
@@ -63,6 +74,7 @@ public class ConfiguredRoutes implements Serializable {
         targetRouteMap = Collections.emptyMap();
         targetRouteModelMap = Collections.emptyMap();
         exceptionTargetMap = Collections.emptyMap();
+        cacheNavigationTargets = false;
     }
 
     /**
@@ -99,6 +111,7 @@ public class ConfiguredRoutes implements Serializable {
         this.exceptionTargetMap = originalExceptionTargetMap.isEmpty()
                 ? Collections.emptyMap()
                 : Collections.unmodifiableMap(originalExceptionTargetMap);
+        this.cacheNavigationTargets = true;
     }
 
     protected Map<String, RouteTarget> getRoutesMap() {
@@ -181,6 +194,11 @@ public class ConfiguredRoutes implements Serializable {
     /**
      * Search for a route target using given navigation <code>url</code>
      * argument.
+     * <p>
+     * The resolved targets of recently used urls are cached, and the cache is
+     * cleared when it grows too large. Since this configuration is immutable
+     * and changing the routes creates a new configuration, the cache never
+     * contains stale targets.
      *
      * @param url
      *            the navigation url used to search a route target.
@@ -190,7 +208,38 @@ public class ConfiguredRoutes implements Serializable {
      *         configuration.
      */
     public NavigationRouteTarget getNavigationRouteTarget(String url) {
-        return getRouteModel().getNavigationRouteTarget(url);
+        if (!cacheNavigationTargets || url == null) {
+            return getRouteModel().getNavigationRouteTarget(url);
+        }
+        Map<String, NavigationRouteTarget> cache = navigationTargetCache;
+        if (cache == null) {
+            // A cache created concurrently by another thread is just dropped
+            cache = new ConcurrentHashMap<>();
+            navigationTargetCache = cache;
+        }
+        NavigationRouteTarget target = cache.get(url);
+        if (target == null) {
+            // Concurrent resolutions of the same url produce equal results
+            target = getRouteModel().getNavigationRouteTarget(url);
+            if (cache.size() >= NAVIGATION_TARGET_CACHE_SIZE) {
+                // Urls with parameters, e.g. item ids, are seldom navigated
+                // to again, so tracking the least recently used urls does not
+                // pay off
+                cache.clear();
+            }
+            cache.put(url, target);
+        }
+        return target;
+    }
+
+    /**
+     * Gets the number of navigation targets currently cached.
+     *
+     * @return the number of cached targets
+     */
+    int getCachedNavigationTargetCount() {
+        Map<String, NavigationRouteTarget> cache = navigationTargetCache;
+        return cache == null ? 0 : cache.size();
     }
 
     /**
@@ -16,11 +16,13 @@
 
 package com.vaadin.flow.server;
 
+import java.io.BufferedOutputStream;
 import java.io.BufferedReader;
 import java.io.BufferedWriter;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.io.Serializable;
 import java.lang.annotation.Annotation;
@@ -168,6 +170,11 @@ public class BootstrapHandler extends SynchronizedRequestHandler {
         private PushMode pushMode;
         private JsonObject applicationParameters;
         private BootstrapUriResolver uriResolver;
+        // Only set when the page is written by BootstrapHandler, which
+        // splices the bootstrap script into the page
+        private boolean splicedBootstrapScript;
+        private BootstrapPageTemplate pageTemplate;
+        private BootstrapPageTemplate.BootstrapScript bootstrapScript;
 
         /**
          * Creates a new context instance using the given parameters.
@@ -434,9 +441,15 @@ public class BootstrapHandler extends SynchronizedRequestHandler {
         HandlerHelper.setResponseNoCacheHeaders(response::setHeader,
                 response::setDateHeader);
 
+        context.splicedBootstrapScript = true;
         Document document = pageBuilder.getBootstrapPage(context);
 
-        writeBootstrapPage(response, document.outerHtml());
+        if (context.bootstrapScript != null) {
+            writeBootstrapPage(response, document.outerHtml(),
+                    context.pageTemplate, context.bootstrapScript);
+        } else {
+            writeBootstrapPage(response, document.outerHtml());
+        }
 
         return true;
     }
@@ -451,6 +464,17 @@ public class BootstrapHandler extends SynchronizedRequestHandler {
         }
     }
 
+    private void writeBootstrapPage(VaadinResponse response, String html,
+            BootstrapPageTemplate pageTemplate,
+            BootstrapPageTemplate.BootstrapScript script) throws IOException {
+        response.setContentType(
+                ApplicationConstants.CONTENT_TYPE_TEXT_HTML_UTF_8);
+        try (OutputStream out = new BufferedOutputStream(
+                response.getOutputStream())) {
+            pageTemplate.writePage(html, script, out);
+        }
+    }
+
     /**
      * Interface for objects capable of building the bootstrap page.
      */
@@ -473,6 +497,9 @@ public class BootstrapHandler extends SynchronizedRequestHandler {
     protected static class BootstrapPageBuilder
             implements PageBuilder, Serializable {
 
+        // Created for the service on first use if enabled
+        private transient volatile BootstrapPageTemplate pageTemplate;
+
         /**
          * Returns the bootstrap page for the given context.
          *
@@ -484,6 +511,7 @@ public class BootstrapHandler extends SynchronizedRequestHandler {
         public Document getBootstrapPage(BootstrapContext context) {
             DeploymentConfiguration config = context.getSession()
                     .getConfiguration();
+            context.pageTemplate = getPageTemplate(context);
 
             Document document = new Document("");
             DocumentType doctype = new DocumentType("html", "", "");
@@ -530,6 +558,45 @@ public class BootstrapHandler extends SynchronizedRequestHandler {
             return document;
         }
 
+        private BootstrapPageTemplate getPageTemplate(
+                BootstrapContext context) {
+            DeploymentConfiguration config = context.getSession()
+                    .getConfiguration();
+            if (!context.splicedBootstrapScript || !config.isProductionMode()
+                    || !config.isPrecompiledBootstrap()) {
+                return null;
+            }
+            if (pageTemplate == null) {
+                synchronized (this) {
+                    if (pageTemplate == null) {
+                        pageTemplate = createPageTemplate(context);
+                    }
+                }
+            }
+            return pageTemplate;
+        }
+
+        private BootstrapPageTemplate createPageTemplate(
+                BootstrapContext context) {
+            List<String> chunkNames;
+            try {
+                chunkNames = getChunkNames(context.getSession().getService());
+            } catch (IOException e) {
+                throw new BootstrapException(
+                        "Unable to read webpack stats file.", e);
+            }
+            String clientEngine = getClientEngine(
+                    getResourceProvider(context));
+            String script = "//<![CDATA[\n"
+                    + getBootstrapJS()
+                            .replace("{{GWT_STAT_EVENTS}}", "")
+                            .replace("{{PRODUCTION_MODE}}",
+                                    String.valueOf(true))
+                    + "//]]>";
+            return new BootstrapPageTemplate(chunkNames, clientEngine,
+                    script);
+        }
+
         private Element createDependencyElement(BootstrapContext context,
                 JsonObject dependencyJson) {
             String type = dependencyJson.getString(Dependency.KEY_TYPE);
@@ -727,7 +794,10 @@ public class BootstrapHandler extends SynchronizedRequestHandler {
                     polyfill -> head.appendChild(createJavaScriptElement(
                             "./" + VAADIN_MAPPING + polyfill, false)));
             try {
-                appendNpmBundle(head, service, context);
+                List<String> chunkNames = context.pageTemplate != null
+                        ? context.pageTemplate.getChunkNames()
+                        : getChunkNames(service);
+                appendNpmBundle(head, chunkNames, context);
             } catch (IOException e) {
                 throw new BootstrapException(
                         "Unable to read webpack stats file.", e);
@@ -743,8 +813,21 @@ public class BootstrapHandler extends SynchronizedRequestHandler {
                     createJavaScriptElement(getClientEngineUrl(context)));
         }
 
-        private void appendNpmBundle(Element head, VaadinService service,
-                BootstrapContext context) throws IOException {
+        private void appendNpmBundle(Element head, List<String> chunkNames,
+                BootstrapContext context) {
+            for (String chunkName : chunkNames) {
+                Element script = createJavaScriptElement(
+                        "./" + VAADIN_MAPPING + chunkName, false);
+                head.appendChild(script.attr("type", "module")
+                        .attr("data-app-id",
+                                context.getUI().getInternals().getAppId())
+                        // Fixes basic auth in Safari #6560
+                        .attr("crossorigin", true));
+            }
+        }
+
+        private List<String> getChunkNames(VaadinService service)
+                throws IOException {
             String content = FrontendUtils.getStatsAssetsByChunkName(service);
             if (content == null) {
                 StringBuilder message = new StringBuilder(
@@ -773,21 +856,15 @@ public class BootstrapHandler extends SynchronizedRequestHandler {
                 throw new IOException(message.toString());
             }
             JsonObject chunks = Json.parse(content);
+            List<String> chunkNames = new ArrayList<>();
             for (String key : getChunkKeys(chunks)) {
-                String chunkName;
                 if (chunks.get(key).getType().equals(JsonType.ARRAY)) {
-                    chunkName = getArrayChunkName(chunks, key);
+                    chunkNames.add(getArrayChunkName(chunks, key));
                 } else {
-                    chunkName = chunks.getString(key);
+                    chunkNames.add(chunks.getString(key));
                 }
-                Element script = createJavaScriptElement(
-                        "./" + VAADIN_MAPPING + chunkName, false);
-                head.appendChild(script.attr("type", "module")
-                        .attr("data-app-id",
-                                context.getUI().getInternals().getAppId())
-                        // Fixes basic auth in Safari #6560
-                        .attr("crossorigin", true));
             }
+            return chunkNames;
         }
 
         /**
@@ -828,7 +905,9 @@ public class BootstrapHandler extends SynchronizedRequestHandler {
                     .getConfiguration().isProductionMode();
 
             ResourceProvider resourceProvider = getResourceProvider(context);
-            String clientEngine = getClientEngine(resourceProvider);
+            String clientEngine = context.pageTemplate != null
+                    ? context.pageTemplate.getClientEngine()
+                    : getClientEngine(resourceProvider);
             boolean resolveNow = !productionMode || clientEngine == null;
             if (resolveNow
                     && resourceProvider.getClientResource("/META-INF/resources/"
@@ -1005,6 +1084,18 @@ public class BootstrapHandler extends SynchronizedRequestHandler {
 
         private Element getBootstrapScript(JsonValue initialUIDL,
                 BootstrapContext context) {
+            BootstrapPageTemplate template = context.pageTemplate;
+            if (template != null) {
+                // The script is written from the precompiled segments when
+                // the page is written to the response
+                context.bootstrapScript = template.createScript(
+                        context.getAppId(),
+                        JsonUtil.stringify(context.getApplicationParameters(),
+                                0),
+                        getInitialUidlString(initialUIDL, 0));
+                return createInlineJavaScriptElement(
+                        template.getScriptMarker());
+            }
             return createInlineJavaScriptElement("//<![CDATA[\n"
                     + getBootstrapJS(initialUIDL, context) + "//]]>");
         }
@@ -1030,18 +1121,8 @@ public class BootstrapHandler extends SynchronizedRequestHandler {
             }
             String appConfigString = JsonUtil.stringify(appConfig, indent);
 
-            String initialUIDLString = JsonUtil.stringify(initialUIDL, indent);
-
-            /*
-             * The < symbol is escaped to prevent two problems:
-             *
-             * 1 - The browser interprets </script> as end of script no matter
-             * if it is inside a string
-             *
-             * 2 - Scripts can be injected with <!-- <script>, that can cause
-             * unexpected behavior or complete crash of the app
-             */
-            initialUIDLString = initialUIDLString.replace("<", "\\x3C");
+            String initialUIDLString = getInitialUidlString(initialUIDL,
+                    indent);
 
             if (!productionMode) {
                 // only used in debug mode by profiler
@@ -1063,6 +1144,21 @@ public class BootstrapHandler extends SynchronizedRequestHandler {
                     String.valueOf(productionMode));
             return result;
         }
+
+        private String getInitialUidlString(JsonValue initialUIDL,
+                int indent) {
+            /*
+             * The < symbol is escaped to prevent two problems:
+             *
+             * 1 - The browser interprets </script> as end of script no matter
+             * if it is inside a string
+             *
+             * 2 - Scripts can be injected with <!-- <script>, that can cause
+             * unexpected behavior or complete crash of the app
+             */
+            return JsonUtil.stringify(initialUIDL, indent).replace("<",
+                    "\\x3C");
+        }
     }
 
     private static final class ApplicationParameterBuilder {
@@ -1159,6 +1255,15 @@ public class BootstrapHandler extends SynchronizedRequestHandler {
             appConfig.put("maxMessageSuspendTimeout",
                     deploymentConfiguration.getMaxMessageSuspendTimeout());
 
+            int rpcBatchWindow = deploymentConfiguration.getRpcBatchWindow();
+            if (rpcBatchWindow > 0) {
+                appConfig.put("rpcBatchWindow", rpcBatchWindow);
+            }
+
+            if (deploymentConfiguration.isBinaryProtocol()) {
+                appConfig.put("binaryProtocol", true);
+            }
+
             boolean sendUrlsAsParameters = deploymentConfiguration
                     .isSendUrlsAsParameters();
             if (!sendUrlsAsParameters) {
@@ -0,0 +1,204 @@
+/*
+ * Copyright 2000-2020 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.server;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * The parts of the bootstrap page which are the same for all initial requests
+ * to a {@link VaadinService}, used by {@link BootstrapHandler} when
+ * {@link com.vaadin.flow.function.DeploymentConfiguration#isPrecompiledBootstrap()}
+ * is enabled.
+ * <p>
+ * The template contains the webpack chunk names, the client engine file name
+ * and the bootstrap script. The script is stored as UTF-8 encoded segments
+ * between the values which vary per request, i.e. the application id, the
+ * application configuration and the initial UIDL. The bootstrap page
+ * document only contains a marker in place of the script, and the script is
+ * written directly to the response when the marker is reached.
+ *
+ * @author Vaadin Ltd
+ * @since 6.0
+ */
+final class BootstrapPageTemplate {
+
+    static final String APP_ID = "{{APP_ID}}";
+    static final String CONFIG_JSON = "{{CONFIG_JSON}}";
+    static final String INITIAL_UIDL = "{{INITIAL_UIDL}}";
+
+    private static final String[] VALUE_PLACEHOLDERS = { APP_ID, CONFIG_JSON,
+            INITIAL_UIDL };
+
+    private final List<String> chunkNames;
+    private final String clientEngine;
+    private final String scriptMarker = "vaadin-bootstrap-"
+            + UUID.randomUUID();
+    private final List<byte[]> scriptSegments = new ArrayList<>();
+    private final List<String> scriptPlaceholders = new ArrayList<>();
+
+    /**
+     * Creates a new template.
+     *
+     * @param chunkNames
+     *            the names of the webpack chunks to load
+     * @param clientEngine
+     *            the client engine file name, or {@code null} if not known
+     * @param script
+     *            the contents of the bootstrap script with the
+     *            {@link #APP_ID}, {@link #CONFIG_JSON} and
+     *            {@link #INITIAL_UIDL} placeholders
+     */
+    BootstrapPageTemplate(List<String> chunkNames, String clientEngine,
+            String script) {
+        this.chunkNames = Collections
+                .unmodifiableList(new ArrayList<>(chunkNames));
+        this.clientEngine = clientEngine;
+
+        int start = 0;
+        while (true) {
+            int next = -1;
+            String placeholder = null;
+            for (String candidate : VALUE_PLACEHOLDERS) {
+                int index = script.indexOf(candidate, start);
+                if (index >= 0 && (next < 0 || index < next)) {
+                    next = index;
+                    placeholder = candidate;
+                }
+            }
+            if (placeholder == null) {
+                scriptSegments.add(script.substring(start).getBytes(UTF_8));
+                break;
+            }
+            scriptSegments.add(script.substring(start, next).getBytes(UTF_8));
+            scriptPlaceholders.add(placeholder);
+            start = next + placeholder.length();
+        }
+    }
+
+    /**
+     * Gets the names of the webpack chunks to load.
+     *
+     * @return the chunk names
+     */
+    List<String> getChunkNames() {
+        return chunkNames;
+    }
+
+    /**
+     * Gets the client engine file name.
+     *
+     * @return the client engine file name, or {@code null} if not known
+     */
+    String getClientEngine() {
+        return clientEngine;
+    }
+
+    /**
+     * Gets the marker to put in the bootstrap page in place of the bootstrap
+     * script.
+     *
+     * @return the script marker
+     */
+    String getScriptMarker() {
+        return scriptMarker;
+    }
+
+    /**
+     * Creates the bootstrap script for a request.
+     *
+     * @param appId
+     *            the application id
+     * @param configJson
+     *            the application configuration JSON
+     * @param initialUidl
+     *            the initial UIDL JSON, with {@code <} already escaped
+     * @return the bootstrap script
+     */
+    BootstrapScript createScript(String appId, String configJson,
+            String initialUidl) {
+        return new BootstrapScript(appId, configJson, initialUidl);
+    }
+
+    /**
+     * Writes the bootstrap page to the given stream, with the script marker
+     * replaced by the bootstrap script. The page is written as is if it does
+     * not contain the marker, e.g. because a bootstrap listener has removed
+     * the script.
+     *
+     * @param html
+     *            the bootstrap page HTML
+     * @param script
+     *            the bootstrap script for the request
+     * @param out
+     *            the stream to write to
+     * @throws IOException
+     *             if writing fails
+     */
+    void writePage(String html, BootstrapScript script, OutputStream out)
+            throws IOException {
+        int index = html.indexOf(scriptMarker);
+        if (index < 0) {
+            out.write(html.getBytes(UTF_8));
+            return;
+        }
+        out.write(html.substring(0, index).getBytes(UTF_8));
+        script.writeTo(out);
+        out.write(html.substring(index + scriptMarker.length())
+                .getBytes(UTF_8));
+    }
+
+    /**
+     * The bootstrap script of a request.
+     */
+    final class BootstrapScript {
+        private final String appId;
+        private final String configJson;
+        private final String initialUidl;
+
+        private BootstrapScript(String appId, String configJson,
+                String initialUidl) {
+            this.appId = appId;
+            this.configJson = configJson;
+            this.initialUidl = initialUidl;
+        }
+
+        private void writeTo(OutputStream out) throws IOException {
+            for (int i = 0; i < scriptPlaceholders.size(); i++) {
+                out.write(scriptSegments.get(i));
+                out.write(getValue(scriptPlaceholders.get(i)).getBytes(UTF_8));
+            }
+            out.write(scriptSegments.get(scriptSegments.size() - 1));
+        }
+
+        private String getValue(String placeholder) {
+            switch (placeholder) {
+            case APP_ID:
+                return appId;
+            case CONFIG_JSON:
+                return configJson;
+            default:
+                return initialUidl;
+            }
+        }
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright 2000-2020 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.server;
+
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * A {@link StreamVariable} whose value is streamed to a
+ * {@link WritableByteChannel} provided by the {@link #getChannel()} method.
+ * <p>
+ * The uploaded data is written to the channel without copying it through an
+ * intermediate {@link OutputStream}. If the channel is a {@link FileChannel},
+ * the data is transferred to the file with
+ * {@link FileChannel#transferFrom(java.nio.channels.ReadableByteChannel, long, long)},
+ * which lets the operating system move the data directly when the uploaded
+ * data itself is backed by a file, e.g. a part stored on disk by the servlet
+ * container.
+ * <p>
+ * The channel is closed when the upload ends.
+ *
+ * @author Vaadin Ltd
+ * @since 6.0
+ */
+public interface ChannelStreamVariable extends StreamVariable {
+
+    /**
+     * Invoked when a new upload arrives, after
+     * {@link #streamingStarted(StreamingStartEvent)} method has been called.
+     * The implementation will write the streamed variable to the returned
+     * channel.
+     *
+     * @return channel to which the uploaded file should be written
+     */
+    WritableByteChannel getChannel();
+
+    /**
+     * Gets an output stream writing to the channel returned by
+     * {@link #getChannel()}. The upload handler writes to the channel
+     * directly and does not use this method.
+     *
+     * @return stream writing to the channel of this stream variable
+     */
+    @Override
+    default OutputStream getOutputStream() {
+        WritableByteChannel channel = getChannel();
+        return channel == null ? null : Channels.newOutputStream(channel);
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright 2000-2020 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.server;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.Objects;
+
+/**
+ * A {@link StreamResource} whose data is read from a file.
+ * <p>
+ * Unlike for other stream resources, the length of the data is known before
+ * it is written, so the response gets a <code>Content-Length</code> header,
+ * byte range requests are supported and a client which already has the
+ * current contents of the file gets a "Not Modified" response. The file is
+ * written to the response without holding the session lock, and the servlet
+ * container may send it without copying the data through the JVM.
+ *
+ * @author Vaadin Ltd
+ * @since 6.0
+ */
+public class FileStreamResource extends StreamResource {
+
+    private final File file;
+
+    private static class FileCopy implements StreamResourceWriter {
+
+        private final File file;
+
+        private FileCopy(File file) {
+            this.file = file;
+        }
+
+        @Override
+        public void accept(OutputStream stream, VaadinSession session)
+                throws IOException {
+            Files.copy(file.toPath(), stream);
+        }
+    }
+
+    /**
+     * Creates a resource for the given file, using the name of the file as
+     * the resource name.
+     *
+     * @param file
+     *            the file to read the data from, not <code>null</code>
+     */
+    public FileStreamResource(File file) {
+        this(file.getName(), file);
+    }
+
+    /**
+     * Creates a resource with the given name for the given file.
+     * <p>
+     * {@code name} parameter value will be used in URI (generated when resource
+     * is registered) in a way that the {@code name} is the last segment of the
+     * path. So this is synthetic file name (not real one).
+     *
+     * @param name
+     *            resource file name. May not be null.
+     * @param file
+     *            the file to read the data from, not <code>null</code>
+     */
+    public FileStreamResource(String name, File file) {
+        super(name, new FileCopy(Objects.requireNonNull(file)));
+        this.file = file;
+    }
+
+    /**
+     * Gets the file to read the data of this resource from.
+     *
+     * @return the file, not <code>null</code>
+     */
+    public File getFile() {
+        return file;
+    }
+
+    /**
+     * Gets the quoted entity tag of the current contents of the file. The tag
+     * is compared to the <code>If-None-Match</code> header of a request to
+     * check whether the client already has the contents.
+     * <p>
+     * The default tag is derived from the length and the last modification
+     * time of the file. Override to use e.g. a hash of the contents, or
+     * return <code>null</code> to disable conditional requests.
+     *
+     * @return the entity tag of the file, or <code>null</code> if not
+     *         available
+     */
+    public String getETag() {
+        long lastModified = file.lastModified();
+        if (lastModified == 0L) {
+            // The file doesn't exist or can't be read
+            return null;
+        }
+        return '"' + Long.toHexString(file.length()) + '-'
+                + Long.toHexString(lastModified) + '"';
+    }
+}
@@ -71,6 +71,97 @@ public class InitParameters implements Serializable {
      */
     public static final String SERVLET_PARAMETER_BROTLI = "brotli";
 
+    /**
+     * Configuration name for the parameter that determines whether UIDL
+     * responses should be written incrementally to the response instead of
+     * being built as a complete JSON object in memory first.
+     *
+     * @since 6.0
+     */
+    public static final String SERVLET_PARAMETER_STREAMING_UIDL = "uidl.streaming";
+
+    /**
+     * Configuration name for the parameter that determines the number of
+     * seconds after which a UI that has received no UIDL requests is
+     * serialized into a compressed form to reduce memory usage. A negative
+     * value disables passivation.
+     *
+     * @since 6.0
+     */
+    public static final String SERVLET_PARAMETER_UI_PASSIVATION_TIMEOUT = "ui.passivationTimeout";
+
+    /**
+     * Configuration name for the parameter that determines whether tasks
+     * enqueued with {@code VaadinSession.access} from threads not holding the
+     * session lock are run by an executor instead of the enqueuing thread.
+     *
+     * @since 6.0
+     */
+    public static final String SERVLET_PARAMETER_ASYNC_ACCESS_QUEUE = "accessQueue.async";
+
+    /**
+     * Configuration name for the parameter that determines the maximum number
+     * of access tasks run while holding the session lock once when the access
+     * queue is run asynchronously.
+     *
+     * @since 6.0
+     */
+    public static final String SERVLET_PARAMETER_ACCESS_QUEUE_MAX_BATCH_SIZE = "accessQueue.maxBatchSize";
+
+    /**
+     * Configuration name for the parameter that determines the maximum total
+     * size in bytes of the static resources cached in memory in production
+     * mode.
+     *
+     * @since 6.0
+     */
+    public static final String SERVLET_PARAMETER_STATIC_RESOURCE_CACHE_SIZE = "staticResourceCache.maxSize";
+
+    /**
+     * Configuration name for the parameter that determines whether the parts
+     * of the bootstrap page that are the same for all requests are computed
+     * only once in production mode.
+     *
+     * @since 6.0
+     */
+    public static final String SERVLET_PARAMETER_PRECOMPILED_BOOTSTRAP = "bootstrap.precompiled";
+
+    /**
+     * Configuration name for the parameter that determines the size in bytes
+     * of the buffer used when streaming uploaded data to a
+     * {@link StreamReceiver}.
+     *
+     * @since 6.0
+     */
+    public static final String SERVLET_PARAMETER_UPLOAD_BUFFER_SIZE = "upload.bufferSize";
+
+    /**
+     * Configuration name for the parameter that determines whether upload
+     * progress events are delivered asynchronously through the session access
+     * queue instead of locking the session from the upload thread.
+     *
+     * @since 6.0
+     */
+    public static final String SERVLET_PARAMETER_UPLOAD_ASYNC_PROGRESS = "upload.asyncProgress";
+
+    /**
+     * Configuration name for the parameter that determines how many
+     * milliseconds the client waits before sending queued server invocations
+     * to the server.
+     *
+     * @since 6.0
+     */
+    public static final String SERVLET_PARAMETER_RPC_BATCH_WINDOW = "rpcBatchWindow";
+
+    /**
+     * Configuration name for the parameter that determines whether the client
+     * uses the compact binary encoding instead of JSON text for server
+     * requests and their responses.
+     *
+     * @since 6.0
+     */
+    public static final String SERVLET_PARAMETER_BINARY_PROTOCOL = "binaryProtocol";
+
     /**
      * Configuration name for the WebPack profile statistics json file to use to
      * determine template contents.
@@ -0,0 +1,203 @@
+/*
+ * Copyright 2000-2020 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.server;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.util.Map;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.internal.CurrentInstance;
+
+/**
+ * A UI that has been removed from the heap by serializing it into a compressed
+ * byte array, together with the data needed for deciding whether it should be
+ * closed while it is passivated.
+ * <p>
+ * The session that the UI belongs to is not serialized with the UI. All
+ * references to it are restored to point to the same session instance when the
+ * UI is activated.
+ *
+ * @author Vaadin Ltd
+ * @since 6.0
+ * @see com.vaadin.flow.function.DeploymentConfiguration#getUiPassivationTimeout()
+ */
+class PassivatedUI implements Serializable {
+
+    /**
+     * Replaces the owning session in the serialized UI.
+     */
+    private enum SessionPlaceholder {
+        INSTANCE
+    }
+
+    private final int uiId;
+    private final byte[] data;
+    private long lastHeartbeatTimestamp;
+
+    private PassivatedUI(int uiId, byte[] data, long lastHeartbeatTimestamp) {
+        this.uiId = uiId;
+        this.data = data;
+        this.lastHeartbeatTimestamp = lastHeartbeatTimestamp;
+    }
+
+    /**
+     * Serializes the given UI.
+     *
+     * @param ui
+     *            the UI to passivate, not <code>null</code>
+     * @return the passivated UI, not <code>null</code>
+     * @throws IOException
+     *             if the UI cannot be serialized
+     */
+    static PassivatedUI passivate(UI ui) throws IOException {
+        VaadinSession session = ui.getSession();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try (ObjectOutputStream out = new SessionReplacingOutputStream(
+                new DeflaterOutputStream(bytes, deflater), session)) {
+            out.writeObject(ui);
+        } finally {
+            deflater.end();
+        }
+        return new PassivatedUI(ui.getUIId(), bytes.toByteArray(),
+                ui.getInternals().getLastHeartbeatTimestamp());
+    }
+
+    /**
+     * Deserializes the UI into the given session. The passivated data is still
+     * valid afterwards.
+     *
+     * @param session
+     *            the session the UI belongs to, not <code>null</code>
+     * @return the activated UI, not <code>null</code>
+     * @throws IOException
+     *             if the UI cannot be deserialized
+     * @throws ClassNotFoundException
+     *             if the class of some serialized object could not be found
+     */
+    UI activate(VaadinSession session)
+            throws IOException, ClassNotFoundException {
+        Map<Class<?>, CurrentInstance> old = CurrentInstance
+                .setCurrent(session);
+        try (ObjectInputStream in = new SessionResolvingInputStream(
+                new InflaterInputStream(new ByteArrayInputStream(data)),
+                session)) {
+            UI ui = (UI) in.readObject();
+            ui.getInternals().setLastHeartbeatTimestamp(lastHeartbeatTimestamp);
+            return ui;
+        } finally {
+            CurrentInstance.restoreInstances(old);
+        }
+    }
+
+    /**
+     * Gets the id of the passivated UI.
+     *
+     * @return the UI id
+     */
+    int getUIId() {
+        return uiId;
+    }
+
+    /**
+     * Gets the size of the compressed UI data.
+     *
+     * @return the size in bytes
+     */
+    int getSize() {
+        return data.length;
+    }
+
+    /**
+     * Gets the time of the last heartbeat received for the UI.
+     *
+     * @return the time in milliseconds since the epoch
+     */
+    long getLastHeartbeatTimestamp() {
+        return lastHeartbeatTimestamp;
+    }
+
+    /**
+     * Records a heartbeat received for the UI while it is passivated.
+     *
+     * @param lastHeartbeatTimestamp
+     *            the time in milliseconds since the epoch
+     */
+    void setLastHeartbeatTimestamp(long lastHeartbeatTimestamp) {
+        this.lastHeartbeatTimestamp = lastHeartbeatTimestamp;
+    }
+
+    private static class SessionReplacingOutputStream
+            extends ObjectOutputStream {
+        private final VaadinSession session;
+
+        private SessionReplacingOutputStream(OutputStream out,
+                VaadinSession session) throws IOException {
+            super(out);
+            this.session = session;
+            enableReplaceObject(true);
+        }
+
+        @Override
+        protected Object replaceObject(Object obj) {
+            return obj == session ? SessionPlaceholder.INSTANCE : obj;
+        }
+    }
+
+    private static class SessionResolvingInputStream
+            extends ObjectInputStream {
+        private final VaadinSession session;
+
+        private SessionResolvingInputStream(InputStream in,
+                VaadinSession session) throws IOException {
+            super(in);
+            this.session = session;
+            enableResolveObject(true);
+        }
+
+        @Override
+        protected Object resolveObject(Object obj) {
+            return obj == SessionPlaceholder.INSTANCE ? session : obj;
+        }
+
+        @Override
+        protected Class<?> resolveClass(ObjectStreamClass desc)
+                throws IOException, ClassNotFoundException {
+            VaadinService service = session.getService();
+            ClassLoader classLoader = service == null ? null
+                    : service.getClassLoader();
+            if (classLoader != null) {
+                try {
+                    return Class.forName(desc.getName(), false, classLoader);
+                } catch (ClassNotFoundException e) {
+                    // Fall back to the default lookup, e.g. for primitives
+                }
+            }
+            return super.resolveClass(desc);
+        }
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright 2000-2020 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.server;
+
+import java.io.Serializable;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Lock;
+
+/**
+ * Statistics about the time threads have spent waiting for session locks of a
+ * {@link VaadinService}. The statistics cover the locking done by the
+ * framework when handling requests and by {@link VaadinSession#lock()}, e.g.
+ * for {@link com.vaadin.flow.component.UI#access(Command)}.
+ * <p>
+ * A high number of contended acquisitions or long wait times indicate that
+ * requests or background tasks hold the session lock for long periods, which
+ * delays all other requests for the same session.
+ *
+ * @author Vaadin Ltd
+ * @since 6.0
+ * @see VaadinService#getSessionLockMetrics()
+ */
+public class SessionLockMetrics implements Serializable {
+
+    private final LongAdder acquisitions = new LongAdder();
+    private final LongAdder contendedAcquisitions = new LongAdder();
+    private final LongAdder totalWaitNanos = new LongAdder();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+
+    /**
+     * Acquires the given lock and records the time spent waiting for it.
+     *
+     * @param lock
+     *            the lock to acquire, not <code>null</code>
+     */
+    void lock(Lock lock) {
+        if (lock.tryLock()) {
+            acquisitions.increment();
+            return;
+        }
+        long start = System.nanoTime();
+        lock.lock();
+        long waitNanos = System.nanoTime() - start;
+
+        acquisitions.increment();
+        contendedAcquisitions.increment();
+        totalWaitNanos.add(waitNanos);
+        maxWaitNanos.accumulateAndGet(waitNanos, Math::max);
+    }
+
+    /**
+     * Gets the number of times a session lock has been acquired, including
+     * reentrant acquisitions by a thread already holding the lock.
+     *
+     * @return the number of lock acquisitions
+     */
+    public long getAcquisitionCount() {
+        return acquisitions.sum();
+    }
+
+    /**
+     * Gets the number of times a thread had to wait for a session lock because
+     * it was held by another thread.
+     *
+     * @return the number of contended lock acquisitions
+     */
+    public long getContendedAcquisitionCount() {
+        return contendedAcquisitions.sum();
+    }
+
+    /**
+     * Gets the total time threads have spent waiting for session locks.
+     *
+     * @param unit
+     *            the time unit of the returned value, not <code>null</code>
+     * @return the total wait time in the given unit
+     */
+    public long getTotalWaitTime(TimeUnit unit) {
+        return unit.convert(totalWaitNanos.sum(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Gets the longest time a thread has spent waiting for a session lock.
+     *
+     * @param unit
+     *            the time unit of the returned value, not <code>null</code>
+     * @return the longest wait time in the given unit
+     */
+    public long getMaxWaitTime(TimeUnit unit) {
+        return unit.convert(maxWaitNanos.get(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Resets all statistics to zero, e.g. to start a new measurement period.
+     * Locks acquired concurrently with the reset may be partially recorded.
+     */
+    public void reset() {
+        acquisitions.reset();
+        contendedAcquisitions.reset();
+        totalWaitNanos.reset();
+        maxWaitNanos.set(0);
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "[acquisitions="
+                + getAcquisitionCount() + ", contended="
+                + getContendedAcquisitionCount() + ", totalWaitMs="
+                + getTotalWaitTime(TimeUnit.MILLISECONDS) + ", maxWaitMs="
+                + getMaxWaitTime(TimeUnit.MILLISECONDS) + "]";
+    }
+}
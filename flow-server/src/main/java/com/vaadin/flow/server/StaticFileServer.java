@@ -23,11 +23,14 @@ import java.net.URL;
 import java.net.URLConnection;
 import java.util.regex.Pattern;
 
+import org.apache.commons.io.IOUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.vaadin.flow.function.DeploymentConfiguration;
 import com.vaadin.flow.internal.ResponseWriter;
+import com.vaadin.flow.internal.StaticResourceCache;
+import com.vaadin.flow.internal.StaticResourceCache.CachedResource;
 
 import static com.vaadin.flow.server.Constants.VAADIN_BUILD_FILES_PATH;
 import static com.vaadin.flow.server.Constants.VAADIN_MAPPING;
@@ -55,6 +58,7 @@ public class StaticFileServer implements StaticFileHandler {
     private final ResponseWriter responseWriter;
     private final VaadinServletService servletService;
     private DeploymentConfiguration deploymentConfiguration;
+    private final StaticResourceCache resourceCache;
 
     // Matcher to match string starting with '/themes/[theme-name]/'
     protected static final Pattern APP_THEME_PATTERN = Pattern
@@ -70,6 +74,12 @@ public class StaticFileServer implements StaticFileHandler {
         this.servletService = servletService;
         deploymentConfiguration = servletService.getDeploymentConfiguration();
         responseWriter = new ResponseWriter(deploymentConfiguration);
+        long cacheSize = deploymentConfiguration.getStaticResourceCacheSize();
+        if (deploymentConfiguration.isProductionMode() && cacheSize > 0) {
+            resourceCache = new StaticResourceCache(cacheSize);
+        } else {
+            resourceCache = null;
+        }
     }
 
     @Override
@@ -114,6 +124,54 @@ public class StaticFileServer implements StaticFileHandler {
             return true;
         }
 
+        // Range requests are rare and are served from the resource itself
+        boolean cacheable = resourceCache != null
+                && request.getHeader("Range") == null;
+        if (cacheable) {
+            CachedResource resource = resourceCache.get(filenameWithPath);
+            if (resource != null) {
+                writeCachedResource(filenameWithPath, resource, request,
+                        response);
+                return true;
+            }
+        }
+
+        URL resourceUrl = findResource(filenameWithPath);
+        if (resourceUrl == null) {
+            // Not found in webcontent or in META-INF/resources in some JAR
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return true;
+        }
+
+        // There is a resource!
+
+        if (cacheable) {
+            CachedResource resource = loadCachedResource(filenameWithPath,
+                    resourceUrl);
+            if (resource != null) {
+                writeCachedResource(filenameWithPath, resource, request,
+                        response);
+                return true;
+            }
+        }
+
+        // Intentionally writing cache headers also for 304 responses
+        writeCacheHeaders(filenameWithPath, response);
+
+        long timestamp = writeModificationTimestamp(resourceUrl, request,
+                response);
+        if (browserHasNewestVersion(request, timestamp)) {
+            // Browser is up to date, nothing further to do than set the
+            // response code
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return true;
+        }
+        responseWriter.writeResponseContents(filenameWithPath, resourceUrl,
+                request, response);
+        return true;
+    }
+
+    private URL findResource(String filenameWithPath) {
         URL resourceUrl = null;
         if (isAllowedVAADINBuildOrStaticUrl(filenameWithPath)) {
             if(APP_THEME_PATTERN.matcher(filenameWithPath).find()) {
@@ -133,29 +191,84 @@ public class StaticFileServer implements StaticFileHandler {
             resourceUrl = servletService.getStaticResource(
                     fixIncorrectWebjarPath(filenameWithPath));
         }
+        return resourceUrl;
+    }
 
-        if (resourceUrl == null) {
-            // Not found in webcontent or in META-INF/resources in some JAR
-            response.sendError(HttpServletResponse.SC_NOT_FOUND);
-            return true;
+    /**
+     * Reads the given resource and its precompressed variants into the cache.
+     *
+     * @return the cached resource, or <code>null</code> if the resource could
+     *         not be read or is too large to be cached
+     */
+    private CachedResource loadCachedResource(String filenameWithPath,
+            URL resourceUrl) {
+        try {
+            URLConnection connection = resourceUrl.openConnection();
+            long maxSize = resourceCache.getMaxResourceSize();
+            if (connection.getContentLengthLong() > maxSize) {
+                closeInputStream(connection);
+                return null;
+            }
+            long lastModified = connection.getLastModified();
+            byte[] data;
+            try (InputStream stream = connection.getInputStream()) {
+                data = IOUtils.toByteArray(stream);
+            }
+            if (data.length > maxSize) {
+                return null;
+            }
+            byte[] brotliData = deploymentConfiguration.isBrotli()
+                    ? readPrecompressed(filenameWithPath + ".br")
+                    : null;
+            CachedResource resource = StaticResourceCache.createResource(data,
+                    readPrecompressed(filenameWithPath + ".gz"), brotliData,
+                    lastModified);
+            resourceCache.put(filenameWithPath, resource);
+            return resource;
+        } catch (IOException e) {
+            getLogger().debug("Unable to cache static resource {}",
+                    filenameWithPath, e);
+            return null;
         }
+    }
 
-        // There is a resource!
+    private byte[] readPrecompressed(String filenameWithPath)
+            throws IOException {
+        URL url = findResource(filenameWithPath);
+        if (url == null) {
+            return null;
+        }
+        try (InputStream stream = url.openStream()) {
+            return IOUtils.toByteArray(stream);
+        }
+    }
+
+    private void closeInputStream(URLConnection connection) {
+        try {
+            connection.getInputStream().close();
+        } catch (IOException e) {
+            getLogger().debug("Error closing URLConnection input stream", e);
+        }
+    }
 
+    private void writeCachedResource(String filenameWithPath,
+            CachedResource resource, HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
         // Intentionally writing cache headers also for 304 responses
         writeCacheHeaders(filenameWithPath, response);
 
-        long timestamp = writeModificationTimestamp(resourceUrl, request,
-                response);
-        if (browserHasNewestVersion(request, timestamp)) {
-            // Browser is up to date, nothing further to do than set the
-            // response code
+        long timestamp = resource.getLastModified();
+        if (timestamp != -1L) {
+            response.setDateHeader("Last-Modified", timestamp);
+        }
+        // If-None-Match takes precedence over If-Modified-Since
+        if (request.getHeader("If-None-Match") == null
+                && browserHasNewestVersion(request, timestamp)) {
             response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
-            return true;
+            return;
         }
-        responseWriter.writeResponseContents(filenameWithPath, resourceUrl,
+        responseWriter.writeResponseContents(filenameWithPath, resource,
                 request, response);
-        return true;
     }
 
     // When referring to webjar resources from application stylesheets (loaded
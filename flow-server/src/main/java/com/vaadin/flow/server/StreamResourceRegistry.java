@@ -148,6 +148,16 @@ public class StreamResourceRegistry implements Serializable {
         }
     }
 
+    /**
+     * Checks whether any resources are registered in this registry.
+     *
+     * @return <code>true</code> if there are registered resources,
+     *         <code>false</code> otherwise
+     */
+    boolean hasResources() {
+        return !res.isEmpty();
+    }
+
     /**
      * Get a registered resource for given {@code URI}.
      * <p>
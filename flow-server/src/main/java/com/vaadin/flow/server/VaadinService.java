@@ -42,8 +42,17 @@ import java.util.ServiceLoader;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.stream.Collectors;
@@ -53,6 +62,9 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.vaadin.flow.component.UI;
+import com.vaadin.flow.component.UIDetachedException;
+import com.vaadin.flow.component.internal.HeartbeatListener;
+import com.vaadin.flow.component.internal.UIInternals;
 import com.vaadin.flow.di.DefaultInstantiator;
 import com.vaadin.flow.di.Instantiator;
 import com.vaadin.flow.di.InstantiatorFactory;
@@ -69,6 +81,7 @@ import com.vaadin.flow.server.communication.AtmospherePushConnection;
 import com.vaadin.flow.server.communication.HeartbeatHandler;
 import com.vaadin.flow.server.communication.IndexHtmlRequestListener;
 import com.vaadin.flow.server.communication.IndexHtmlResponse;
+import com.vaadin.flow.server.communication.PushCoalescingMetrics;
 import com.vaadin.flow.server.communication.JavaScriptBootstrapHandler;
 import com.vaadin.flow.server.communication.PwaHandler;
 import com.vaadin.flow.server.communication.SessionRequestHandler;
@@ -137,6 +150,19 @@ public abstract class VaadinService implements Serializable {
 
     private static final String REQUEST_START_TIME_ATTRIBUTE = "requestStartTime";
 
+    /*
+     * Monitors guarding the creation of session locks. Sessions are spread
+     * over the stripes by their id so that sessions created at the same time
+     * don't all contend for one global monitor.
+     */
+    private static final Object[] LOCK_CREATION_STRIPES = new Object[64];
+
+    static {
+        for (int i = 0; i < LOCK_CREATION_STRIPES.length; i++) {
+            LOCK_CREATION_STRIPES[i] = new Object();
+        }
+    }
+
     /**
      * Should never be used directly, always use
      * {@link #getDeploymentConfiguration()}.
@@ -192,6 +218,14 @@ public abstract class VaadinService implements Serializable {
 
     private VaadinContext vaadinContext;
 
+    private final SessionLockMetrics sessionLockMetrics = new SessionLockMetrics();
+
+    private transient volatile Executor accessQueueExecutor;
+
+    private final PushCoalescingMetrics pushCoalescingMetrics = new PushCoalescingMetrics();
+
+    private transient volatile ScheduledExecutorService accessScheduler;
+
     /**
      * Creates a new vaadin service based on a deployment configuration.
      *
@@ -668,6 +702,8 @@ public abstract class VaadinService implements Serializable {
             if (session.getState() == VaadinSessionState.OPEN) {
                 closeSession(session);
             }
+            // Detach listeners of passivated UIs should also be run
+            session.activatePassivatedUIs();
             List<UI> uis = new ArrayList<>(session.getUIs());
             for (final UI ui : uis) {
                 ui.accessSynchronously(() -> {
@@ -811,7 +847,7 @@ public abstract class VaadinService implements Serializable {
              * the CPU flushes its caches and reads the value directly from main
              * memory).
              */
-            synchronized (VaadinService.class) {
+            synchronized (getLockCreationStripe(wrappedSession)) {
                 lock = getSessionLock(wrappedSession);
                 if (lock == null) {
                     lock = new ReentrantLock();
@@ -819,7 +855,7 @@ public abstract class VaadinService implements Serializable {
                 }
             }
         }
-        lock.lock();
+        sessionLockMetrics.lock(lock);
 
         try {
             // Someone might have invalidated the session between fetching the
@@ -833,6 +869,35 @@ public abstract class VaadinService implements Serializable {
         }
     }
 
+    private static Object getLockCreationStripe(
+            WrappedSession wrappedSession) {
+        String id = wrappedSession.getId();
+        int hash = id == null ? 0 : id.hashCode();
+        return LOCK_CREATION_STRIPES[(hash ^ (hash >>> 16))
+                & (LOCK_CREATION_STRIPES.length - 1)];
+    }
+
+    /**
+     * Gets the statistics about the time threads have spent waiting for the
+     * session locks of this service.
+     *
+     * @return the session lock statistics, not <code>null</code>
+     */
+    public SessionLockMetrics getSessionLockMetrics() {
+        return sessionLockMetrics;
+    }
+
+    /**
+     * Gets the statistics about the push messages sent by the push connections
+     * of this service.
+     *
+     * @return the push statistics, not <code>null</code>
+     * @see com.vaadin.flow.component.PushConfiguration#setCoalescingWindow(int)
+     */
+    public PushCoalescingMetrics getPushCoalescingMetrics() {
+        return pushCoalescingMetrics;
+    }
+
     /**
      * Releases the lock for the given session for this service instance.
      * Typically you want to call {@link VaadinSession#unlock()} instead of this
@@ -1291,7 +1356,7 @@ public abstract class VaadinService implements Serializable {
     /**
      * Called at the end of a request, after sending the response. Closes
      * inactive UIs in the given session, removes closed UIs from the session,
-     * and closes the session if it is itself inactive.
+     * passivates idle UIs and closes the session if it is itself inactive.
      *
      * @param session
      */
@@ -1299,6 +1364,7 @@ public abstract class VaadinService implements Serializable {
         if (isSessionActive(session)) {
             closeInactiveUIs(session);
             removeClosedUIs(session);
+            passivateIdleUIs(session);
         } else {
             if (session.getState() == VaadinSessionState.OPEN) {
                 closeSession(session);
@@ -1348,6 +1414,16 @@ public abstract class VaadinService implements Serializable {
      */
     private void closeInactiveUIs(VaadinSession session) {
         final String sessionId = session.getSession().getId();
+        // Passivated UIs must be activated to be closed properly
+        long now = System.currentTimeMillis();
+        int timeout = 1000 * getHeartbeatTimeout();
+        if (timeout >= 0) {
+            session.getPassivatedUIs().stream()
+                    .filter(passivated -> now - passivated
+                            .getLastHeartbeatTimestamp() >= timeout)
+                    .map(PassivatedUI::getUIId).collect(Collectors.toList())
+                    .forEach(session::getUIById);
+        }
         for (final UI ui : session.getUIs()) {
             if (!isUIActive(ui) && !ui.isClosing()) {
                 ui.accessSynchronously(() -> {
@@ -1359,6 +1435,59 @@ public abstract class VaadinService implements Serializable {
         }
     }
 
+    /**
+     * Passivates the UIs in the given session that have received no UIDL
+     * requests within the passivation timeout.
+     *
+     * @see DeploymentConfiguration#getUiPassivationTimeout()
+     */
+    private void passivateIdleUIs(VaadinSession session) {
+        int timeout = getDeploymentConfiguration().getUiPassivationTimeout();
+        if (timeout < 0 || hasQueuedThreads(session)) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        for (UI ui : new ArrayList<>(session.getUIs())) {
+            if (now - ui.getInternals().getLastUidlRequestTimestamp() >= 1000L
+                    * timeout && canPassivateUI(ui)) {
+                session.passivateUI(ui);
+            }
+        }
+    }
+
+    private static boolean canPassivateUI(UI ui) {
+        UIInternals internals = ui.getInternals();
+        VaadinSession session = ui.getSession();
+        /*
+         * A pushing UI is updated by other threads and has a connection that
+         * cannot be serialized, and heartbeat listeners must be called on
+         * every heartbeat.
+         */
+        return !ui.isClosing() && ui != UI.getCurrent()
+                && !ui.getPushConfiguration().getPushMode().isEnabled()
+                && internals.getPushConnection() == null
+                && internals.getListeners(HeartbeatListener.class).isEmpty()
+                && !internals.getStateTree().isDirty()
+                && !hasSessionRegistrations(session);
+    }
+
+    /**
+     * Checks whether the session holds objects registered by its UIs. Such
+     * objects would keep referring to the passivated UI instead of the copy
+     * that is created when the UI is activated, so e.g. a stream resource
+     * would be served from a stale component tree.
+     */
+    private static boolean hasSessionRegistrations(VaadinSession session) {
+        return session.getResourceRegistry().hasResources()
+                || !session.getRequestHandlers().isEmpty();
+    }
+
+    private static boolean hasQueuedThreads(VaadinSession session) {
+        Lock lockInstance = session.getLockInstance();
+        return lockInstance instanceof ReentrantLock
+                && ((ReentrantLock) lockInstance).hasQueuedThreads();
+    }
+
     /**
      * Returns the number of seconds that must pass without a valid heartbeat or
      * UIDL request being received from a UI before that UI is removed from its
@@ -1995,6 +2124,12 @@ public abstract class VaadinService implements Serializable {
      *            the session for which the access queue should be purged
      */
     public void ensureAccessQueuePurged(VaadinSession session) {
+        if (getDeploymentConfiguration().isAsyncAccessQueue()) {
+            if (!session.hasLock()) {
+                scheduleAccessQueueRun(session);
+            }
+            return;
+        }
         /*
          * If no thread is currently holding the lock, pending changes for UIs
          * with automatic push would not be processed and pushed until the next
@@ -2019,6 +2154,132 @@ public abstract class VaadinService implements Serializable {
         }
     }
 
+    /**
+     * Submits a run of the pending access queue of the given session to the
+     * access queue executor unless a run has already been submitted and has
+     * not yet started.
+     */
+    private void scheduleAccessQueueRun(VaadinSession session) {
+        AtomicBoolean scheduled = session.getAccessQueueRunScheduled();
+        if (!scheduled.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            getAccessQueueExecutor().execute(() -> {
+                // Tasks enqueued after this are run by a new run if needed
+                scheduled.set(false);
+                session.lock();
+                // unlock runs the tasks and pushes the changes
+                session.unlock();
+            });
+        } catch (RejectedExecutionException e) {
+            scheduled.set(false);
+            getLogger().debug(
+                    "Access queue executor rejected the task, running the access queue in the current thread",
+                    e);
+            session.lock();
+            session.unlock();
+        }
+    }
+
+    private Executor getAccessQueueExecutor() {
+        Executor executor = accessQueueExecutor;
+        if (executor == null) {
+            synchronized (this) {
+                executor = accessQueueExecutor;
+                if (executor == null) {
+                    executor = createAccessQueueExecutor();
+                    accessQueueExecutor = executor;
+                }
+            }
+        }
+        return executor;
+    }
+
+    /**
+     * Creates the executor used for running access tasks when
+     * {@link DeploymentConfiguration#isAsyncAccessQueue()} is enabled. The
+     * executor is created when it is needed for the first time. An executor
+     * that is an {@link ExecutorService} is shut down when this service is
+     * destroyed.
+     * <p>
+     * The default implementation uses a cached pool of daemon threads. Each
+     * run of an access queue holds a thread while waiting for the session lock
+     * and while pushing the changes, so on Java 21 or later, an executor
+     * creating a virtual thread per task is a good alternative:
+     *
+     * <pre>
+     * &#64;Override
+     * protected Executor createAccessQueueExecutor() {
+     *     return Executors.newVirtualThreadPerTaskExecutor();
+     * }
+     * </pre>
+     *
+     * @return the executor to use, not <code>null</code>
+     */
+    protected Executor createAccessQueueExecutor() {
+        AtomicInteger threadCount = new AtomicInteger();
+        return Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable,
+                    "vaadin-access-queue-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Runs the given command through {@link UI#access(Command)} after the given
+     * delay. The command is not run if the UI has been detached when the delay
+     * has passed.
+     * <p>
+     * This method is used by the framework for delaying pushes and is not
+     * intended to be used for scheduling application tasks.
+     *
+     * @param ui
+     *            the UI to access, not <code>null</code>
+     * @param command
+     *            the command to run, not <code>null</code>
+     * @param delay
+     *            the time to wait before accessing the UI
+     * @param unit
+     *            the unit of the delay, not <code>null</code>
+     * @return a future that can be used for cancelling the access before the
+     *         delay has passed
+     */
+    public ScheduledFuture<?> scheduleAccess(UI ui, Command command,
+            long delay, TimeUnit unit) {
+        return getAccessScheduler().schedule(() -> {
+            try {
+                ui.access(command);
+            } catch (UIDetachedException e) {
+                getLogger().debug("Scheduled access to a detached UI ignored",
+                        e);
+            }
+        }, delay, unit);
+    }
+
+    private ScheduledExecutorService getAccessScheduler() {
+        ScheduledExecutorService scheduler = accessScheduler;
+        if (scheduler == null) {
+            synchronized (this) {
+                scheduler = accessScheduler;
+                if (scheduler == null) {
+                    ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(
+                            1, runnable -> {
+                                Thread thread = new Thread(runnable,
+                                        "vaadin-access-scheduler");
+                                thread.setDaemon(true);
+                                return thread;
+                            });
+                    executor.setRemoveOnCancelPolicy(true);
+                    scheduler = executor;
+                    accessScheduler = scheduler;
+                }
+            }
+        }
+        return scheduler;
+    }
+
     /**
      * Purges the queue of pending access invocations enqueued with
      * {@link VaadinSession#access(Command)}.
@@ -2037,14 +2298,20 @@ public abstract class VaadinService implements Serializable {
         }
 
         FutureAccess pendingAccess;
+        // The remaining tasks are run in a new batch after unlocking
+        int maxBatchSize = getDeploymentConfiguration().isAsyncAccessQueue()
+                ? getDeploymentConfiguration().getAccessQueueMaxBatchSize()
+                : 0;
+        int batchSize = 0;
 
         // Dump all current instances, not only the ones dumped by setCurrent
         Map<Class<?>, CurrentInstance> oldInstances = CurrentInstance
                 .getInstances();
         CurrentInstance.setCurrent(session);
         try {
-            while ((pendingAccess = session.getPendingAccessQueue()
-                    .poll()) != null) {
+            while ((maxBatchSize <= 0 || batchSize++ < maxBatchSize)
+                    && (pendingAccess = session.getPendingAccessQueue()
+                            .poll()) != null) {
                 if (!pendingAccess.isCancelled()) {
                     pendingAccess.run();
 
@@ -2093,6 +2360,12 @@ public abstract class VaadinService implements Serializable {
         ServiceDestroyEvent event = new ServiceDestroyEvent(this);
         serviceDestroyListeners
                 .forEach(listener -> listener.serviceDestroy(event));
+        if (accessQueueExecutor instanceof ExecutorService) {
+            ((ExecutorService) accessQueueExecutor).shutdown();
+        }
+        if (accessScheduler != null) {
+            accessScheduler.shutdownNow();
+        }
     }
 
     /**
@@ -33,6 +33,7 @@ import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 
@@ -96,6 +97,14 @@ public class VaadinSession implements HttpSessionBindingListener, Serializable {
     private int nextUIId = 0;
     private Map<Integer, UI> uIs = new HashMap<>();
 
+    /*
+     * Idle UIs serialized to save memory, see
+     * DeploymentConfiguration.getUiPassivationTimeout()
+     */
+    private Map<Integer, PassivatedUI> passivatedUIs = new HashMap<>();
+
+    private Set<Integer> nonPassivatableUIIds = new HashSet<>();
+
     protected WebBrowser browser = new WebBrowser();
 
     private long cumulativeRequestDuration = 0;
@@ -119,6 +128,12 @@ public class VaadinSession implements HttpSessionBindingListener, Serializable {
      */
     private transient ConcurrentLinkedQueue<FutureAccess> pendingAccessQueue = new ConcurrentLinkedQueue<>();
 
+    /*
+     * Set while a run of the access queue has been submitted to the access
+     * queue executor but has not yet started.
+     */
+    private transient AtomicBoolean accessQueueRunScheduled = new AtomicBoolean();
+
     /*
      * Despite section 6 of RFC 4122, this particular use of UUID *is* adequate
      * for security capabilities. Type 4 UUIDs contain 122 bits of random data,
@@ -379,6 +394,7 @@ public class VaadinSession implements HttpSessionBindingListener, Serializable {
         checkHasLock();
         this.locale = locale;
 
+        activatePassivatedUIs();
         getUIs().forEach(ui -> ui.setLocale(locale));
     }
 
@@ -491,8 +507,11 @@ public class VaadinSession implements HttpSessionBindingListener, Serializable {
      * Gets all the UIs of this session. This includes UIs that have been
      * requested but not yet initialized. UIs that receive no heartbeat requests
      * from the client are eventually removed from the session.
+     * <p>
+     * UIs that are currently passivated are not included.
      *
      * @return a collection of UIs belonging to this application
+     * @see DeploymentConfiguration#getUiPassivationTimeout()
      */
     public Collection<UI> getUIs() {
         checkHasLock();
@@ -503,6 +522,8 @@ public class VaadinSession implements HttpSessionBindingListener, Serializable {
      * Returns a UI with the given id.
      * <p>
      * This is meant for framework internal use.
+     * <p>
+     * A passivated UI with the given id is activated.
      *
      * @param uiId
      *            The UI id
@@ -510,7 +531,104 @@ public class VaadinSession implements HttpSessionBindingListener, Serializable {
      */
     public UI getUIById(int uiId) {
         checkHasLock();
-        return uIs.get(uiId);
+        UI ui = uIs.get(uiId);
+        if (ui == null && !passivatedUIs.isEmpty()) {
+            ui = activateUI(uiId);
+        }
+        return ui;
+    }
+
+    /**
+     * Records a heartbeat for a passivated UI without activating it.
+     * <p>
+     * This is meant for framework internal use.
+     *
+     * @param uiId
+     *            the UI id
+     * @param timestamp
+     *            the time the heartbeat request occurred, in milliseconds
+     *            since the epoch
+     * @return <code>true</code> if a passivated UI with the given id was
+     *         found, <code>false</code> otherwise
+     */
+    public boolean updatePassivatedUIHeartbeat(int uiId, long timestamp) {
+        checkHasLock();
+        PassivatedUI passivated = passivatedUIs.get(uiId);
+        if (passivated == null) {
+            return false;
+        }
+        passivated.setLastHeartbeatTimestamp(timestamp);
+        return true;
+    }
+
+    /**
+     * Serializes the given UI into a compressed form and removes it from the
+     * UIs of this session until it is requested again. A UI that fails to
+     * serialize is not attempted to be passivated again.
+     *
+     * @param ui
+     *            the UI to passivate
+     * @return <code>true</code> if the UI was passivated, <code>false</code>
+     *         otherwise
+     */
+    boolean passivateUI(UI ui) {
+        checkHasLock();
+        assert uIs.get(ui.getUIId()) == ui : "UI is not in this session";
+        Integer uiId = Integer.valueOf(ui.getUIId());
+        if (nonPassivatableUIIds.contains(uiId)) {
+            return false;
+        }
+        try {
+            PassivatedUI passivated = PassivatedUI.passivate(ui);
+            uIs.remove(uiId);
+            passivatedUIs.put(uiId, passivated);
+            getLogger().debug("Passivated UI #{} into {} bytes", uiId,
+                    passivated.getSize());
+            return true;
+        } catch (IOException e) {
+            getLogger().warn(
+                    "Unable to passivate UI #{}, it will be kept in memory",
+                    uiId, e);
+            nonPassivatableUIIds.add(uiId);
+            return false;
+        }
+    }
+
+    /**
+     * Gets the UIs of this session that are currently passivated.
+     *
+     * @return an unmodifiable collection of passivated UIs
+     */
+    Collection<PassivatedUI> getPassivatedUIs() {
+        checkHasLock();
+        return Collections.unmodifiableCollection(passivatedUIs.values());
+    }
+
+    /**
+     * Activates all passivated UIs of this session.
+     */
+    void activatePassivatedUIs() {
+        checkHasLock();
+        for (Integer uiId : passivatedUIs.keySet().toArray(new Integer[0])) {
+            activateUI(uiId.intValue());
+        }
+    }
+
+    private UI activateUI(int uiId) {
+        PassivatedUI passivated = passivatedUIs.remove(uiId);
+        if (passivated == null) {
+            return null;
+        }
+        try {
+            UI ui = passivated.activate(this);
+            uIs.put(uiId, ui);
+            getLogger().debug("Activated UI #{}", uiId);
+            return ui;
+        } catch (IOException | ClassNotFoundException e) {
+            getLogger().error("Unable to activate passivated UI #{}", uiId,
+                    e);
+            return null;
+        }
     }
 
     /**
@@ -588,6 +706,7 @@ public class VaadinSession implements HttpSessionBindingListener, Serializable {
         assert UI.getCurrent().getUIId() == ui.getUIId() : "UIs don't match";
         ui.getInternals().setSession(null);
         uIs.remove(ui.getUIId());
+        nonPassivatableUIIds.remove(ui.getUIId());
     }
 
     /**
@@ -640,7 +759,8 @@ public class VaadinSession implements HttpSessionBindingListener, Serializable {
      * }
      * </pre>
      *
-     * This method will block until the lock can be retrieved.
+     * This method will block until the lock can be retrieved. The time spent
+     * waiting is included in {@link VaadinService#getSessionLockMetrics()}.
      * <p>
      * {@link #getLockInstance()} can be used if more control over the locking
      * is required.
@@ -650,7 +770,13 @@ public class VaadinSession implements HttpSessionBindingListener, Serializable {
      * @see #hasLock()
      */
     public void lock() {
-        getLockInstance().lock();
+        SessionLockMetrics metrics = service == null ? null
+                : service.getSessionLockMetrics();
+        if (metrics == null) {
+            getLockInstance().lock();
+        } else {
+            metrics.lock(getLockInstance());
+        }
     }
 
     /**
@@ -976,6 +1102,16 @@ public class VaadinSession implements HttpSessionBindingListener, Serializable {
         return pendingAccessQueue;
     }
 
+    /**
+     * Gets the flag telling whether a run of the pending access queue has been
+     * scheduled on the access queue executor.
+     *
+     * @return the scheduling flag
+     */
+    AtomicBoolean getAccessQueueRunScheduled() {
+        return accessQueueRunScheduled;
+    }
+
     /**
      * Gets the push connection identifier for this session. Used when
      * establishing a push connection with the client.
@@ -1004,6 +1140,7 @@ public class VaadinSession implements HttpSessionBindingListener, Serializable {
         try {
             stream.defaultReadObject();
             pendingAccessQueue = new ConcurrentLinkedQueue<>();
+            accessQueueRunScheduled = new AtomicBoolean();
         } finally {
             CurrentInstance.restoreInstances(old);
         }
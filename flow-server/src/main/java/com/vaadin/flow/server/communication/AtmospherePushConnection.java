@@ -21,6 +21,7 @@ import java.io.ObjectInputStream;
 import java.io.Reader;
 import java.io.Serializable;
 import java.io.StringReader;
+import java.io.StringWriter;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
@@ -31,9 +32,12 @@ import org.atmosphere.util.Version;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.vaadin.flow.component.PushConfiguration;
 import com.vaadin.flow.component.UI;
 import com.vaadin.flow.internal.UsageStatistics;
+import com.vaadin.flow.server.VaadinService;
 import com.vaadin.flow.shared.communication.PushConstants;
+import com.vaadin.flow.shared.communication.PushMode;
 
 import elemental.json.JsonObject;
 
@@ -51,6 +55,7 @@ public class AtmospherePushConnection implements PushConnection {
     private transient AtmosphereResource resource;
     private transient FragmentedMessage incomingMessage;
     private transient Future<Object> outgoingMessage;
+    private transient boolean coalescedFlushPending;
 
     /**
      * Represents a message that can arrive as multiple fragments.
@@ -177,6 +182,11 @@ public class AtmospherePushConnection implements PushConnection {
      * Pushes pending state changes and client RPC calls to the client. If
      * {@code isConnected()} is false, defers the push until a connection is
      * established.
+     * <p>
+     * If a {@link PushConfiguration#getCoalescingWindow() coalescing window}
+     * has been configured, an asynchronous push is delayed until the end of the
+     * window and sent as one message together with all pushes requested during
+     * the window.
      *
      * @param async
      *            True if this push asynchronously originates from the server,
@@ -189,14 +199,80 @@ public class AtmospherePushConnection implements PushConnection {
             } else {
                 state = State.RESPONSE_PENDING;
             }
+        } else if (!async || !coalesce()) {
+            sendPush(async);
+        }
+    }
+
+    /**
+     * Delays the current push until the end of the coalescing window if
+     * coalescing is enabled for the UI. Only automatic pushes are delayed,
+     * explicit calls to {@link UI#push()} in {@link PushMode#MANUAL} mode are
+     * always sent right away.
+     *
+     * @return <code>true</code> if the push was delayed, <code>false</code>
+     *         if it should be sent right away
+     */
+    private boolean coalesce() {
+        UI ui = getUI();
+        PushConfiguration configuration = ui.getPushConfiguration();
+        int window = configuration.getCoalescingWindow();
+        if (window <= 0 || ui.isClosing()
+                || configuration.getPushMode() != PushMode.AUTOMATIC) {
+            return false;
+        }
+        int maxChanges = configuration.getCoalescingMaxChanges();
+        if (maxChanges > 0 && ui.getInternals().getStateTree()
+                .getDirtyNodeCount() >= maxChanges) {
+            return false;
+        }
+
+        VaadinService service = ui.getSession().getService();
+        if (coalescedFlushPending) {
+            service.getPushCoalescingMetrics().pushCoalesced();
         } else {
-            try {
-                JsonObject response = new UidlWriter().createUidl(getUI(),
-                        async);
+            coalescedFlushPending = true;
+            service.getPushCoalescingMetrics().flushScheduled();
+            service.scheduleAccess(ui, this::flushCoalescedPush, window,
+                    TimeUnit.MILLISECONDS);
+        }
+        return true;
+    }
+
+    private void flushCoalescedPush() {
+        coalescedFlushPending = false;
+        // Changes may already have been sent with a response or because there
+        // were too many of them
+        if (getUI().getInternals().isDirty()) {
+            if (isConnected()) {
+                sendPush(true);
+            } else {
+                push(true);
+            }
+        }
+    }
+
+    private void sendPush(boolean async) {
+        try {
+            UI ui = getUI();
+            if (ui.getSession().getService().getDeploymentConfiguration()
+                    .isStreamingUidl()) {
+                // The broadcast is asynchronous so the message is still
+                // collected to a single string, but without building the
+                // JSON tree of the response first
+                StringWriter writer = new StringWriter();
+                writer.write("for(;;);[");
+                new UidlWriter().writeUidl(ui, async, false, writer);
+                writer.write(']');
+                sendMessage(writer.toString());
+            } else {
+                JsonObject response = new UidlWriter().createUidl(ui, async);
                 sendMessage("for(;;);[" + response.toJson() + "]");
-            } catch (Exception e) {
-                throw new RuntimeException("Push failed", e);
             }
+            ui.getSession().getService().getPushCoalescingMetrics()
+                    .messageSent();
+        } catch (Exception e) {
+            throw new RuntimeException("Push failed", e);
         }
     }
 
@@ -61,10 +61,17 @@ public class HeartbeatHandler extends SynchronizedRequestHandler
     @Override
     public boolean synchronizedHandleRequest(VaadinSession session,
             VaadinRequest request, VaadinResponse response) throws IOException {
-        UI ui = session.getService().findUI(request);
-        if (ui != null) {
-            ui.getInternals()
-                    .setLastHeartbeatTimestamp(System.currentTimeMillis());
+        long now = System.currentTimeMillis();
+        // Don't activate a passivated UI only for recording the heartbeat
+        String uiId = request
+                .getParameter(ApplicationConstants.UI_ID_PARAMETER);
+        boolean passivated = uiId != null && session
+                .updatePassivatedUIHeartbeat(Integer.parseInt(uiId), now);
+        UI ui = passivated ? null : session.getService().findUI(request);
+        if (passivated || ui != null) {
+            if (ui != null) {
+                ui.getInternals().setLastHeartbeatTimestamp(now);
+            }
             // Ensure that the browser does not cache heartbeat responses.
             // iOS 6 Safari requires this (#10370)
             response.setHeader("Cache-Control", "no-cache");
@@ -0,0 +1,85 @@
+/*
+ * Copyright 2000-2020 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.server.communication;
+
+import java.io.Serializable;
+
+import com.vaadin.flow.internal.MessageDigestUtil;
+
+/**
+ * Computes a hash of a client-to-server message. The hash of the last
+ * processed message is stored for each UI so that a message resent by the
+ * client, e.g. after a timeout, can be told apart from an unexpected message
+ * with the same id.
+ * <p>
+ * The hash is computed for every message received from the client but only
+ * compared for messages that have the same id as the previously processed
+ * message, so the hash doesn't need to be cryptographically secure.
+ *
+ * @author Vaadin Ltd
+ * @since 6.0
+ * @see ServerRpcHandler#getMessageHasher()
+ */
+@FunctionalInterface
+public interface MessageHasher extends Serializable {
+
+    /**
+     * Computes the hash of the given message.
+     *
+     * @param message
+     *            the message to compute the hash of, not <code>null</code>
+     * @return the hash, not <code>null</code>
+     */
+    byte[] hash(String message);
+
+    /**
+     * Gets a hasher using the length of the message and a 64-bit FNV-1a hash
+     * of its characters. This is considerably cheaper to compute than a
+     * cryptographic hash and doesn't need to encode the message to bytes.
+     *
+     * @return a fast non-cryptographic message hasher
+     */
+    static MessageHasher fast() {
+        return message -> {
+            long hash = 0xcbf29ce484222325L;
+            int length = message.length();
+            for (int i = 0; i < length; i++) {
+                hash ^= message.charAt(i);
+                hash *= 0x100000001b3L;
+            }
+            byte[] result = new byte[12];
+            for (int i = 0; i < 8; i++) {
+                result[i] = (byte) (hash >>> (i * 8));
+            }
+            for (int i = 0; i < 4; i++) {
+                result[8 + i] = (byte) (length >>> (i * 8));
+            }
+            return result;
+        };
+    }
+
+    /**
+     * Gets a hasher using the SHA-256 hash of the first 64 kB of the message.
+     * This was the only available way of hashing messages in earlier versions.
+     *
+     * @return a SHA-256 based message hasher
+     */
+    static MessageHasher sha256() {
+        return message -> MessageDigestUtil.sha256(
+                message.length() > 64 * 1024 ? message.substring(0, 64 * 1024)
+                        : message);
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright 2000-2020 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.server.communication;
+
+import java.io.Serializable;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Statistics about the push messages sent by the push connections of a
+ * {@link com.vaadin.flow.server.VaadinService} and the messages saved by
+ * merging consecutive pushes into one message.
+ *
+ * @author Vaadin Ltd
+ * @since 6.0
+ * @see com.vaadin.flow.component.PushConfiguration#setCoalescingWindow(int)
+ * @see com.vaadin.flow.server.VaadinService#getPushCoalescingMetrics()
+ */
+public class PushCoalescingMetrics implements Serializable {
+
+    private final LongAdder sentMessages = new LongAdder();
+    private final LongAdder coalescedPushes = new LongAdder();
+    private final LongAdder scheduledFlushes = new LongAdder();
+
+    /**
+     * Records that a push message has been sent.
+     */
+    void messageSent() {
+        sentMessages.increment();
+    }
+
+    /**
+     * Records that a push has been merged into a message that was already
+     * waiting to be sent.
+     */
+    void pushCoalesced() {
+        coalescedPushes.increment();
+    }
+
+    /**
+     * Records that a push has been delayed until the end of the coalescing
+     * window.
+     */
+    void flushScheduled() {
+        scheduledFlushes.increment();
+    }
+
+    /**
+     * Gets the number of push messages that have been sent, including
+     * responses to client requests sent through the push connection.
+     *
+     * @return the number of sent messages
+     */
+    public long getSentMessageCount() {
+        return sentMessages.sum();
+    }
+
+    /**
+     * Gets the number of pushes that have been merged into a message that was
+     * already waiting to be sent, i.e. the number of messages saved by
+     * coalescing.
+     *
+     * @return the number of saved messages
+     */
+    public long getCoalescedPushCount() {
+        return coalescedPushes.sum();
+    }
+
+    /**
+     * Gets the number of pushes that have been delayed until the end of the
+     * coalescing window.
+     *
+     * @return the number of delayed pushes
+     */
+    public long getScheduledFlushCount() {
+        return scheduledFlushes.sum();
+    }
+
+    /**
+     * Resets all statistics to zero, e.g. to start a new measurement period.
+     */
+    public void reset() {
+        sentMessages.reset();
+        coalescedPushes.reset();
+        scheduledFlushes.reset();
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "[sent=" + getSentMessageCount()
+                + ", coalesced=" + getCoalescedPushCount() + ", scheduled="
+                + getScheduledFlushCount() + "]";
+    }
+}
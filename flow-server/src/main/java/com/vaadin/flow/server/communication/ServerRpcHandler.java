@@ -17,6 +17,7 @@
 package com.vaadin.flow.server.communication;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.Reader;
 import java.io.Serializable;
 import java.security.GeneralSecurityException;
@@ -28,13 +29,15 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
+import org.apache.commons.io.IOUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.vaadin.flow.component.UI;
-import com.vaadin.flow.internal.MessageDigestUtil;
+import com.vaadin.flow.internal.BinaryJson;
 import com.vaadin.flow.server.ErrorEvent;
 import com.vaadin.flow.server.VaadinRequest;
 import com.vaadin.flow.server.VaadinService;
@@ -49,10 +52,14 @@ import com.vaadin.flow.shared.ApplicationConstants;
 import com.vaadin.flow.shared.JsonConstants;
 
 import elemental.json.JsonArray;
+import elemental.json.JsonException;
 import elemental.json.JsonObject;
+import elemental.json.JsonType;
 import elemental.json.JsonValue;
 import elemental.json.impl.JsonUtil;
 
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+
 /**
  * Handles a client-to-server message containing serialized RPC invocations.
  *
@@ -87,7 +94,21 @@ public class ServerRpcHandler implements Serializable {
          *            the request through which the JSON was received
          */
         public RpcRequest(String jsonString, VaadinRequest request) {
-            json = JsonUtil.parse(jsonString);
+            this(JsonUtil.<JsonObject> parse(jsonString), request);
+        }
+
+        /**
+         * Creates an instance based on the given already decoded JSON received
+         * through the given request.
+         *
+         * @param json
+         *            the JSON object containing the RPC invocations
+         * @param request
+         *            the request through which the JSON was received
+         * @since 6.0
+         */
+        public RpcRequest(JsonObject json, VaadinRequest request) {
+            this.json = json;
 
             JsonValue token = json.get(ApplicationConstants.CSRF_TOKEN);
             if (token == null) {
@@ -240,7 +261,7 @@ public class ServerRpcHandler implements Serializable {
      */
     public void handleRpc(UI ui, Reader reader, VaadinRequest request)
             throws IOException, InvalidUIDLSecurityKeyException {
-        ui.getSession().setLastRequestTimestamp(System.currentTimeMillis());
+        updateRequestTimestamps(ui);
 
         String changeMessage = getMessage(reader);
 
@@ -249,20 +270,66 @@ public class ServerRpcHandler implements Serializable {
             return;
         }
 
-        RpcRequest rpcRequest = new RpcRequest(changeMessage, request);
+        handleRpc(ui, new RpcRequest(changeMessage, request),
+                getMessageHasher().hash(changeMessage), () -> changeMessage);
+    }
+
+    /**
+     * Reads a message encoded with {@link BinaryJson} containing zero or more
+     * serialized RPC calls and executes the calls.
+     *
+     * @param ui
+     *            The {@link UI} receiving the calls. Cannot be null.
+     * @param stream
+     *            The {@link InputStream} used to read the message.
+     * @param request
+     *            The request through which the RPC was received
+     * @throws IOException
+     *             If reading the message fails.
+     * @throws InvalidUIDLSecurityKeyException
+     *             If the received security key does not match the one stored in
+     *             the session.
+     * @since 6.0
+     */
+    public void handleBinaryRpc(UI ui, InputStream stream,
+            VaadinRequest request)
+            throws IOException, InvalidUIDLSecurityKeyException {
+        updateRequestTimestamps(ui);
+
+        byte[] message = IOUtils.toByteArray(stream);
+
+        if (message.length == 0) {
+            return;
+        }
+
+        JsonValue json = BinaryJson.decode(message);
+        if (json.getType() != JsonType.OBJECT) {
+            throw new JsonException(
+                    "Expected a JSON object but got " + json.getType());
+        }
+
+        // The hasher only needs to detect resent messages, so the bytes can be
+        // hashed as ISO-8859-1 characters without decoding the message
+        handleRpc(ui, new RpcRequest((JsonObject) json, request),
+                getMessageHasher().hash(new String(message, ISO_8859_1)),
+                json::toJson);
+    }
+
+    private static void updateRequestTimestamps(UI ui) {
+        long now = System.currentTimeMillis();
+        ui.getSession().setLastRequestTimestamp(now);
+        ui.getInternals().setLastUidlRequestTimestamp(now);
+    }
 
+    private void handleRpc(UI ui, RpcRequest rpcRequest, byte[] messageHash,
+            Supplier<String> changeMessage)
+            throws InvalidUIDLSecurityKeyException {
         // Security: double cookie submission pattern unless disabled by
         // property
         if (!VaadinService.isCsrfTokenValid(ui, rpcRequest.getCsrfToken())) {
             throw new InvalidUIDLSecurityKeyException();
         }
 
-        String hashMessage = changeMessage;
-        if (hashMessage.length() > 64 * 1024) {
-            hashMessage = changeMessage.substring(0, 64 * 1024);
-        }
-        byte[] messageHash = MessageDigestUtil.sha256(hashMessage);
-
         int expectedId = ui.getInternals().getLastProcessedClientToServerId()
                 + 1;
         int requestId = rpcRequest.getClientToServerId();
@@ -300,7 +367,7 @@ public class ServerRpcHandler implements Serializable {
                  * implementing the resync that would thus hide most symptoms of
                  * the actual root cause bugs.
                  */
-                String messageStart = changeMessage;
+                String messageStart = changeMessage.get();
                 if (messageStart.length() > 1000) {
                     messageStart = messageStart.substring(0, 1000);
                 }
@@ -415,6 +482,18 @@ public class ServerRpcHandler implements Serializable {
         }
     }
 
+    /**
+     * Gets the hasher used for detecting when the client resends the last
+     * processed message. The default implementation uses
+     * {@link MessageHasher#fast()}. Override to use a different strategy, e.g.
+     * {@link MessageHasher#sha256()}.
+     *
+     * @return the message hasher to use, not <code>null</code>
+     */
+    protected MessageHasher getMessageHasher() {
+        return MessageHasher.fast();
+    }
+
     protected String getMessage(Reader reader) throws IOException {
 
         StringBuilder sb = new StringBuilder(MAX_BUFFER_SIZE);
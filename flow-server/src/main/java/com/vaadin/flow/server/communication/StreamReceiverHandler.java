@@ -19,14 +19,22 @@ import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import javax.servlet.http.Part;
 import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.io.PrintWriter;
 import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
 import java.util.Collection;
 import java.util.Iterator;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.apache.commons.fileupload.FileItemIterator;
 import org.apache.commons.fileupload.FileItemStream;
@@ -36,8 +44,11 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.vaadin.flow.component.UI;
+import com.vaadin.flow.component.UIDetachedException;
 import com.vaadin.flow.internal.Pair;
 import com.vaadin.flow.internal.StateNode;
+import com.vaadin.flow.server.ChannelStreamVariable;
+import com.vaadin.flow.server.Command;
 import com.vaadin.flow.server.ErrorEvent;
 import com.vaadin.flow.server.NoInputStreamException;
 import com.vaadin.flow.server.NoOutputStreamException;
@@ -64,8 +75,6 @@ import static java.nio.charset.StandardCharsets.UTF_8;
  */
 public class StreamReceiverHandler implements Serializable {
 
-    private static final int MAX_UPLOAD_BUFFER_SIZE = 4 * 1024;
-
     /* Minimum interval which will be used for streaming progress events. */
     public static final int DEFAULT_STREAMING_PROGRESS_EVENT_INTERVAL_MS = 500;
 
@@ -399,7 +408,7 @@ public class StreamReceiverHandler implements Serializable {
         return DEFAULT_STREAMING_PROGRESS_EVENT_INTERVAL_MS;
     }
 
-    static void tryToCloseStream(OutputStream out) {
+    static void tryToCloseStream(Closeable out) {
         try {
             // try to close output stream (e.g. file handle)
             if (out != null) {
@@ -458,18 +467,23 @@ public class StreamReceiverHandler implements Serializable {
                     "StreamVariable for the post not found");
         }
 
-        OutputStream out = null;
-        long totalBytes = 0;
+        Closeable out = null;
+        UploadProgress progress = new UploadProgress(session, streamVariable,
+                filename, type, contentLength);
         StreamingStartEventImpl startedEvent = new StreamingStartEventImpl(
                 filename, type, contentLength);
         boolean success = false;
         try {
-            boolean listenProgress;
             session.lock();
             try {
                 streamVariable.streamingStarted(startedEvent);
-                out = streamVariable.getOutputStream();
-                listenProgress = streamVariable.listenProgress();
+                if (streamVariable instanceof ChannelStreamVariable) {
+                    out = ((ChannelStreamVariable) streamVariable)
+                            .getChannel();
+                } else {
+                    out = streamVariable.getOutputStream();
+                }
+                progress.listen = streamVariable.listenProgress();
             } finally {
                 session.unlock();
             }
@@ -484,34 +498,22 @@ public class StreamReceiverHandler implements Serializable {
                 throw new NoInputStreamException();
             }
 
-            final byte[] buffer = new byte[MAX_UPLOAD_BUFFER_SIZE];
-            long lastStreamingEvent = 0;
-            int bytesReadToBuffer;
-            do {
-                bytesReadToBuffer = in.read(buffer);
-                if (bytesReadToBuffer > 0) {
-                    out.write(buffer, 0, bytesReadToBuffer);
-                    totalBytes += bytesReadToBuffer;
-                }
-                if (listenProgress) {
-                    StreamingProgressEventImpl progressEvent = new StreamingProgressEventImpl(
-                            filename, type, contentLength, totalBytes);
-
-                    lastStreamingEvent = updateProgress(session, streamVariable,
-                            progressEvent, lastStreamingEvent,
-                            bytesReadToBuffer);
-                }
-                if (streamVariable.isInterrupted()) {
-                    throw new UploadInterruptedException();
-                }
-            } while (bytesReadToBuffer > 0);
+            int bufferSize = getUploadBufferSize(session);
+            if (out instanceof WritableByteChannel) {
+                streamToChannel(in, (WritableByteChannel) out, bufferSize,
+                        progress);
+            } else {
+                streamToOutputStream(in, (OutputStream) out, bufferSize,
+                        progress);
+            }
 
             // upload successful
             out.close();
             StreamVariable.StreamingEndEvent event = new StreamingEndEventImpl(
-                    filename, type, totalBytes);
+                    filename, type, progress.totalBytes);
             session.lock();
             try {
+                progress.deliverPending();
                 streamVariable.streamingFinished(event);
             } finally {
                 session.unlock();
@@ -521,9 +523,10 @@ public class StreamReceiverHandler implements Serializable {
             // Download interrupted by application code
             tryToCloseStream(out);
             StreamVariable.StreamingErrorEvent event = new StreamingErrorEventImpl(
-                    filename, type, contentLength, totalBytes, e);
+                    filename, type, contentLength, progress.totalBytes, e);
             session.lock();
             try {
+                progress.deliverPending();
                 streamVariable.streamingFailed(event);
             } finally {
                 session.unlock();
@@ -534,8 +537,9 @@ public class StreamReceiverHandler implements Serializable {
             tryToCloseStream(out);
             session.lock();
             try {
+                progress.deliverPending();
                 StreamVariable.StreamingErrorEvent event = new StreamingErrorEventImpl(
-                        filename, type, contentLength, totalBytes, e);
+                        filename, type, contentLength, progress.totalBytes, e);
                 streamVariable.streamingFailed(event);
                 // throw exception for terminal to be handled (to be passed to
                 // terminalErrorHandler)
@@ -548,23 +552,179 @@ public class StreamReceiverHandler implements Serializable {
                 success ? UploadStatus.OK : UploadStatus.ERROR);
     }
 
-    private long updateProgress(VaadinSession session,
-            StreamVariable streamVariable,
-            StreamingProgressEventImpl progressEvent, long lastStreamingEvent,
-            int bytesReadToBuffer) {
-        long now = System.currentTimeMillis();
-        // to avoid excessive session locking and event storms,
-        // events are sent in intervals, or at the end of the file.
-        if (lastStreamingEvent + getProgressEventInterval() <= now
-                || bytesReadToBuffer <= 0) {
-            session.lock();
-            try {
+    private void streamToOutputStream(InputStream in, OutputStream out,
+            int bufferSize, UploadProgress progress)
+            throws IOException, UploadInterruptedException {
+        final byte[] buffer = new byte[bufferSize];
+        int bytesReadToBuffer;
+        do {
+            bytesReadToBuffer = in.read(buffer);
+            if (bytesReadToBuffer > 0) {
+                out.write(buffer, 0, bytesReadToBuffer);
+            }
+            progress.update(Math.max(bytesReadToBuffer, 0));
+        } while (bytesReadToBuffer > 0);
+    }
+
+    private void streamToChannel(InputStream in, WritableByteChannel out,
+            int bufferSize, UploadProgress progress)
+            throws IOException, UploadInterruptedException {
+        if (in instanceof FileInputStream) {
+            // The container has stored the upload in a file, let the
+            // operating system copy the data
+            FileChannel source = ((FileInputStream) in).getChannel();
+            long transferred;
+            do {
+                transferred = source.transferTo(source.position(), bufferSize,
+                        out);
+                source.position(source.position() + transferred);
+                progress.update(transferred);
+            } while (transferred > 0);
+        } else if (out instanceof FileChannel) {
+            FileChannel target = (FileChannel) out;
+            ReadableByteChannel source = Channels.newChannel(in);
+            long position = target.position();
+            long transferred;
+            do {
+                // A blocking source only transfers zero bytes at its end
+                transferred = target.transferFrom(source, position,
+                        bufferSize);
+                position += transferred;
+                progress.update(transferred);
+            } while (transferred > 0);
+            target.position(position);
+        } else {
+            ReadableByteChannel source = Channels.newChannel(in);
+            ByteBuffer buffer = ByteBuffer.allocate(bufferSize);
+            int bytesReadToBuffer;
+            do {
+                bytesReadToBuffer = source.read(buffer);
+                buffer.flip();
+                while (buffer.hasRemaining()) {
+                    out.write(buffer);
+                }
+                buffer.clear();
+                progress.update(Math.max(bytesReadToBuffer, 0));
+            } while (bytesReadToBuffer >= 0);
+        }
+    }
+
+    /**
+     * Gets the size of the buffer used for streaming uploaded data to the
+     * stream variable. The data is transferred in chunks of this size, and
+     * {@link StreamVariable#isInterrupted()} is checked between the chunks.
+     * <p>
+     * The default value is read from
+     * {@link com.vaadin.flow.function.DeploymentConfiguration#getUploadBufferSize()}.
+     *
+     * @param session
+     *            the session of the upload
+     * @return the buffer size in bytes
+     */
+    protected int getUploadBufferSize(VaadinSession session) {
+        return Math.max(1, session.getConfiguration().getUploadBufferSize());
+    }
+
+    /**
+     * Checks whether the progress events of the uploads to the given session
+     * are delivered asynchronously using {@link UI#access(Command)}, so that
+     * the upload thread doesn't need to wait for the session lock while
+     * streaming.
+     * <p>
+     * The default value is read from
+     * {@link com.vaadin.flow.function.DeploymentConfiguration#isAsyncUploadProgress()}.
+     *
+     * @param session
+     *            the session of the upload
+     * @return <code>true</code> to deliver progress events asynchronously,
+     *         <code>false</code> to lock the session for each progress event
+     */
+    protected boolean isAsyncProgress(VaadinSession session) {
+        return session.getConfiguration().isAsyncUploadProgress();
+    }
+
+    /**
+     * Keeps track of the bytes streamed during an upload and notifies the
+     * stream variable about the progress.
+     */
+    private final class UploadProgress {
+        private final VaadinSession session;
+        private final StreamVariable streamVariable;
+        private final String filename;
+        private final String type;
+        private final long contentLength;
+        private final AtomicReference<StreamingProgressEventImpl> pending = new AtomicReference<>();
+
+        private boolean listen;
+        private long totalBytes;
+        private long lastStreamingEvent;
+
+        private UploadProgress(VaadinSession session,
+                StreamVariable streamVariable, String filename, String type,
+                long contentLength) {
+            this.session = session;
+            this.streamVariable = streamVariable;
+            this.filename = filename;
+            this.type = type;
+            this.contentLength = contentLength;
+        }
+
+        private void update(long bytesTransferred)
+                throws UploadInterruptedException {
+            totalBytes += bytesTransferred;
+            if (listen) {
+                long now = System.currentTimeMillis();
+                // to avoid excessive session locking and event storms,
+                // events are sent in intervals, or at the end of the file.
+                if (lastStreamingEvent + getProgressEventInterval() <= now
+                        || bytesTransferred <= 0) {
+                    lastStreamingEvent = now;
+                    notifyProgress(new StreamingProgressEventImpl(filename,
+                            type, contentLength, totalBytes));
+                }
+            }
+            if (streamVariable.isInterrupted()) {
+                throw new UploadInterruptedException();
+            }
+        }
+
+        private void notifyProgress(StreamingProgressEventImpl progressEvent) {
+            if (!isAsyncProgress(session)) {
+                session.lock();
+                try {
+                    streamVariable.onProgress(progressEvent);
+                } finally {
+                    session.unlock();
+                }
+            } else if (pending.getAndSet(progressEvent) == null) {
+                // Only one delivery is queued at a time, it delivers the
+                // latest event when run
+                UI ui = UI.getCurrent();
+                try {
+                    if (ui != null) {
+                        ui.access(this::deliverPending);
+                    } else {
+                        session.access(this::deliverPending);
+                    }
+                } catch (UIDetachedException e) {
+                    getLogger().debug(
+                            "Upload progress not delivered to a detached UI",
+                            e);
+                    pending.set(null);
+                }
+            }
+        }
+
+        /**
+         * Delivers the progress event not yet delivered asynchronously, if
+         * any. Must be called with the session locked.
+         */
+        private void deliverPending() {
+            StreamingProgressEventImpl progressEvent = pending.getAndSet(null);
+            if (progressEvent != null) {
                 streamVariable.onProgress(progressEvent);
-            } finally {
-                session.unlock();
             }
         }
-        return now;
     }
 
     /**
@@ -16,12 +16,16 @@
 package com.vaadin.flow.server.communication;
 
 import javax.servlet.ServletContext;
+import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
+import java.io.File;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.io.Serializable;
 
+import com.vaadin.flow.internal.ResponseWriter;
+import com.vaadin.flow.server.FileStreamResource;
 import com.vaadin.flow.server.StreamResource;
 import com.vaadin.flow.server.StreamResourceWriter;
 import com.vaadin.flow.server.VaadinRequest;
@@ -31,6 +35,10 @@ import com.vaadin.flow.server.VaadinSession;
 
 /**
  * Handles {@link StreamResource} instances registered in {@link VaadinSession}.
+ * <p>
+ * The data of a {@link FileStreamResource} is written with
+ * {@link ResponseWriter#writeFileContents}, which supports byte ranges and
+ * conditional requests.
  *
  * @author Vaadin Ltd
  * @since 1.0
@@ -58,6 +66,7 @@ public class StreamResourceHandler implements Serializable {
             throws IOException {
 
         StreamResourceWriter writer;
+        File file = null;
         session.lock();
         try {
             ServletContext context = ((VaadinServletRequest) request)
@@ -65,6 +74,9 @@ public class StreamResourceHandler implements Serializable {
             response.setContentType(streamResource.getContentTypeResolver()
                     .apply(streamResource, context));
             response.setCacheTime(streamResource.getCacheTime());
+            if (streamResource instanceof FileStreamResource) {
+                file = ((FileStreamResource) streamResource).getFile();
+            }
             writer = streamResource.getWriter();
             if (writer == null) {
                 throw new IOException(
@@ -77,6 +89,23 @@ public class StreamResourceHandler implements Serializable {
         } finally {
             session.unlock();
         }
+        if (file != null) {
+            // file resources are written without the lock, with support for
+            // byte ranges and conditional requests
+            ResponseWriter responseWriter = new ResponseWriter(
+                    session.getService().getDeploymentConfiguration());
+            String etag = ((FileStreamResource) streamResource).getETag();
+            try {
+                responseWriter.writeFileContents(file, etag,
+                        (HttpServletRequest) request,
+                        (HttpServletResponse) response);
+            } catch (Exception exception) {
+                response.setStatus(
+                        HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+                throw exception;
+            }
+            return;
+        }
         // don't use here "try resource" syntax sugar because in case there is
         // an exception the {@code outputStream} will be closed before "catch"
         // block which sets the status code and this code will not have any
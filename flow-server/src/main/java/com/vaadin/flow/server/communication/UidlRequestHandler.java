@@ -16,8 +16,10 @@
 
 package com.vaadin.flow.server.communication;
 
+import java.io.BufferedWriter;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.io.OutputStreamWriter;
 import java.io.StringWriter;
 import java.io.Writer;
 import java.util.regex.Matcher;
@@ -28,6 +30,7 @@ import org.slf4j.LoggerFactory;
 
 import com.vaadin.flow.component.UI;
 import com.vaadin.flow.component.internal.JavaScriptBootstrapUI;
+import com.vaadin.flow.internal.BinaryJson;
 import com.vaadin.flow.server.HandlerHelper;
 import com.vaadin.flow.server.HandlerHelper.RequestType;
 import com.vaadin.flow.server.SessionExpiredHandler;
@@ -108,6 +111,22 @@ public class UidlRequestHandler extends SynchronizedRequestHandler
             return true;
         }
 
+        if (isBinaryRequest(request)) {
+            if (!session.getConfiguration().isBinaryProtocol()) {
+                getLogger().warn("Binary UIDL request received from {} "
+                        + "although the binary protocol is not enabled",
+                        request.getRemoteHost());
+                // Refresh on client side
+                writeRefresh(response);
+                return true;
+            }
+            return binaryHandleRequest(uI, request, response);
+        }
+
+        if (isStreamingUidl(session, uI)) {
+            return streamingHandleRequest(uI, request, response);
+        }
+
         StringWriter stringWriter = new StringWriter();
 
         try {
@@ -135,6 +154,97 @@ public class UidlRequestHandler extends SynchronizedRequestHandler
         return true;
     }
 
+    private static boolean isStreamingUidl(VaadinSession session, UI ui) {
+        // The MPR hash fragment fix needs the complete response as JSON
+        return session.getService().getDeploymentConfiguration()
+                .isStreamingUidl() && !(ui instanceof JavaScriptBootstrapUI);
+    }
+
+    /**
+     * Handles the request writing the response directly to the output stream
+     * while the changes are being serialized. Errors happening while writing
+     * the response can no longer be reported with a critical notification, but
+     * the complete response never needs to be held in memory.
+     */
+    private boolean streamingHandleRequest(UI uI, VaadinRequest request,
+            VaadinResponse response) throws IOException {
+        boolean resync = false;
+        try {
+            getRpcHandler(uI.getSession()).handleRpc(uI, request.getReader(),
+                    request);
+        } catch (JsonException e) {
+            getLogger().error("Error reading JSON from request", e);
+            // Refresh on client side
+            writeRefresh(response);
+            return true;
+        } catch (InvalidUIDLSecurityKeyException e) {
+            getLogger().warn("Invalid security key received from {}",
+                    request.getRemoteHost());
+            // Refresh on client side
+            writeRefresh(response);
+            return true;
+        } catch (ResynchronizationRequiredException e) { // NOSONAR
+            // Resync on the client side
+            resync = true;
+        }
+
+        response.setContentType(JsonConstants.JSON_CONTENT_TYPE);
+        // Ensure that the browser does not cache UIDL responses.
+        response.setHeader("Cache-Control", "no-cache");
+
+        Writer writer = new BufferedWriter(
+                new OutputStreamWriter(response.getOutputStream(), UTF_8));
+        // some dirt to prevent cross site scripting
+        writer.write("for(;;);[");
+        new UidlWriter().writeUidl(uI, false, resync, writer);
+        writer.write(']');
+        // NOTE GateIn requires the buffers to be flushed to work
+        writer.flush();
+        return true;
+    }
+
+    private static boolean isBinaryRequest(VaadinRequest request) {
+        String contentType = request.getContentType();
+        return contentType != null
+                && contentType.startsWith(JsonConstants.BINARY_CONTENT_TYPE);
+    }
+
+    /**
+     * Handles a request encoded with {@link BinaryJson}, writing the response
+     * with the same encoding. Responses which make the client refresh are
+     * still written as JSON, the client checks the content type of the
+     * response.
+     */
+    private boolean binaryHandleRequest(UI uI, VaadinRequest request,
+            VaadinResponse response) throws IOException {
+        boolean resync = false;
+        try {
+            getRpcHandler(uI.getSession()).handleBinaryRpc(uI,
+                    request.getInputStream(), request);
+        } catch (JsonException e) {
+            getLogger().error("Error reading binary message from request", e);
+            // Refresh on client side
+            writeRefresh(response);
+            return true;
+        } catch (InvalidUIDLSecurityKeyException e) {
+            getLogger().warn("Invalid security key received from {}",
+                    request.getRemoteHost());
+            // Refresh on client side
+            writeRefresh(response);
+            return true;
+        } catch (ResynchronizationRequiredException e) { // NOSONAR
+            // Resync on the client side
+            resync = true;
+        }
+
+        JsonObject uidl = createUidl(uI, resync);
+        if (uI instanceof JavaScriptBootstrapUI) {
+            removeOffendingMprHashFragment(uidl);
+        }
+        commitBinaryResponse(response, BinaryJson.encode(uidl));
+        return true;
+    }
+
     private void writeRefresh(VaadinResponse response) throws IOException {
         String json = VaadinService.createCriticalNotificationJSON(null, null,
                 null, null);
@@ -220,6 +330,30 @@ public class UidlRequestHandler extends SynchronizedRequestHandler
         outputStream.flush();
     }
 
+    /**
+     * Commit a response encoded with {@link BinaryJson}.
+     *
+     * @param response
+     *            The response to write to
+     * @param message
+     *            The encoded message to write
+     * @throws IOException
+     *             If there was an exception while writing to the output
+     * @since 6.0
+     */
+    public static void commitBinaryResponse(VaadinResponse response,
+            byte[] message) throws IOException {
+        response.setContentType(JsonConstants.BINARY_CONTENT_TYPE);
+
+        // Ensure that the browser does not cache UIDL responses.
+        response.setHeader("Cache-Control", "no-cache");
+        response.setContentLength(message.length);
+
+        OutputStream outputStream = response.getOutputStream();
+        outputStream.write(message);
+        outputStream.flush();
+    }
+
     private void removeOffendingMprHashFragment(JsonObject uidl) {
         if (!uidl.hasKey(EXECUTE)) {
             return;
@@ -19,6 +19,8 @@ package com.vaadin.flow.server.communication;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.Serializable;
+import java.io.UncheckedIOException;
+import java.io.Writer;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.nio.charset.StandardCharsets;
@@ -30,6 +32,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.function.Consumer;
 import java.util.stream.Stream;
 
 import org.apache.commons.io.IOUtils;
@@ -66,6 +69,7 @@ import elemental.json.Json;
 import elemental.json.JsonArray;
 import elemental.json.JsonObject;
 import elemental.json.JsonValue;
+import elemental.json.impl.JsonUtil;
 
 /**
  * Serializes pending server-side changes to UI state to JSON. This includes
@@ -78,6 +82,8 @@ import elemental.json.JsonValue;
 public class UidlWriter implements Serializable {
     private static final String COULD_NOT_READ_URL_CONTENTS_ERROR_MESSAGE = "Could not read url %s contents";
 
+    private static final String CHANGES = "changes";
+
     /**
      * Provides context information for the resolve operations.
      */
@@ -131,6 +137,106 @@ public class UidlWriter implements Serializable {
      * @return JSON object containing the UIDL response
      */
     public JsonObject createUidl(UI ui, boolean async, boolean resync) {
+        JsonObject response = createResponseHeader(ui, async, resync);
+
+        UIInternals uiInternals = ui.getInternals();
+
+        JsonArray stateChanges = Json.createArray();
+
+        encodeChanges(ui,
+                change -> stateChanges.set(stateChanges.length(), change));
+
+        populateDependencies(response, uiInternals.getDependencyList(),
+                new ResolveContext(ui.getSession().getService(),
+                        ui.getSession().getBrowser()));
+
+        populateConstants(response, uiInternals);
+        if (stateChanges.length() != 0) {
+            response.put(CHANGES, stateChanges);
+        }
+
+        populateExecuteAndTimings(response, ui);
+
+        uiInternals.incrementServerId();
+        return response;
+    }
+
+    /**
+     * Writes a JSON object containing all pending changes to the given UI
+     * directly to the given writer.
+     * <p>
+     * The produced JSON is equivalent to the one created by
+     * {@link #createUidl(UI, boolean, boolean)}, but the state tree changes are
+     * written to the writer one by one while they are collected. This means
+     * that the complete response never needs to be held in memory, no matter
+     * how many changes there are. Only the order of the keys in the JSON object
+     * differs.
+     *
+     * @param ui
+     *            The {@link UI} whose changes to write
+     * @param async
+     *            True if this message is sent by the server asynchronously,
+     *            false if it is a response to a client message
+     * @param resync
+     *            True iff the client should be asked to resynchronize
+     * @param writer
+     *            the writer to write the UIDL response to
+     * @throws IOException
+     *             if writing to the writer fails
+     */
+    public void writeUidl(UI ui, boolean async, boolean resync, Writer writer)
+            throws IOException {
+        JsonObjectWriter response = new JsonObjectWriter(writer);
+        response.putAll(createResponseHeader(ui, async, resync));
+
+        UIInternals uiInternals = ui.getInternals();
+
+        try {
+            encodeChanges(ui, change -> {
+                try {
+                    response.addToArray(CHANGES, change);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        response.endArray();
+
+        JsonObject trailer = Json.createObject();
+        populateDependencies(trailer, uiInternals.getDependencyList(),
+                new ResolveContext(ui.getSession().getService(),
+                        ui.getSession().getBrowser()));
+        populateConstants(trailer, uiInternals);
+        populateExecuteAndTimings(trailer, ui);
+        response.putAll(trailer);
+        response.end();
+
+        uiInternals.incrementServerId();
+    }
+
+    /**
+     * Creates a JSON object containing all pending changes to the given UI.
+     *
+     * @param ui
+     *            The {@link UI} whose changes to write
+     * @param async
+     *            True if this message is sent by the server asynchronously,
+     *            false if it is a response to a client message.
+     * @return JSON object containing the UIDL response
+     */
+    public JsonObject createUidl(UI ui, boolean async) {
+        return createUidl(ui, async, false);
+    }
+
+    /**
+     * Creates the part of the response that doesn't depend on the state tree
+     * changes. Pending access tasks are run first, since they might produce
+     * additional changes to write out.
+     */
+    private JsonObject createResponseHeader(UI ui, boolean async,
+            boolean resync) {
         JsonObject response = Json.createObject();
 
         UIInternals uiInternals = ui.getInternals();
@@ -166,24 +272,20 @@ public class UidlWriter implements Serializable {
         if (meta.keys().length > 0) {
             response.put("meta", meta);
         }
+        return response;
+    }
 
-        JsonArray stateChanges = Json.createArray();
-
-        encodeChanges(ui, stateChanges);
-
-        populateDependencies(response, uiInternals.getDependencyList(),
-                new ResolveContext(service, session.getBrowser()));
-
+    private static void populateConstants(JsonObject response,
+            UIInternals uiInternals) {
         if (uiInternals.getConstantPool().hasNewConstants()) {
             response.put("constants",
                     uiInternals.getConstantPool().dumpConstants());
         }
-        if (stateChanges.length() != 0) {
-            response.put("changes", stateChanges);
-        }
+    }
 
-        List<PendingJavaScriptInvocation> executeJavaScriptList = uiInternals
-                .dumpPendingJavaScriptInvocations();
+    private void populateExecuteAndTimings(JsonObject response, UI ui) {
+        List<PendingJavaScriptInvocation> executeJavaScriptList = ui
+                .getInternals().dumpPendingJavaScriptInvocations();
         if (!executeJavaScriptList.isEmpty()) {
             response.put(JsonConstants.UIDL_KEY_EXECUTE,
                     encodeExecuteJavaScriptList(executeJavaScriptList));
@@ -192,22 +294,6 @@ public class UidlWriter implements Serializable {
                 .isRequestTiming()) {
             response.put("timings", createPerformanceData(ui));
         }
-        uiInternals.incrementServerId();
-        return response;
-    }
-
-    /**
-     * Creates a JSON object containing all pending changes to the given UI.
-     *
-     * @param ui
-     *            The {@link UI} whose changes to write
-     * @param async
-     *            True if this message is sent by the server asynchronously,
-     *            false if it is a response to a client message.
-     * @return JSON object containing the UIDL response
-     */
-    public JsonObject createUidl(UI ui, boolean async) {
-        return createUidl(ui, async, false);
     }
 
     private static void populateDependencies(JsonObject response,
@@ -379,10 +465,10 @@ public class UidlWriter implements Serializable {
      * @param ui
      *            the UI
      * @param stateChanges
-     *            a JSON array to put state changes into
+     *            a consumer accepting the encoded state changes in order
      * @see StateTree#runExecutionsBeforeClientResponse()
      */
-    private void encodeChanges(UI ui, JsonArray stateChanges) {
+    private void encodeChanges(UI ui, Consumer<JsonValue> stateChanges) {
         UIInternals uiInternals = ui.getInternals();
         StateTree stateTree = uiInternals.getStateTree();
 
@@ -397,8 +483,7 @@ public class UidlWriter implements Serializable {
             }
 
             // Encode the actual change
-            stateChanges.set(stateChanges.length(),
-                    change.toJson(uiInternals.getConstantPool()));
+            stateChanges.accept(change.toJson(uiInternals.getConstantPool()));
         });
 
         componentsWithDependencies
@@ -431,6 +516,60 @@ public class UidlWriter implements Serializable {
         return timings;
     }
 
+    /**
+     * Writes the members of a JSON object one by one to a writer. Members with
+     * an array value can be written one array item at a time.
+     */
+    private static class JsonObjectWriter implements Serializable {
+        private final transient Writer writer;
+        private boolean hasMembers;
+        private String openArray;
+
+        private JsonObjectWriter(Writer writer) {
+            this.writer = writer;
+        }
+
+        private void putAll(JsonObject object) throws IOException {
+            for (String key : object.keys()) {
+                writeKey(key);
+                writer.write(object.get(key).toJson());
+            }
+        }
+
+        private void addToArray(String key, JsonValue value)
+                throws IOException {
+            if (openArray == null) {
+                writeKey(key);
+                writer.write('[');
+                openArray = key;
+            } else {
+                assert openArray.equals(key);
+                writer.write(',');
+            }
+            writer.write(value.toJson());
+        }
+
+        private void endArray() throws IOException {
+            if (openArray != null) {
+                writer.write(']');
+                openArray = null;
+            }
+        }
+
+        private void end() throws IOException {
+            assert openArray == null;
+            writer.write(hasMembers ? "}" : "{}");
+        }
+
+        private void writeKey(String key) throws IOException {
+            assert openArray == null;
+            writer.write(hasMembers ? ',' : '{');
+            hasMembers = true;
+            writer.write(JsonUtil.quote(key));
+            writer.write(':');
+        }
+    }
+
     private static final Logger getLogger() {
         return LoggerFactory.getLogger(UidlWriter.class.getName());
     }
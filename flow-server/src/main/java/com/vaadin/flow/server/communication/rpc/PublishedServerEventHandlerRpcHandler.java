@@ -16,12 +16,17 @@
 package com.vaadin.flow.server.communication.rpc;
 
 import java.io.Serializable;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Array;
-import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -36,6 +41,7 @@ import com.vaadin.flow.component.template.internal.DeprecatedPolymerPublishedEve
 import com.vaadin.flow.di.Lookup;
 import com.vaadin.flow.dom.DisabledUpdateMode;
 import com.vaadin.flow.internal.ReflectTools;
+import com.vaadin.flow.internal.ReflectionCache;
 import com.vaadin.flow.internal.StateNode;
 import com.vaadin.flow.internal.nodefeature.ClientCallableHandlers;
 import com.vaadin.flow.internal.nodefeature.ComponentMapping;
@@ -62,6 +68,9 @@ public class PublishedServerEventHandlerRpcHandler
 
     private static final Collection<RpcDecoder> DECODERS = loadDecoders();
 
+    private static final ReflectionCache<Component, Map<String, RpcMethod>> METHODS = new ReflectionCache<>(
+            PublishedServerEventHandlerRpcHandler::collectMethods);
+
     @Override
     public String getRpcType() {
         return JsonConstants.RPC_PUBLISHED_SERVER_EVENT_HANDLER;
@@ -130,9 +139,15 @@ public class PublishedServerEventHandlerRpcHandler
     static void invokeMethod(Component instance, Class<?> clazz,
             String methodName, JsonArray args, int promiseId) {
         assert instance != null;
-        Optional<Method> method = findMethod(instance, clazz, methodName);
-        if (method.isPresent()) {
-            invokeMethod(instance, method.get(), args, promiseId);
+        RpcMethod method = METHODS.get(clazz.asSubclass(Component.class))
+                .get(methodName);
+        if (method == RpcMethod.AMBIGUOUS) {
+            String msg = String.format("Class '%s' contains "
+                    + "several event handler method with the same name '%s'",
+                    instance.getClass().getName(), methodName);
+            throw new IllegalStateException(msg);
+        } else if (method != null) {
+            invokeMethod(instance, method, args, promiseId);
         } else if (instance instanceof Composite) {
             Component compositeContent = ((Composite<?>) instance).getContent();
             invokeMethod(compositeContent, compositeContent.getClass(),
@@ -145,24 +160,25 @@ public class PublishedServerEventHandlerRpcHandler
         }
     }
 
-    private static Optional<Method> findMethod(Component instance,
-            Class<?> clazz, String methodName) {
-        List<Method> methods = Stream.of(clazz.getDeclaredMethods())
-                .filter(method -> methodName.equals(method.getName()))
-                .filter(method -> hasMethodAnnotation(method))
-                .collect(Collectors.toList());
-        if (methods.size() > 1) {
-            String msg = String.format("Class '%s' contains "
-                    + "several event handler method with the same name '%s'",
-                    instance.getClass().getName(), methodName);
-            throw new IllegalStateException(msg);
-        } else if (methods.size() == 1) {
-            return Optional.of(methods.get(0));
-        } else if (!Component.class.equals(clazz)) {
-            return findMethod(instance, clazz.getSuperclass(), methodName);
-        } else {
-            return Optional.empty();
+    private static Map<String, RpcMethod> collectMethods(Class<?> type) {
+        // Methods in subclasses take precedence over methods with the same
+        // name in super classes
+        Map<String, RpcMethod> methods = new HashMap<>();
+        for (Class<?> clazz = type; clazz != null; clazz = clazz
+                .getSuperclass()) {
+            Map<String, List<Method>> declared = Stream
+                    .of(clazz.getDeclaredMethods())
+                    .filter(method -> hasMethodAnnotation(method))
+                    .collect(Collectors.groupingBy(Method::getName));
+            declared.forEach((name, candidates) -> methods.computeIfAbsent(
+                    name,
+                    key -> candidates.size() > 1 ? RpcMethod.AMBIGUOUS
+                            : new RpcMethod(candidates.get(0))));
+            if (Component.class.equals(clazz)) {
+                break;
+            }
         }
+        return methods;
     }
 
     private static boolean hasMethodAnnotation(Method method) {
@@ -173,7 +189,7 @@ public class PublishedServerEventHandlerRpcHandler
                 || method.isAnnotationPresent(ClientCallable.class);
     }
 
-    private static void invokeMethod(Component instance, Method method,
+    private static void invokeMethod(Component instance, RpcMethod method,
             JsonArray args, int promiseId) {
         if (promiseId == -1) {
             invokeMethod(instance, method, args);
@@ -198,24 +214,24 @@ public class PublishedServerEventHandlerRpcHandler
         }
     }
 
-    private static Object invokeMethod(Component instance, Method method,
+    private static Object invokeMethod(Component instance, RpcMethod method,
             JsonArray args) {
+        Object[] decodedArgs = decodeArgs(instance, method, args);
         try {
-            method.setAccessible(true);
-            return method.invoke(instance, decodeArgs(instance, method, args));
-        } catch (IllegalAccessException e) {
-            throw new RuntimeException(e);
-        } catch (InvocationTargetException e) {
+            return (Object) method.handle.invokeExact((Object) instance,
+                    decodedArgs);
+        } catch (Throwable e) {
             LoggerFactory.getLogger(
                     PublishedServerEventHandlerRpcHandler.class.getName())
                     .debug(null, e);
-            throw new RuntimeException(e.getCause());
+            throw new RuntimeException(e);
         }
     }
 
-    private static Object[] decodeArgs(Component instance, Method method,
-            JsonArray argsFromClient) {
-        int methodArgs = method.getParameterCount();
+    private static Object[] decodeArgs(Component instance,
+            RpcMethod rpcMethod, JsonArray argsFromClient) {
+        Method method = rpcMethod.method;
+        int methodArgs = rpcMethod.parameterTypes.length;
         int clientValuesCount = argsFromClient.length();
         JsonArray argValues;
         if (method.isVarArgs()) {
@@ -244,13 +260,14 @@ public class PublishedServerEventHandlerRpcHandler
                 throw new IllegalArgumentException(msg);
             }
         }
-        List<Object> decoded = new ArrayList<>(method.getParameterCount());
-        Class<?>[] methodParameterTypes = method.getParameterTypes();
+        Object[] decoded = new Object[methodArgs];
+        Class<?>[] methodParameterTypes = rpcMethod.parameterTypes;
         for (int i = 0; i < argValues.length(); i++) {
             Class<?> type = methodParameterTypes[i];
-            decoded.add(decodeArg(instance, method, type, i, argValues.get(i)));
+            decoded[i] = decodeArg(instance, method, type, i,
+                    argValues.get(i));
         }
-        return decoded.toArray(new Object[method.getParameterCount()]);
+        return decoded;
     }
 
     private static JsonArray unwrapVarArgs(JsonArray argsFromClient,
@@ -360,6 +377,53 @@ public class PublishedServerEventHandlerRpcHandler
         return result;
     }
 
+    /**
+     * A published method of a component class, resolved once per class.
+     */
+    private static final class RpcMethod {
+
+        /*
+         * Marks a name which is used by several published methods in the same
+         * class.
+         */
+        private static final RpcMethod AMBIGUOUS = new RpcMethod();
+
+        private final Method method;
+        private final Class<?>[] parameterTypes;
+
+        /*
+         * Takes the instance and the arguments as an array, and returns the
+         * return value or null for void methods.
+         */
+        private final MethodHandle handle;
+
+        private RpcMethod() {
+            method = null;
+            parameterTypes = null;
+            handle = null;
+        }
+
+        private RpcMethod(Method method) {
+            this.method = method;
+            parameterTypes = method.getParameterTypes();
+            try {
+                method.setAccessible(true);
+                MethodHandle methodHandle = MethodHandles.lookup()
+                        .unreflect(method).asFixedArity();
+                if (Modifier.isStatic(method.getModifiers())) {
+                    methodHandle = MethodHandles.dropArguments(methodHandle, 0,
+                            Object.class);
+                }
+                handle = methodHandle
+                        .asType(MethodType
+                                .genericMethodType(parameterTypes.length + 1))
+                        .asSpreader(Object[].class, parameterTypes.length);
+            } catch (IllegalAccessException e) {
+                throw new RuntimeException(e);
+            }
+        }
+    }
+
     private static Collection<RpcDecoder> loadDecoders() {
         List<RpcDecoder> decoders = new ArrayList<>();
         decoders.add(new StringToNumberDecoder());
@@ -166,6 +166,13 @@ public class FrontendUtils {
      */
     public static final String IMPORTS_D_TS_NAME = "generated-flow-imports.d.ts";
 
+    /**
+     * Name of the file that caches the classes referenced by the scanned
+     * classes between frontend dependency scans. It is stored in the
+     * {@link FrontendUtils#DEFAULT_GENERATED_DIR} folder.
+     */
+    public static final String CLASS_REFERENCE_CACHE_NAME = "flow-class-references.json";
+
     /**
      * File name of the index.html in client side.
      */
@@ -28,6 +28,7 @@ import com.vaadin.flow.di.Lookup;
 import com.vaadin.flow.server.ExecutionFailedException;
 import com.vaadin.flow.server.frontend.installer.NodeInstaller;
 import com.vaadin.flow.server.frontend.scanner.ClassFinder;
+import com.vaadin.flow.server.frontend.scanner.ClassReferenceCache;
 import com.vaadin.flow.server.frontend.scanner.FrontendDependenciesScanner;
 
 import elemental.json.JsonObject;
@@ -81,6 +82,8 @@ public class NodeTasks implements FallibleCommand {
 
         private boolean useByteCodeScanner = false;
 
+        private File classReferenceCacheFile;
+
         private JsonObject tokenFileData;
 
         private File tokenFile;
@@ -419,6 +422,21 @@ public class NodeTasks implements FallibleCommand {
             return this;
         }
 
+        /**
+         * Sets the file used for caching the classes referenced by the scanned
+         * classes between runs. Only used by the byte code scanner, which then
+         * fully visits only the classes changed since the previous run. No
+         * file is used by default.
+         *
+         * @param classReferenceCacheFile
+         *            the cache file, or {@code null} to not persist the cache
+         * @return the builder, for chaining
+         */
+        public Builder withClassReferenceCache(File classReferenceCacheFile) {
+            this.classReferenceCacheFile = classReferenceCacheFile;
+            return this;
+        }
+
         /**
          * Fill token file data into the provided {@code object}.
          *
@@ -507,9 +525,13 @@ public class NodeTasks implements FallibleCommand {
         FrontendDependenciesScanner frontendDependencies = null;
 
         if (builder.enablePackagesUpdate || builder.enableImportsUpdate) {
+            ClassReferenceCache referenceCache = builder.classReferenceCacheFile == null
+                    ? new ClassReferenceCache()
+                    : new ClassReferenceCache(builder.classReferenceCacheFile);
             frontendDependencies = new FrontendDependenciesScanner.FrontendDependenciesScannerFactory()
                     .createScanner(!builder.useByteCodeScanner, classFinder,
-                            builder.generateEmbeddableWebComponents);
+                            builder.generateEmbeddableWebComponents,
+                            referenceCache);
 
             if (builder.generateEmbeddableWebComponents) {
                 FrontendWebComponentGenerator generator = new FrontendWebComponentGenerator(
@@ -0,0 +1,209 @@
+/*
+ * Copyright 2000-2020 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.server.frontend.scanner;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import net.bytebuddy.jar.asm.ClassReader;
+import org.apache.commons.io.FileUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.vaadin.flow.internal.MessageDigestUtil;
+
+import elemental.json.Json;
+import elemental.json.JsonArray;
+import elemental.json.JsonException;
+import elemental.json.JsonObject;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Cache of the classes referenced by the byte code of the classes visited by
+ * {@link FrontendDependencies}.
+ * <p>
+ * The references of a class are stored together with a hash of its byte code,
+ * so that only the classes changed since the previous scan need to be fully
+ * visited. When created with a file, the cache is loaded from the file and
+ * {@link #store()} writes the references resolved during the scan back to it.
+ * <p>
+ * The cache is thread safe.
+ *
+ * @author Vaadin Ltd
+ * @since 6.0
+ */
+public class ClassReferenceCache {
+
+    private static final String HASH = "hash";
+    private static final String REFERENCES = "references";
+
+    private static final class Entry {
+        private final String hash;
+        private final Set<String> references;
+
+        private Entry(String hash, Set<String> references) {
+            this.hash = hash;
+            this.references = references;
+        }
+    }
+
+    private final File file;
+
+    // Entries read from the file, validated by the hash when used
+    private final Map<String, Entry> stored = new ConcurrentHashMap<>();
+
+    // Entries resolved during the current scan
+    private final Map<String, Entry> resolved = new ConcurrentHashMap<>();
+
+    private volatile boolean modified;
+
+    /**
+     * Creates an in-memory cache, which is not persisted.
+     */
+    public ClassReferenceCache() {
+        file = null;
+    }
+
+    /**
+     * Creates a cache persisted in the given file. The file is read if it
+     * exists, a missing or unreadable file results in an empty cache.
+     *
+     * @param file
+     *            the file to read the cache from and store it to, not
+     *            {@code null}
+     */
+    public ClassReferenceCache(File file) {
+        this.file = Objects.requireNonNull(file);
+        load();
+    }
+
+    /**
+     * Gets the references of the given class resolved during the current
+     * scan.
+     *
+     * @param className
+     *            the class name
+     * @return the names of the referenced classes, or {@code null} if the
+     *         class has not been resolved
+     */
+    Set<String> getReferences(String className) {
+        Entry entry = resolved.get(className);
+        return entry == null ? null : entry.references;
+    }
+
+    /**
+     * Resolves the references of the given class. The byte code is visited
+     * only if the class is not in the cache or its byte code has changed.
+     *
+     * @param className
+     *            the class name
+     * @param byteCode
+     *            the byte code of the class
+     * @return the names of the referenced classes
+     */
+    Set<String> resolveReferences(String className, byte[] byteCode) {
+        String hash = Base64.getEncoder()
+                .encodeToString(MessageDigestUtil.sha256(byteCode));
+        Entry entry = stored.get(className);
+        if (entry == null || !entry.hash.equals(hash)) {
+            entry = new Entry(hash, visitReferences(className, byteCode));
+            modified = true;
+        }
+        resolved.put(className, entry);
+        return entry.references;
+    }
+
+    /**
+     * Writes the references resolved during the current scan to the file of
+     * this cache. Classes which were not resolved, e.g. because they have been
+     * removed, are dropped from the file. Does nothing for an in-memory cache
+     * or if nothing has changed since the cache was read.
+     */
+    public void store() {
+        if (file == null
+                || (!modified && resolved.size() == stored.size())) {
+            return;
+        }
+        JsonObject json = Json.createObject();
+        resolved.forEach((className, entry) -> {
+            JsonObject jsonEntry = Json.createObject();
+            jsonEntry.put(HASH, entry.hash);
+            JsonArray references = Json.createArray();
+            for (String reference : entry.references) {
+                references.set(references.length(), reference);
+            }
+            jsonEntry.put(REFERENCES, references);
+            json.put(className, jsonEntry);
+        });
+        try {
+            FileUtils.writeStringToFile(file, json.toJson(), UTF_8);
+        } catch (IOException e) {
+            log().warn("Unable to store the class reference cache to '{}'",
+                    file, e);
+        }
+    }
+
+    private void load() {
+        if (!file.isFile()) {
+            return;
+        }
+        try {
+            JsonObject json = Json
+                    .parse(FileUtils.readFileToString(file, UTF_8));
+            for (String className : json.keys()) {
+                JsonObject jsonEntry = json.getObject(className);
+                if (!jsonEntry.hasKey(HASH) || !jsonEntry.hasKey(REFERENCES)) {
+                    continue;
+                }
+                JsonArray jsonReferences = jsonEntry.getArray(REFERENCES);
+                Set<String> references = new HashSet<>();
+                for (int i = 0; i < jsonReferences.length(); i++) {
+                    references.add(jsonReferences.getString(i));
+                }
+                stored.put(className,
+                        new Entry(jsonEntry.getString(HASH),
+                                Collections.unmodifiableSet(references)));
+            }
+        } catch (IOException | JsonException | ClassCastException e) {
+            log().debug(
+                    "Ignoring unreadable class reference cache file '{}'",
+                    file, e);
+            stored.clear();
+        }
+    }
+
+    private static Set<String> visitReferences(String className,
+            byte[] byteCode) {
+        // Use an end-point which never matches the visited class, so that only
+        // the references which do not depend on the end-point are collected
+        FrontendClassVisitor visitor = new FrontendClassVisitor(className,
+                new EndPointData(""), false);
+        new ClassReader(byteCode).accept(visitor, ClassReader.EXPAND_FRAMES);
+        return Collections.unmodifiableSet(visitor.getChildren());
+    }
+
+    private static Logger log() {
+        return LoggerFactory.getLogger(ClassReferenceCache.class);
+    }
+}
@@ -44,7 +44,11 @@ public final class EndPointData implements Serializable {
     private final HashSet<String> classes = new HashSet<>();
 
     EndPointData(Class<?> clazz) {
-        this.name = clazz.getName();
+        this(clazz.getName());
+    }
+
+    EndPointData(String name) {
+        this.name = name;
     }
 
     // For debugging
@@ -17,6 +17,7 @@ package com.vaadin.flow.server.frontend.scanner;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Modifier;
 import java.net.URL;
@@ -29,9 +30,13 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 import java.util.stream.Collectors;
 
 import net.bytebuddy.jar.asm.ClassReader;
+import org.apache.commons.io.IOUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -64,6 +69,9 @@ public class FrontendDependencies extends AbstractDependenciesScanner {
     private AbstractTheme themeInstance;
     private final HashMap<String, String> packages = new HashMap<>();
     private final Set<String> visited = new HashSet<>();
+    private final transient ClassReferenceCache referenceCache;
+    private final transient Set<String> resolving = ConcurrentHashMap
+            .newKeySet();
 
     /**
      * Default Constructor.
@@ -89,7 +97,30 @@ public class FrontendDependencies extends AbstractDependenciesScanner {
      */
     public FrontendDependencies(ClassFinder finder,
             boolean generateEmbeddableWebComponents) {
+        this(finder, generateEmbeddableWebComponents,
+                new ClassReferenceCache());
+    }
+
+    /**
+     * Creates a scanner which uses the given cache for the classes referenced
+     * by the visited classes. Only the classes that are not in the cache or
+     * have changed since they were cached are fully visited, in parallel. The
+     * cache is stored when the scan has completed.
+     *
+     * @param finder
+     *            the class finder
+     * @param generateEmbeddableWebComponents
+     *            {@code true} checks the
+     *            {@link com.vaadin.flow.component.WebComponentExporter} classes
+     *            for dependencies
+     * @param referenceCache
+     *            the class reference cache to use, not {@code null}
+     */
+    public FrontendDependencies(ClassFinder finder,
+            boolean generateEmbeddableWebComponents,
+            ClassReferenceCache referenceCache) {
         super(finder);
+        this.referenceCache = referenceCache;
         log().info(
                 "Scanning classes to find frontend configurations and dependencies...");
         long start = System.nanoTime();
@@ -101,12 +132,16 @@ public class FrontendDependencies extends AbstractDependenciesScanner {
             }
             computeApplicationTheme();
             computePackages();
+            referenceCache.store();
             long ms = (System.nanoTime() - start) / 1000000;
             log().info("Visited {} classes. Took {} ms.", visited.size(), ms);
         } catch (ClassNotFoundException | InstantiationException
                 | IllegalAccessException | IOException e) {
             throw new IllegalStateException(
                     "Unable to compute frontend dependencies", e);
+        } catch (UncheckedIOException e) {
+            throw new IllegalStateException(
+                    "Unable to compute frontend dependencies", e.getCause());
         }
     }
 
@@ -485,17 +520,25 @@ public class FrontendDependencies extends AbstractDependenciesScanner {
             return endPoint;
         }
 
+        Set<String> references = getReferences(className);
+
+        // The references found in the method bodies come from the cache, so
+        // only the class structure and annotations need to be visited here
         FrontendClassVisitor visitor = new FrontendClassVisitor(className,
                 endPoint, themeScope);
         try (InputStream is = url.openStream()) {
             ClassReader cr = new ClassReader(is);
-            cr.accept(visitor, ClassReader.EXPAND_FRAMES);
+            cr.accept(visitor, ClassReader.SKIP_CODE);
         }
 
         // all classes visited by the scanner, used for performance (#5933)
         visited.add(className);
 
-        for (String clazz : visitor.getChildren()) {
+        Set<String> children = new HashSet<>(visitor.getChildren());
+        if (references != null) {
+            children.addAll(references);
+        }
+        for (String clazz : children) {
             // Since we only have an entry point for the app, it is all right to
             // skip the visit to the the same class in other end-points, because
             // we output all dependencies at once. When we implement
@@ -508,6 +551,60 @@ public class FrontendDependencies extends AbstractDependenciesScanner {
         return endPoint;
     }
 
+    /**
+     * Gets the classes referenced by the given class. If the class has not
+     * been resolved yet, the references of all classes reachable from it are
+     * resolved in parallel.
+     *
+     * @param className
+     *            the class name
+     * @return the referenced classes or {@code null} if the class was not
+     *         found
+     */
+    private Set<String> getReferences(String className) {
+        Set<String> references = referenceCache.getReferences(className);
+        if (references == null && resolving.add(className)) {
+            ForkJoinPool.commonPool()
+                    .invoke(new ResolveReferencesTask(className));
+            references = referenceCache.getReferences(className);
+        }
+        return references;
+    }
+
+    /**
+     * Resolves the references of a class and recursively forks tasks for the
+     * referenced classes not resolved yet.
+     */
+    private final class ResolveReferencesTask extends RecursiveAction {
+        private final String className;
+
+        private ResolveReferencesTask(String className) {
+            this.className = className;
+        }
+
+        @Override
+        protected void compute() {
+            URL url = getUrl(className);
+            if (url == null) {
+                return;
+            }
+            byte[] byteCode;
+            try (InputStream is = url.openStream()) {
+                byteCode = IOUtils.toByteArray(is);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            List<ResolveReferencesTask> tasks = new ArrayList<>();
+            for (String reference : referenceCache
+                    .resolveReferences(className, byteCode)) {
+                if (isVisitable(reference) && resolving.add(reference)) {
+                    tasks.add(new ResolveReferencesTask(reference));
+                }
+            }
+            invokeAll(tasks);
+        }
+    }
+
     private boolean isVisitable(String className) {
         // We should visit only those classes that might have NpmPackage,
         // JsImport, JavaScript and HtmlImport annotations, basically
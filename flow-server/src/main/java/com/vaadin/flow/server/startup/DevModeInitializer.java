@@ -372,6 +372,8 @@ public class DevModeInitializer
         JsonObject tokenFileData = Json.createObject();
         NodeTasks tasks = builder.enablePackagesUpdate(true)
                 .useByteCodeScanner(useByteCodeScanner)
+                .withClassReferenceCache(new File(builder.generatedFolder,
+                        FrontendUtils.CLASS_REFERENCE_CACHE_NAME))
                 .withFlowResourcesFolder(flowResourcesFolder)
                 .copyResources(frontendLocations)
                 .copyLocalResources(new File(baseDir,
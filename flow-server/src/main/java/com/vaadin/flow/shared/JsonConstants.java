@@ -33,6 +33,12 @@ public class JsonConstants implements Serializable {
      */
     public static final String JSON_CONTENT_TYPE = "application/json; charset=UTF-8";
 
+    /**
+     * The content type for requests/responses encoded with the compact binary
+     * JSON encoding.
+     */
+    public static final String BINARY_CONTENT_TYPE = "application/x-vaadin-binary";
+
     /**
      * Key holding id of the node affected by a change.
      */
@@ -21,8 +21,12 @@ import org.junit.Assert;
 import org.junit.Test;
 
 import com.vaadin.flow.component.ComponentTest.TestComponent;
+import com.vaadin.flow.dom.Element;
 import com.vaadin.flow.internal.ReflectionCache;
 
+import elemental.json.Json;
+import elemental.json.JsonObject;
+
 public class ComponentEventBusUtilTest {
 
     @DomEvent("dom-event")
@@ -34,6 +38,16 @@ public class ComponentEventBusUtilTest {
 
     }
 
+    @DomEvent("dom-event")
+    public static class TestComponentEvent
+            extends ComponentEvent<TestComponent> {
+
+        public TestComponentEvent(TestComponent source, boolean fromClient) {
+            super(source, fromClient);
+        }
+
+    }
+
     @DomEvent("dom-event")
     public static class NestedClass extends ComponentEvent<Component> {
 
@@ -104,4 +118,40 @@ public class ComponentEventBusUtilTest {
                     exception.getMessage());
         }
     }
+
+    @Test
+    public void createEventForDomEvent_eventDataDecoded() {
+        TestComponent component = new TestComponent();
+        JsonObject eventData = Json.createObject();
+        eventData.put("event.someData", 42);
+        eventData.put("event.moreData", "foo");
+        eventData.put("event.primitiveBoolean", true);
+        eventData.put("event.objectBoolean", Json.createNull());
+
+        for (int i = 0; i < 2; i++) {
+            MappedToDomEvent event = ComponentEventBusUtil
+                    .createEventForDomEvent(MappedToDomEvent.class,
+                            new com.vaadin.flow.dom.DomEvent(
+                                    component.getElement(), "dom-event",
+                                    eventData),
+                            component);
+
+            Assert.assertSame(component, event.getSource());
+            Assert.assertTrue(event.isFromClient());
+            Assert.assertEquals(42, event.getSomeData());
+            Assert.assertEquals("foo", event.getMoreData());
+            Assert.assertTrue(event.getPrimitiveBoolean());
+            Assert.assertNull(event.getObjectBoolean());
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void createEventForDomEvent_incompatibleSource_throws() {
+        Component source = new Component(new Element("div")) {
+        };
+        ComponentEventBusUtil.createEventForDomEvent(TestComponentEvent.class,
+                new com.vaadin.flow.dom.DomEvent(source.getElement(),
+                        "dom-event", Json.createObject()),
+                source);
+    }
 }
@@ -0,0 +1,141 @@
+/*
+ * Copyright 2000-2020 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.internal;
+
+import java.util.Arrays;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import elemental.json.Json;
+import elemental.json.JsonArray;
+import elemental.json.JsonException;
+import elemental.json.JsonObject;
+import elemental.json.JsonType;
+import elemental.json.JsonValue;
+import elemental.json.impl.JsonUtil;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+public class BinaryJsonTest {
+
+    @Test
+    public void encodeDecode_allValueTypes_sameJson() {
+        JsonObject json = JsonUtil.parse("{\"null\":null,\"false\":false,"
+                + "\"true\":true,\"zero\":0,\"int\":42,\"negative\":-300,"
+                + "\"large\":9007199254740991,\"double\":1.5,"
+                + "\"string\":\"\\u00e4\\u20ac\",\"empty\":\"\","
+                + "\"array\":[1,\"a\",[],{}],\"object\":{\"a\":{\"b\":[]}}}");
+
+        JsonValue decoded = BinaryJson.decode(BinaryJson.encode(json));
+
+        Assert.assertEquals(json.toJson(), decoded.toJson());
+    }
+
+    @Test
+    public void encodeDecode_specialNumbers_preserved() {
+        double[] numbers = { -0.0, Double.MAX_VALUE, Double.MIN_VALUE,
+                Long.MIN_VALUE, 1L << 52, -(1L << 52) + 1, 0.1 };
+        JsonArray array = Json.createArray();
+        for (int i = 0; i < numbers.length; i++) {
+            array.set(i, numbers[i]);
+        }
+
+        JsonArray decoded = (JsonArray) BinaryJson
+                .decode(BinaryJson.encode(array));
+
+        for (int i = 0; i < numbers.length; i++) {
+            Assert.assertEquals(Double.doubleToLongBits(numbers[i]),
+                    Double.doubleToLongBits(decoded.getNumber(i)));
+        }
+    }
+
+    @Test
+    public void encode_repeatedStrings_writtenOnce() {
+        JsonArray array = Json.createArray();
+        for (int i = 0; i < 10; i++) {
+            JsonObject change = Json.createObject();
+            change.put("node", i);
+            change.put("key", "innerHTML");
+            array.set(i, change);
+        }
+
+        byte[] message = BinaryJson.encode(array);
+
+        String text = new String(message, UTF_8);
+        Assert.assertEquals(text.indexOf("innerHTML"),
+                text.lastIndexOf("innerHTML"));
+        Assert.assertTrue(message.length < array.toJson().length() / 2);
+        Assert.assertEquals(array.toJson(),
+                BinaryJson.decode(message).toJson());
+    }
+
+    @Test(expected = JsonException.class)
+    public void decode_truncatedMessage_throws() {
+        byte[] message = BinaryJson
+                .encode(JsonUtil.parse("{\"foo\":\"bar\"}"));
+
+        BinaryJson.decode(Arrays.copyOf(message, message.length - 1));
+    }
+
+    @Test(expected = JsonException.class)
+    public void decode_unknownVersion_throws() {
+        BinaryJson.decode(new byte[] { 2, BinaryJson.NULL });
+    }
+
+    @Test(expected = JsonException.class)
+    public void decode_negativeLength_throws() {
+        // A ten byte varint with the highest bit set decodes to a negative
+        // long
+        BinaryJson.decode(new byte[] { BinaryJson.VERSION, BinaryJson.ARRAY,
+                (byte) 0x80, (byte) 0x80, (byte) 0x80, (byte) 0x80,
+                (byte) 0x80, (byte) 0x80, (byte) 0x80, (byte) 0x80,
+                (byte) 0x80, 0x01 });
+    }
+
+    @Test(expected = JsonException.class)
+    public void decode_negativeStringReference_throws() {
+        BinaryJson.decode(new byte[] { BinaryJson.VERSION,
+                BinaryJson.STRING_REF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF,
+                (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF,
+                (byte) 0xFF, (byte) 0xFF, 0x01 });
+    }
+
+    @Test
+    public void decode_maxDepth_decoded() {
+        byte[] message = createNestedArrays(BinaryJson.MAX_DEPTH);
+
+        Assert.assertEquals(JsonType.ARRAY,
+                BinaryJson.decode(message).getType());
+    }
+
+    @Test(expected = JsonException.class)
+    public void decode_nestedTooDeep_throws() {
+        // Would overflow the stack without a limit
+        BinaryJson.decode(createNestedArrays(100000));
+    }
+
+    private static byte[] createNestedArrays(int depth) {
+        // Each level is an array with one element, the innermost one is empty
+        byte[] message = new byte[1 + depth * 2];
+        message[0] = BinaryJson.VERSION;
+        for (int i = 0; i < depth; i++) {
+            message[1 + i * 2] = BinaryJson.ARRAY;
+            message[2 + i * 2] = (byte) (i == depth - 1 ? 0 : 1);
+        }
+        return message;
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright 2000-2020 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.internal;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.apache.commons.lang3.SerializationUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class IntObjectMapTest {
+
+    private final IntObjectMap<String> map = new IntObjectMap<>();
+
+    @Test
+    public void putGetRemove() {
+        Assert.assertTrue(map.isEmpty());
+        Assert.assertNull(map.put(1, "one"));
+        Assert.assertNull(map.put(-1, "minus one"));
+        Assert.assertNull(map.put(0, "zero"));
+
+        Assert.assertEquals(3, map.size());
+        Assert.assertEquals("one", map.get(1));
+        Assert.assertEquals("minus one", map.get(-1));
+        Assert.assertEquals("zero", map.get(0));
+        Assert.assertNull(map.get(2));
+
+        Assert.assertEquals("one", map.put(1, "uno"));
+        Assert.assertEquals(3, map.size());
+        Assert.assertEquals("uno", map.get(1));
+
+        Assert.assertEquals("zero", map.remove(0));
+        Assert.assertNull(map.remove(0));
+        Assert.assertFalse(map.containsKey(0));
+        Assert.assertEquals("uno", map.remove(1));
+        Assert.assertNull(map.remove(1));
+        Assert.assertEquals(1, map.size());
+        Assert.assertTrue(map.containsKey(-1));
+
+        map.clear();
+        Assert.assertTrue(map.isEmpty());
+        Assert.assertNull(map.get(-1));
+    }
+
+    @Test
+    public void randomOperations_sameAsHashMap() {
+        Map<Integer, String> expected = new HashMap<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 100000; i++) {
+            int key = random.nextInt(2000) - 100;
+            if (random.nextInt(3) == 0) {
+                Assert.assertEquals(expected.remove(key), map.remove(key));
+            } else {
+                String value = String.valueOf(i);
+                Assert.assertEquals(expected.put(key, value),
+                        map.put(key, value));
+            }
+            Assert.assertEquals(expected.size(), map.size());
+        }
+        for (int key = -100; key < 1900; key++) {
+            Assert.assertEquals(expected.get(key), map.get(key));
+        }
+    }
+
+    @Test
+    public void manyRemoved_capacityShrinks() {
+        for (int i = 1; i <= 10000; i++) {
+            map.put(i, "value");
+        }
+        int capacity = map.capacity();
+        for (int i = 1; i <= 9990; i++) {
+            map.remove(i);
+        }
+        Assert.assertTrue(map.capacity() < capacity / 100);
+        for (int i = 9991; i <= 10000; i++) {
+            Assert.assertEquals("value", map.get(i));
+        }
+    }
+
+    @Test
+    public void serializable() {
+        map.put(5, "five");
+        map.put(0, "zero");
+
+        IntObjectMap<String> copy = SerializationUtils.roundtrip(map);
+
+        Assert.assertEquals(2, copy.size());
+        Assert.assertEquals("five", copy.get(5));
+        Assert.assertEquals("zero", copy.get(0));
+    }
+}
@@ -49,6 +49,7 @@ import com.vaadin.flow.internal.nodefeature.ElementClassList;
 import com.vaadin.flow.internal.nodefeature.ElementData;
 import com.vaadin.flow.internal.nodefeature.ElementPropertyMap;
 import com.vaadin.flow.internal.nodefeature.NodeFeature;
+import com.vaadin.flow.server.Command;
 import com.vaadin.flow.shared.Registration;
 
 public class StateNodeTest {
@@ -365,6 +366,47 @@ public class StateNodeTest {
                 triggered.get());
     }
 
+    @Test
+    public void attachListener_listenerRemovedWhileFiring_allListenersTriggered() {
+        StateNode root = new TestStateTree().getRootNode();
+        TestStateNode child = new TestStateNode();
+
+        List<String> triggered = new ArrayList<>();
+        Registration[] registrations = new Registration[2];
+        registrations[0] = child.addAttachListener(() -> {
+            triggered.add("first");
+            registrations[1].remove();
+        });
+        registrations[1] = child
+                .addAttachListener(() -> triggered.add("second"));
+        child.addAttachListener(() -> triggered.add("third"));
+
+        setParent(child, root);
+        Assert.assertEquals(Arrays.asList("first", "second", "third"),
+                triggered);
+
+        triggered.clear();
+        setParent(child, null);
+        setParent(child, root);
+        Assert.assertEquals(Arrays.asList("first", "third"), triggered);
+    }
+
+    @Test
+    public void sameListenerAddedTwice_removedOnce_triggeredOnce() {
+        StateNode root = new TestStateTree().getRootNode();
+        TestStateNode child = new TestStateNode();
+
+        AtomicInteger count = new AtomicInteger();
+        Command listener = count::incrementAndGet;
+        child.addDetachListener(listener);
+        child.addDetachListener(listener).remove();
+
+        setParent(child, root);
+        setParent(child, null);
+
+        Assert.assertEquals(1, count.get());
+    }
+
     @Test
     public void detachListener_removesNode_notUnregisteredTwice() {
         StateTree tree = createStateTree();
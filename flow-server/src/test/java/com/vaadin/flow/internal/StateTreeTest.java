@@ -231,6 +231,66 @@ public class StateTreeTest {
                 tree.collectDirtyNodes().toArray());
     }
 
+    @Test
+    public void markAsDirty_nodeMarkedTwice_collectedOnce() {
+        StateNode rootNode = tree.getRootNode();
+        StateNode node = StateNodeTest.createEmptyNode("node");
+        StateNodeTest.setParent(node, rootNode);
+        tree.collectChanges(change -> {
+        });
+
+        node.markAsDirty();
+        rootNode.markAsDirty();
+        node.markAsDirty();
+
+        Assert.assertArrayEquals(new Object[] { node, rootNode },
+                tree.collectDirtyNodes().toArray());
+
+        List<StateNode> collected = new ArrayList<>();
+        tree.collectChanges(change -> collected.add(change.getNode()));
+        Assert.assertFalse(tree.hasDirtyNodes());
+
+        node.markAsDirty();
+        Assert.assertArrayEquals(new Object[] { node },
+                tree.collectDirtyNodes().toArray());
+    }
+
+    @Test
+    public void removeFromTree_dirtyNode_markedDirtyInOtherTree() {
+        StateNode node = StateNodeTest.createEmptyNode("node");
+        StateNodeTest.setParent(node, tree.getRootNode());
+        Assert.assertTrue(tree.collectDirtyNodes().contains(node));
+
+        node.removeFromTree();
+
+        StateTree anotherTree = new StateTree(new UI().getInternals(),
+                ElementChildrenList.class);
+        StateNodeTest.setParent(node, anotherTree.getRootNode());
+
+        Assert.assertTrue(anotherTree.collectDirtyNodes().contains(node));
+    }
+
+    @Test
+    public void getNodeById_manyNodesAttachedAndDetached() {
+        StateNode rootNode = tree.getRootNode();
+        List<StateNode> nodes = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            StateNode node = StateNodeTest.createEmptyNode("node" + i);
+            StateNodeTest.setParent(node, rootNode);
+            nodes.add(node);
+        }
+        for (int i = 0; i < nodes.size(); i += 2) {
+            StateNodeTest.setParent(nodes.get(i), null);
+        }
+
+        for (int i = 0; i < nodes.size(); i++) {
+            StateNode node = nodes.get(i);
+            Assert.assertSame(i % 2 == 0 ? null : node,
+                    tree.getNodeById(node.getId()));
+        }
+        Assert.assertSame(rootNode, tree.getNodeById(rootNode.getId()));
+    }
+
     @Test
     public void testDetachInChanges() {
         StateNode node1 = tree.getRootNode();
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2000-2020 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.internal;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.vaadin.flow.internal.StaticResourceCache.CachedResource;
+
+public class StaticResourceCacheTest {
+
+    private final StaticResourceCache cache = new StaticResourceCache(400);
+
+    @Test
+    public void sizeLimitReached_leastRecentlyUsedEvicted() {
+        cache.put("/a", createResource(100));
+        cache.put("/b", createResource(100));
+        cache.put("/c", createResource(100));
+        // Makes /b the least recently used resource
+        Assert.assertNotNull(cache.get("/a"));
+
+        cache.put("/d", createResource(100));
+        cache.put("/e", createResource(100));
+
+        Assert.assertNull(cache.get("/b"));
+        Assert.assertNotNull(cache.get("/a"));
+        Assert.assertNotNull(cache.get("/c"));
+        Assert.assertNotNull(cache.get("/e"));
+        Assert.assertEquals(4, cache.getResourceCount());
+        Assert.assertEquals(400, cache.getSize());
+    }
+
+    @Test
+    public void resourceTooLarge_notCached() {
+        cache.put("/large", createResource(101));
+
+        Assert.assertNull(cache.get("/large"));
+        Assert.assertEquals(0, cache.getSize());
+    }
+
+    @Test
+    public void replacedResource_sizeUpdated() {
+        cache.put("/a", createResource(100));
+        cache.put("/a", createResource(50));
+
+        Assert.assertEquals(1, cache.getResourceCount());
+        Assert.assertEquals(50, cache.getSize());
+    }
+
+    @Test
+    public void createResource_compressibleData_gzipVariantAndStableETag() {
+        byte[] data = new byte[1000];
+        CachedResource resource = StaticResourceCache.createResource(data,
+                null, null, 1234567L);
+
+        Assert.assertNotNull(resource.getGzipData());
+        Assert.assertTrue(resource.getGzipData().length < data.length);
+        Assert.assertNull(resource.getBrotliData());
+        Assert.assertEquals(1234000L, resource.getLastModified());
+        Assert.assertEquals(resource.getETag(), StaticResourceCache
+                .createResource(new byte[1000], null, null, 0).getETag());
+        Assert.assertNotEquals(resource.getETag(), StaticResourceCache
+                .createResource(new byte[999], null, null, 0).getETag());
+    }
+
+    @Test
+    public void matches() {
+        String etag = "\"abc\"";
+        Assert.assertTrue(StaticResourceCache.matches("\"abc\"", etag));
+        Assert.assertTrue(StaticResourceCache.matches("W/\"abc\"", etag));
+        Assert.assertTrue(
+                StaticResourceCache.matches("\"x\", \"abc\"", etag));
+        Assert.assertTrue(StaticResourceCache.matches("*", etag));
+        Assert.assertFalse(StaticResourceCache.matches("\"abcd\"", etag));
+        Assert.assertFalse(StaticResourceCache.matches(null, etag));
+    }
+
+    private static CachedResource createResource(int size) {
+        byte[] data = new byte[size];
+        // Random-like content that does not compress
+        for (int i = 0; i < size; i++) {
+            data[i] = (byte) (i * 31 + (i >> 3) * 17 ^ (i * i));
+        }
+        return StaticResourceCache.createResource(data, null, null, -1);
+    }
+}
@@ -2,6 +2,7 @@ package com.vaadin.flow.router.internal;
 
 import java.util.Arrays;
 import java.util.EnumSet;
+import java.util.stream.IntStream;
 
 import com.vaadin.flow.router.RouteParameterFormatOption;
 import com.vaadin.flow.router.RouteParameterRegex;
@@ -64,6 +65,67 @@ public class ConfiguredRoutesTest {
                 immutable.getParentLayouts("", BaseTarget.class));
     }
 
+    @Test
+    public void immutableConfiguration_navigationTargetCached() {
+        ConfigureRoutes mutable = new ConfigureRoutes();
+        mutable.setRoute("foo/:foo", FooTarget.class);
+        ConfiguredRoutes immutable = new ConfiguredRoutes(mutable);
+
+        NavigationRouteTarget target = immutable
+                .getNavigationRouteTarget("foo/123");
+
+        Assert.assertSame(target,
+                immutable.getNavigationRouteTarget("foo/123"));
+        Assert.assertEquals(FooTarget.class,
+                target.getRouteTarget().getTarget());
+        Assert.assertEquals("123",
+                target.getRouteParameters().get("foo").get());
+        Assert.assertNotSame(target,
+                mutable.getNavigationRouteTarget("foo/123"));
+    }
+
+    @Test
+    public void immutableConfiguration_cacheSizeExceeded_targetsStillResolved() {
+        ConfigureRoutes mutable = new ConfigureRoutes();
+        mutable.setRoute("foo/:foo", FooTarget.class);
+        ConfiguredRoutes immutable = new ConfiguredRoutes(mutable);
+        NavigationRouteTarget first = immutable
+                .getNavigationRouteTarget("foo/0");
+
+        for (int i = 1; i <= ConfiguredRoutes.NAVIGATION_TARGET_CACHE_SIZE; i++) {
+            Assert.assertEquals(String.valueOf(i),
+                    immutable.getNavigationRouteTarget("foo/" + i)
+                            .getRouteParameters().get("foo").get());
+        }
+
+        NavigationRouteTarget resolvedAgain = immutable
+                .getNavigationRouteTarget("foo/0");
+        Assert.assertNotSame(first, resolvedAgain);
+        Assert.assertEquals("0",
+                resolvedAgain.getRouteParameters().get("foo").get());
+    }
+
+    @Test
+    public void immutableConfiguration_manyParameterizedUrlsConcurrently_cacheBounded() {
+        ConfigureRoutes mutable = new ConfigureRoutes();
+        mutable.setRoute("item/:id", FooTarget.class);
+        ConfiguredRoutes immutable = new ConfiguredRoutes(mutable);
+
+        IntStream.range(0, 10 * ConfiguredRoutes.NAVIGATION_TARGET_CACHE_SIZE)
+                .parallel().forEach(id -> {
+                    NavigationRouteTarget target = immutable
+                            .getNavigationRouteTarget("item/" + id);
+                    Assert.assertEquals(FooTarget.class,
+                            target.getRouteTarget().getTarget());
+                    Assert.assertEquals(String.valueOf(id),
+                            target.getRouteParameters().get("id").get());
+                });
+
+        Assert.assertTrue(immutable
+                .getCachedNavigationTargetCount() <= ConfiguredRoutes.NAVIGATION_TARGET_CACHE_SIZE
+                        + Runtime.getRuntime().availableProcessors());
+    }
+
     @Test
     public void configuration_provides_target_url() {
         ConfigureRoutes edit = new ConfigureRoutes();
@@ -2,11 +2,14 @@ package com.vaadin.flow.server;
 
 import javax.servlet.http.HttpServletRequest;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.net.URL;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.LinkedHashMap;
@@ -324,6 +327,46 @@ public class BootstrapHandlerTest {
         }
     }
 
+    private static class CountingResourceProvider implements ResourceProvider {
+        private final ResourceProvider delegate;
+        private final List<String> readPaths = new ArrayList<>();
+
+        private CountingResourceProvider(ResourceProvider delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public URL getApplicationResource(String path) {
+            readPaths.add(path);
+            return delegate.getApplicationResource(path);
+        }
+
+        @Override
+        public List<URL> getApplicationResources(String path)
+                throws IOException {
+            readPaths.add(path);
+            return delegate.getApplicationResources(path);
+        }
+
+        @Override
+        public URL getClientResource(String path) {
+            readPaths.add(path);
+            return delegate.getClientResource(path);
+        }
+
+        @Override
+        public InputStream getClientResourceAsStream(String path)
+                throws IOException {
+            readPaths.add(path);
+            return delegate.getClientResourceAsStream(path);
+        }
+
+        private long getReadCount(String fileName) {
+            return readPaths.stream().filter(path -> path.endsWith(fileName))
+                    .count();
+        }
+    }
+
     private TestUI testUI;
     private BootstrapContext context;
     private VaadinRequest request;
@@ -1246,6 +1289,52 @@ public class BootstrapHandlerTest {
         bootstrapPage_productionModeTest(false);
     }
 
+    @Test
+    public void precompiledBootstrap_samePageAsWithoutPrecompiling()
+            throws IOException {
+        mocks.setProductionMode(true);
+        CountingResourceProvider resourceProvider = useCountingResourceProvider();
+        BootstrapHandler bootstrapHandler = new BootstrapHandler();
+        String expectedPage = writeBootstrapPage(bootstrapHandler);
+        Assert.assertThat(expectedPage,
+                CoreMatchers.containsString("//<![CDATA[\n"));
+
+        deploymentConfiguration.setApplicationOrSystemProperty(
+                InitParameters.SERVLET_PARAMETER_PRECOMPILED_BOOTSTRAP,
+                "true");
+        resourceProvider.readPaths.clear();
+        String firstPage = writeBootstrapPage(bootstrapHandler);
+        String secondPage = writeBootstrapPage(bootstrapHandler);
+
+        Assert.assertEquals(expectedPage, firstPage);
+        Assert.assertEquals(expectedPage, secondPage);
+        Assert.assertEquals("Chunk names should only be read once", 1,
+                resourceProvider.getReadCount("stats.json"));
+        Assert.assertEquals("Client engine should only be read once", 1,
+                resourceProvider.getReadCount("compile.properties"));
+    }
+
+    private CountingResourceProvider useCountingResourceProvider() {
+        Lookup lookup = service.getContext().getAttribute(Lookup.class);
+        CountingResourceProvider resourceProvider = new CountingResourceProvider(
+                lookup.lookup(ResourceProvider.class));
+        Mockito.when(lookup.lookup(ResourceProvider.class))
+                .thenReturn(resourceProvider);
+        return resourceProvider;
+    }
+
+    private String writeBootstrapPage(BootstrapHandler bootstrapHandler)
+            throws IOException {
+        VaadinResponse response = Mockito.mock(VaadinResponse.class);
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        Mockito.when(response.getOutputStream()).thenReturn(stream);
+
+        bootstrapHandler.synchronizedHandleRequest(session,
+                createVaadinRequest(), response);
+
+        return stream.toString(StandardCharsets.UTF_8.name());
+    }
+
     @Route("")
     @Tag(Tag.DIV)
     @Meta(name = "apple-mobile-web-app-capable", content = "yes")
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2000-2020 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.server;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class SessionLockMetricsTest {
+
+    private final SessionLockMetrics metrics = new SessionLockMetrics();
+
+    @Test
+    public void uncontendedLock_countedWithoutWait() {
+        ReentrantLock lock = new ReentrantLock();
+
+        metrics.lock(lock);
+        metrics.lock(lock);
+
+        Assert.assertEquals(2, lock.getHoldCount());
+        Assert.assertEquals(2, metrics.getAcquisitionCount());
+        Assert.assertEquals(0, metrics.getContendedAcquisitionCount());
+        Assert.assertEquals(0, metrics.getTotalWaitTime(TimeUnit.NANOSECONDS));
+    }
+
+    @Test
+    public void contendedLock_waitTimeRecorded() throws InterruptedException {
+        ReentrantLock lock = new ReentrantLock();
+        CountDownLatch locked = new CountDownLatch(1);
+        Thread holder = new Thread(() -> {
+            lock.lock();
+            try {
+                locked.countDown();
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                lock.unlock();
+            }
+        });
+        holder.start();
+        locked.await();
+
+        metrics.lock(lock);
+        lock.unlock();
+        holder.join();
+
+        Assert.assertEquals(1, metrics.getAcquisitionCount());
+        Assert.assertEquals(1, metrics.getContendedAcquisitionCount());
+        long maxWait = metrics.getMaxWaitTime(TimeUnit.MILLISECONDS);
+        Assert.assertTrue("Unexpected wait time " + maxWait, maxWait >= 50);
+        Assert.assertEquals(maxWait,
+                metrics.getTotalWaitTime(TimeUnit.MILLISECONDS));
+
+        metrics.reset();
+        Assert.assertEquals(0, metrics.getAcquisitionCount());
+        Assert.assertEquals(0, metrics.getMaxWaitTime(TimeUnit.NANOSECONDS));
+    }
+
+    @Test
+    public void sessionLock_recordedInServiceMetrics() {
+        MockVaadinServletService service = new MockVaadinServletService();
+        VaadinSession session = new MockVaadinSession(service);
+
+        session.lock();
+        try {
+            Assert.assertEquals(1, service.getSessionLockMetrics()
+                    .getAcquisitionCount());
+        } finally {
+            session.unlock();
+        }
+    }
+}
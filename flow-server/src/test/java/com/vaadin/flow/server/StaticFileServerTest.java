@@ -37,7 +37,9 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPInputStream;
 
+import org.apache.commons.io.IOUtils;
 import org.junit.After;
 import org.junit.Assert;
 import org.junit.Before;
@@ -789,4 +791,139 @@ public class StaticFileServerTest implements Serializable {
         Assert.assertEquals(HttpServletResponse.SC_NOT_FOUND,
                 responseCode.get());
     }
+
+    @Test
+    public void cachedResource_servedFromMemory() throws IOException {
+        enableResourceCache();
+        byte[] fileData = "function() {eval('foo');};"
+                .getBytes(StandardCharsets.UTF_8);
+        Mockito.when(servletService.getStaticResource("/some/file.js"))
+                .thenReturn(createFileURLWithDataAndLength("/some/file.js",
+                        fileData));
+        setupRequestURI("", "/some", "/file.js");
+
+        for (int i = 0; i < 2; i++) {
+            CapturingServletOutputStream out = new CapturingServletOutputStream();
+            Mockito.when(response.getOutputStream()).thenReturn(out);
+
+            Assert.assertTrue(
+                    fileServer.serveStaticResource(request, response));
+            Assert.assertArrayEquals(fileData, out.getOutput());
+            Assert.assertEquals(fileData.length, responseContentLength.get());
+        }
+        Mockito.verify(servletService, Mockito.times(1))
+                .getStaticResource("/some/file.js");
+        Assert.assertNotNull(headers.get("ETag"));
+    }
+
+    @Test
+    public void cachedResource_gzipAccepted_compressedVariantServed()
+            throws IOException {
+        enableResourceCache();
+        byte[] fileData = createCompressibleData();
+        Mockito.when(servletService.getStaticResource("/some/file.js"))
+                .thenReturn(createFileURLWithDataAndLength("/some/file.js",
+                        fileData));
+        setupRequestURI("", "/some", "/file.js");
+        Mockito.when(request.getHeader("Accept-Encoding"))
+                .thenReturn("gzip, deflate");
+        CapturingServletOutputStream out = new CapturingServletOutputStream();
+        Mockito.when(response.getOutputStream()).thenReturn(out);
+
+        Assert.assertTrue(fileServer.serveStaticResource(request, response));
+
+        Assert.assertEquals("gzip", headers.get("Content-Encoding"));
+        Assert.assertEquals("Accept-Encoding", headers.get("Vary"));
+        Assert.assertTrue(headers.get("ETag").endsWith("-gzip\""));
+        Assert.assertTrue(out.getOutput().length < fileData.length);
+        Assert.assertArrayEquals(fileData, IOUtils.toByteArray(
+                new GZIPInputStream(new ByteArrayInputStream(out.getOutput()))));
+    }
+
+    @Test
+    public void cachedResource_precompressedBrotliServed() throws IOException {
+        enableResourceCache();
+        Mockito.when(configuration.isBrotli()).thenReturn(true);
+        fileServer = new OverrideableStaticFileServer(servletService);
+
+        byte[] fileData = createCompressibleData();
+        byte[] brotliData = "fake brotli".getBytes(StandardCharsets.UTF_8);
+        Mockito.when(servletService.getStaticResource("/some/file.js"))
+                .thenReturn(createFileURLWithDataAndLength("/some/file.js",
+                        fileData));
+        Mockito.when(servletService.getStaticResource("/some/file.js.br"))
+                .thenReturn(createFileURLWithDataAndLength(
+                        "/some/file.js.br", brotliData));
+        setupRequestURI("", "/some", "/file.js");
+        Mockito.when(request.getHeader("Accept-Encoding"))
+                .thenReturn("gzip, br");
+        CapturingServletOutputStream out = new CapturingServletOutputStream();
+        Mockito.when(response.getOutputStream()).thenReturn(out);
+
+        Assert.assertTrue(fileServer.serveStaticResource(request, response));
+
+        Assert.assertEquals("br", headers.get("Content-Encoding"));
+        Assert.assertArrayEquals(brotliData, out.getOutput());
+    }
+
+    @Test
+    public void cachedResource_ifNoneMatchMatches_notModified()
+            throws IOException {
+        enableResourceCache();
+        byte[] fileData = "function() {eval('foo');};"
+                .getBytes(StandardCharsets.UTF_8);
+        Mockito.when(servletService.getStaticResource("/some/file.js"))
+                .thenReturn(createFileURLWithDataAndLength("/some/file.js",
+                        fileData));
+        setupRequestURI("", "/some", "/file.js");
+        Mockito.when(response.getOutputStream())
+                .thenReturn(new CapturingServletOutputStream());
+        fileServer.serveStaticResource(request, response);
+        String etag = headers.get("ETag");
+
+        Mockito.when(request.getHeader("If-None-Match"))
+                .thenReturn("\"other\", " + etag);
+        CapturingServletOutputStream out = new CapturingServletOutputStream();
+        Mockito.when(response.getOutputStream()).thenReturn(out);
+
+        Assert.assertTrue(fileServer.serveStaticResource(request, response));
+        Assert.assertEquals(HttpServletResponse.SC_NOT_MODIFIED,
+                responseCode.get());
+        Assert.assertEquals(0, out.getOutput().length);
+        Assert.assertEquals("max-age=3600", headers.get("Cache-Control"));
+    }
+
+    @Test
+    public void cachedResource_rangeRequest_servedFromResource()
+            throws IOException {
+        enableResourceCache();
+        byte[] fileData = "function() {eval('foo');};"
+                .getBytes(StandardCharsets.UTF_8);
+        Mockito.when(servletService.getStaticResource("/some/file.js"))
+                .thenReturn(createFileURLWithDataAndLength("/some/file.js",
+                        fileData));
+        setupRequestURI("", "/some", "/file.js");
+        Mockito.when(request.getHeader("Range")).thenReturn("bytes=0-7");
+        CapturingServletOutputStream out = new CapturingServletOutputStream();
+        Mockito.when(response.getOutputStream()).thenReturn(out);
+
+        Assert.assertTrue(fileServer.serveStaticResource(request, response));
+        Assert.assertEquals(206, responseCode.get());
+        Assert.assertEquals("function", new String(out.getOutput(),
+                StandardCharsets.UTF_8));
+    }
+
+    private void enableResourceCache() {
+        Mockito.when(configuration.getStaticResourceCacheSize())
+                .thenReturn(1024L * 1024);
+        fileServer = new OverrideableStaticFileServer(servletService);
+    }
+
+    private static byte[] createCompressibleData() {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < 100; i++) {
+            builder.append("function() {eval('foo');};\n");
+        }
+        return builder.toString().getBytes(StandardCharsets.UTF_8);
+    }
 }
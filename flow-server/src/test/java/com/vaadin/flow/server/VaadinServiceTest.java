@@ -24,6 +24,7 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.Executor;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -379,6 +380,87 @@ public class VaadinServiceTest {
         service.loadInstantiators();
     }
 
+    @Test
+    public void asyncAccessQueue_tasksRunByExecutorInOneBatch() {
+        List<Runnable> submitted = new ArrayList<>();
+        VaadinService service = createAsyncAccessQueueService(submitted, 0);
+        VaadinSession session = new MockVaadinSession(service);
+        List<Integer> executed = new ArrayList<>();
+
+        session.access(() -> executed.add(1));
+        session.access(() -> executed.add(2));
+
+        Assert.assertTrue("Tasks should not be run by the enqueuing thread",
+                executed.isEmpty());
+        Assert.assertEquals("Only one queue run should be scheduled", 1,
+                submitted.size());
+
+        submitted.remove(0).run();
+
+        Assert.assertEquals(Arrays.asList(1, 2), executed);
+        Assert.assertTrue(submitted.isEmpty());
+
+        session.access(() -> executed.add(3));
+        Assert.assertEquals(1, submitted.size());
+    }
+
+    @Test
+    public void asyncAccessQueue_maxBatchSize_remainingTasksRunInNewBatch() {
+        List<Runnable> submitted = new ArrayList<>();
+        VaadinService service = createAsyncAccessQueueService(submitted, 2);
+        VaadinSession session = new MockVaadinSession(service);
+        List<Integer> executed = new ArrayList<>();
+
+        for (int i = 0; i < 5; i++) {
+            int task = i;
+            session.access(() -> executed.add(task));
+        }
+
+        int batches = 0;
+        while (!submitted.isEmpty()) {
+            submitted.remove(0).run();
+            batches++;
+        }
+
+        Assert.assertEquals(Arrays.asList(0, 1, 2, 3, 4), executed);
+        Assert.assertEquals(3, batches);
+    }
+
+    @Test
+    public void asyncAccessQueue_accessWhileHoldingLock_runOnUnlock() {
+        List<Runnable> submitted = new ArrayList<>();
+        VaadinService service = createAsyncAccessQueueService(submitted, 0);
+        VaadinSession session = new MockVaadinSession(service);
+        AtomicBoolean executed = new AtomicBoolean();
+
+        session.lock();
+        try {
+            session.access(() -> executed.set(true));
+            Assert.assertFalse(executed.get());
+        } finally {
+            session.unlock();
+        }
+
+        Assert.assertTrue(executed.get());
+        Assert.assertTrue(submitted.isEmpty());
+    }
+
+    private static VaadinService createAsyncAccessQueueService(
+            List<Runnable> submitted, int maxBatchSize) {
+        MockDeploymentConfiguration configuration = new MockDeploymentConfiguration();
+        configuration.setApplicationOrSystemProperty(
+                InitParameters.SERVLET_PARAMETER_ASYNC_ACCESS_QUEUE, "true");
+        configuration.setApplicationOrSystemProperty(
+                InitParameters.SERVLET_PARAMETER_ACCESS_QUEUE_MAX_BATCH_SIZE,
+                String.valueOf(maxBatchSize));
+        return new MockVaadinServletService(configuration) {
+            @Override
+            protected Executor createAccessQueueExecutor() {
+                return submitted::add;
+            }
+        };
+    }
+
     private InstantiatorFactory createInstantiatorFactory(Lookup lookup) {
         InstantiatorFactory factory = Mockito.mock(InstantiatorFactory.class);
 
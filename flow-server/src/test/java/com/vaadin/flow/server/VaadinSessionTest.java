@@ -46,6 +46,7 @@ import org.junit.experimental.categories.Category;
 import org.mockito.Mockito;
 
 import com.vaadin.flow.component.UI;
+import com.vaadin.flow.dom.Element;
 import com.vaadin.flow.internal.CurrentInstance;
 import com.vaadin.flow.server.communication.AtmospherePushConnection;
 import com.vaadin.flow.shared.communication.PushMode;
@@ -357,6 +358,206 @@ public class VaadinSessionTest {
         Assert.assertEquals(expectedlocale, uis.next().getLocale());
     }
 
+    @Test
+    public void passivateUI_getUIById_activatesCopyOfUI() {
+        session.lock();
+        try {
+            ui.getElement().appendChild(Element.createText("Hello"));
+            int uiId = ui.getUIId();
+
+            Assert.assertTrue(session.passivateUI(ui));
+            Assert.assertTrue(session.getUIs().isEmpty());
+            Assert.assertEquals(1, session.getPassivatedUIs().size());
+
+            UI activated = session.getUIById(uiId);
+
+            Assert.assertNotSame(ui, activated);
+            Assert.assertEquals(uiId, activated.getUIId());
+            Assert.assertSame(session, activated.getSession());
+            Assert.assertEquals("Hello", activated.getElement().getText());
+            Assert.assertTrue(session.getPassivatedUIs().isEmpty());
+            Assert.assertEquals(1, session.getUIs().size());
+            Assert.assertSame(activated, session.getUIById(uiId));
+        } finally {
+            session.unlock();
+        }
+    }
+
+    @Test
+    public void passivatedUI_heartbeat_notActivated() {
+        session.lock();
+        try {
+            session.passivateUI(ui);
+
+            Assert.assertTrue(
+                    session.updatePassivatedUIHeartbeat(ui.getUIId(), 1234));
+            Assert.assertFalse(
+                    session.updatePassivatedUIHeartbeat(ui.getUIId() + 1, 1));
+
+            Assert.assertEquals(1, session.getPassivatedUIs().size());
+            Assert.assertEquals(1234, session.getPassivatedUIs().iterator()
+                    .next().getLastHeartbeatTimestamp());
+            Assert.assertEquals(1234, session.getUIById(ui.getUIId())
+                    .getInternals().getLastHeartbeatTimestamp());
+        } finally {
+            session.unlock();
+        }
+    }
+
+    @Test
+    public void cleanupSession_idleUI_passivated() {
+        ((MockDeploymentConfiguration) mockService.getDeploymentConfiguration())
+                .setApplicationOrSystemProperty(
+                        InitParameters.SERVLET_PARAMETER_UI_PASSIVATION_TIMEOUT,
+                        "10");
+        expectSessionId();
+        session.lock();
+        try {
+            // Changes not yet sent to the client prevent passivation
+            ui.getInternals().setLastUidlRequestTimestamp(0);
+            mockService.cleanupSession(session);
+            Assert.assertEquals(1, session.getUIs().size());
+
+            ui.getInternals().getStateTree().collectChanges(change -> {
+            });
+            ui.getInternals().setLastUidlRequestTimestamp(
+                    System.currentTimeMillis());
+            mockService.cleanupSession(session);
+            Assert.assertEquals(1, session.getUIs().size());
+
+            ui.getInternals().setLastUidlRequestTimestamp(
+                    System.currentTimeMillis() - 11000);
+            mockService.cleanupSession(session);
+
+            Assert.assertTrue(session.getUIs().isEmpty());
+            Assert.assertEquals(1, session.getPassivatedUIs().size());
+        } finally {
+            session.unlock();
+        }
+    }
+
+    @Test
+    public void cleanupSession_passivationDisabled_idleUINotPassivated() {
+        expectSessionId();
+        session.lock();
+        try {
+            ui.getInternals().setLastUidlRequestTimestamp(0);
+            mockService.cleanupSession(session);
+
+            Assert.assertEquals(1, session.getUIs().size());
+            Assert.assertTrue(session.getPassivatedUIs().isEmpty());
+        } finally {
+            session.unlock();
+        }
+    }
+
+    @Test
+    public void cleanupSession_pushEnabled_idleUINotPassivated() {
+        ((MockDeploymentConfiguration) mockService.getDeploymentConfiguration())
+                .setApplicationOrSystemProperty(
+                        InitParameters.SERVLET_PARAMETER_UI_PASSIVATION_TIMEOUT,
+                        "0");
+        expectSessionId();
+        session.lock();
+        try {
+            ui.getPushConfiguration().setPushMode(PushMode.AUTOMATIC);
+            ui.getInternals().getStateTree().collectChanges(change -> {
+            });
+            mockService.cleanupSession(session);
+
+            Assert.assertEquals(1, session.getUIs().size());
+            Assert.assertTrue(session.getPassivatedUIs().isEmpty());
+        } finally {
+            session.unlock();
+        }
+    }
+
+    @Test
+    public void cleanupSession_streamResourceAttached_idleUINotPassivated() {
+        ((MockDeploymentConfiguration) mockService.getDeploymentConfiguration())
+                .setApplicationOrSystemProperty(
+                        InitParameters.SERVLET_PARAMETER_UI_PASSIVATION_TIMEOUT,
+                        "0");
+        expectSessionId();
+        session.lock();
+        try {
+            StreamResource resource = new StreamResource("file.txt",
+                    () -> new ByteArrayInputStream(new byte[0]));
+            Element link = new Element("a");
+            link.setAttribute("href", resource);
+            ui.getElement().appendChild(link);
+            ui.getInternals().getStateTree().collectChanges(change -> {
+            });
+            mockService.cleanupSession(session);
+
+            Assert.assertEquals(1, session.getUIs().size());
+            Assert.assertTrue(session.getPassivatedUIs().isEmpty());
+
+            // The resource is unregistered when the element is detached
+            ui.getElement().removeChild(link);
+            ui.getInternals().getStateTree().collectChanges(change -> {
+            });
+            mockService.cleanupSession(session);
+
+            Assert.assertTrue(session.getUIs().isEmpty());
+            Assert.assertEquals(1, session.getPassivatedUIs().size());
+        } finally {
+            session.unlock();
+        }
+    }
+
+    @Test
+    public void cleanupSession_sessionRequestHandler_idleUINotPassivated() {
+        ((MockDeploymentConfiguration) mockService.getDeploymentConfiguration())
+                .setApplicationOrSystemProperty(
+                        InitParameters.SERVLET_PARAMETER_UI_PASSIVATION_TIMEOUT,
+                        "0");
+        expectSessionId();
+        session.lock();
+        try {
+            session.addRequestHandler(
+                    (requestSession, request, response) -> false);
+            ui.getInternals().getStateTree().collectChanges(change -> {
+            });
+            mockService.cleanupSession(session);
+
+            Assert.assertEquals(1, session.getUIs().size());
+            Assert.assertTrue(session.getPassivatedUIs().isEmpty());
+        } finally {
+            session.unlock();
+        }
+    }
+
+    @Test
+    public void fireSessionDestroy_passivatedUI_detachListenerCalled() {
+        session.lock();
+        try {
+            // The listener is run for the activated copy of the UI
+            ui.addDetachListener(event -> event.getUI().getSession()
+                    .setAttribute("detached", Boolean.TRUE));
+            session.passivateUI(ui);
+        } finally {
+            session.unlock();
+        }
+
+        mockService.fireSessionDestroy(session);
+        mockService.runPendingAccessTasks(session);
+
+        session.lock();
+        try {
+            Assert.assertEquals(Boolean.TRUE, session.getAttribute("detached"));
+            Assert.assertTrue(session.getUIs().isEmpty());
+            Assert.assertTrue(session.getPassivatedUIs().isEmpty());
+        } finally {
+            session.unlock();
+        }
+    }
+
+    private void expectSessionId() {
+        EasyMock.expect(mockHttpSession.getId()).andReturn("id").anyTimes();
+        EasyMock.replay(mockHttpSession);
+    }
+
     @Test
     public void csrfToken_different_sessions_shouldBeUnique() {
         String token1 = new VaadinSession(mockService).getCsrfToken();
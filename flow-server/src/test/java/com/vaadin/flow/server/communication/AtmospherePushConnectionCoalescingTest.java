@@ -0,0 +1,170 @@
+/*
+ * Copyright 2000-2020 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.server.communication;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.atmosphere.cpr.AtmosphereResource;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.dom.Element;
+import com.vaadin.flow.server.Command;
+import com.vaadin.flow.server.MockVaadinServletService;
+import com.vaadin.flow.server.MockVaadinSession;
+import com.vaadin.flow.server.VaadinSession;
+import com.vaadin.flow.shared.communication.PushMode;
+
+public class AtmospherePushConnectionCoalescingTest {
+
+    private final List<Command> scheduled = new ArrayList<>();
+    private final List<String> messages = new ArrayList<>();
+
+    private MockVaadinServletService service;
+    private VaadinSession session;
+    private UI ui;
+    private AtmospherePushConnection connection;
+
+    @Before
+    public void setUp() {
+        service = new MockVaadinServletService() {
+            @Override
+            public ScheduledFuture<?> scheduleAccess(UI ui, Command command,
+                    long delay, TimeUnit unit) {
+                scheduled.add(command);
+                return null;
+            }
+        };
+        session = new MockVaadinSession(service);
+        session.lock();
+
+        ui = new UI();
+        ui.getInternals().setSession(session);
+        ui.getPushConfiguration().setPushMode(PushMode.AUTOMATIC);
+        // Flush the initial changes of the UI
+        ui.getInternals().getStateTree().collectChanges(change -> {
+        });
+
+        connection = new AtmospherePushConnection(ui) {
+            @Override
+            protected void sendMessage(String message) {
+                messages.add(message);
+            }
+        };
+        connection.connect(Mockito.mock(AtmosphereResource.class));
+    }
+
+    @After
+    public void tearDown() {
+        session.unlock();
+    }
+
+    @Test
+    public void noCoalescingWindow_eachPushSent() {
+        for (int i = 0; i < 3; i++) {
+            ui.getElement().setProperty("value", i);
+            connection.push();
+        }
+
+        Assert.assertEquals(3, messages.size());
+        Assert.assertTrue(scheduled.isEmpty());
+        Assert.assertEquals(3,
+                service.getPushCoalescingMetrics().getSentMessageCount());
+    }
+
+    @Test
+    public void coalescingWindow_pushesMergedIntoOneMessage() {
+        ui.getPushConfiguration().setCoalescingWindow(100);
+
+        for (int i = 0; i < 3; i++) {
+            ui.getElement().setProperty("value", i);
+            connection.push();
+        }
+
+        Assert.assertTrue(messages.isEmpty());
+        Assert.assertEquals(1, scheduled.size());
+
+        scheduled.get(0).execute();
+
+        Assert.assertEquals(1, messages.size());
+        Assert.assertTrue(messages.get(0).contains("\"value\""));
+        Assert.assertFalse(ui.getInternals().isDirty());
+
+        PushCoalescingMetrics metrics = service.getPushCoalescingMetrics();
+        Assert.assertEquals(1, metrics.getSentMessageCount());
+        Assert.assertEquals(1, metrics.getScheduledFlushCount());
+        Assert.assertEquals(2, metrics.getCoalescedPushCount());
+
+        // A new window is started by the next push
+        ui.getElement().setProperty("value", 3);
+        connection.push();
+        Assert.assertEquals(2, scheduled.size());
+    }
+
+    @Test
+    public void coalescingWindow_maxChangesReached_pushedRightAway() {
+        ui.getPushConfiguration().setCoalescingWindow(100);
+        ui.getPushConfiguration().setCoalescingMaxChanges(2);
+
+        ui.getElement().setProperty("value", 1);
+        connection.push();
+        Assert.assertTrue(messages.isEmpty());
+
+        ui.getElement().appendChild(new Element("div"));
+        connection.push();
+        Assert.assertEquals(1, messages.size());
+
+        // Nothing left to send when the window ends
+        scheduled.get(0).execute();
+        Assert.assertEquals(1, messages.size());
+    }
+
+    @Test
+    public void coalescingWindow_responseNotDelayed() {
+        ui.getPushConfiguration().setCoalescingWindow(100);
+
+        ui.getElement().setProperty("value", 1);
+        connection.push(false);
+
+        Assert.assertEquals(1, messages.size());
+        Assert.assertTrue(scheduled.isEmpty());
+    }
+
+    @Test
+    public void coalescingWindow_manualPushNotDelayed() {
+        ui.getPushConfiguration().setCoalescingWindow(100);
+        ui.getPushConfiguration().setPushMode(PushMode.MANUAL);
+
+        ui.getElement().setProperty("value", 1);
+        // What UI.push() does in manual mode
+        connection.push();
+
+        Assert.assertEquals(1, messages.size());
+        Assert.assertTrue(scheduled.isEmpty());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void negativeCoalescingWindow_throws() {
+        ui.getPushConfiguration().setCoalescingWindow(-1);
+    }
+}
@@ -3,6 +3,7 @@ package com.vaadin.flow.server.communication;
 import java.io.IOException;
 import java.io.Reader;
 import java.io.StringReader;
+import java.util.Arrays;
 
 import org.junit.Assert;
 import org.junit.Before;
@@ -101,6 +102,31 @@ public class ServerRpcHandlerTest {
             };
         };
 
+        ui = new UI();
+        ui.getInternals().setSession(session);
+        ui.getInternals().setLastProcessedClientToServerId(1,
+                handler.getMessageHasher().hash(msg));
+
+        // This invocation shouldn't throw. No other checks
+        handler.handleRpc(ui, Mockito.mock(Reader.class), request);
+    }
+
+    @Test
+    public void handleRpc_duplicateMessage_customHasher_doNotThrow()
+            throws InvalidUIDLSecurityKeyException, IOException {
+        String msg = "{\"" + ApplicationConstants.CLIENT_TO_SERVER_ID + "\":1}";
+        ServerRpcHandler handler = new ServerRpcHandler() {
+            @Override
+            protected String getMessage(Reader reader) throws IOException {
+                return msg;
+            };
+
+            @Override
+            protected MessageHasher getMessageHasher() {
+                return MessageHasher.sha256();
+            }
+        };
+
         ui = new UI();
         ui.getInternals().setSession(session);
         ui.getInternals().setLastProcessedClientToServerId(1,
@@ -110,6 +136,40 @@ public class ServerRpcHandlerTest {
         handler.handleRpc(ui, Mockito.mock(Reader.class), request);
     }
 
+    @Test(expected = UnsupportedOperationException.class)
+    public void handleRpc_sameIdDifferentMessage_throw()
+            throws InvalidUIDLSecurityKeyException, IOException {
+        ServerRpcHandler handler = new ServerRpcHandler() {
+            @Override
+            protected String getMessage(Reader reader) throws IOException {
+                return "{\"" + ApplicationConstants.CLIENT_TO_SERVER_ID
+                        + "\":1}";
+            };
+        };
+
+        ui = new UI();
+        ui.getInternals().setSession(session);
+        String previousMessage = "{\"" + ApplicationConstants.CLIENT_TO_SERVER_ID
+                + "\":1,\"" + ApplicationConstants.RPC_INVOCATIONS + "\":[]}";
+        ui.getInternals().setLastProcessedClientToServerId(1,
+                handler.getMessageHasher().hash(previousMessage));
+
+        handler.handleRpc(ui, Mockito.mock(Reader.class), request);
+    }
+
+    @Test
+    public void fastMessageHasher_sameMessage_sameHash() {
+        MessageHasher hasher = MessageHasher.fast();
+        String message = "{\"clientId\":1,\"rpc\":[]}";
+
+        Assert.assertArrayEquals(hasher.hash(message),
+                hasher.hash(new String(message)));
+        Assert.assertFalse(Arrays.equals(hasher.hash(message),
+                hasher.hash("{\"clientId\":1,\"rpc\":[{}]}")));
+        Assert.assertFalse(Arrays.equals(hasher.hash(""),
+                hasher.hash("\u0000")));
+    }
+
     @Test(expected = UnsupportedOperationException.class)
     public void handleRpc_unexpectedMessage_throw()
             throws InvalidUIDLSecurityKeyException, IOException {
@@ -8,9 +8,13 @@ import javax.servlet.http.HttpServletResponse;
 import javax.servlet.http.Part;
 
 import java.io.ByteArrayOutputStream;
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
@@ -19,8 +23,11 @@ import java.util.Optional;
 
 import org.junit.Assert;
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
@@ -29,7 +36,10 @@ import com.vaadin.flow.component.UI;
 import com.vaadin.flow.component.internal.UIInternals;
 import com.vaadin.flow.internal.StateNode;
 import com.vaadin.flow.internal.StateTree;
+import com.vaadin.flow.server.ChannelStreamVariable;
+import com.vaadin.flow.server.Command;
 import com.vaadin.flow.server.ErrorHandler;
+import com.vaadin.flow.server.InitParameters;
 import com.vaadin.flow.server.MockVaadinServletService;
 import com.vaadin.flow.server.StreamReceiver;
 import com.vaadin.flow.server.StreamResourceRegistry;
@@ -40,7 +50,9 @@ import com.vaadin.flow.server.VaadinServletRequest;
 import com.vaadin.flow.server.VaadinServletService;
 import com.vaadin.flow.server.VaadinSession;
 import com.vaadin.flow.shared.ApplicationConstants;
+import com.vaadin.tests.util.MockDeploymentConfiguration;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyZeroInteractions;
@@ -48,6 +60,9 @@ import static org.mockito.Mockito.when;
 
 public class StreamReceiverHandlerTest {
 
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
     private StreamReceiverHandler handler;
     @Mock
     private VaadinResponse response;
@@ -73,6 +88,7 @@ public class StreamReceiverHandlerTest {
     private StreamResourceRegistry registry;
 
     private VaadinServletService mockService;
+    private MockDeploymentConfiguration configuration;
 
     private final int uiId = 123;
     private final int nodeId = 1233;
@@ -96,7 +112,9 @@ public class StreamReceiverHandlerTest {
 
         handler = new StreamReceiverHandler();
 
-        mockService = new MockVaadinServletService();
+        configuration = new MockDeploymentConfiguration();
+        mockService = new MockVaadinServletService(configuration);
+        when(session.getConfiguration()).thenReturn(configuration);
 
         mockRequest();
         mockReceiverAndRegistry();
@@ -391,4 +409,52 @@ public class StreamReceiverHandlerTest {
                 ApplicationConstants.CONTENT_TYPE_TEXT_HTML_UTF_8);
         Mockito.verify(response, Mockito.times(0)).setStatus(Mockito.anyInt());
     }
+
+    @Test
+    public void doHandleXhrFilePost_channelStreamVariable_dataWrittenToChannel()
+            throws IOException {
+        File file = temporaryFolder.newFile();
+        ChannelStreamVariable channelVariable = mock(
+                ChannelStreamVariable.class);
+        when(channelVariable.getChannel()).thenReturn(FileChannel.open(
+                file.toPath(), StandardOpenOption.WRITE));
+        when(streamReceiver.getStreamVariable()).thenReturn(channelVariable);
+
+        handler.doHandleXhrFilePost(session, request, response, streamReceiver,
+                stateNode, 6);
+
+        Mockito.verify(channelVariable, Mockito.never()).getOutputStream();
+        ArgumentCaptor<StreamVariable.StreamingEndEvent> endEventArgumentCaptor = ArgumentCaptor
+                .forClass(StreamVariable.StreamingEndEvent.class);
+        verify(channelVariable)
+                .streamingFinished(endEventArgumentCaptor.capture());
+        Assert.assertEquals(6,
+                endEventArgumentCaptor.getValue().getBytesReceived());
+        Assert.assertEquals("foobar",
+                new String(Files.readAllBytes(file.toPath()), UTF_8));
+        Mockito.verify(response, Mockito.times(0)).setStatus(Mockito.anyInt());
+    }
+
+    @Test
+    public void doHandleXhrFilePost_asyncProgress_progressDeliveredBeforeFinished()
+            throws IOException {
+        configuration.setApplicationOrSystemProperty(
+                InitParameters.SERVLET_PARAMETER_UPLOAD_ASYNC_PROGRESS, "true");
+        when(streamVariable.listenProgress()).thenReturn(true);
+
+        handler.doHandleXhrFilePost(session, request, response, streamReceiver,
+                stateNode, 6);
+
+        // Progress events are coalesced into a single queued delivery, which
+        // is flushed before the upload is finished
+        verify(session).access(Mockito.any(Command.class));
+        ArgumentCaptor<StreamVariable.StreamingProgressEvent> progressEventArgumentCaptor = ArgumentCaptor
+                .forClass(StreamVariable.StreamingProgressEvent.class);
+        InOrder inOrder = Mockito.inOrder(streamVariable);
+        inOrder.verify(streamVariable)
+                .onProgress(progressEventArgumentCaptor.capture());
+        inOrder.verify(streamVariable).streamingFinished(Mockito.any());
+        Assert.assertEquals(6,
+                progressEventArgumentCaptor.getValue().getBytesReceived());
+    }
 }
@@ -17,15 +17,24 @@ package com.vaadin.flow.server.communication;
 
 import javax.servlet.ServletContext;
 import javax.servlet.ServletException;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
 import javax.servlet.http.HttpServletResponse;
 
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
 import java.io.IOException;
 
+import org.apache.commons.io.FileUtils;
+import org.junit.Assert;
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.mockito.Mockito;
 
+import com.vaadin.flow.server.FileStreamResource;
 import com.vaadin.flow.server.InputStreamFactory;
 import com.vaadin.flow.server.MockVaadinServletService;
 import com.vaadin.flow.server.MockVaadinSession;
@@ -37,12 +46,18 @@ import com.vaadin.flow.server.VaadinServletRequest;
 import com.vaadin.flow.server.VaadinServletResponse;
 import com.vaadin.tests.util.AlwaysLockedVaadinSession;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
+
 public class StreamResourceHandlerTest {
 
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
     private StreamResourceHandler handler = new StreamResourceHandler();
     private MockVaadinSession session;
     private VaadinServletRequest request;
     private VaadinServletResponse response;
+    private ByteArrayOutputStream responseContent;
 
     @Before
     public void setUp() throws ServletException, ServiceException {
@@ -53,6 +68,23 @@ public class StreamResourceHandlerTest {
         ServletContext context = Mockito.mock(ServletContext.class);
         Mockito.when(request.getServletContext()).thenReturn(context);
         response = Mockito.mock(VaadinServletResponse.class);
+        responseContent = new ByteArrayOutputStream();
+        Mockito.when(response.getOutputStream())
+                .thenReturn(new ServletOutputStream() {
+                    @Override
+                    public boolean isReady() {
+                        return true;
+                    }
+
+                    @Override
+                    public void setWriteListener(WriteListener writeListener) {
+                    }
+
+                    @Override
+                    public void write(int b) {
+                        responseContent.write(b);
+                    }
+                });
     }
 
     @Test
@@ -106,4 +138,84 @@ public class StreamResourceHandlerTest {
         Mockito.verify(response)
                 .setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
     }
+
+    @Test
+    public void fileStreamResource_contentWrittenWithLength()
+            throws IOException {
+        FileStreamResource res = new FileStreamResource(createFile());
+
+        handler.handleRequest(session, request, response, res);
+
+        Mockito.verify(response).setContentLengthLong(10);
+        Mockito.verify(response).setHeader("ETag", res.getETag());
+        Mockito.verify(response).setHeader("Accept-Ranges", "bytes");
+        Assert.assertEquals("0123456789", responseContent.toString("UTF-8"));
+    }
+
+    @Test
+    public void fileStreamResource_rangeRequested_partialContentWritten()
+            throws IOException {
+        FileStreamResource res = new FileStreamResource(createFile());
+        Mockito.when(request.getHeader("Range")).thenReturn("bytes=2-5");
+
+        handler.handleRequest(session, request, response, res);
+
+        Mockito.verify(response).setStatus(206);
+        Mockito.verify(response).setContentLengthLong(4);
+        Mockito.verify(response).setHeader("Content-Range", "bytes 2-5/10");
+        Assert.assertEquals("2345", responseContent.toString("UTF-8"));
+    }
+
+    @Test
+    public void fileStreamResource_etagMatches_notModified()
+            throws IOException {
+        FileStreamResource res = new FileStreamResource(createFile());
+        Mockito.when(request.getHeader("If-None-Match"))
+                .thenReturn(res.getETag());
+
+        handler.handleRequest(session, request, response, res);
+
+        Mockito.verify(response)
+                .setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+        Assert.assertEquals(0, responseContent.size());
+    }
+
+    @Test
+    public void fileStreamResource_sendfileSupported_fileHandedToContainer()
+            throws IOException {
+        File file = createFile();
+        FileStreamResource res = new FileStreamResource(file);
+        Mockito.when(
+                request.getAttribute("org.apache.tomcat.sendfile.support"))
+                .thenReturn(Boolean.TRUE);
+        Mockito.when(request.getHeader("Range")).thenReturn("bytes=4-");
+
+        handler.handleRequest(session, request, response, res);
+
+        Mockito.verify(request).setAttribute(
+                "org.apache.tomcat.sendfile.filename",
+                file.getCanonicalPath());
+        Mockito.verify(request)
+                .setAttribute("org.apache.tomcat.sendfile.start", 4L);
+        Mockito.verify(request)
+                .setAttribute("org.apache.tomcat.sendfile.end", 10L);
+        Mockito.verify(response).setContentLengthLong(6);
+        Assert.assertEquals(0, responseContent.size());
+    }
+
+    @Test
+    public void fileStreamResource_fileMissing_notFound() throws IOException {
+        FileStreamResource res = new FileStreamResource(
+                new File(temporaryFolder.getRoot(), "missing.txt"));
+
+        handler.handleRequest(session, request, response, res);
+
+        Mockito.verify(response).setStatus(HttpServletResponse.SC_NOT_FOUND);
+    }
+
+    private File createFile() throws IOException {
+        File file = temporaryFolder.newFile("data.txt");
+        FileUtils.writeStringToFile(file, "0123456789", UTF_8);
+        return file;
+    }
 }
@@ -17,9 +17,11 @@
 
 package com.vaadin.flow.server.communication;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
 import java.util.Properties;
 
 import org.junit.Assert;
@@ -27,15 +29,21 @@ import org.junit.Before;
 import org.junit.Test;
 import org.mockito.Mockito;
 
+import com.vaadin.flow.component.UI;
 import com.vaadin.flow.component.internal.JavaScriptBootstrapUI;
+import com.vaadin.flow.dom.Element;
+import com.vaadin.flow.internal.BinaryJson;
 import com.vaadin.flow.server.DefaultDeploymentConfiguration;
 import com.vaadin.flow.server.HandlerHelper.RequestType;
+import com.vaadin.flow.server.InitParameters;
+import com.vaadin.flow.server.MockServletServiceSessionSetup;
 import com.vaadin.flow.server.VaadinRequest;
 import com.vaadin.flow.server.VaadinResponse;
 import com.vaadin.flow.server.VaadinService;
 import com.vaadin.flow.server.VaadinServletService;
 import com.vaadin.flow.server.VaadinSession;
 import com.vaadin.flow.shared.ApplicationConstants;
+import com.vaadin.flow.shared.JsonConstants;
 
 import elemental.json.JsonObject;
 import elemental.json.impl.JsonUtil;
@@ -226,6 +234,143 @@ public class UidlRequestHandlerTest {
         assertEquals(expected, actual);
     }
 
+    @Test
+    public void streamingUidl_responseWrittenToOutputStream()
+            throws Exception {
+        MockServletServiceSessionSetup mocks = new MockServletServiceSessionSetup();
+        try {
+            mocks.getDeploymentConfiguration().setApplicationOrSystemProperty(
+                    InitParameters.SERVLET_PARAMETER_STREAMING_UIDL, "true");
+            VaadinSession session = mocks.getSession();
+            session.lock();
+            UI ui = new UI();
+            ui.getInternals().setSession(session);
+            ui.getElement().appendChild(new Element("div"));
+
+            VaadinService service = mock(VaadinService.class);
+            VaadinSession sessionMock = mock(VaadinSession.class);
+            when(sessionMock.getService()).thenReturn(service);
+            when(service.findUI(request)).thenReturn(ui);
+            when(service.getDeploymentConfiguration())
+                    .thenReturn(mocks.getDeploymentConfiguration());
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            when(response.getOutputStream()).thenReturn(out);
+
+            UidlRequestHandler handler = new UidlRequestHandler() {
+                @Override
+                protected ServerRpcHandler createRpcHandler() {
+                    return mock(ServerRpcHandler.class);
+                }
+            };
+            handler.synchronizedHandleRequest(sessionMock, request, response);
+
+            Mockito.verify(response).setContentType(
+                    JsonConstants.JSON_CONTENT_TYPE);
+            Mockito.verify(response, Mockito.never())
+                    .setContentLength(Mockito.anyInt());
+
+            String content = new String(out.toByteArray(),
+                    StandardCharsets.UTF_8);
+            assertTrue(content.startsWith("for(;;);[{"));
+            assertTrue(content.endsWith("}]"));
+            JsonObject uidl = JsonUtil
+                    .parse(content.substring(9, content.length() - 1));
+            assertTrue("Response should contain changes",
+                    uidl.getArray("changes").length() > 0);
+        } finally {
+            mocks.cleanup();
+        }
+    }
+
+    @Test
+    public void binaryRequest_responseEncodedWithBinaryJson()
+            throws Exception {
+        MockServletServiceSessionSetup mocks = new MockServletServiceSessionSetup();
+        try {
+            VaadinSession session = mocks.getSession();
+            session.lock();
+            UI ui = new UI();
+            ui.getInternals().setSession(session);
+            ui.getElement().appendChild(new Element("div"));
+
+            VaadinService service = mock(VaadinService.class);
+            VaadinSession sessionMock = mock(VaadinSession.class);
+            when(sessionMock.getService()).thenReturn(service);
+            when(service.findUI(request)).thenReturn(ui);
+            when(service.getDeploymentConfiguration())
+                    .thenReturn(mocks.getDeploymentConfiguration());
+            when(sessionMock.getConfiguration())
+                    .thenReturn(mocks.getDeploymentConfiguration());
+            mocks.getDeploymentConfiguration().setApplicationOrSystemProperty(
+                    InitParameters.SERVLET_PARAMETER_BINARY_PROTOCOL, "true");
+            when(request.getContentType())
+                    .thenReturn(JsonConstants.BINARY_CONTENT_TYPE);
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            when(response.getOutputStream()).thenReturn(out);
+
+            ServerRpcHandler rpcHandler = mock(ServerRpcHandler.class);
+            UidlRequestHandler handler = new UidlRequestHandler() {
+                @Override
+                protected ServerRpcHandler createRpcHandler() {
+                    return rpcHandler;
+                }
+            };
+            handler.synchronizedHandleRequest(sessionMock, request, response);
+
+            Mockito.verify(rpcHandler).handleBinaryRpc(Mockito.eq(ui),
+                    Mockito.any(), Mockito.eq(request));
+            Mockito.verify(response)
+                    .setContentType(JsonConstants.BINARY_CONTENT_TYPE);
+            Mockito.verify(response).setContentLength(out.size());
+
+            JsonObject uidl = (JsonObject) BinaryJson
+                    .decode(out.toByteArray());
+            assertTrue("Response should contain changes",
+                    uidl.getArray("changes").length() > 0);
+        } finally {
+            mocks.cleanup();
+        }
+    }
+
+    @Test
+    public void binaryRequest_binaryProtocolDisabled_refreshWithoutDecoding()
+            throws Exception {
+        MockServletServiceSessionSetup mocks = new MockServletServiceSessionSetup();
+        try {
+            UI ui = new UI();
+            VaadinService service = mock(VaadinService.class);
+            VaadinSession sessionMock = mock(VaadinSession.class);
+            when(sessionMock.getService()).thenReturn(service);
+            when(sessionMock.getConfiguration())
+                    .thenReturn(mocks.getDeploymentConfiguration());
+            when(service.findUI(request)).thenReturn(ui);
+            when(request.getContentType())
+                    .thenReturn(JsonConstants.BINARY_CONTENT_TYPE);
+
+            ServerRpcHandler rpcHandler = mock(ServerRpcHandler.class);
+            UidlRequestHandler handler = new UidlRequestHandler() {
+                @Override
+                protected ServerRpcHandler createRpcHandler() {
+                    return rpcHandler;
+                }
+            };
+            handler.synchronizedHandleRequest(sessionMock, request, response);
+
+            Mockito.verifyZeroInteractions(rpcHandler);
+            Mockito.verify(request, Mockito.never()).getInputStream();
+            Mockito.verify(response)
+                    .setContentType(JsonConstants.JSON_CONTENT_TYPE);
+            String responseContent = CommunicationUtil
+                    .getStringWhenWriteString(outputStream);
+            assertTrue("Response should make the client refresh",
+                    responseContent.contains("\"appError\""));
+        } finally {
+            mocks.cleanup();
+        }
+    }
+
     private JsonObject generateUidl(boolean withLocation, boolean withHash) {
         JsonObject uidl = JsonUtil.parse(
             "{" +
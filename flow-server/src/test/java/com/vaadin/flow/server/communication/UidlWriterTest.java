@@ -16,6 +16,7 @@
 package com.vaadin.flow.server.communication;
 
 import javax.servlet.http.HttpServletRequest;
+import java.io.StringWriter;
 
 import java.util.ArrayList;
 import java.util.Collections;
@@ -53,6 +54,7 @@ import com.vaadin.flow.shared.ui.LoadMode;
 import elemental.json.Json;
 import elemental.json.JsonArray;
 import elemental.json.JsonObject;
+import elemental.json.impl.JsonUtil;
 
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.core.Is.is;
@@ -283,6 +285,49 @@ public class UidlWriterTest {
                 response.getBoolean(ApplicationConstants.RESYNCHRONIZE_ID));
     }
 
+    @Test
+    public void writeUidl_producesSameResponseAsCreateUidl() throws Exception {
+        UI ui = initializeUIForDependenciesTest(new TestUI());
+        ui.add(new ActualComponent(), new ComponentWithAllDependencyTypes());
+        JsonObject expected = new UidlWriter().createUidl(ui, false);
+        mocks.cleanup();
+
+        ui = initializeUIForDependenciesTest(new TestUI());
+        ui.add(new ActualComponent(), new ComponentWithAllDependencyTypes());
+        StringWriter writer = new StringWriter();
+        new UidlWriter().writeUidl(ui, false, false, writer);
+        JsonObject written = JsonUtil.parse(writer.toString());
+
+        assertTrue("Response should contain changes",
+                expected.hasKey("changes"));
+        assertEquals(
+                Stream.of(expected.keys()).sorted()
+                        .collect(Collectors.toList()),
+                Stream.of(written.keys()).sorted()
+                        .collect(Collectors.toList()));
+        for (String key : expected.keys()) {
+            assertTrue("Unexpected value for " + key,
+                    JsonUtils.jsonEquals(expected.get(key), written.get(key)));
+        }
+    }
+
+    @Test
+    public void writeUidl_noChanges_writesValidJson() throws Exception {
+        UI ui = initializeUIForDependenciesTest(new TestUI());
+        UidlWriter uidlWriter = new UidlWriter();
+        uidlWriter.createUidl(ui, false);
+
+        StringWriter writer = new StringWriter();
+        uidlWriter.writeUidl(ui, false, true, writer);
+        JsonObject response = JsonUtil.parse(writer.toString());
+
+        assertFalse(response.hasKey("changes"));
+        assertTrue("Response resynchronize field is set to true",
+                response.getBoolean(ApplicationConstants.RESYNCHRONIZE_ID));
+        assertEquals(1, (int) response
+                .getNumber(ApplicationConstants.SERVER_SYNC_ID));
+    }
+
     private void assertInlineDependencies(List<JsonObject> inlineDependencies) {
         assertThat("Should have an inline dependency", inlineDependencies,
                 hasSize(1));
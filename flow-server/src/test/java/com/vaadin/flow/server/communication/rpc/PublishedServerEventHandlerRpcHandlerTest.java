@@ -112,6 +112,29 @@ public class PublishedServerEventHandlerRpcHandlerTest {
         }
     }
 
+    public static class ComponentWithShadowingMethod
+            extends ComponentWithCompute {
+
+        private boolean isShadowingInvoked;
+
+        @ClientCallable
+        private void method() {
+            isShadowingInvoked = true;
+        }
+    }
+
+    @Tag(Tag.DIV)
+    public static class ComponentWithOverloadedMethods extends Component {
+
+        @ClientCallable
+        private void overloaded() {
+        }
+
+        @ClientCallable
+        private void overloaded(int value) {
+        }
+    }
+
     public static class CompositeOfComponentWithCompute
             extends Composite<ComponentWithCompute> {
     }
@@ -418,6 +441,59 @@ public class PublishedServerEventHandlerRpcHandlerTest {
                 component.varArg);
     }
 
+    @Test
+    public void methodInSubclass_superClassMethodWithSameNameNotInvoked() {
+        ComponentWithShadowingMethod component = new ComponentWithShadowingMethod();
+        PublishedServerEventHandlerRpcHandler.invokeMethod(component,
+                component.getClass(), "method", Json.createArray(), -1);
+
+        Assert.assertTrue(component.isShadowingInvoked);
+        Assert.assertFalse(component.isInvoked);
+
+        // The superclass still resolves its own method
+        ComponentWithCompute superComponent = new ComponentWithCompute();
+        PublishedServerEventHandlerRpcHandler.invokeMethod(superComponent,
+                superComponent.getClass(), "method", Json.createArray(), -1);
+        Assert.assertTrue(superComponent.isInvoked);
+    }
+
+    @Test
+    public void methodIsInvokedRepeatedly_eachCallDecodedAndReturned() {
+        ComponentWithCompute component = new ComponentWithCompute();
+        UI ui = new UI();
+        ui.getInternals().setSession(session);
+        ui.add(component);
+
+        // Get rid of attach invocations
+        ui.getInternals().getStateTree().runExecutionsBeforeClientResponse();
+        ui.getInternals().dumpPendingJavaScriptInvocations();
+
+        for (int i = 0; i < 3; i++) {
+            JsonArray args = Json.createArray();
+            args.set(0, i * i);
+            PublishedServerEventHandlerRpcHandler.invokeMethod(component,
+                    component.getClass(), "compute", args, i);
+        }
+
+        ui.getInternals().getStateTree().runExecutionsBeforeClientResponse();
+        List<PendingJavaScriptInvocation> pendingJavaScriptInvocations = ui
+                .getInternals().dumpPendingJavaScriptInvocations();
+        Assert.assertEquals(3, pendingJavaScriptInvocations.size());
+        for (int i = 0; i < 3; i++) {
+            List<Object> parameters = pendingJavaScriptInvocations.get(i)
+                    .getInvocation().getParameters();
+            Assert.assertEquals(Integer.valueOf(i), parameters.get(0));
+            Assert.assertEquals(Integer.valueOf(i), parameters.get(1));
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void overloadedMethods_ambiguousMethodException() {
+        ComponentWithOverloadedMethods component = new ComponentWithOverloadedMethods();
+        PublishedServerEventHandlerRpcHandler.invokeMethod(component,
+                component.getClass(), "overloaded", Json.createArray(), -1);
+    }
+
     @Test(expected = IllegalStateException.class)
     public void noClientCallableMethodException() {
         ComponentWithNoClientCallableMethod component = new ComponentWithNoClientCallableMethod();
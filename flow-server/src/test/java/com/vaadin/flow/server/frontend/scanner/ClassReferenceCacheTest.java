@@ -0,0 +1,111 @@
+/*
+ * Copyright 2000-2020 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.server.frontend.scanner;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Set;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.vaadin.flow.server.frontend.scanner.samples.RouteComponentWithMethodReference;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+public class ClassReferenceCacheTest {
+
+    private static final String CLASS_NAME = RouteComponentWithMethodReference.class
+            .getName();
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private File cacheFile;
+    private byte[] byteCode;
+
+    @Before
+    public void setUp() throws IOException {
+        cacheFile = new File(temporaryFolder.getRoot(), "cache.json");
+        try (InputStream is = getClass().getClassLoader().getResourceAsStream(
+                CLASS_NAME.replace('.', '/') + ".class")) {
+            byteCode = IOUtils.toByteArray(is);
+        }
+    }
+
+    @Test
+    public void resolveReferences_methodReferencesIncluded() {
+        ClassReferenceCache cache = new ClassReferenceCache();
+        Assert.assertNull(cache.getReferences(CLASS_NAME));
+
+        Set<String> references = cache.resolveReferences(CLASS_NAME,
+                byteCode);
+
+        Assert.assertTrue(references.contains(
+                RouteComponentWithMethodReference.MyComponent.class
+                        .getName()));
+        Assert.assertSame(references, cache.getReferences(CLASS_NAME));
+    }
+
+    @Test
+    public void storedCache_loaded_sameReferences() {
+        ClassReferenceCache cache = new ClassReferenceCache(cacheFile);
+        Set<String> references = cache.resolveReferences(CLASS_NAME,
+                byteCode);
+        cache.store();
+
+        ClassReferenceCache loaded = new ClassReferenceCache(cacheFile);
+        Assert.assertNull(loaded.getReferences(CLASS_NAME));
+        Assert.assertEquals(references,
+                loaded.resolveReferences(CLASS_NAME, byteCode));
+    }
+
+    @Test
+    public void storedCache_byteCodeChanged_referencesVisitedAgain()
+            throws IOException {
+        FileUtils.writeStringToFile(cacheFile, "{\"" + CLASS_NAME
+                + "\":{\"hash\":\"outdated\",\"references\":[\"foo.Bar\"]}}",
+                UTF_8);
+
+        ClassReferenceCache cache = new ClassReferenceCache(cacheFile);
+        Set<String> references = cache.resolveReferences(CLASS_NAME,
+                byteCode);
+
+        Assert.assertFalse(references.contains("foo.Bar"));
+        Assert.assertTrue(references.contains(
+                RouteComponentWithMethodReference.MyComponent.class
+                        .getName()));
+    }
+
+    @Test
+    public void unreadableCacheFile_emptyCache() throws IOException {
+        FileUtils.writeStringToFile(cacheFile, "not json", UTF_8);
+
+        ClassReferenceCache cache = new ClassReferenceCache(cacheFile);
+
+        Assert.assertFalse(cache.resolveReferences(CLASS_NAME, byteCode)
+                .isEmpty());
+        cache.store();
+        Assert.assertNotEquals("not json",
+                FileUtils.readFileToString(cacheFile, UTF_8));
+    }
+}
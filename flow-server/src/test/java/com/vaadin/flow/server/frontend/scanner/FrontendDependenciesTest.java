@@ -15,6 +15,8 @@
  */
 package com.vaadin.flow.server.frontend.scanner;
 
+import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
@@ -26,7 +28,9 @@ import java.util.stream.Stream;
 
 import org.junit.Assert;
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.mockito.Mockito;
 
 import com.vaadin.flow.component.Component;
@@ -52,6 +56,9 @@ import static org.hamcrest.CoreMatchers.is;
 
 public class FrontendDependenciesTest {
 
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
     private ClassFinder classFinder = Mockito.mock(ClassFinder.class);
 
     @Before
@@ -259,6 +266,23 @@ public class FrontendDependenciesTest {
         Assert.assertTrue(modules.contains("baz.js"));
     }
 
+    @Test
+    public void storedClassReferenceCache_sameModulesScanned()
+            throws IOException {
+        Mockito.when(classFinder.getAnnotatedClasses(Route.class)).thenReturn(
+                Collections.singleton(RouteComponentWithMethodReference.class));
+        File cacheFile = new File(temporaryFolder.getRoot(), "cache.json");
+
+        List<String> modules = new FrontendDependencies(classFinder, false,
+                new ClassReferenceCache(cacheFile)).getModules();
+        Assert.assertTrue(cacheFile.exists());
+
+        FrontendDependencies dependencies = new FrontendDependencies(
+                classFinder, false, new ClassReferenceCache(cacheFile));
+        Assert.assertEquals(modules, dependencies.getModules());
+        Assert.assertEquals(3, modules.size());
+    }
+
     @Test
     public void defaultThemeIsLoadedForExporters() throws Exception {
         FakeLumo.class.newInstance();